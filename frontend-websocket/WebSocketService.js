@@ -8,6 +8,11 @@
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 
+// Secuencias fuera de orden que se recuerdan como máximo
+const MAX_SEEN_SEQS = 1000;
+// Espera antes de pedir replay por un hueco (los desordenes normales se cierran antes)
+const GAP_REPLAY_DELAY_MS = 2000;
+
 class WebSocketService {
     constructor() {
         this.client = null;
@@ -20,6 +25,10 @@ class WebSocketService {
         this.token = null;
         this.userId = null;
         this.userRole = null;
+        // Notificaciones personales: pueden llegar desordenadas (pool de salida, replay)
+        this.lastSeq = 0; // Todas las secuencias <= lastSeq ya se recibieron
+        this.seenSeqs = new Set(); // Secuencias > lastSeq ya recibidas (hay un hueco antes)
+        this.gapTimer = null;
     }
 
     /**
@@ -118,12 +127,17 @@ class WebSocketService {
         }
 
         try {
-            // Canal personal del usuario
-            this.subscribe(`/topic/user/${this.userId}`, (message) => {
+            // Canal personal del usuario (el servidor lo resuelve por el usuario del token)
+            this.subscribe('/user/queue/notifications', (message) => {
+                // Tras un replay pueden llegar duplicados: se descartan por secuencia
+                if (message && message.secuencia && !this.acceptSequence(message.secuencia)) return;
                 console.log('📬 Notificación personal:', message);
                 this.notifyHandlers('user', message);
             });
 
+            // Pedir lo que llegó mientras estábamos desconectados (desde la última contigua)
+            this.requestReplay();
+
             // Canal global (todos los usuarios)
             this.subscribe('/topic/global', (message) => {
                 console.log('📢 Notificación global:', message);
@@ -152,9 +166,50 @@ class WebSocketService {
         }
     }
 
+    /**
+     * Registra una secuencia personal recibida.
+     * Se guarda la última contigua y un conjunto acotado de las recibidas por encima de un
+     * hueco; así una notificación que llega tarde (desordenada o por replay) no se descarta.
+     * Si el hueco no se cierra en GAP_REPLAY_DELAY_MS se pide un replay.
+     * @param {number} seq - Secuencia de la notificación
+     * @returns {boolean} true si es nueva
+     */
+    acceptSequence(seq) {
+        if (seq <= this.lastSeq || this.seenSeqs.has(seq)) return false;
+        this.seenSeqs.add(seq);
+        while (this.seenSeqs.delete(this.lastSeq + 1)) {
+            this.lastSeq++;
+        }
+        if (this.seenSeqs.size > MAX_SEEN_SEQS) {
+            // Hueco que el replay ya no va a cerrar: se da por perdido
+            this.lastSeq = Math.min(...this.seenSeqs);
+            this.seenSeqs.delete(this.lastSeq);
+            while (this.seenSeqs.delete(this.lastSeq + 1)) {
+                this.lastSeq++;
+            }
+        }
+        if (this.seenSeqs.size > 0 && !this.gapTimer) {
+            this.gapTimer = setTimeout(() => {
+                this.gapTimer = null;
+                if (this.seenSeqs.size > 0) {
+                    console.warn(`⚠️ Hueco de secuencia tras ${this.lastSeq}, pidiendo replay`);
+                    this.requestReplay();
+                }
+            }, GAP_REPLAY_DELAY_MS);
+        }
+        return true;
+    }
+
+    /**
+     * Pide al servidor las notificaciones posteriores a la última secuencia contigua
+     */
+    requestReplay() {
+        this.send(`/app/notifications/replay?since=${this.lastSeq}`, {});
+    }
+
     /**
      * Suscribirse a un canal específico
-     * @param {string} destination - Canal (ej: /topic/user/1)
+     * @param {string} destination - Canal (ej: /user/queue/notifications)
      * @param {function} callback - Función a ejecutar cuando llega un mensaje
      * @returns {object} Subscription object
      */
@@ -168,7 +223,12 @@ class WebSocketService {
             const subscription = this.client.subscribe(destination, (message) => {
                 try {
                     const notification = JSON.parse(message.body);
-                    callback(notification);
+                    // Las ráfagas llegan agrupadas en un array; React agrupa los renders del mismo tick
+                    if (Array.isArray(notification)) {
+                        notification.forEach(callback);
+                    } else {
+                        callback(notification);
+                    }
                 } catch (error) {
                     console.error('❌ Error parseando mensaje:', error);
                     callback(message.body);
@@ -294,6 +354,10 @@ class WebSocketService {
             this.token = null;
             this.userId = null;
             this.userRole = null;
+            this.lastSeq = 0;
+            this.seenSeqs.clear();
+            clearTimeout(this.gapTimer);
+            this.gapTimer = null;
             console.log('✅ WebSocket desconectado correctamente');
         }
     }
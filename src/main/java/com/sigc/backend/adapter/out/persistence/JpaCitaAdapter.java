@@ -8,6 +8,9 @@ import com.sigc.backend.repository.DoctorRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -76,12 +79,55 @@ public class JpaCitaAdapter implements ICitaRepository {
         return citaRepository.count();
     }
 
+    @Override
+    public List<Cita> findUpcoming(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            return List.of();
+        }
+        List<Cita> result = new ArrayList<>();
+        for (CitaRepository.CitaProxima p : citaRepository.findActivasEntre(desde.toLocalDate(), hasta.toLocalDate())) {
+            Cita d = toDomain(p);
+            if (d == null || d.getFecha().isBefore(desde) || !d.getFecha().isBefore(hasta)) continue;
+            result.add(d);
+        }
+        result.sort(Comparator.comparing(Cita::getFecha));
+        return result;
+    }
+
+    @Override
+    public List<Cita> findActiveByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Cita> result = new ArrayList<>(ids.size());
+        for (CitaRepository.CitaProxima p : citaRepository.findActivasPorId(ids)) {
+            Cita d = toDomain(p);
+            if (d != null) {
+                result.add(d);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<Cita> findAll() {
         return citaRepository.findAll().stream().map(this::toDomain).collect(Collectors.toList());
     }
 
     // --- Mapping helpers ---
+    private static Cita toDomain(CitaRepository.CitaProxima p) {
+        if (p.getFechaCita() == null) return null;
+        Cita d = new Cita();
+        d.setId(p.getIdCita());
+        d.setUsuarioId(p.getIdUsuario());
+        d.setDoctorId(p.getIdDoctor());
+        d.setFecha(p.getHoraCita() != null
+                ? LocalDateTime.of(p.getFechaCita(), p.getHoraCita())
+                : p.getFechaCita().atStartOfDay());
+        d.setEstado(p.getEstado());
+        return d;
+    }
+
     private Cita toDomain(com.sigc.backend.model.Cita e) {
         if (e == null) return null;
         Cita d = new Cita();
@@ -6,10 +6,13 @@ import com.sigc.backend.domain.port.IDoctorRepository;
 import com.sigc.backend.repository.DoctorRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adaptador JPA que implementa IDoctorRepository
@@ -67,4 +70,12 @@ public class JpaDoctorAdapter implements IDoctorRepository {
     public boolean existsById(Long id) {
         return id != null && jpaRepository.existsById(id);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachImagen(Consumer<String> consumer) {
+        try (Stream<String> imagenes = jpaRepository.streamImagenes()) {
+            imagenes.forEach(consumer);
+        }
+    }
 }
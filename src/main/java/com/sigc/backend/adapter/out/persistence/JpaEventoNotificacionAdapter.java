@@ -0,0 +1,64 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.EventoNotificacion;
+import com.sigc.backend.domain.port.IEventoNotificacionRepository;
+import com.sigc.backend.repository.EventoNotificacionRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class JpaEventoNotificacionAdapter implements IEventoNotificacionRepository {
+
+    private static final String INSERT_SQL = "insert into notificaciones_eventos "
+            + "(nodo, canal, destino, payload, creado) values (?, ?, ?, ?, ?)";
+
+    private final EventoNotificacionRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public JpaEventoNotificacionAdapter(EventoNotificacionRepository repository, JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(List<EventoNotificacion> eventos) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, eventos, eventos.size(), (ps, e) -> {
+            ps.setString(1, e.nodo());
+            ps.setString(2, e.canal());
+            ps.setString(3, e.destino());
+            ps.setString(4, e.payload());
+            ps.setTimestamp(5, Timestamp.valueOf(e.creado()));
+        });
+    }
+
+    @Override
+    public List<EventoNotificacion> findAfter(long desde, int limite) {
+        return repository.findByIdEventoGreaterThanOrderByIdEventoAsc(desde, PageRequest.of(0, limite))
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public long findMaxId() {
+        Long max = repository.findMaxId();
+        return max != null ? max : 0L;
+    }
+
+    @Override
+    public int deleteOlderThan(LocalDateTime limite) {
+        return repository.deleteByCreadoBefore(limite);
+    }
+
+    private EventoNotificacion toDomain(com.sigc.backend.model.EventoNotificacion entity) {
+        return new EventoNotificacion(entity.getIdEvento(), entity.getNodo(), entity.getCanal(),
+                entity.getDestino(), entity.getPayload(), entity.getCreado());
+    }
+}
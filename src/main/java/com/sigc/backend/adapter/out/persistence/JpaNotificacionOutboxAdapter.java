@@ -0,0 +1,65 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.domain.port.INotificacionOutboxRepository;
+import com.sigc.backend.repository.NotificacionOutboxRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class JpaNotificacionOutboxAdapter implements INotificacionOutboxRepository {
+
+    private static final String INSERT_SQL = "insert into notificaciones_outbox "
+            + "(id_usuario, secuencia, tipo, payload, creado) values (?, ?, ?, ?, ?)";
+
+    private final NotificacionOutboxRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public JpaNotificacionOutboxAdapter(NotificacionOutboxRepository repository, JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long findMaxSecuencia(Long idUsuario) {
+        Long max = repository.findMaxSecuencia(idUsuario);
+        return max != null ? max : 0L;
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(List<NotificacionOutbox> entradas) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entradas, entradas.size(), (ps, n) -> {
+            ps.setLong(1, n.idUsuario());
+            ps.setLong(2, n.secuencia());
+            ps.setString(3, n.tipo());
+            ps.setString(4, n.payload());
+            ps.setTimestamp(5, Timestamp.valueOf(n.creado()));
+        });
+    }
+
+    @Override
+    public List<NotificacionOutbox> findSince(Long idUsuario, long desde, int limite) {
+        return repository.findByIdUsuarioAndSecuenciaGreaterThanOrderBySecuenciaAsc(idUsuario, desde,
+                        PageRequest.of(0, limite))
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public int deleteOlderThan(LocalDateTime limite) {
+        return repository.deleteByCreadoBefore(limite);
+    }
+
+    private NotificacionOutbox toDomain(com.sigc.backend.model.NotificacionOutbox entity) {
+        return new NotificacionOutbox(entity.getIdUsuario(), entity.getSecuencia(), entity.getTipo(),
+                entity.getPayload(), entity.getCreado());
+    }
+}
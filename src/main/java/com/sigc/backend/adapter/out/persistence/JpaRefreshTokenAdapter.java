@@ -0,0 +1,66 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.RefreshToken;
+import com.sigc.backend.domain.port.IRefreshTokenRepository;
+import com.sigc.backend.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Adaptador JPA que implementa IRefreshTokenRepository
+ */
+@Repository
+@RequiredArgsConstructor
+public class JpaRefreshTokenAdapter implements IRefreshTokenRepository {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        com.sigc.backend.model.RefreshToken entity = new com.sigc.backend.model.RefreshToken();
+        entity.setIdRefreshToken(token.getId());
+        entity.setIdUsuario(token.getUsuarioId());
+        entity.setTokenHash(token.getTokenHash());
+        entity.setExpiraEn(token.getExpiresAt());
+        entity.setRevocado(token.isRevoked());
+        return toDomain(refreshTokenRepository.save(entity));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash).map(this::toDomain);
+    }
+
+    @Override
+    @Transactional
+    public boolean revoke(Long id) {
+        return id != null && refreshTokenRepository.revokeIfActive(id) == 1;
+    }
+
+    @Override
+    @Transactional
+    public int revokeAllForUser(Long usuarioId) {
+        return usuarioId == null ? 0 : refreshTokenRepository.revokeAllByUsuario(usuarioId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(LocalDateTime before) {
+        return refreshTokenRepository.deleteExpiredBefore(before);
+    }
+
+    private RefreshToken toDomain(com.sigc.backend.model.RefreshToken e) {
+        return RefreshToken.builder()
+                .id(e.getIdRefreshToken())
+                .usuarioId(e.getIdUsuario())
+                .tokenHash(e.getTokenHash())
+                .expiresAt(e.getExpiraEn())
+                .createdAt(e.getFechaCreacion())
+                .revoked(e.isRevocado())
+                .build();
+    }
+}
@@ -1,21 +1,43 @@
 package com.sigc.backend.adapter.out.persistence;
 
 import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.Pagina;
+import com.sigc.backend.domain.model.UsuarioPerfil;
+import com.sigc.backend.domain.model.UsuarioSummary;
 import com.sigc.backend.domain.port.IUsuarioRepository;
 import com.sigc.backend.repository.UsuarioRepository;
+import com.sigc.backend.shared.value.Email;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Repository
 public class JpaUsuarioAdapter implements IUsuarioRepository {
 
+    private static final String INSERT_SQL = "insert into usuarios "
+            + "(nombre, email, email_lower, password, dni, telefono, rol, activo, fecha_registro) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int JDBC_BATCH_SIZE = 200;
+
     private final UsuarioRepository usuarioRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public JpaUsuarioAdapter(UsuarioRepository usuarioRepository) {
+    public JpaUsuarioAdapter(UsuarioRepository usuarioRepository, JdbcTemplate jdbcTemplate) {
         this.usuarioRepository = usuarioRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -28,12 +50,15 @@ public class JpaUsuarioAdapter implements IUsuarioRepository {
 
     @Override
     public Optional<Usuario> findByEmail(String email) {
-        return Optional.ofNullable(usuarioRepository.findByEmail(email)).map(this::toDomain);
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usuarioRepository.findByEmailLower(Email.canonicalize(email))).map(this::toDomain);
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return usuarioRepository.findByEmail(email) != null;
+        return email != null && usuarioRepository.existsEmailLower(Email.canonicalize(email)) != null;
     }
 
     @Override
@@ -63,6 +88,84 @@ public class JpaUsuarioAdapter implements IUsuarioRepository {
         }
     }
 
+    @Override
+    public Pagina<UsuarioSummary> findSummaries(String rol, Boolean activo, int pagina, int tamano) {
+        Pageable pageable = PageRequest.of(pagina, tamano, Sort.by("idUsuario"));
+        Page<UsuarioSummary> page;
+        if (rol != null && activo != null) {
+            page = usuarioRepository.findSummariesByRolAndActivo(rol, activo, pageable);
+        } else if (rol != null) {
+            page = usuarioRepository.findSummariesByRol(rol, pageable);
+        } else if (activo != null) {
+            page = usuarioRepository.findSummariesByActivo(activo, pageable);
+        } else {
+            page = usuarioRepository.findSummaries(pageable);
+        }
+        return new Pagina<>(page.getContent(), pagina, tamano, page.getTotalElements());
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(usuarioRepository.findExistingEmailLowers(emails));
+    }
+
+    /**
+     * Inserta con JDBC en lotes de JDBC_BATCH_SIZE sentencias, en una sola transacción,
+     * sin pasar por el contexto de persistencia de JPA.
+     */
+    @Override
+    @Transactional
+    public int insertAll(List<Usuario> usuarios) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, usuarios, JDBC_BATCH_SIZE, (ps, u) -> {
+            ps.setString(1, u.getNombre());
+            ps.setString(2, u.getEmail());
+            ps.setString(3, Email.canonicalize(u.getEmail()));
+            ps.setString(4, u.getPassword());
+            ps.setString(5, u.getDni());
+            ps.setString(6, u.getTelefono());
+            ps.setString(7, u.getRole());
+            ps.setBoolean(8, u.getActivo() == null || u.getActivo());
+            ps.setTimestamp(9, ahora);
+        });
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int n : batch) {
+                // SUCCESS_NO_INFO (-2): el driver no informa filas, pero la sentencia se ejecutó
+                total += n >= 0 ? n : 1;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public Optional<UsuarioPerfil> findPerfilById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return usuarioRepository.findPerfilById(id);
+    }
+
+    @Override
+    public long getTokenVersion(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        return usuarioRepository.findTokenVersionById(id).orElse(-1L);
+    }
+
+    @Override
+    @Transactional
+    public long incrementTokenVersion(Long id) {
+        if (id == null || usuarioRepository.incrementTokenVersion(id) == 0) {
+            return -1;
+        }
+        return usuarioRepository.findTokenVersionById(id).orElse(-1L);
+    }
+
     // --- Mapping helpers ---
     private Usuario toDomain(com.sigc.backend.model.Usuario e) {
         if (e == null) return null;
@@ -0,0 +1,240 @@
+package com.sigc.backend.adapter.out.persistence.file;
+
+import com.sigc.backend.domain.model.StoredFile;
+import com.sigc.backend.domain.port.IFileStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Adaptador de almacenamiento en el sistema de archivos local que implementa IFileStorage
+ *
+ * - Nombres = SHA-256 del contenido + extensión (URLs inmutables, deduplicación)
+ * - Reparto en subdirectorios por prefijo del hash: {base}/{categoria}/ab/cd/abcd….jpg,
+ *   para que ningún directorio crezca a cientos de miles de entradas
+ * - Escritura en streaming a un temporal y movimiento atómico al destino
+ * - Caché LRU fuera del heap para archivos pequeños y frecuentes
+ *
+ * Los archivos anteriores (nombres sin hash, directorio plano) se siguen encontrando.
+ */
+@Component
+@Slf4j
+public class LocalFileStorageAdapter implements IFileStorage {
+
+    private static final Pattern CATEGORY = Pattern.compile("^[a-z]+$");
+    private static final Pattern FILE_NAME = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9._-]*$");
+    private static final Pattern HEX_PREFIX = Pattern.compile("^[0-9a-f]{4}.*");
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Path baseDir;
+    private final long hotFileMaxBytes;
+    private final OffHeapLruCache hotCache;
+
+    public LocalFileStorageAdapter(@Value("${app.upload.dir:uploads/}") String uploadDir,
+                                   @Value("${app.storage.hot-cache-bytes:33554432}") long hotCacheBytes,
+                                   @Value("${app.storage.hot-file-max-bytes:262144}") long hotFileMaxBytes) {
+        this.baseDir = Paths.get(uploadDir == null ? "uploads/" : uploadDir).toAbsolutePath().normalize();
+        this.hotFileMaxBytes = hotFileMaxBytes;
+        this.hotCache = new OffHeapLruCache(hotCacheBytes);
+        for (String category : new String[]{CATEGORIA_DOCTORES, CATEGORIA_ESPECIALIDADES}) {
+            try {
+                Files.createDirectories(baseDir.resolve(category));
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo crear el directorio de uploads " + category, e);
+            }
+        }
+        log.info("✅ Almacenamiento de archivos en {} (caché caliente: {} bytes)", baseDir, hotCacheBytes);
+    }
+
+    @Override
+    public String store(String category, InputStream content, String extension) throws IOException {
+        Path categoryDir = categoryDir(category);
+        Files.createDirectories(categoryDir);
+        Path tmp = Files.createTempFile(categoryDir, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String fileName = HexFormat.of().formatHex(digest.digest()) + "." + extension.toLowerCase();
+            Path target = locate(category, fileName);
+            if (Files.exists(target)) {
+                return fileName;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                try {
+                    Files.move(tmp, target);
+                } catch (FileAlreadyExistsException carrera) {
+                    // Otra subida idéntica ganó la carrera: el contenido es el mismo
+                }
+            } catch (FileAlreadyExistsException e) {
+                // Otra subida idéntica ganó la carrera: el contenido es el mismo
+            }
+            return fileName;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<StoredFile> find(String category, String fileName) {
+        if (!isValid(category, fileName)) {
+            return Optional.empty();
+        }
+        String key = category + "/" + fileName;
+        OffHeapLruCache.Entry hot = hotCache.get(key);
+        Path sharded = locate(category, fileName);
+        if (hot != null) {
+            return Optional.of(new StoredFile(fileName, sharded, hot.buffer.capacity(), hot.lastModified,
+                    hot.buffer.asReadOnlyBuffer()));
+        }
+
+        Path path = sharded;
+        BasicFileAttributes attrs = attributes(path);
+        if (attrs == null) {
+            // Archivos anteriores al reparto en subdirectorios
+            path = categoryDir(category).resolve(fileName);
+            attrs = attributes(path);
+        }
+        if (attrs == null || !attrs.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        long size = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        ByteBuffer content = null;
+        if (size > 0 && size <= hotFileMaxBytes) {
+            content = load(path, (int) size);
+            if (content != null) {
+                hotCache.put(key, content, lastModified);
+                content = content.asReadOnlyBuffer();
+            }
+        }
+        return Optional.of(new StoredFile(fileName, path, size, lastModified, content));
+    }
+
+    @Override
+    public Path locate(String category, String fileName) {
+        if (!isValid(category, fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo inválido: " + fileName);
+        }
+        Path dir = categoryDir(category);
+        if (HEX_PREFIX.matcher(fileName).matches()) {
+            dir = dir.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4));
+        }
+        return dir.resolve(fileName);
+    }
+
+    @Override
+    public boolean delete(String category, String fileName) throws IOException {
+        if (!isValid(category, fileName)) {
+            return false;
+        }
+        hotCache.remove(category + "/" + fileName);
+        boolean deleted = Files.deleteIfExists(locate(category, fileName));
+        return Files.deleteIfExists(categoryDir(category).resolve(fileName)) || deleted;
+    }
+
+    @Override
+    public Stream<StoredFile> list(String category) throws IOException {
+        Path dir = categoryDir(category);
+        if (!Files.isDirectory(dir)) {
+            return Stream.empty();
+        }
+        return Files.walk(dir)
+                .filter(path -> !path.getFileName().toString().startsWith("."))
+                .map(path -> {
+                    BasicFileAttributes attrs = attributes(path);
+                    if (attrs == null || !attrs.isRegularFile()) {
+                        return null;
+                    }
+                    return new StoredFile(path.getFileName().toString(), path, attrs.size(),
+                            attrs.lastModifiedTime().toMillis(), null);
+                })
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public String publicUrl(String category, String fileName) {
+        return "/uploads/" + category + "/" + fileName;
+    }
+
+    long hotCacheUsedBytes() {
+        return hotCache.usedBytes();
+    }
+
+    private Path categoryDir(String category) {
+        if (category == null || !CATEGORY.matcher(category).matches()) {
+            throw new IllegalArgumentException("Categoría inválida: " + category);
+        }
+        return baseDir.resolve(category);
+    }
+
+    private static boolean isValid(String category, String fileName) {
+        return category != null && CATEGORY.matcher(category).matches()
+                && fileName != null && FILE_NAME.matcher(fileName).matches();
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer load(Path path, int size) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo cargar {} en caché: {}", path.getFileName(), e.getMessage());
+            return null;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.sigc.backend.adapter.out.persistence.file;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU acotada por bytes con el contenido fuera del heap (ByteBuffer directo).
+ *
+ * Mantener las imágenes pequeñas fuera del heap evita que el GC tenga que copiarlas
+ * y permite escribirlas al socket sin copia intermedia. La memoria de un buffer
+ * expulsado se libera cuando el GC recoge el objeto ByteBuffer.
+ */
+class OffHeapLruCache {
+
+    static final class Entry {
+        final ByteBuffer buffer;
+        final long lastModified;
+
+        Entry(ByteBuffer buffer, long lastModified) {
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    OffHeapLruCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Inserta el buffer (ya cargado, posición 0) expulsando los menos usados si hace falta.
+     */
+    synchronized void put(String key, ByteBuffer buffer, long lastModified) {
+        int size = buffer.capacity();
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(buffer, lastModified));
+        if (previous != null) {
+            usedBytes -= previous.buffer.capacity();
+        }
+        usedBytes += size;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            usedBytes -= eldest.getValue().buffer.capacity();
+            it.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            usedBytes -= removed.buffer.capacity();
+        }
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
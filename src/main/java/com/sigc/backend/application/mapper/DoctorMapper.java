@@ -20,6 +20,9 @@ public class DoctorMapper {
         return Doctor.builder()
                 .idDoctor(jpaEntity.getIdDoctor())
                 .nombre(jpaEntity.getNombre())
+                .apellido(jpaEntity.getApellido())
+                .telefono(jpaEntity.getTelefono())
+                .correo(jpaEntity.getCorreo())
                 .especialidad(jpaEntity.getEspecialidad())
                 .cupoPacientes(jpaEntity.getCupoPacientes())
                 .imagen(jpaEntity.getImagen())
@@ -39,6 +42,9 @@ public class DoctorMapper {
             jpaEntity.setIdDoctor(domain.getIdDoctor());
         }
         jpaEntity.setNombre(domain.getNombre());
+        jpaEntity.setApellido(domain.getApellido());
+        jpaEntity.setTelefono(domain.getTelefono());
+        jpaEntity.setCorreo(domain.getCorreo());
         jpaEntity.setEspecialidad(domain.getEspecialidad());
         jpaEntity.setCupoPacientes(domain.getCupoPacientes());
         jpaEntity.setImagen(domain.getImagen());
@@ -0,0 +1,287 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Cita;
+import com.sigc.backend.domain.port.ICitaRepository;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.service.NotificationService;
+import com.sigc.backend.shared.collection.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recordatorios de citas para el paciente, app.reminders.lead-minutes antes de la cita.
+ *
+ * - Las citas próximas se cargan por ventanas con una consulta por rango de fecha
+ *   (ICitaRepository.findUpcoming, índice ix_citas_fecha_hora). La ventana cubre
+ *   app.reminders.window-hours y se recarga desde el instante actual cada
+ *   app.reminders.refill-minutes, así la tabla citas se consulta una vez por bloque y no
+ *   en cada tick, y se recogen las citas creadas o movidas desde otros nodos
+ * - Cada recordatorio va a una rueda de temporizadores jerárquica (alta y cancelación O(1))
+ * - CitaController avisa al crear, cancelar o eliminar una cita (onCitaCreada / onCitaCancelada)
+ * - En cada tick se avanza la rueda y se envían como mucho app.reminders.batch-size
+ *   recordatorios por NotificationService.notifyUser; el resto sale en los siguientes ticks
+ * - Antes de enviar, el lote se comprueba contra la BD con una sola consulta
+ *   (ICitaRepository.findActiveByIds): las citas canceladas o eliminadas en otro nodo se
+ *   omiten y las que cambiaron de fecha se reprograman
+ *
+ * Al arrancar no se reenvían los recordatorios cuya hora ya pasó. Está desactivado por
+ * defecto; con varios nodos debe activarse (app.reminders.enabled) en uno solo.
+ */
+@Service
+@Slf4j
+public class AppointmentReminderService {
+
+    public static final String TIPO_RECORDATORIO = "CITA_RECORDATORIO";
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy 'a las' HH:mm");
+
+    private final ICitaRepository citaRepository;
+    private final NotificationService notificationService;
+    private final boolean enabled;
+    private final Duration lead;
+    private final Duration window;
+    private final Duration refill;
+    private final int batchSize;
+
+    private final HierarchicalTimingWheel<Recordatorio> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Entry<Recordatorio>> porCita = new HashMap<>();
+    private final ArrayDeque<Recordatorio> vencidos = new ArrayDeque<>();
+    /** Fecha de cita hasta la que ya se leyó la BD (null = aún no se ha cargado nada). */
+    private LocalDateTime cargadoHasta;
+
+    private final LongAdder programados = new LongAdder();
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder cancelados = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+
+    public AppointmentReminderService(ICitaRepository citaRepository,
+                                      NotificationService notificationService,
+                                      @Value("${app.reminders.enabled:false}") boolean enabled,
+                                      @Value("${app.reminders.lead-minutes:60}") long leadMinutes,
+                                      @Value("${app.reminders.window-hours:24}") long windowHours,
+                                      @Value("${app.reminders.refill-minutes:60}") long refillMinutes,
+                                      @Value("${app.reminders.tick-ms:1000}") long tickMs,
+                                      @Value("${app.reminders.batch-size:200}") int batchSize) {
+        this.citaRepository = citaRepository;
+        this.notificationService = notificationService;
+        this.enabled = enabled;
+        this.lead = Duration.ofMinutes(Math.max(0, leadMinutes));
+        this.window = Duration.ofHours(Math.max(1, windowHours));
+        this.refill = Duration.ofMinutes(Math.max(1, refillMinutes));
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new HierarchicalTimingWheel<>(Math.max(1, tickMs), WHEEL_SIZE, WHEEL_LEVELS,
+                toMillis(LocalDateTime.now()));
+    }
+
+    /**
+     * Recordatorio programado de una cita.
+     */
+    record Recordatorio(long idCita, long idUsuario, Long idDoctor, LocalDateTime fecha) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.tick-ms:1000}")
+    public void tick() {
+        if (enabled) {
+            tick(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Recarga la ventana si toca, avanza la rueda y envía un lote de recordatorios vencidos.
+     *
+     * @return Recordatorios enviados en este tick
+     */
+    int tick(LocalDateTime now) {
+        List<Recordatorio> lote = new ArrayList<>();
+        synchronized (this) {
+            LocalDateTime objetivo = now.plus(lead).plus(window);
+            if (cargadoHasta == null || cargadoHasta.isBefore(objetivo)) {
+                // Se recarga desde ahora: programar() sustituye por cita, así que repetir es inocuo
+                LocalDateTime hasta = objetivo.plus(refill);
+                cargar(now, hasta, now);
+                cargadoHasta = hasta;
+            }
+            wheel.advance(toMillis(now), r -> {
+                porCita.remove(r.idCita());
+                vencidos.addLast(r);
+            });
+            while (lote.size() < batchSize && !vencidos.isEmpty()) {
+                lote.add(vencidos.pollFirst());
+            }
+        }
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Cita> vigentes = vigentes(lote);
+        if (vigentes == null) {
+            synchronized (this) {
+                for (int i = lote.size() - 1; i >= 0; i--) {
+                    vencidos.addFirst(lote.get(i));
+                }
+            }
+            return 0;
+        }
+        int enviadosLote = 0;
+        for (Recordatorio r : lote) {
+            Cita cita = vigentes.get(r.idCita());
+            if (cita == null || cita.getUsuarioId() == null) {
+                // Cancelada o eliminada (posiblemente desde otro nodo)
+                cancelados.increment();
+            } else if (!r.fecha().equals(cita.getFecha())) {
+                synchronized (this) {
+                    programar(new Recordatorio(r.idCita(), cita.getUsuarioId(), cita.getDoctorId(), cita.getFecha()),
+                            now, true);
+                }
+            } else {
+                enviar(new Recordatorio(r.idCita(), cita.getUsuarioId(), cita.getDoctorId(), cita.getFecha()));
+                enviadosLote++;
+            }
+        }
+        return enviadosLote;
+    }
+
+    /**
+     * Estado actual en BD de las citas del lote.
+     *
+     * @return Citas activas por ID, o null si la BD no respondió (el lote se reintenta)
+     */
+    private Map<Long, Cita> vigentes(List<Recordatorio> lote) {
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (Recordatorio r : lote) {
+            ids.add(r.idCita());
+        }
+        try {
+            Map<Long, Cita> vigentes = new HashMap<>();
+            for (Cita cita : citaRepository.findActiveByIds(ids)) {
+                vigentes.put(cita.getId(), cita);
+            }
+            return vigentes;
+        } catch (Exception e) {
+            log.error("❌ Error comprobando {} citas antes de enviar recordatorios: {}", ids.size(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Programa el recordatorio de una cita nueva si cae dentro de la ventana ya cargada
+     * (si no, lo recogerá la carga de la ventana). Si la hora del aviso ya pasó pero la
+     * cita no, se envía en el siguiente tick.
+     */
+    public void onCitaCreada(Long idCita, Long idUsuario, Long idDoctor, LocalDateTime fecha) {
+        if (!enabled || idCita == null || idUsuario == null || fecha == null) {
+            return;
+        }
+        synchronized (this) {
+            if (cargadoHasta == null || !fecha.isBefore(cargadoHasta)) {
+                return;
+            }
+            programar(new Recordatorio(idCita, idUsuario, idDoctor, fecha), LocalDateTime.now(), true);
+        }
+    }
+
+    /**
+     * Quita el recordatorio de una cita cancelada o eliminada.
+     */
+    public void onCitaCancelada(Long idCita) {
+        if (!enabled || idCita == null) {
+            return;
+        }
+        synchronized (this) {
+            HierarchicalTimingWheel.Entry<Recordatorio> entry = porCita.remove(idCita);
+            boolean quitado = wheel.cancel(entry) | vencidos.removeIf(r -> r.idCita() == idCita);
+            if (quitado) {
+                cancelados.increment();
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activo", enabled);
+        stats.put("enRueda", wheel.size());
+        stats.put("pendientesEnvio", vencidos.size());
+        stats.put("programados", programados.sum());
+        stats.put("enviados", enviados.sum());
+        stats.put("cancelados", cancelados.sum());
+        stats.put("cargasVentana", cargas.sum());
+        stats.put("cargadoHasta", cargadoHasta != null ? cargadoHasta.toString() : null);
+        return stats;
+    }
+
+    private void cargar(LocalDateTime desde, LocalDateTime hasta, LocalDateTime now) {
+        List<Cita> citas;
+        try {
+            citas = citaRepository.findUpcoming(desde, hasta);
+        } catch (Exception e) {
+            log.error("❌ Error cargando citas para recordatorios ({} - {}): {}", desde, hasta, e.getMessage(), e);
+            return;
+        }
+        cargas.increment();
+        int antes = wheel.size();
+        for (Cita cita : citas) {
+            if (cita.getId() != null && cita.getUsuarioId() != null) {
+                programar(new Recordatorio(cita.getId(), cita.getUsuarioId(), cita.getDoctorId(), cita.getFecha()), now, false);
+            }
+        }
+        log.debug("⏰ Ventana de recordatorios {} - {}: {} citas, {} programadas", desde, hasta,
+                citas.size(), wheel.size() - antes);
+    }
+
+    private void programar(Recordatorio r, LocalDateTime now, boolean inmediatoSiVencido) {
+        if (!r.fecha().isAfter(now)) {
+            return;
+        }
+        LocalDateTime aviso = r.fecha().minus(lead);
+        if (aviso.isBefore(now)) {
+            if (!inmediatoSiVencido) {
+                return;
+            }
+            aviso = now;
+        }
+        wheel.cancel(porCita.remove(r.idCita()));
+        HierarchicalTimingWheel.Entry<Recordatorio> entry = wheel.schedule(toMillis(aviso), r);
+        if (entry != null) {
+            porCita.put(r.idCita(), entry);
+            programados.increment();
+        }
+    }
+
+    private void enviar(Recordatorio r) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idCita", r.idCita());
+        datos.put("fecha", r.fecha().toString());
+        datos.put("doctorId", r.idDoctor());
+        NotificacionDTO notificacion = NotificacionDTO.builder()
+                .tipo(TIPO_RECORDATORIO)
+                .titulo("Recordatorio de Cita")
+                .mensaje("Tienes una cita el " + r.fecha().format(FORMATO_FECHA))
+                .datos(datos)
+                .prioridad("MEDIA")
+                .url("/mis-citas/" + r.idCita())
+                .requiereAccion(false)
+                .timestamp(LocalDateTime.now())
+                .build();
+        notificationService.notifyUser(String.valueOf(r.idUsuario()), notificacion);
+        enviados.increment();
+    }
+
+    private static long toMillis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -32,13 +32,22 @@ public class AuthApplicationService {
     private final IUsuarioRepository usuarioRepository;
     private final ITokenProvider tokenProvider;
     private final IPasswordEncoder passwordEncoder;
+    private final SearchApplicationService searchService;
+    private final RefreshTokenApplicationService refreshTokenService;
+    private final UserApplicationService userApplicationService;
     
     public AuthApplicationService(IUsuarioRepository usuarioRepository,
                                    ITokenProvider tokenProvider,
-                                   IPasswordEncoder passwordEncoder) {
+                                   IPasswordEncoder passwordEncoder,
+                                   SearchApplicationService searchService,
+                                   RefreshTokenApplicationService refreshTokenService,
+                                   UserApplicationService userApplicationService) {
         this.usuarioRepository = usuarioRepository;
         this.tokenProvider = tokenProvider;
         this.passwordEncoder = passwordEncoder;
+        this.searchService = searchService;
+        this.refreshTokenService = refreshTokenService;
+        this.userApplicationService = userApplicationService;
     }
     
     /**
@@ -62,7 +71,10 @@ public class AuthApplicationService {
      */
     public LoginResponse register(LoginRequest request) {
         var registerUseCase = new RegisterUseCase(usuarioRepository, passwordEncoder);
-        return registerUseCase.execute(request);
+        LoginResponse response = registerUseCase.execute(request);
+        // RegisterUseCase no devuelve el ID asignado; se relee para indexarlo
+        usuarioRepository.findByEmail(request.getEmail()).ifPresent(searchService::indexUsuario);
+        return response;
     }
     
     /**
@@ -75,6 +87,12 @@ public class AuthApplicationService {
     public ChangePasswordUseCase.ChangePasswordResponse changePassword(
             ChangePasswordUseCase.ChangePasswordRequest changePasswordRequest) {
         var changePasswordUseCase = new ChangePasswordUseCase(usuarioRepository, passwordEncoder);
-        return changePasswordUseCase.execute(changePasswordRequest);
+        var response = changePasswordUseCase.execute(changePasswordRequest);
+        if (response.isSuccess()) {
+            // Cierra todas las sesiones abiertas con la contraseña anterior
+            refreshTokenService.revokeAll(changePasswordRequest.getUserId());
+            userApplicationService.evictPerfil(changePasswordRequest.getUserId());
+        }
+        return response;
     }
 }
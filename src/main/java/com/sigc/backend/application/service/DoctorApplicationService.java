@@ -20,6 +20,7 @@ import java.util.Optional;
 public class DoctorApplicationService {
     
     private final IDoctorRepository doctorRepository;
+    private final SearchApplicationService searchService;
     
     /**
      * Obtiene todos los doctores
@@ -59,7 +60,9 @@ public class DoctorApplicationService {
             throw new IllegalArgumentException("Datos del doctor inválidos");
         }
         
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        searchService.indexDoctor(saved);
+        return saved;
     }
     
     /**
@@ -78,7 +81,9 @@ public class DoctorApplicationService {
         }
         
         doctor.setIdDoctor(id);
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        searchService.indexDoctor(saved);
+        return saved;
     }
     
     /**
@@ -93,5 +98,6 @@ public class DoctorApplicationService {
         }
         
         doctorRepository.deleteById(id);
+        searchService.removeDoctor(id);
     }
 }
@@ -20,6 +20,7 @@ import java.util.Optional;
 public class EspecialidadApplicationService {
     
     private final IEspecialidadRepository especialidadRepository;
+    private final SearchApplicationService searchService;
     
     /**
      * Obtiene todas las especialidades
@@ -64,7 +65,9 @@ public class EspecialidadApplicationService {
             throw new IllegalArgumentException("Ya existe una especialidad con ese nombre");
         }
         
-        return especialidadRepository.save(especialidad);
+        Especialidad saved = especialidadRepository.save(especialidad);
+        searchService.indexEspecialidad(saved);
+        return saved;
     }
     
     /**
@@ -83,7 +86,9 @@ public class EspecialidadApplicationService {
         }
         
         especialidad.setIdEspecialidad(id);
-        return especialidadRepository.save(especialidad);
+        Especialidad saved = especialidadRepository.save(especialidad);
+        searchService.indexEspecialidad(saved);
+        return saved;
     }
     
     /**
@@ -98,5 +103,6 @@ public class EspecialidadApplicationService {
         }
         
         especialidadRepository.deleteById(id);
+        searchService.removeEspecialidad(id);
     }
 }
@@ -0,0 +1,307 @@
+package com.sigc.backend.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.domain.port.INotificacionOutboxRepository;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.shared.collection.StripedLongLongMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbox de notificaciones personales.
+ *
+ * Cada notificación recibe un número de secuencia creciente por usuario y se guarda
+ * para poder reenviarla si llegó mientras el cliente estaba reconectando.
+ *
+ * - Secuencias en memoria (StripedLongLongMap); la BD solo se consulta
+ *   la primera vez que se ve a un usuario
+ * - Con varios nodos, las secuencias que llegan por NotificationRelay adelantan la local
+ *   (observe). Si aun así otro nodo ya guardó la misma (id_usuario, secuencia), el índice
+ *   único la rechaza: se relee la máxima de la BD y la fila se guarda con la siguiente.
+ *   El cliente puede recibirla dos veces al reconectar, pero no se pierde
+ * - Escritura asíncrona: una cola acotada y un hilo que inserta por lotes JDBC,
+ *   así el envío en tiempo real no espera a la BD. Si un lote falla se reintenta fila
+ *   a fila y solo se descartan las notificaciones que vuelven a fallar
+ * - replay() vacía la cola antes de leer, para no perder lo aún no escrito
+ * - Las notificaciones se conservan app.notifications.outbox.retention-days
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private static final long MISSING = -1;
+    /** Renumeraciones por fila antes de darla por perdida si la secuencia sigue chocando. */
+    private static final int SEQUENCE_CONFLICT_RETRIES = 3;
+
+    private final INotificacionOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final StripedLongLongMap sequences = new StripedLongLongMap();
+    private final BlockingQueue<NotificacionOutbox> queue;
+    private final int batchSize;
+    private final long idleNanos;
+    private final int retentionDays;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public NotificationOutboxService(INotificacionOutboxRepository repository,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.notifications.outbox.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${app.notifications.outbox.batch-size:200}") int batchSize,
+                                     @Value("${app.notifications.outbox.flush-ms:100}") long flushMs,
+                                     @Value("${app.notifications.outbox.retention-days:7}") int retentionDays) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushMs));
+        this.retentionDays = retentionDays;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "notification-outbox-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Asigna la siguiente secuencia del usuario a la notificación y la encola para guardarla.
+     *
+     * @param userId Destinatario
+     * @param notificacion Notificación (se le asigna la secuencia)
+     * @return Secuencia asignada
+     */
+    public long append(long userId, NotificacionDTO notificacion) {
+        long secuencia = nextSequence(userId);
+        notificacion.setSecuencia(secuencia);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notificacion);
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            log.error("❌ No se pudo serializar la notificación {} para el outbox: {}", notificacion.getTipo(), e.getMessage());
+            return secuencia;
+        }
+        NotificacionOutbox entrada = new NotificacionOutbox(userId, secuencia, notificacion.getTipo(), payload,
+                notificacion.getTimestamp() != null ? notificacion.getTimestamp() : LocalDateTime.now());
+        if (queue.offer(entrada)) {
+            appended.increment();
+            if (writer != null) {
+                LockSupport.unpark(writer);
+            }
+        } else {
+            dropped.increment();
+            log.warn("⚠️ Outbox de notificaciones lleno; notificación {} del usuario {} no se guardará", secuencia, userId);
+        }
+        return secuencia;
+    }
+
+    /**
+     * Última secuencia asignada al usuario (0 si no tiene notificaciones), sin asignar una nueva.
+     */
+    public long lastSequence(long userId) {
+        long last = sequences.get(userId, MISSING);
+        return last != MISSING ? last : repository.findMaxSecuencia(userId);
+    }
+
+    /**
+     * Registra una secuencia asignada por otro nodo (NotificationRelay) para que la
+     * siguiente secuencia local sea mayor y no choque en el outbox.
+     *
+     * @param userId Usuario
+     * @param secuencia Secuencia vista
+     */
+    public void observe(long userId, long secuencia) {
+        // También para usuarios aún no vistos: si no, la primera secuencia local se sacaría
+        // de la BD, donde la del otro nodo puede no estar escrita todavía
+        sequences.updateAndGet(userId, MISSING, last -> Math.max(last, secuencia));
+    }
+
+    /**
+     * Notificaciones del usuario posteriores a una secuencia.
+     *
+     * @param userId Usuario
+     * @param since Última secuencia que tiene el cliente
+     * @param limit Máximo de resultados
+     */
+    public List<NotificacionOutbox> replay(long userId, long since, int limit) {
+        flush();
+        return repository.findSince(userId, Math.max(0, since), limit);
+    }
+
+    /**
+     * Escribe en el momento todo lo que haya en la cola.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            while (drainAndWrite() > 0) {
+                // hasta vaciar la cola
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.purge-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = repository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("🧹 Outbox de notificaciones: {} notificaciones antiguas eliminadas", deleted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("encoladas", appended.sum());
+        stats.put("escritas", written.sum());
+        stats.put("descartadasColaLlena", dropped.sum());
+        stats.put("fallidas", failed.sum());
+        stats.put("enCola", queue.size());
+        return stats;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            int count;
+            writeLock.lock();
+            try {
+                count = drainAndWrite();
+            } finally {
+                writeLock.unlock();
+            }
+            if (count == 0) {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    private int drainAndWrite() {
+        List<NotificacionOutbox> batch = new ArrayList<>(Math.min(batchSize, queue.size() + 1));
+        queue.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            repository.appendAll(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                onRowFailure(batch.get(0), e);
+                return 1;
+            }
+            // Una fila inválida no debe hacer perder el resto del lote: se reintenta fila a fila
+            log.warn("⚠️ Lote de {} notificaciones rechazado ({}), reintentando fila a fila", batch.size(), e.getMessage());
+            for (NotificacionOutbox entrada : batch) {
+                try {
+                    repository.appendAll(List.of(entrada));
+                    written.increment();
+                } catch (Exception filaError) {
+                    onRowFailure(entrada, filaError);
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Fila rechazada: si la secuencia ya la usó otro nodo se renumera y se reintenta;
+     * cualquier otro error la descarta.
+     */
+    private void onRowFailure(NotificacionOutbox entrada, Exception error) {
+        NotificacionOutbox actual = entrada;
+        for (int intento = 0; error instanceof DuplicateKeyException && intento < SEQUENCE_CONFLICT_RETRIES; intento++) {
+            actual = resequence(actual);
+            if (actual == null) {
+                break;
+            }
+            try {
+                repository.appendAll(List.of(actual));
+                written.increment();
+                log.warn("⚠️ Secuencia {} del usuario {} ya usada por otro nodo; guardada como {}",
+                        entrada.secuencia(), entrada.idUsuario(), actual.secuencia());
+                return;
+            } catch (Exception retryError) {
+                error = retryError;
+            }
+        }
+        failed.increment();
+        log.error("❌ Error guardando la notificación {} del usuario {} en el outbox: {}",
+                entrada.secuencia(), entrada.idUsuario(), error.getMessage());
+    }
+
+    /**
+     * Copia de la entrada con la siguiente secuencia libre según la BD y la caché local.
+     *
+     * @return Entrada renumerada, o null si el payload no se puede reescribir
+     */
+    private NotificacionOutbox resequence(NotificacionOutbox entrada) {
+        long userId = entrada.idUsuario();
+        long stored = repository.findMaxSecuencia(userId);
+        long next = sequences.updateAndGet(userId, MISSING, last -> Math.max(stored, last) + 1);
+        try {
+            JsonNode payload = objectMapper.readTree(entrada.payload());
+            if (!(payload instanceof ObjectNode objeto)) {
+                return null;
+            }
+            objeto.put("secuencia", next);
+            return new NotificacionOutbox(userId, next, entrada.tipo(), objectMapper.writeValueAsString(objeto),
+                    entrada.creado());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private long nextSequence(long userId) {
+        long next = sequences.updateAndGet(userId, MISSING, last -> last != MISSING ? last + 1 : MISSING);
+        if (next != MISSING) {
+            return next;
+        }
+        long loaded = repository.findMaxSecuencia(userId);
+        // Otro hilo pudo inicializar el usuario mientras se consultaba la BD
+        return sequences.updateAndGet(userId, MISSING, last -> Math.max(loaded, last) + 1);
+    }
+}
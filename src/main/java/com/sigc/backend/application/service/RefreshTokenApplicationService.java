@@ -0,0 +1,170 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.exception.RefreshTokenInvalidException;
+import com.sigc.backend.domain.model.RefreshToken;
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.port.IRefreshTokenRepository;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.infrastructure.security.jwt.ITokenProvider;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Servicio de aplicación para sesiones: refresh tokens rotativos y revocación.
+ *
+ * - El login entrega un access token corto (JWT) y un refresh token opaco
+ * - Cada refresh token sirve una sola vez: al usarse se revoca y se emite un par nuevo
+ * - Si se presenta un refresh token ya usado se asume robo y se revocan todas las
+ *   sesiones del usuario
+ * - revokeAll sube la versión de tokens del usuario (TokenVersionRegistry), con lo que
+ *   los access tokens ya emitidos dejan de aceptarse al instante
+ */
+@Service
+@Slf4j
+public class RefreshTokenApplicationService {
+
+    /**
+     * Par de tokens entregado al cliente.
+     *
+     * @param accessToken JWT de vida corta
+     * @param refreshToken Token opaco para renovar
+     * @param expiresIn Vigencia del access token en segundos
+     */
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {
+    }
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final IRefreshTokenRepository refreshTokenRepository;
+    private final IUsuarioRepository usuarioRepository;
+    private final ITokenProvider tokenProvider;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final long refreshTtlDays;
+    private final long accessTtlSeconds;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenApplicationService(IRefreshTokenRepository refreshTokenRepository,
+                                          IUsuarioRepository usuarioRepository,
+                                          ITokenProvider tokenProvider,
+                                          TokenVersionRegistry tokenVersionRegistry,
+                                          @Value("${jwt.refresh-ttl-days:14}") long refreshTtlDays,
+                                          @Value("${jwt.access-ttl-minutes:15}") long accessTtlMinutes) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.tokenProvider = tokenProvider;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.refreshTtlDays = refreshTtlDays;
+        this.accessTtlSeconds = accessTtlMinutes * 60;
+    }
+
+    /**
+     * Emite un refresh token nuevo para el usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @return Valor en claro del token (solo se entrega una vez)
+     */
+    public String issueRefreshToken(Long usuarioId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .usuarioId(usuarioId)
+                .tokenHash(hash(raw))
+                .expiresAt(LocalDateTime.now().plusDays(refreshTtlDays))
+                .build());
+        return raw;
+    }
+
+    /**
+     * Emite un par access + refresh para el usuario.
+     */
+    public TokenPair issue(Usuario usuario) {
+        String access = tokenProvider.generateToken(usuario.getId(), usuario.getEmail(), usuario.getRole());
+        return new TokenPair(access, issueRefreshToken(usuario.getId()), accessTtlSeconds);
+    }
+
+    /**
+     * Canjea un refresh token por un par nuevo (rotación).
+     *
+     * @param rawToken Refresh token recibido
+     * @return Par nuevo
+     * @throws RefreshTokenInvalidException si el token no es válido o ya se usó
+     */
+    public TokenPair rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new RefreshTokenInvalidException("Refresh token requerido");
+        }
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(rawToken.trim()))
+                .orElseThrow(() -> new RefreshTokenInvalidException("Refresh token inválido"));
+
+        if (stored.isRevoked() || !refreshTokenRepository.revoke(stored.getId())) {
+            // Un token ya canjeado vuelve a aparecer: alguien más lo tiene
+            log.warn("⚠️ Reutilización de refresh token del usuario {}: se revocan todas sus sesiones",
+                    stored.getUsuarioId());
+            revokeAll(stored.getUsuarioId());
+            throw new RefreshTokenInvalidException("Refresh token ya utilizado");
+        }
+        if (stored.isExpired(LocalDateTime.now())) {
+            throw new RefreshTokenInvalidException("Refresh token expirado");
+        }
+
+        Usuario usuario = usuarioRepository.findById(stored.getUsuarioId())
+                .filter(u -> !Boolean.FALSE.equals(u.getActivo()))
+                .orElseThrow(() -> new RefreshTokenInvalidException("Usuario no disponible"));
+        return issue(usuario);
+    }
+
+    /**
+     * Revoca un refresh token (logout de esta sesión).
+     */
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken.trim()))
+                .ifPresent(token -> refreshTokenRepository.revoke(token.getId()));
+    }
+
+    /**
+     * Revoca todas las sesiones del usuario: refresh tokens y access tokens emitidos.
+     */
+    public void revokeAll(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        tokenVersionRegistry.bump(usuarioId);
+        int revoked = refreshTokenRepository.revokeAllForUser(usuarioId);
+        log.info("🔒 {} refresh tokens revocados para usuario {}", revoked, usuarioId);
+    }
+
+    /**
+     * Elimina periódicamente los refresh tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-ms:3600000}", initialDelayString = "${jwt.refresh-purge-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 {} refresh tokens expirados eliminados", deleted);
+        }
+    }
+
+    static String hash(String raw) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
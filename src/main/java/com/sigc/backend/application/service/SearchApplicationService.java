@@ -0,0 +1,110 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Doctor;
+import com.sigc.backend.domain.model.Especialidad;
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.port.IDoctorRepository;
+import com.sigc.backend.domain.port.IEspecialidadRepository;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.infrastructure.search.NGramSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Servicio de aplicación para la búsqueda rápida
+ *
+ * Mantiene un índice de trigramas en memoria sobre usuarios (nombre, DNI, email),
+ * doctores (nombre, apellido) y especialidades (nombre).
+ * El índice se carga completo al iniciar (SearchIndexInitializer) y luego se actualiza
+ * de forma incremental desde los servicios de aplicación que escriben esas entidades.
+ */
+@Service
+@Slf4j
+public class SearchApplicationService {
+
+    public static final String TIPO_USUARIO = "USUARIO";
+    public static final String TIPO_DOCTOR = "DOCTOR";
+    public static final String TIPO_ESPECIALIDAD = "ESPECIALIDAD";
+
+    private final IUsuarioRepository usuarioRepository;
+    private final IDoctorRepository doctorRepository;
+    private final IEspecialidadRepository especialidadRepository;
+    private final NGramSearchIndex index;
+
+    public SearchApplicationService(IUsuarioRepository usuarioRepository,
+                                    IDoctorRepository doctorRepository,
+                                    IEspecialidadRepository especialidadRepository,
+                                    @Value("${app.search.max-documents:200000}") int maxDocuments) {
+        this.usuarioRepository = usuarioRepository;
+        this.doctorRepository = doctorRepository;
+        this.especialidadRepository = especialidadRepository;
+        this.index = new NGramSearchIndex(maxDocuments);
+    }
+
+    /**
+     * Busca en el índice.
+     *
+     * @param query Texto a buscar
+     * @param tipo Tipo de entidad (null = todos)
+     * @param limit Máximo de resultados
+     * @return Resultados ordenados por relevancia
+     */
+    public List<NGramSearchIndex.Hit> search(String query, String tipo, int limit) {
+        return index.search(query, tipo, limit);
+    }
+
+    /**
+     * Reconstruye el índice completo desde los repositorios.
+     */
+    public void rebuild() {
+        long inicio = System.currentTimeMillis();
+        usuarioRepository.findAll().forEach(this::indexUsuario);
+        doctorRepository.findAll().forEach(this::indexDoctor);
+        especialidadRepository.findAll().forEach(this::indexEspecialidad);
+        log.info("Índice de búsqueda cargado: {} documentos, {} trigramas en {} ms",
+                index.size(), index.gramCount(), System.currentTimeMillis() - inicio);
+    }
+
+    public void indexUsuario(Usuario usuario) {
+        if (usuario == null || usuario.getId() == null) return;
+        String detalle = usuario.getEmail() + (usuario.getDni() != null ? " · DNI " + usuario.getDni() : "");
+        addOrWarn(index.upsert(TIPO_USUARIO, usuario.getId(), usuario.getNombre(), detalle,
+                usuario.getNombre(), usuario.getApellido(), usuario.getDni(), usuario.getEmail()));
+    }
+
+    public void removeUsuario(Long id) {
+        if (id != null) index.remove(TIPO_USUARIO, id);
+    }
+
+    public void indexDoctor(Doctor doctor) {
+        if (doctor == null || doctor.getIdDoctor() == null) return;
+        String titulo = doctor.getApellido() != null
+                ? doctor.getNombre() + " " + doctor.getApellido()
+                : doctor.getNombre();
+        addOrWarn(index.upsert(TIPO_DOCTOR, doctor.getIdDoctor(), titulo, doctor.getEspecialidad(),
+                doctor.getNombre(), doctor.getApellido()));
+    }
+
+    public void removeDoctor(Long id) {
+        if (id != null) index.remove(TIPO_DOCTOR, id);
+    }
+
+    public void indexEspecialidad(Especialidad especialidad) {
+        if (especialidad == null || especialidad.getIdEspecialidad() == null) return;
+        addOrWarn(index.upsert(TIPO_ESPECIALIDAD, especialidad.getIdEspecialidad(),
+                especialidad.getNombre(), especialidad.getDescripcion(), especialidad.getNombre()));
+    }
+
+    public void removeEspecialidad(Long id) {
+        if (id != null) index.remove(TIPO_ESPECIALIDAD, id);
+    }
+
+    private void addOrWarn(boolean added) {
+        if (!added) {
+            log.warn("⚠️ Índice de búsqueda lleno ({} documentos); documento no indexado", index.size());
+        }
+    }
+}
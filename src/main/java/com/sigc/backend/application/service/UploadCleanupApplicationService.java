@@ -0,0 +1,203 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.StoredFile;
+import com.sigc.backend.domain.port.IDoctorRepository;
+import com.sigc.backend.domain.port.IEspecialidadRepository;
+import com.sigc.backend.domain.port.IFileStorage;
+import com.sigc.backend.infrastructure.image.ImageVariants;
+import com.sigc.backend.shared.collection.LongHashSet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de aplicación para la limpieza de archivos subidos huérfanos
+ *
+ * Al reemplazar la imagen de un doctor o especialidad el archivo anterior queda en disco.
+ * Periódicamente se concilia el disco con la base de datos:
+ * 1. Se leen por cursor las columnas imagen y se guarda un hash de 64 bits de cada
+ *    nombre en un conjunto primitivo (8 bytes por referencia)
+ * 2. Se recorre el directorio en streaming y se borra lo que no está referenciado
+ *    y es más antiguo que el periodo de gracia (una subida reciente puede no estar
+ *    aún guardada en su fila)
+ * 3. Los borrados van en lotes con pausa entre ellos para no saturar el disco
+ *
+ * Una colisión de hash solo puede hacer que se conserve un huérfano, nunca que se
+ * borre un archivo en uso. Las variantes -w{ancho} siguen a su original.
+ */
+@Service
+@Slf4j
+public class UploadCleanupApplicationService {
+
+    private static final String[] CATEGORIAS = {IFileStorage.CATEGORIA_DOCTORES, IFileStorage.CATEGORIA_ESPECIALIDADES};
+
+    private final IDoctorRepository doctorRepository;
+    private final IEspecialidadRepository especialidadRepository;
+    private final IFileStorage fileStorage;
+    private final boolean enabled;
+    private final long graceMillis;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UploadCleanupApplicationService(IDoctorRepository doctorRepository,
+                                           IEspecialidadRepository especialidadRepository,
+                                           IFileStorage fileStorage,
+                                           @Value("${app.uploads.gc.enabled:true}") boolean enabled,
+                                           @Value("${app.uploads.gc.grace-minutes:1440}") long graceMinutes,
+                                           @Value("${app.uploads.gc.batch-size:100}") int batchSize,
+                                           @Value("${app.uploads.gc.batch-pause-ms:200}") long batchPauseMillis) {
+        this.doctorRepository = doctorRepository;
+        this.especialidadRepository = especialidadRepository;
+        this.fileStorage = fileStorage;
+        this.enabled = enabled;
+        this.graceMillis = graceMinutes * 60_000L;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    /**
+     * Resultado de una pasada de limpieza
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Resultado {
+        private final int referencias;
+        private final long archivosRevisados;
+        private final long archivosBorrados;
+        private final long bytesLiberados;
+    }
+
+    @Scheduled(initialDelayString = "${app.uploads.gc.initial-delay-ms:600000}",
+               fixedDelayString = "${app.uploads.gc.interval-ms:21600000}")
+    public void limpiezaProgramada() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            limpiarHuerfanos();
+        } catch (Exception e) {
+            log.error("❌ Error en la limpieza de archivos huérfanos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Un archivo se conserva si su propio nombre está referenciado o si es una variante
+     * de un original referenciado. Se comprueban ambos porque un nombre antiguo puede
+     * terminar en -w&lt;dígitos&gt; sin ser una variante (p. ej. "uuid_foto-w2.png").
+     */
+    private static boolean referenciado(LongHashSet referenciados, String nombre) {
+        return referenciados.contains(hash(nombre))
+                || referenciados.contains(hash(ImageVariants.originalName(nombre)));
+    }
+
+    /**
+     * Ejecuta una pasada completa de limpieza.
+     *
+     * @return Resultado, o null si ya había una pasada en curso
+     */
+    public Resultado limpiarHuerfanos() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Limpieza de archivos huérfanos ya en curso; se omite");
+            return null;
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            LongHashSet referenciados = new LongHashSet(1024);
+            doctorRepository.forEachImagen(imagen -> referenciar(referenciados, imagen));
+            especialidadRepository.forEachImagen(imagen -> referenciar(referenciados, imagen));
+
+            long limite = inicio - graceMillis;
+            long revisados = 0;
+            long borrados = 0;
+            long bytes = 0;
+            int enLote = 0;
+            for (String categoria : CATEGORIAS) {
+                try (Stream<StoredFile> archivos = fileStorage.list(categoria)) {
+                    Iterator<StoredFile> it = archivos.iterator();
+                    while (it.hasNext()) {
+                        StoredFile archivo = it.next();
+                        revisados++;
+                        if (archivo.getLastModified() > limite || referenciado(referenciados, archivo.getName())) {
+                            continue;
+                        }
+                        if (fileStorage.delete(categoria, archivo.getName())) {
+                            borrados++;
+                            bytes += archivo.getSize();
+                            if (++enLote >= batchSize) {
+                                enLote = 0;
+                                if (!pausa()) {
+                                    return terminar(referenciados, revisados, borrados, bytes, inicio);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return terminar(referenciados, revisados, borrados, bytes, inicio);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Resultado terminar(LongHashSet referenciados, long revisados, long borrados, long bytes, long inicio) {
+        log.info("🧹 Limpieza de uploads: {} referencias, {} archivos revisados, {} borrados, {} KB liberados en {} ms",
+                referenciados.size(), revisados, borrados, bytes / 1024, System.currentTimeMillis() - inicio);
+        return new Resultado(referenciados.size(), revisados, borrados, bytes);
+    }
+
+    private boolean pausa() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void referenciar(LongHashSet referenciados, String imagen) {
+        String nombre = nombreArchivo(imagen);
+        if (!nombre.isEmpty()) {
+            referenciados.add(hash(nombre));
+        }
+    }
+
+    /**
+     * Extrae el nombre de archivo de una ruta o URL guardada en la columna imagen
+     * ("/uploads/doctores/abc.jpg", "https://host/uploads/abc.jpg?v=1", "abc.jpg").
+     */
+    static String nombreArchivo(String imagen) {
+        String valor = imagen.trim();
+        int corte = valor.length();
+        int query = valor.indexOf('?');
+        if (query >= 0) corte = query;
+        int fragment = valor.indexOf('#');
+        if (fragment >= 0 && fragment < corte) corte = fragment;
+        valor = valor.substring(0, corte);
+        return valor.substring(valor.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres del nombre.
+     */
+    static long hash(String nombre) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < nombre.length(); i++) {
+            h ^= nombre.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
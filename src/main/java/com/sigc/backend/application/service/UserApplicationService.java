@@ -1,11 +1,27 @@
 package com.sigc.backend.application.service;
 
 import com.sigc.backend.domain.exception.DomainException;
+import com.sigc.backend.domain.model.Pagina;
 import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.UsuarioPerfil;
+import com.sigc.backend.domain.model.UsuarioSummary;
 import com.sigc.backend.domain.port.IUsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Application Service: Usuarios
@@ -16,6 +32,8 @@ import java.util.List;
  * - Obtener usuario por ID
  * - Obtener usuario por email
  * - Contar usuarios
+ * - Perfil del usuario autenticado (/auth/me), cacheado en memoria
+ * - Directorio paginado de usuarios (proyección sin contraseña)
  * - (Futuros: UpdateUserUseCase, DeleteUserUseCase)
  * 
  * Principios aplicados:
@@ -26,10 +44,61 @@ import java.util.List;
 @Service
 public class UserApplicationService {
     
+    public static final int TAMANO_PAGINA_MAXIMO = 200;
+
     private final IUsuarioRepository usuarioRepository;
+    private final SearchApplicationService searchService;
+    private final RefreshTokenApplicationService refreshTokenService;
+
+    /**
+     * Perfil cacheado junto con su ETag.
+     *
+     * @param perfil Datos del perfil
+     * @param etag ETag fuerte: SHA-256 de los campos del perfil
+     */
+    public record PerfilSnapshot(UsuarioPerfil perfil, String etag) {
+    }
+
+    /** Snapshot en caché con el instante (reloj en nanos) en que se leyó de BD. */
+    private record PerfilCacheado(PerfilSnapshot snapshot, long cargadoEn) {
+    }
+
+    /**
+     * LRU de perfiles. evictPerfil() solo limpia la caché de este nodo, así que cada
+     * entrada caduca a los app.users.profile-cache-ttl-ms: una escritura hecha en otro
+     * nodo se ve aquí como mucho tras ese tiempo.
+     */
+    private final Map<Long, PerfilCacheado> perfiles;
+    private final long perfilTtlNanos;
+    private final LongSupplier clock;
+    /** Se incrementa en cada invalidación; evita cachear una lectura que se cruzó con una escritura. */
+    private final AtomicLong perfilEpoch = new AtomicLong();
     
-    public UserApplicationService(IUsuarioRepository usuarioRepository) {
+    @Autowired
+    public UserApplicationService(IUsuarioRepository usuarioRepository,
+                                  SearchApplicationService searchService,
+                                  RefreshTokenApplicationService refreshTokenService,
+                                  @Value("${app.users.profile-cache-size:10000}") int profileCacheSize,
+                                  @Value("${app.users.profile-cache-ttl-ms:10000}") long profileCacheTtlMs) {
+        this(usuarioRepository, searchService, refreshTokenService, profileCacheSize, profileCacheTtlMs,
+                System::nanoTime);
+    }
+
+    UserApplicationService(IUsuarioRepository usuarioRepository,
+                           SearchApplicationService searchService,
+                           RefreshTokenApplicationService refreshTokenService,
+                           int profileCacheSize, long profileCacheTtlMs, LongSupplier clock) {
         this.usuarioRepository = usuarioRepository;
+        this.searchService = searchService;
+        this.refreshTokenService = refreshTokenService;
+        this.perfiles = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PerfilCacheado> eldest) {
+                return size() > profileCacheSize;
+            }
+        };
+        this.perfilTtlNanos = TimeUnit.MILLISECONDS.toNanos(profileCacheTtlMs);
+        this.clock = clock;
     }
     
     /**
@@ -54,6 +123,68 @@ public class UserApplicationService {
             .orElseThrow(() -> new DomainException("Usuario no encontrado", "USER_NOT_FOUND"));
     }
     
+    /**
+     * Obtiene el perfil del usuario desde la caché; solo consulta la BD (proyección
+     * sin contraseña) la primera vez, tras una invalidación o al caducar la entrada.
+     *
+     * @param usuarioId ID del usuario
+     * @return Perfil con su ETag, Optional.empty() si el usuario no existe
+     */
+    public Optional<PerfilSnapshot> getPerfil(Long usuarioId) {
+        synchronized (perfiles) {
+            PerfilCacheado cached = perfiles.get(usuarioId);
+            if (cached != null && clock.getAsLong() - cached.cargadoEn() < perfilTtlNanos) {
+                return Optional.of(cached.snapshot());
+            }
+        }
+        long epoch = perfilEpoch.get();
+        long cargadoEn = clock.getAsLong();
+        Optional<PerfilSnapshot> loaded = usuarioRepository.findPerfilById(usuarioId)
+                .map(perfil -> new PerfilSnapshot(perfil, etag(perfil)));
+        loaded.ifPresent(snapshot -> {
+            synchronized (perfiles) {
+                if (perfilEpoch.get() == epoch) {
+                    perfiles.put(usuarioId, new PerfilCacheado(snapshot, cargadoEn));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * ETag del perfil a partir de un resumen SHA-256 de sus campos: no depende del nodo
+     * ni del arranque y cambia con cualquier campo que devuelve /auth/me.
+     */
+    static String etag(UsuarioPerfil perfil) {
+        StringBuilder serializado = new StringBuilder();
+        for (Object campo : new Object[]{perfil.idUsuario(), perfil.nombre(), perfil.email(), perfil.dni(),
+                perfil.telefono(), perfil.rol(), perfil.activo(), perfil.fechaRegistro()}) {
+            serializado.append(campo == null ? "\u0001" : campo.toString()).append('\u0000');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(serializado.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Descarta el perfil cacheado del usuario (tras cualquier escritura sobre él).
+     *
+     * @param usuarioId ID del usuario
+     */
+    public void evictPerfil(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        synchronized (perfiles) {
+            perfilEpoch.incrementAndGet();
+            perfiles.remove(usuarioId);
+        }
+    }
+
     /**
      * Verifica si un email ya está registrado.
      * 
@@ -74,25 +205,50 @@ public class UserApplicationService {
     }
 
     // ----- Additional convenience methods used by controllers -----
-    public List<Usuario> listAllUsers() {
-        return usuarioRepository.findAll();
+    /**
+     * Directorio de usuarios paginado, sin contraseñas.
+     *
+     * @param rol Filtro por rol, sin distinguir mayúsculas (null o vacío = todos)
+     * @param activo Filtro por estado (null = todos)
+     * @param pagina Número de página (empieza en 0; negativos se tratan como 0)
+     * @param tamano Tamaño de página, acotado a [1, TAMANO_PAGINA_MAXIMO]
+     */
+    public Pagina<UsuarioSummary> listUserSummaries(String rol, Boolean activo, int pagina, int tamano) {
+        String filtroRol = rol == null || rol.isBlank() ? null : rol.trim().toUpperCase(Locale.ROOT);
+        int tamanoAcotado = Math.max(1, Math.min(tamano, TAMANO_PAGINA_MAXIMO));
+        return usuarioRepository.findSummaries(filtroRol, activo, Math.max(0, pagina), tamanoAcotado);
     }
 
     public Usuario createUser(Usuario usuario) {
-        return usuarioRepository.save(usuario);
+        Usuario saved = usuarioRepository.save(usuario);
+        searchService.indexUsuario(saved);
+        evictPerfil(saved.getId());
+        return saved;
     }
 
     public Usuario updateUser(Long id, Usuario usuario) {
         var existente = usuarioRepository.findById(id)
                 .orElseThrow(() -> new DomainException("Usuario no encontrado", "USER_NOT_FOUND"));
+        // El rol viaja en el token: si cambia (o se desactiva la cuenta) se revocan las sesiones
+        boolean revocar = !java.util.Objects.equals(existente.getRole(), usuario.getRole())
+                || (Boolean.TRUE.equals(existente.getActivo()) && Boolean.FALSE.equals(usuario.getActivo()));
         existente.setNombre(usuario.getNombre());
         existente.setEmail(usuario.getEmail());
         existente.setRole(usuario.getRole());
         existente.setActivo(usuario.getActivo());
-        return usuarioRepository.save(existente);
+        Usuario saved = usuarioRepository.save(existente);
+        searchService.indexUsuario(saved);
+        evictPerfil(id);
+        if (revocar) {
+            refreshTokenService.revokeAll(id);
+        }
+        return saved;
     }
 
     public void deleteUser(Long id) {
         usuarioRepository.deleteById(id);
+        searchService.removeUsuario(id);
+        evictPerfil(id);
+        refreshTokenService.revokeAll(id);
     }
 }
@@ -0,0 +1,382 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.domain.service.validator.PasswordValidator;
+import com.sigc.backend.infrastructure.csv.CsvReader;
+import com.sigc.backend.infrastructure.security.password.IPasswordEncoder;
+import com.sigc.backend.shared.constant.AppConstants;
+import com.sigc.backend.shared.util.Validator;
+import com.sigc.backend.shared.value.DNI;
+import com.sigc.backend.shared.value.Email;
+import com.sigc.backend.shared.value.PhoneNumber;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de aplicación para la importación masiva de usuarios desde CSV.
+ *
+ * El CSV se recibe ya volcado a un archivo temporal y se procesa en segundo plano:
+ * - Lectura en streaming, en bloques de app.users.import.chunk-size filas
+ * - Validación de cada fila con los value objects (Email, DNI, PhoneNumber) y PasswordValidator
+ * - Emails repetidos (en el archivo o ya registrados) se reportan como error de fila
+ * - Contraseñas codificadas en paralelo con IPasswordEncoder.encodeAll (ForkJoinPool)
+ * - Inserción por lotes JDBC
+ *
+ * Cabecera obligatoria: nombre,email,password,dni,telefono[,rol] (separador ',' o ';').
+ * El progreso y el informe de errores por fila se consultan con get(jobId).
+ */
+@Service
+@Slf4j
+public class UserImportApplicationService {
+
+    public enum Estado { EN_COLA, PROCESANDO, COMPLETADO, FALLIDO }
+
+    /**
+     * Error de una fila del CSV.
+     *
+     * @param fila Línea del archivo (la cabecera es la 1)
+     * @param email Email de la fila, si se pudo leer
+     * @param error Motivo
+     */
+    public record ErrorFila(int fila, String email, String error) {
+    }
+
+    /**
+     * Estado de una importación. Lo actualiza el hilo de importación y lo leen las peticiones.
+     */
+    @Getter
+    public static class ImportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final LocalDateTime creado = LocalDateTime.now();
+        private volatile Estado estado = Estado.EN_COLA;
+        private volatile long bytesTotales;
+        private volatile long bytesLeidos;
+        private volatile int filasLeidas;
+        private volatile int importados;
+        private volatile int conError;
+        private volatile LocalDateTime finalizado;
+        private volatile String mensaje;
+        private final List<ErrorFila> errores = Collections.synchronizedList(new ArrayList<>());
+
+        public int getProgreso() {
+            if (estado == Estado.COMPLETADO) return 100;
+            return bytesTotales <= 0 ? 0 : (int) Math.min(99, bytesLeidos * 100 / bytesTotales);
+        }
+
+        public List<ErrorFila> getErrores() {
+            synchronized (errores) {
+                return List.copyOf(errores);
+            }
+        }
+    }
+
+    private static final List<String> COLUMNAS_OBLIGATORIAS = List.of("nombre", "email", "password", "dni", "telefono");
+    private static final Set<String> ROLES_PERMITIDOS = Set.of(AppConstants.ROLE_PATIENT, AppConstants.ROLE_DOCTOR);
+    private static final int MAX_JOBS_RETENIDOS = 20;
+
+    private final IUsuarioRepository usuarioRepository;
+    private final IPasswordEncoder passwordEncoder;
+    private final SearchApplicationService searchService;
+    private final int chunkSize;
+    private final int maxErrores;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_JOBS_RETENIDOS;
+        }
+    };
+
+    public UserImportApplicationService(IUsuarioRepository usuarioRepository,
+                                        IPasswordEncoder passwordEncoder,
+                                        SearchApplicationService searchService,
+                                        @Value("${app.users.import.chunk-size:500}") int chunkSize,
+                                        @Value("${app.users.import.max-errors:1000}") int maxErrores,
+                                        @Value("${app.users.import.queue:2}") int queueCapacity) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.searchService = searchService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxErrores = maxErrores;
+        // Una importación a la vez: ya usa todos los núcleos para el hashing
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "user-import");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Encola la importación de un CSV ya guardado en disco. El archivo se borra al terminar.
+     *
+     * @param csv Archivo temporal con el CSV
+     * @return Trabajo creado (estado EN_COLA)
+     * @throws IllegalStateException si ya hay demasiadas importaciones pendientes
+     */
+    public ImportJob start(Path csv) {
+        ImportJob job = new ImportJob();
+        try {
+            job.bytesTotales = Files.size(csv);
+        } catch (IOException e) {
+            job.bytesTotales = 0;
+        }
+        try {
+            executor.execute(() -> run(job, csv));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(csv);
+            throw new IllegalStateException("Hay demasiadas importaciones en curso, reintente más tarde");
+        }
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        log.info("📥 Importación de usuarios {} encolada ({} bytes)", job.getId(), job.bytesTotales);
+        return job;
+    }
+
+    /**
+     * Consulta el estado de una importación.
+     */
+    public Optional<ImportJob> get(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Procesa el archivo completo (visible en el paquete para los tests).
+     */
+    void run(ImportJob job, Path csv) {
+        job.estado = Estado.PROCESANDO;
+        long inicio = System.currentTimeMillis();
+        try (InputStream in = new CountingInputStream(Files.newInputStream(csv), job);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            process(job, new CsvReader(reader).detectDelimiter());
+            job.estado = Estado.COMPLETADO;
+            job.mensaje = job.importados + " usuarios importados, " + job.conError + " filas con error";
+            if (job.importados > 0) {
+                searchService.rebuild();
+            }
+            log.info("✅ Importación {} completada: {} importados, {} con error en {} ms",
+                    job.getId(), job.importados, job.conError, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            job.estado = Estado.FALLIDO;
+            job.mensaje = e.getMessage();
+            log.error("❌ Importación {} fallida tras {} filas: {}", job.getId(), job.filasLeidas, e.getMessage(), e);
+        } finally {
+            job.finalizado = LocalDateTime.now();
+            deleteQuietly(csv);
+        }
+    }
+
+    private void process(ImportJob job, CsvReader csv) throws IOException {
+        List<String> cabecera = csv.next();
+        if (cabecera == null) {
+            throw new IOException("El archivo está vacío");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(cabecera.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obligatoria : COLUMNAS_OBLIGATORIAS) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new IOException("Falta la columna obligatoria '" + obligatoria + "' en la cabecera");
+            }
+        }
+
+        Set<String> vistos = new HashSet<>();
+        List<Pendiente> bloque = new ArrayList<>(chunkSize);
+        List<String> campos;
+        while ((campos = csv.next()) != null) {
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue; // línea vacía
+            }
+            job.filasLeidas++;
+            int fila = csv.getRecordLine();
+            Pendiente pendiente;
+            try {
+                pendiente = validar(fila, campos, columnas);
+            } catch (IllegalArgumentException e) {
+                error(job, fila, valor(campos, columnas, "email"), e.getMessage());
+                continue;
+            }
+            if (!vistos.add(pendiente.emailCanonico)) {
+                error(job, fila, pendiente.usuario.getEmail(), "Email repetido en el archivo");
+                continue;
+            }
+            bloque.add(pendiente);
+            if (bloque.size() >= chunkSize) {
+                guardar(job, bloque);
+                bloque.clear();
+            }
+        }
+        guardar(job, bloque);
+    }
+
+    private Pendiente validar(int fila, List<String> campos, Map<String, Integer> columnas) {
+        String nombre = valor(campos, columnas, "nombre");
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El nombre es obligatorio");
+        }
+        if (nombre.length() > 100) {
+            throw new IllegalArgumentException("El nombre no puede exceder 100 caracteres");
+        }
+        Email email = Email.of(valor(campos, columnas, "email"));
+        DNI dni = DNI.of(valor(campos, columnas, "dni"));
+        if (dni.getValue().length() != 8) {
+            throw new IllegalArgumentException("El DNI debe tener 8 dígitos");
+        }
+        String telefono = PhoneNumber.of(valor(campos, columnas, "telefono")).getValue().replaceAll("[^0-9]", "");
+        if (telefono.length() != 9) {
+            throw new IllegalArgumentException("El teléfono debe tener 9 dígitos");
+        }
+        String password = valor(campos, columnas, "password");
+        Validator.ValidationResult passwordResult = PasswordValidator.validate(password);
+        if (!passwordResult.isValid()) {
+            throw new IllegalArgumentException(passwordResult.getErrorMessage());
+        }
+        String rol = valor(campos, columnas, "rol");
+        rol = rol == null || rol.isBlank() ? AppConstants.ROLE_PATIENT : rol.trim().toUpperCase(Locale.ROOT);
+        if (!ROLES_PERMITIDOS.contains(rol)) {
+            throw new IllegalArgumentException("Rol no permitido en importación: " + rol);
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre.trim());
+        usuario.setEmail(email.getValue());
+        usuario.setDni(dni.getValue());
+        usuario.setTelefono(telefono);
+        usuario.setRole(rol);
+        usuario.setActivo(true);
+        return new Pendiente(fila, usuario, email.getCanonical(), password);
+    }
+
+    private void guardar(ImportJob job, List<Pendiente> bloque) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        Set<String> existentes = usuarioRepository.findExistingEmails(
+                bloque.stream().map(p -> p.emailCanonico).toList());
+        List<Pendiente> nuevos = new ArrayList<>(bloque.size());
+        for (Pendiente p : bloque) {
+            if (existentes.contains(p.emailCanonico)) {
+                error(job, p.fila, p.usuario.getEmail(), "El email ya está registrado");
+            } else {
+                nuevos.add(p);
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(nuevos.stream().map(p -> p.password).toList());
+        List<Usuario> usuarios = new ArrayList<>(nuevos.size());
+        for (int i = 0; i < nuevos.size(); i++) {
+            Usuario u = nuevos.get(i).usuario;
+            u.setPassword(hashes.get(i));
+            usuarios.add(u);
+        }
+
+        try {
+            job.importados += usuarioRepository.insertAll(usuarios);
+        } catch (RuntimeException e) {
+            // Algún registro concurrente chocó con el índice: se reintenta fila a fila
+            log.warn("⚠️ Lote de importación rechazado ({}), reintentando fila a fila", e.getMessage());
+            for (Pendiente p : nuevos) {
+                try {
+                    job.importados += usuarioRepository.insertAll(List.of(p.usuario));
+                } catch (RuntimeException filaError) {
+                    error(job, p.fila, p.usuario.getEmail(), "No se pudo guardar: " + filaError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void error(ImportJob job, int fila, String email, String mensaje) {
+        job.conError++;
+        if (job.errores.size() < maxErrores) {
+            job.errores.add(new ErrorFila(fila, email, mensaje));
+        }
+    }
+
+    private static String valor(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer i = columnas.get(columna);
+        return i == null || i >= campos.size() ? null : campos.get(i).trim();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo borrar el temporal {}", path);
+        }
+    }
+
+    private record Pendiente(int fila, Usuario usuario, String emailCanonico, String password) {
+    }
+
+    /**
+     * Cuenta los bytes leídos del archivo para calcular el progreso.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ImportJob job;
+        private final AtomicLong count = new AtomicLong();
+
+        CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) job.bytesLeidos = count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) job.bytesLeidos = count.addAndGet(n);
+            return n;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.sigc.backend.config;
 
 import com.sigc.backend.model.Usuario;
 import com.sigc.backend.repository.UsuarioRepository;
+import com.sigc.backend.shared.value.Email;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Inicializador de datos
  * Se ejecuta automáticamente al iniciar la aplicación
@@ -31,16 +34,43 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        completarEmailsCanonicos();
         crearAdministradorPorDefecto();
     }
 
+    /**
+     * Rellena email_lower en usuarios creados antes de que existiera la columna.
+     *
+     * Los emails que solo difieren en mayúsculas o espacios colisionarían en el índice único
+     * y harían fallar toda la actualización: se informan y se dejan sin rellenar (esos
+     * usuarios no podrán iniciar sesión hasta unificar sus cuentas); el resto se completa.
+     */
+    private void completarEmailsCanonicos() {
+        try {
+            List<String> colisiones = usuarioRepository.findCollidingEmailLowers();
+            int actualizados;
+            if (colisiones.isEmpty()) {
+                actualizados = usuarioRepository.backfillEmailLower();
+            } else {
+                log.warn("⚠️ {} emails duplicados sin distinguir mayúsculas; email_lower queda sin rellenar para: {}",
+                        colisiones.size(), colisiones);
+                actualizados = usuarioRepository.backfillEmailLowerExcept(colisiones);
+            }
+            if (actualizados > 0) {
+                log.info("✅ email_lower completado para {} usuarios", actualizados);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error al completar email_lower: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Crea el usuario administrador por defecto si no existe
      */
     private void crearAdministradorPorDefecto() {
         try {
             // Verificar si ya existe un administrador
-            Usuario adminExistente = usuarioRepository.findByEmail(ADMIN_EMAIL);
+            Usuario adminExistente = usuarioRepository.findByEmailLower(Email.canonicalize(ADMIN_EMAIL));
             
             if (adminExistente != null) {
                 log.info("✅ Usuario administrador ya existe: {}", ADMIN_EMAIL);
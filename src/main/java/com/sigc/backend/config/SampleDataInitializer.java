@@ -77,7 +77,8 @@ public class SampleDataInitializer implements CommandLineRunner {
         doctor1.setApellido("Pérez García");
         doctor1.setCorreo("juan.perez@hospital.com");
         doctor1.setTelefono("987654321");
-        doctor1.setEspecialidad(medicinaGeneral);
+        doctor1.setCupoPacientes(10);
+        doctor1.setEspecialidad(medicinaGeneral != null ? medicinaGeneral.getNombre() : null);
         doctorRepository.save(doctor1);
 
         // Doctor 2
@@ -86,7 +87,8 @@ public class SampleDataInitializer implements CommandLineRunner {
         doctor2.setApellido("Rodríguez López");
         doctor2.setCorreo("maria.rodriguez@hospital.com");
         doctor2.setTelefono("987654322");
-        doctor2.setEspecialidad(pediatria);
+        doctor2.setCupoPacientes(10);
+        doctor2.setEspecialidad(pediatria != null ? pediatria.getNombre() : null);
         doctorRepository.save(doctor2);
 
         // Doctor 3
@@ -95,7 +97,8 @@ public class SampleDataInitializer implements CommandLineRunner {
         doctor3.setApellido("Fernández Silva");
         doctor3.setCorreo("roberto.fernandez@hospital.com");
         doctor3.setTelefono("987654323");
-        doctor3.setEspecialidad(cardiologia);
+        doctor3.setCupoPacientes(10);
+        doctor3.setEspecialidad(cardiologia != null ? cardiologia.getNombre() : null);
         doctorRepository.save(doctor3);
 
         log.info("✅ 3 doctores creados");
@@ -0,0 +1,30 @@
+package com.sigc.backend.config;
+
+import com.sigc.backend.application.service.SearchApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga inicial del índice de búsqueda
+ * Se ejecuta después de los inicializadores de datos para incluir admin y datos de ejemplo
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(3)
+public class SearchIndexInitializer implements CommandLineRunner {
+
+    private final SearchApplicationService searchApplicationService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            searchApplicationService.rebuild();
+        } catch (Exception e) {
+            log.error("❌ Error al cargar el índice de búsqueda: {}", e.getMessage(), e);
+        }
+    }
+}
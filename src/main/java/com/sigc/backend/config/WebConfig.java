@@ -1,11 +1,23 @@
 package com.sigc.backend.config;
 
+import com.sigc.backend.infrastructure.image.ImageVariantResourceResolver;
+import com.sigc.backend.infrastructure.web.StaticFileResponder;
+import com.sigc.backend.shared.constant.AppConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.lang.NonNull;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Configuration
@@ -22,22 +34,44 @@ public class WebConfig implements WebMvcConfigurer {
         String base = appUploadDir == null ? "uploads/" : appUploadDir;
         if (!base.endsWith("/")) base = base + "/";
 
-        // Mapeo de uploads/especialidades/
-        registry.addResourceHandler("/uploads/especialidades/**")
-                .addResourceLocations("file:" + base + "especialidades/")
-                .setCachePeriod(0);
-        log.info("✅ Handler configurado: /uploads/especialidades/** -> file:{}", base + "especialidades/");
-
-        // Mapeo de uploads/doctores/
-        registry.addResourceHandler("/uploads/doctores/**")
-                .addResourceLocations("file:" + base + "doctores/")
-                .setCachePeriod(0);
-        log.info("✅ Handler configurado: /uploads/doctores/** -> file:{}", base + "doctores/");
+        // /uploads/{categoria}/{archivo} lo atiende UploadController a través de IFileStorage
+        // (reparto en subdirectorios + caché caliente); aquí queda el resto de rutas antiguas.
 
         // Mapeo general de uploads (fallback)
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + base)
-                .setCachePeriod(0);
+        configurar(registry.addResourceHandler("/uploads/**"), base);
         log.info("✅ Handler configurado: /uploads/** -> file:{}", base);
     }
+
+    /**
+     * Sirve desde FileSystemResource (streaming por canal, soporta Range) y añade
+     * ETag débil + Last-Modified.
+     *
+     * Los archivos subidos se nombran por hash de contenido y nunca se reescriben,
+     * así que se marcan immutable por un año: las recargas no vuelven a pedirlos.
+     * La cadena de recursos cachea la resolución URL -> archivo en memoria y
+     * atiende ?w= con la variante redimensionada cuando existe; si aún no existe se
+     * sirve el original con Cache-Control: no-cache para no fijarlo bajo esa URL.
+     */
+    private void configurar(ResourceHandlerRegistration registration, String location) {
+        registration.addResourceLocations((Resource) new FileSystemResource(location))
+                .setCacheControl(CacheControl.maxAge(AppConstants.UPLOAD_CACHE_MAX_AGE_SECONDS, TimeUnit.SECONDS)
+                        .cachePublic()
+                        .immutable())
+                .setUseLastModified(true)
+                .setEtagGenerator(WebConfig::etag)
+                .resourceChain(false)
+                .addResolver(new ImageVariantResourceResolver.WidthAwareCachingResolver(
+                        new ConcurrentMapCache("uploads:" + location)))
+                .addResolver(new ImageVariantResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    private static String etag(Resource resource) {
+        try {
+            long lastModified = resource.lastModified() / 1000 * 1000;
+            return StaticFileResponder.weakEtag(resource.contentLength(), lastModified);
+        } catch (IOException e) {
+            return null;
+        }
+    }
 }
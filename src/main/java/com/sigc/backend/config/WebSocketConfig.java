@@ -1,36 +1,60 @@
 package com.sigc.backend.config;
 
-import com.sigc.backend.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import com.sigc.backend.infrastructure.websocket.OutboundPriorityLanes;
+import com.sigc.backend.infrastructure.websocket.StompAuthChannelInterceptor;
+import com.sigc.backend.infrastructure.websocket.StompContentNegotiationInterceptor;
+import com.sigc.backend.infrastructure.websocket.WebSocketMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.messaging.simp.stomp.StompCommand;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.server.HandshakeInterceptor;
 
-import java.util.List;
+import java.util.Map;
 
 /**
  * Configuración de WebSocket con STOMP
  * 
  * Habilita comunicación bidireccional en tiempo real entre frontend y backend
- * Incluye autenticación JWT en el handshake
+ * Incluye autenticación JWT en el CONNECT de STOMP (StompAuthChannelInterceptor)
+ * y formato binario opcional de las notificaciones (StompContentNegotiationInterceptor)
+ * Las notificaciones salen por carriles de prioridad por sesión (OutboundPriorityLanes)
  */
 @Configuration
 @EnableWebSocketMessageBroker
-@RequiredArgsConstructor
 @Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
-    private final JwtUtil jwtUtil;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final StompContentNegotiationInterceptor contentNegotiationInterceptor;
+    private final OutboundPriorityLanes outboundPriorityLanes;
+    private final WebSocketMetrics webSocketMetrics;
+    private final TaskScheduler taskScheduler;
+    private final Environment environment;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           StompContentNegotiationInterceptor contentNegotiationInterceptor,
+                           OutboundPriorityLanes outboundPriorityLanes,
+                           WebSocketMetrics webSocketMetrics,
+                           @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                           Environment environment) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.contentNegotiationInterceptor = contentNegotiationInterceptor;
+        this.outboundPriorityLanes = outboundPriorityLanes;
+        this.webSocketMetrics = webSocketMetrics;
+        this.taskScheduler = taskScheduler;
+        this.environment = environment;
+    }
 
     /**
      * Registra el endpoint WebSocket
@@ -46,9 +70,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     "http://localhost:5175",
                     "http://localhost:3000" // React default
                 )
-                .withSockJS(); // Fallback a long-polling si WebSocket no funciona
+                .withSockJS() // Fallback a long-polling si WebSocket no funciona
+                .setTaskScheduler(taskScheduler);
+
+        // WebSocket nativo sin SockJS: admite frames binarios (accept-content: application/cbor)
+        registry.addEndpoint("/ws-binary")
+                .setAllowedOrigins(
+                    "http://localhost:5173",
+                    "http://localhost:5174",
+                    "http://localhost:5175",
+                    "http://localhost:3000"
+                )
+                .addInterceptors(binaryTransportMarker());
         
-        log.info("🔌 WebSocket endpoint registrado en /ws");
+        log.info("🔌 WebSocket endpoints registrados en /ws (SockJS) y /ws-binary");
+    }
+
+    private static HandshakeInterceptor binaryTransportMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(StompContentNegotiationInterceptor.BINARY_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
     }
 
     /**
@@ -56,77 +107,103 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      * 
      * /topic - Para broadcast a múltiples suscriptores (pub/sub)
      * /queue - Para mensajes punto a punto (1 a 1)
+     * /user - Destinos de usuario: /user/queue/notifications llega solo a las sesiones del usuario
      * /app - Prefijo para mensajes del cliente al servidor
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Habilita un broker simple en memoria
         // Para producción, considerar RabbitMQ o ActiveMQ
-        registry.enableSimpleBroker("/topic", "/queue");
+        // Heartbeats STOMP en ambos sentidos con el scheduler compartido: detectan sockets muertos
+        long heartbeat = property("app.websocket.heartbeat-ms", 10000);
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeat, heartbeat})
+                .setTaskScheduler(taskScheduler);
         
         // Prefijo para endpoints del servidor (@MessageMapping)
         registry.setApplicationDestinationPrefixes("/app");
+
+        // Prefijo de destinos de usuario (convertAndSendToUser), resueltos por el nombre del principal
+        registry.setUserDestinationPrefix("/user");
         
-        log.info("📡 Message broker configurado: /topic, /queue, /app");
+        log.info("📡 Message broker configurado: /topic, /queue, /user, /app");
     }
 
     /**
-     * Interceptor para validar JWT en cada conexión WebSocket
-     * Se ejecuta antes de establecer la conexión
+     * Dimensiona la caché destino -> suscripciones del broker simple.
+     *
+     * Cada sesión tiene su propio destino de usuario (/queue/notifications-user{sesión}); con la
+     * caché por defecto (1024) los envíos a destinos no cacheados recorren todas las suscripciones,
+     * así que debe cubrir al menos las sesiones concurrentes esperadas.
      */
-    @Override
-    public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new ChannelInterceptor() {
+    @Bean
+    public static BeanPostProcessor simpleBrokerCacheLimit(Environment environment) {
+        int cacheLimit = environment.getProperty("app.websocket.broker-cache-limit", Integer.class, 20000);
+        return new BeanPostProcessor() {
             @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                StompHeaderAccessor accessor = 
-                    MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-                
-                if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-                    // Extraer token JWT del header Authorization
-                    String authToken = accessor.getFirstNativeHeader("Authorization");
-                    
-                    if (authToken != null && authToken.startsWith("Bearer ")) {
-                        String token = authToken.substring(7);
-                        
-                        try {
-                            // Validar token
-                            if (jwtUtil.validateToken(token)) {
-                                Long userId = jwtUtil.getUserIdFromToken(token);
-                                String email = jwtUtil.getEmailFromToken(token);
-                                String role = jwtUtil.getRolFromToken(token);
-                                
-                                // Crear autenticación con rol
-                                UsernamePasswordAuthenticationToken authentication = 
-                                    new UsernamePasswordAuthenticationToken(
-                                        email, 
-                                        null, 
-                                        List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                                    );
-                                
-                                // Guardar usuario en el contexto de WebSocket
-                                accessor.setUser(authentication);
-                                
-                                // Log de éxito
-                                log.info("✅ WebSocket conectado: {} (ID: {}, Rol: {})", email, userId, role);
-                            } else {
-                                log.warn("⚠️ Token JWT inválido en WebSocket");
-                                throw new IllegalArgumentException("Token inválido");
-                            }
-                        } catch (Exception e) {
-                            log.error("❌ Error validando token WebSocket: {}", e.getMessage());
-                            throw new IllegalArgumentException("Autenticación fallida: " + e.getMessage());
-                        }
-                    } else {
-                        log.warn("⚠️ Sin token JWT en conexión WebSocket");
-                        throw new IllegalArgumentException("Token JWT requerido");
-                    }
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler broker) {
+                    broker.setCacheLimit(cacheLimit);
                 }
-                
-                return message;
+                return bean;
             }
-        });
-        
+        };
+    }
+
+    /**
+     * Límites por sesión: un cliente lento acumula mensajes en su propio buffer y, al superar
+     * send-time-limit-ms o send-buffer-size-limit, se cierra su sesión en lugar de bloquear
+     * los hilos de salida. Con estos valores la memoria por socket queda acotada.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(property("app.websocket.send-time-limit-ms", 10000))
+                .setSendBufferSizeLimit(property("app.websocket.send-buffer-size-limit", 64 * 1024))
+                .setMessageSizeLimit(property("app.websocket.message-size-limit", 64 * 1024))
+                .setTimeToFirstMessage(property("app.websocket.time-to-first-message-ms", 30000))
+                .addDecoratorFactory(webSocketMetrics::decorate);
+    }
+
+    /**
+     * Interceptor de autenticación: verifica el JWT una vez en el CONNECT y
+     * autoriza SUBSCRIBE/SEND con el principal cacheado por sesión
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, "inbound");
+        registration.interceptors(stompAuthChannelInterceptor, contentNegotiationInterceptor.inbound());
         log.info("🔒 Interceptor de autenticación JWT configurado para WebSocket");
     }
+
+    /**
+     * Pool de salida: entrega mensajes del broker a las sesiones
+     * (recodificados a CBOR/Smile para las sesiones que lo negociaron y luego ordenados
+     * por prioridad dentro de cada sesión; los carriles van detrás para encolar el payload final)
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, "outbound");
+        registration.interceptors(contentNegotiationInterceptor, outboundPriorityLanes);
+    }
+
+    /**
+     * Pool acotado para un canal STOMP (app.websocket.{canal}.*). Con la cola llena se
+     * rechaza el mensaje en lugar de crecer sin límite.
+     */
+    private void configureExecutor(ChannelRegistration registration, String channel) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int core = property("app.websocket." + channel + ".core-pool-size", cores * 2);
+        int max = Math.max(core, property("app.websocket." + channel + ".max-pool-size", cores * 4));
+        int queue = property("app.websocket." + channel + ".queue-capacity", 10000);
+        registration.taskExecutor()
+                .corePoolSize(core)
+                .maxPoolSize(max)
+                .queueCapacity(queue)
+                .keepAliveSeconds(60);
+        log.info("🧵 Canal STOMP {}: {}-{} hilos, cola {}", channel, core, max, queue);
+    }
+
+    private int property(String name, int defaultValue) {
+        return environment.getProperty(name, Integer.class, defaultValue);
+    }
 }
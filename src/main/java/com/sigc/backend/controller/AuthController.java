@@ -8,10 +8,16 @@ import com.sigc.backend.domain.service.usecase.auth.LoginRequest;
 import com.sigc.backend.domain.service.usecase.auth.LoginResponse;
 import com.sigc.backend.domain.service.usecase.auth.ChangePasswordUseCase;
 import com.sigc.backend.application.service.AuthApplicationService;
+import com.sigc.backend.application.service.RefreshTokenApplicationService;
+import com.sigc.backend.infrastructure.security.password.PasswordHashingOverloadedException;
+import com.sigc.backend.infrastructure.security.throttle.LoginRateLimiter;
 import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.shared.constant.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +40,8 @@ public class AuthController {
 
     private final AuthApplicationService authApplicationService;
     private final JwtUtil jwtUtil;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenApplicationService refreshTokenService;
 
     /**
      * POST /auth/register
@@ -71,14 +79,26 @@ public class AuthController {
      * POST /auth/login
      * Autentica un usuario y genera un token JWT
      * 
+     * Los intentos que superan el límite por IP o por email se rechazan con 429
+     * antes de verificar la contraseña.
+     * 
      * @param credentials Mapa con email y password
-     * @return Token JWT y datos completos del usuario si las credenciales son válidas
+     * @return Access token (15 min), refresh token y datos del usuario si las credenciales son válidas
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> credentials,
+                                                     HttpServletRequest httpRequest) {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
+        LoginRateLimiter.Decision decision = loginRateLimiter.tryAcquire(httpRequest.getRemoteAddr(), email);
+        if (!decision.allowed()) {
+            log.warn("Login limitado ({}) para: {} desde {}", decision.reason(), email, httpRequest.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                    .body(crearError("Demasiados intentos de inicio de sesión, reintente más tarde"));
+        }
+
         log.info("Intento de login para: {}", email);
         // Construir request de dominio y delegar a Application Service
         LoginRequest loginRequest = new LoginRequest(email, password);
@@ -87,11 +107,18 @@ public class AuthController {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Login exitoso");
             response.put("token", loginResponse.getToken());
+            response.put("refreshToken", refreshTokenService.issueRefreshToken(loginResponse.getUserId()));
+            response.put("expiresIn", jwtUtil.getAccessTokenTtlSeconds());
             response.put("rol", loginResponse.getRole());
             response.put("idUsuario", loginResponse.getUserId());
             response.put("email", loginResponse.getEmail());
             log.info("Login exitoso para usuario ID: {} - {}", loginResponse.getUserId(), email);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingOverloadedException e) {
+            log.warn("Login rechazado por saturación del hashing: {}", email);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(crearError(e.getMessage()));
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("error", "Credenciales inválidas");
@@ -101,6 +128,33 @@ public class AuthController {
 
     }
 
+    /**
+     * GET /auth/login-throttle
+     * Métricas del limitador de intentos de login (solo ADMIN)
+     * 
+     * @param authHeader Token JWT en header Authorization
+     * @return Contadores de intentos permitidos y rechazados
+     */
+    @GetMapping("/login-throttle")
+    public ResponseEntity<?> loginThrottleStats(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || authHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(crearError("Token JWT requerido en header Authorization"));
+        }
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        String rol;
+        try {
+            rol = jwtUtil.getRolFromToken(token);
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(crearError("Token inválido o expirado"));
+        }
+        if (!AppConstants.ROLE_ADMIN.equalsIgnoreCase(rol)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(crearError("Solo administradores"));
+        }
+        return ResponseEntity.ok(loginRateLimiter.getStats());
+    }
+
     /**
      * POST /auth/cambiar-contrasena (Alias)
      * Reenvia la peticion al metodo de cambio de contrasena en UsuarioController
@@ -171,6 +225,10 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(crearError(resp.getMessage()));
             }
 
+        } catch (PasswordHashingOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(crearError(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(crearError("Error interno al cambiar la contraseña"));
@@ -2,6 +2,7 @@ package com.sigc.backend.controller;
 
 import com.sigc.backend.security.JwtUtil;
 import com.sigc.backend.application.service.AppointmentApplicationService;
+import com.sigc.backend.application.service.AppointmentReminderService;
 import com.sigc.backend.domain.service.usecase.appointment.CreateAppointmentRequest;
 import com.sigc.backend.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@ public class CitaController {
     @Autowired private JwtUtil jwtUtil;
     @Autowired private AppointmentApplicationService appointmentApplicationService;
     @Autowired private NotificationService notificationService;
+    @Autowired private AppointmentReminderService appointmentReminderService;
 
     @GetMapping
     public List<com.sigc.backend.application.mapper.CitaMapper.CitaDTO> listar() {
@@ -112,6 +114,8 @@ public class CitaController {
                         idUsuario
                 );
                 var resp = appointmentApplicationService.createAppointment(createReq);
+                appointmentReminderService.onCitaCreada(resp.getAppointmentId(), resp.getUsuarioId(),
+                        resp.getDoctorId(), resp.getDate());
                 
                 // 🔔 Enviar notificaciones en tiempo real
                 try {
@@ -188,6 +192,7 @@ public class CitaController {
                     .orElse(null);
             
             appointmentApplicationService.cancel(id);
+            appointmentReminderService.onCitaCancelada(id);
             log.info("Cita {} cancelada correctamente", id);
             
             // 🔔 Enviar notificaciones de cancelación
@@ -220,6 +225,7 @@ public class CitaController {
             log.info("Eliminando cita ID: {}", id);
             if (id != null) {
                 appointmentApplicationService.delete(id);
+                appointmentReminderService.onCitaCancelada(id);
                 log.info("Cita {} eliminada exitosamente", id);
                 return ResponseEntity.ok().build();
             } else {
@@ -3,7 +3,14 @@ package com.sigc.backend.controller;
 import com.sigc.backend.application.mapper.DoctorMapper;
 import com.sigc.backend.application.service.DoctorApplicationService;
 import com.sigc.backend.domain.model.Doctor;
+import com.sigc.backend.domain.port.IFileStorage;
+import com.sigc.backend.infrastructure.image.ImageVariantGenerator;
+import com.sigc.backend.exception.UploadRejectedException;
+import com.sigc.backend.infrastructure.web.ImageUploadStream;
+import com.sigc.backend.infrastructure.web.StaticFileResponder;
 import com.sigc.backend.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -12,8 +19,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -29,9 +36,10 @@ public class DoctorController {
     private final DoctorApplicationService doctorApplicationService;
     private final DoctorMapper doctorMapper;
     private final NotificationService notificationService;
+    private final IFileStorage fileStorage;
+    private final StaticFileResponder staticFileResponder;
+    private final ImageVariantGenerator imageVariantGenerator;
 
-    @org.springframework.beans.factory.annotation.Value("${app.upload.dir:uploads/}")
-    private String appUploadDir; // base upload dir configurable
 
     private final List<String> EXTENSIONES_PERMITIDAS = Arrays.asList("jpg", "jpeg", "png", "webp");
     private final long MAX_SIZE = 5 * 1024 * 1024;
@@ -97,6 +105,9 @@ public class DoctorController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(doctorMapper.toJpaEntity(saved));
 
+        } catch (UploadRejectedException e) {
+            log.warn("⚠️ Imagen rechazada al crear doctor: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             log.warn("⚠️ Validación fallida al crear doctor: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -172,6 +183,9 @@ public class DoctorController {
             
             return ResponseEntity.ok(doctorMapper.toJpaEntity(doctorGuardado));
 
+        } catch (UploadRejectedException e) {
+            log.warn("⚠️ Imagen rechazada al actualizar doctor: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus()).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             log.warn("⚠️ Error de validación al actualizar doctor: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -202,64 +216,37 @@ public class DoctorController {
     }
 
     private String guardarImagen(MultipartFile file) throws IOException {
-        if (file.getSize() > MAX_SIZE) throw new IOException("El archivo excede los 5MB permitidos.");
-
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.trim().isEmpty()) {
-            throw new IOException("El nombre del archivo es inválido");
-        }
-        String extension = "";
-        if (originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase();
-        }
-        if (!EXTENSIONES_PERMITIDAS.contains(extension)) {
-            throw new IOException("Formato no permitido. Solo: " + EXTENSIONES_PERMITIDAS);
+        if (file.getSize() > MAX_SIZE) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "El archivo excede los 5MB permitidos.");
         }
 
-        String base = appUploadDir == null ? "uploads/" : appUploadDir;
-        if (!base.endsWith("/")) base = base + "/";
-        File uploadDir = new File(base + "doctores/");
-        if (!uploadDir.exists()) uploadDir.mkdirs();
-
-        String sanitized = originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
-        String fileName = System.currentTimeMillis() + "_" + sanitized;
+        // El formato se decide por los bytes mágicos, no por el nombre; la copia aborta al pasar MAX_SIZE.
+        // Nombre = SHA-256 del contenido: URL inmutable y deduplicación de imágenes repetidas
+        String fileName;
+        try (ImageUploadStream in = ImageUploadStream.open(file.getInputStream(), MAX_SIZE, EXTENSIONES_PERMITIDAS)) {
+            fileName = fileStorage.store(IFileStorage.CATEGORIA_DOCTORES, in, in.getExtension());
+        }
+        Path guardado = fileStorage.locate(IFileStorage.CATEGORIA_DOCTORES, fileName);
+        imageVariantGenerator.submit(guardado);
 
-        File destino = new File(uploadDir, fileName);
-        file.transferTo(destino);
-        
         // Retornar la ruta accesible desde el frontend
-        String rutaAccesible = "/uploads/doctores/" + fileName;
-        log.info("✅ Imagen de doctor guardada en: {}", destino.getAbsolutePath());
+        String rutaAccesible = fileStorage.publicUrl(IFileStorage.CATEGORIA_DOCTORES, fileName);
+        log.info("✅ Imagen de doctor guardada en: {}", guardado);
         log.info("📍 Ruta accesible: {}", rutaAccesible);
         return rutaAccesible;
     }
 
+    /**
+     * GET /doctores/imagen/{filename}
+     * Sirve la imagen desde la caché caliente o desde disco (sendfile/transferTo)
+     * con soporte de Range, ETag y Last-Modified.
+     * Con ?w= se sirve la variante redimensionada más cercana si ya fue generada.
+     */
     @GetMapping("/imagen/{filename:.+}")
-    public ResponseEntity<byte[]> servirImagen(@PathVariable String filename) {
-        try {
-            String base = appUploadDir == null ? "uploads/" : appUploadDir;
-            if (!base.endsWith("/")) base = base + "/";
-            File imgFile = new File(base + "doctores/" + filename);
-            if (!imgFile.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            byte[] bytes = java.nio.file.Files.readAllBytes(imgFile.toPath());
-            MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-            if (filename != null) {
-                if (filename.endsWith(".png")) mediaType = MediaType.IMAGE_PNG;
-                else if (filename.endsWith(".jpg") || filename.endsWith(".jpeg")) mediaType = MediaType.IMAGE_JPEG;
-                else if (filename.endsWith(".webp")) {
-                    MediaType webpType = MediaType.valueOf("image/webp");
-                    if (webpType != null) mediaType = webpType;
-                }
-            }
-            if (mediaType != null) {
-                return ResponseEntity.ok().contentType(mediaType).body(bytes);
-            } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public void servirImagen(@PathVariable String filename,
+                             @RequestParam(value = "w", required = false) String w,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        staticFileResponder.serveUpload(fileStorage, IFileStorage.CATEGORIA_DOCTORES, filename, w, request, response);
     }
 }
@@ -3,17 +3,23 @@ package com.sigc.backend.controller;
 import com.sigc.backend.application.mapper.EspecialidadMapper;
 import com.sigc.backend.application.service.EspecialidadApplicationService;
 import com.sigc.backend.domain.model.Especialidad;
+import com.sigc.backend.domain.port.IFileStorage;
+import com.sigc.backend.infrastructure.image.ImageVariantGenerator;
+import com.sigc.backend.exception.UploadRejectedException;
+import com.sigc.backend.infrastructure.web.ImageUploadStream;
+import com.sigc.backend.infrastructure.web.StaticFileResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.Valid;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -29,9 +35,10 @@ public class EspecialidadController {
 
     private final EspecialidadApplicationService especialidadApplicationService;
     private final EspecialidadMapper especialidadMapper;
+    private final IFileStorage fileStorage;
+    private final StaticFileResponder staticFileResponder;
+    private final ImageVariantGenerator imageVariantGenerator;
 
-    @org.springframework.beans.factory.annotation.Value("${app.upload.dir:uploads/}")
-    private String appUploadDir; // base upload dir configurable
     private final List<String> EXTENSIONES_PERMITIDAS = Arrays.asList("jpg", "jpeg", "png", "webp");
     private final long MAX_SIZE = 5 * 1024 * 1024; // 5MB
 
@@ -87,6 +94,10 @@ public class EspecialidadController {
             log.info("✅ Especialidad creada con ID: {}", saved.getIdEspecialidad());
             
             return ResponseEntity.ok(especialidadMapper.toJpaEntity(saved));
+        } catch (UploadRejectedException e) {
+            log.warn("⚠️ Imagen rechazada: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus())
+                    .body(Map.of("message", e.getMessage()));
         } catch (IllegalArgumentException e) {
             log.warn("⚠️ Error de validación: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -138,6 +149,10 @@ public class EspecialidadController {
             log.info("✅ Especialidad actualizada: {}", id);
             
             return ResponseEntity.ok(especialidadMapper.toJpaEntity(actualizada));
+        } catch (UploadRejectedException e) {
+            log.warn("⚠️ Imagen rechazada: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus())
+                    .body(Map.of("message", e.getMessage()));
         } catch (IllegalArgumentException e) {
             log.warn("⚠️ Error de validación: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -170,96 +185,37 @@ public class EspecialidadController {
         }
     }
     
-    @NonNull
-    private MediaType determinarMediaType(String filename) {
-        MediaType defaultType = MediaType.APPLICATION_OCTET_STREAM;
-        if (defaultType == null) {
-            throw new IllegalStateException("MediaType.APPLICATION_OCTET_STREAM is null");
-        }
-        
-        if (filename == null) {
-            return defaultType;
-        }
-        
-        String lowerFilename = filename.toLowerCase();
-        MediaType mediaType;
-        
-        if (lowerFilename.endsWith(".png")) {
-            mediaType = MediaType.IMAGE_PNG;
-            return mediaType != null ? mediaType : defaultType;
-        } else if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) {
-            mediaType = MediaType.IMAGE_JPEG;
-            return mediaType != null ? mediaType : defaultType;
-        } else if (lowerFilename.endsWith(".webp")) {
-            try {
-                mediaType = MediaType.valueOf("image/webp");
-                return mediaType != null ? mediaType : defaultType;
-            } catch (Exception e) {
-                log.warn("No se pudo determinar MediaType para webp, usando default");
-                return defaultType;
-            }
-        }
-        return defaultType;
-    }
-    
     private String guardarImagen(MultipartFile file) throws IOException {
         if (file.getSize() > MAX_SIZE) {
-            throw new IOException("El archivo excede los 5MB permitidos.");
-        }
-        
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.trim().isEmpty()) {
-            throw new IOException("El nombre del archivo es invalido");
-        }
-        
-        String extension = "";
-        if (originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase();
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "El archivo excede los 5MB permitidos.");
         }
-        
-        if (!EXTENSIONES_PERMITIDAS.contains(extension)) {
-            throw new IOException("Formato no permitido. Solo: " + EXTENSIONES_PERMITIDAS);
-        }
-        
-        String base = appUploadDir == null ? "uploads/" : appUploadDir;
-        if (!base.endsWith("/")) base = base + "/";
-        File uploadDir = new File(base + "especialidades/");
-        if (!uploadDir.exists()) {
-            uploadDir.mkdirs();
+
+        // El formato se decide por los bytes mágicos, no por el nombre; la copia aborta al pasar MAX_SIZE.
+        // Nombre = SHA-256 del contenido: URL inmutable y deduplicación de imágenes repetidas
+        String fileName;
+        try (ImageUploadStream in = ImageUploadStream.open(file.getInputStream(), MAX_SIZE, EXTENSIONES_PERMITIDAS)) {
+            fileName = fileStorage.store(IFileStorage.CATEGORIA_ESPECIALIDADES, in, in.getExtension());
         }
-        
-        String sanitized = originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
-        String fileName = System.currentTimeMillis() + "_" + sanitized;
-        
-        File destino = new File(uploadDir, fileName);
-        file.transferTo(destino);
-        
+        Path guardado = fileStorage.locate(IFileStorage.CATEGORIA_ESPECIALIDADES, fileName);
+        imageVariantGenerator.submit(guardado);
+
         // Retornar la ruta accesible desde el frontend
-        String rutaAccesible = "/uploads/especialidades/" + fileName;
-        log.info("✅ Archivo guardado en: {}", destino.getAbsolutePath());
+        String rutaAccesible = fileStorage.publicUrl(IFileStorage.CATEGORIA_ESPECIALIDADES, fileName);
+        log.info("✅ Archivo guardado en: {}", guardado);
         log.info("📍 Ruta accesible: {}", rutaAccesible);
         return rutaAccesible;
     }
     
+    /**
+     * GET /especialidades/imagen/{filename}
+     * Sirve la imagen directamente desde disco con soporte de Range y GET condicional.
+     * Con ?w= se sirve la variante redimensionada más cercana si ya fue generada.
+     */
     @GetMapping("/imagen/{filename:.+}")
-    public ResponseEntity<byte[]> servirImagen(@PathVariable String filename) {
-        try {
-                String base = appUploadDir == null ? "uploads/" : appUploadDir;
-                if (!base.endsWith("/")) base = base + "/";
-                File imgFile = new File(base + "especialidades/" + filename);
-            if (!imgFile.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            byte[] bytes = java.nio.file.Files.readAllBytes(imgFile.toPath());
-            MediaType mediaType = determinarMediaType(filename);
-            
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .body(bytes);
-        } catch (Exception e) {
-            log.error("Error al servir imagen: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public void servirImagen(@PathVariable String filename,
+                             @RequestParam(value = "w", required = false) String w,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        staticFileResponder.serveUpload(fileStorage, IFileStorage.CATEGORIA_ESPECIALIDADES, filename, w, request, response);
     }
 }
@@ -3,17 +3,23 @@ package com.sigc.backend.controller;
 import com.sigc.backend.application.service.UserApplicationService;
 import com.sigc.backend.domain.model.Usuario;
 import com.sigc.backend.security.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Controlador para obtener datos del usuario autenticado
+ *
+ * El perfil se sirve desde la caché de UserApplicationService (sin tocar la BD en
+ * llamadas repetidas) con ETag: si el cliente envía If-None-Match con el mismo valor
+ * se responde 304 sin cuerpo.
  */
 @Slf4j
 @RestController
@@ -22,6 +28,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class MeController {
 
+    private static final CacheControl PERFIL_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final JwtUtil jwtUtil;
     private final UserApplicationService userApplicationService;
 
@@ -31,34 +39,21 @@ public class MeController {
      * Este endpoint extrae el ID del usuario del token automáticamente
      */
     @GetMapping("/me")
-    public ResponseEntity<?> obtenerUsuarioAutenticado(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> obtenerUsuarioAutenticado(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            log.info("Obteniendo datos del usuario autenticado");
-            
             // Extraer token del header (quitar "Bearer ")
-            String token = authHeader.substring(7);
-
-            // Validar token
-            if (!jwtUtil.validateToken(token)) {
-                log.warn("Token inválido o expirado");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("error", "Token inválido o expirado"));
-            }
+            String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
 
             Long idUsuario;
-            String email;
-            
             try {
-                // Intentar obtener ID del token nuevo
+                // Una sola verificación: firma, expiración y revocación
                 idUsuario = jwtUtil.getUserIdFromToken(token);
-                email = jwtUtil.getEmailFromToken(token);
-                log.info("Token nuevo detectado - ID: {}, Email: {}", idUsuario, email);
-            } catch (Exception e) {
+            } catch (NumberFormatException e) {
                 // Token antiguo con email en sub
                 log.warn("Token antiguo detectado, intentando obtener por email");
-                email = jwtUtil.getEmailFromToken(token);
-                
-                // Buscar usuario por email
+                String email = jwtUtil.getEmailFromToken(token);
                 try {
                     Usuario usuarioTemp = userApplicationService.getUserByEmail(email);
                     idUsuario = usuarioTemp.getId();
@@ -72,23 +67,31 @@ public class MeController {
                 }
             }
 
-            // Buscar usuario por ID
-            Usuario usuario = userApplicationService.getUserById(idUsuario);
+            var snapshot = userApplicationService.getPerfil(idUsuario).orElse(null);
+            if (snapshot == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Usuario no encontrado"));
+            }
 
-            // Preparar respuesta con todos los datos
-            Map<String, Object> response = new HashMap<>();
-            response.put("idUsuario", usuario.getId());
-            response.put("nombre", usuario.getNombre());
-            response.put("email", usuario.getEmail());
-            response.put("dni", usuario.getDni());
-            response.put("telefono", usuario.getTelefono());
-            response.put("rol", usuario.getRole());
-            response.put("activo", usuario.getActivo());
-            response.put("fechaRegistro", usuario.getCreatedAt());
+            if (ifNoneMatch != null && etagMatches(ifNoneMatch, snapshot.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.etag())
+                        .cacheControl(PERFIL_CACHE_CONTROL)
+                        .varyBy(HttpHeaders.AUTHORIZATION)
+                        .build();
+            }
 
-            log.info("Datos del usuario {} obtenidos exitosamente", usuario.getId());
-            return ResponseEntity.ok(response);
+            log.debug("Perfil del usuario {} servido", idUsuario);
+            return ResponseEntity.ok()
+                    .eTag(snapshot.etag())
+                    .cacheControl(PERFIL_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .body(snapshot.perfil());
 
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token inválido o expirado");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token inválido o expirado"));
         } catch (Exception e) {
             log.error("Error al obtener usuario autenticado: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -101,7 +104,22 @@ public class MeController {
      * Alias de /auth/me para compatibilidad
      */
     @GetMapping("/profile")
-    public ResponseEntity<?> obtenerPerfil(@RequestHeader("Authorization") String authHeader) {
-        return obtenerUsuarioAutenticado(authHeader);
+    public ResponseEntity<?> obtenerPerfil(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return obtenerUsuarioAutenticado(authHeader, ifNoneMatch);
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) {
+                c = c.substring(2);
+            }
+            if (c.equals("*") || c.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,119 @@
+package com.sigc.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reenvío de notificaciones perdidas durante una reconexión (STOMP)
+ *
+ * El cliente envía SEND /app/notifications/replay?since={última secuencia recibida}
+ * (o la cabecera "since") y recibe en /user/queue/notifications, solo en esa sesión,
+ * las notificaciones posteriores en frames de hasta page-size elementos.
+ */
+@Controller
+@Slf4j
+public class NotificationReplayController {
+
+    private final NotificationOutboxService outboxService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final int maxEvents;
+
+    public NotificationReplayController(NotificationOutboxService outboxService,
+                                        SimpMessagingTemplate messagingTemplate,
+                                        ObjectMapper objectMapper,
+                                        @Value("${app.notifications.replay.page-size:100}") int pageSize,
+                                        @Value("${app.notifications.replay.max-events:1000}") int maxEvents) {
+        this.outboxService = outboxService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxEvents = Math.max(this.pageSize, maxEvents);
+    }
+
+    @MessageMapping("/notifications/replay*")
+    public void replay(SimpMessageHeaderAccessor headers, Principal principal) {
+        if (principal == null) {
+            return;
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(principal.getName());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        long since = parseSince(headers.getDestination(), headers.getFirstNativeHeader("since"));
+
+        int sent = 0;
+        while (sent < maxEvents) {
+            List<NotificacionOutbox> page = outboxService.replay(userId, since, Math.min(pageSize, maxEvents - sent));
+            if (page.isEmpty()) {
+                break;
+            }
+            sendToSession(principal.getName(), headers.getSessionId(), toJson(page));
+            sent += page.size();
+            since = page.get(page.size() - 1).secuencia();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        log.info("🔁 Replay de notificaciones para usuario {}: {} enviadas (hasta secuencia {})", userId, sent, since);
+    }
+
+    /**
+     * Lee "since" de la query del destino (?since=N) o de la cabecera; 0 si no viene o no es válido.
+     */
+    static long parseSince(String destination, String header) {
+        String value = header;
+        if (destination != null) {
+            int idx = destination.indexOf("since=");
+            if (idx >= 0) {
+                int end = destination.indexOf('&', idx);
+                value = destination.substring(idx + 6, end < 0 ? destination.length() : end);
+            }
+        }
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private List<JsonNode> toJson(List<NotificacionOutbox> page) {
+        List<JsonNode> nodes = new ArrayList<>(page.size());
+        for (NotificacionOutbox entrada : page) {
+            try {
+                nodes.add(objectMapper.readTree(entrada.payload()));
+            } catch (IOException e) {
+                log.warn("⚠️ Notificación {} del outbox ilegible: {}", entrada.secuencia(), e.getMessage());
+            }
+        }
+        return nodes;
+    }
+
+    private void sendToSession(String user, String sessionId, Object payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(user, NotificationService.USER_QUEUE, payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,92 @@
+package com.sigc.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.security.JwtUtil;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Notificaciones en tiempo real por Server-Sent Events
+ *
+ * Alternativa a WebSocket/STOMP para clientes que solo reciben (pantallas de recepción, kioscos).
+ * EventSource no permite cabeceras, así que el JWT puede ir en ?token= además de en Authorization.
+ */
+@RestController
+@RequestMapping("/notifications")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@Slf4j
+public class NotificationStreamController {
+
+    private final SseNotificationBroker broker;
+    private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+
+    public NotificationStreamController(SseNotificationBroker broker,
+                                        JwtUtil jwtUtil,
+                                        TokenVersionRegistry tokenVersionRegistry,
+                                        ObjectMapper objectMapper,
+                                        @Value("${app.notifications.sse.timeout-ms:1800000}") long timeoutMs) {
+        this.broker = broker;
+        this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * GET /notifications/stream
+     * Eventos "user", "admin", "horarios" y "global" según el rol del token.
+     * El navegador reenvía Last-Event-ID al reconectar; también se acepta ?lastEventId=.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                             @RequestParam(value = "token", required = false) String tokenParam,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+                             HttpServletResponse response) throws IOException {
+        String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : tokenParam;
+        if (token == null || token.isBlank()) {
+            return rechazar(response, HttpStatus.UNAUTHORIZED, "Token JWT requerido en header Authorization o parámetro token");
+        }
+        JwtUtil.AccessToken accessToken;
+        try {
+            accessToken = jwtUtil.parseAccessToken(token);
+        } catch (Exception ex) {
+            return rechazar(response, HttpStatus.UNAUTHORIZED, "Token inválido o expirado");
+        }
+        if (accessToken.userId() == null
+                || !tokenVersionRegistry.isCurrent(accessToken.userId(), accessToken.version())) {
+            return rechazar(response, HttpStatus.UNAUTHORIZED, "Token inválido o expirado");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        try {
+            broker.open(emitter, accessToken.userId(), accessToken.rol(), accessToken.version(),
+                    lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+        } catch (IllegalStateException ex) {
+            return rechazar(response, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+        log.debug("📡 Conexión SSE abierta para usuario {} ({})", accessToken.userId(), accessToken.rol());
+        return emitter;
+    }
+
+    private SseEmitter rechazar(HttpServletResponse response, HttpStatus status, String mensaje) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", mensaje));
+        return null;
+    }
+}
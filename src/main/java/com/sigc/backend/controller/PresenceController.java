@@ -0,0 +1,67 @@
+package com.sigc.backend.controller;
+
+import com.sigc.backend.infrastructure.websocket.PresenceRegistry;
+import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.shared.constant.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Usuarios conectados por WebSocket a este nodo (solo ADMIN)
+ */
+@RestController
+@RequestMapping("/presence")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RequiredArgsConstructor
+public class PresenceController {
+
+    private final PresenceRegistry presenceRegistry;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * GET /presence?rol=DOCTOR
+     * Sin rol devuelve los doctores y administradores conectados
+     */
+    @GetMapping
+    public ResponseEntity<?> presence(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                      @RequestParam(required = false) String rol) {
+        if (authHeader == null || authHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token JWT requerido en header Authorization"));
+        }
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        String rolToken;
+        try {
+            rolToken = jwtUtil.getRolFromToken(token);
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Token inválido o expirado"));
+        }
+        if (!AppConstants.ROLE_ADMIN.equalsIgnoreCase(rolToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Solo administradores"));
+        }
+
+        List<PresenceRegistry.Presencia> usuarios;
+        if (rol == null || rol.isBlank()) {
+            usuarios = new ArrayList<>(presenceRegistry.list(AppConstants.ROLE_DOCTOR));
+            usuarios.addAll(presenceRegistry.list(AppConstants.ROLE_ADMIN));
+        } else if (List.of(AppConstants.ROLE_ADMIN, AppConstants.ROLE_DOCTOR, AppConstants.ROLE_PATIENT)
+                .contains(rol.toUpperCase())) {
+            usuarios = presenceRegistry.list(rol);
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "Rol no válido: " + rol));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("usuarios", usuarios);
+        body.put("total", usuarios.size());
+        body.put("porRol", presenceRegistry.getStats().get("usuariosPorRol"));
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sigc.backend.controller;
+
+import com.sigc.backend.application.service.SearchApplicationService;
+import com.sigc.backend.infrastructure.search.NGramSearchIndex;
+import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.shared.constant.AppConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador de búsqueda rápida
+ * Busca pacientes (nombre, DNI, email), doctores (nombre, apellido) y especialidades
+ */
+@Slf4j
+@RestController
+@RequestMapping("/search")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RequiredArgsConstructor
+public class SearchController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final SearchApplicationService searchApplicationService;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * GET /search?q=juan&tipo=USUARIO&limit=10
+     * Requiere token JWT. Los pacientes solo pueden buscar doctores y especialidades.
+     */
+    @GetMapping
+    public ResponseEntity<?> buscar(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam("q") String query,
+            @RequestParam(value = "tipo", required = false) String tipo,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token JWT requerido en header Authorization"));
+        }
+        String token = authHeader.substring(7);
+        if (!jwtUtil.validateToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token JWT inválido o expirado"));
+        }
+
+        String tipoFiltro = tipo != null && !tipo.isBlank() ? tipo.trim().toUpperCase() : null;
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        String rol = jwtUtil.getRolFromToken(token);
+        boolean esPaciente = rol == null || AppConstants.ROLE_PATIENT.equalsIgnoreCase(rol) || "USER".equalsIgnoreCase(rol);
+        if (esPaciente && SearchApplicationService.TIPO_USUARIO.equals(tipoFiltro)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "No autorizado para buscar usuarios"));
+        }
+
+        List<NGramSearchIndex.Hit> hits;
+        if (esPaciente && tipoFiltro == null) {
+            // Sin acceso a usuarios: se buscan doctores y especialidades por separado
+            hits = new ArrayList<>(searchApplicationService.search(query, SearchApplicationService.TIPO_DOCTOR, max));
+            hits.addAll(searchApplicationService.search(query, SearchApplicationService.TIPO_ESPECIALIDAD, max));
+            hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+            if (hits.size() > max) hits = hits.subList(0, max);
+        } else {
+            hits = searchApplicationService.search(query, tipoFiltro, max);
+        }
+
+        log.debug("Búsqueda '{}' (tipo={}) -> {} resultados", query, tipoFiltro, hits.size());
+        return ResponseEntity.ok(hits);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sigc.backend.controller;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.sigc.backend.infrastructure.security.password.IPasswordEncoder;
+import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -9,17 +10,18 @@ import java.util.Map;
 @RestController
 @RequestMapping("/test")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RequiredArgsConstructor
 public class TestController {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final IPasswordEncoder encoder;
 
     @GetMapping("/hash")
     public Map<String, Object> generateHash(@RequestParam String password) {
-        String hash = encoder.encode(password);
+        String hash = encoder.encodePassword(password);
         Map<String, Object> response = new HashMap<>();
         response.put("password", password);
         response.put("hash", hash);
-        response.put("matches", encoder.matches(password, hash));
+        response.put("matches", encoder.matchesPassword(password, hash));
         return response;
     }
 
@@ -28,7 +30,7 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
         response.put("password", password);
         response.put("hash", hash);
-        response.put("matches", encoder.matches(password, hash));
+        response.put("matches", encoder.matchesPassword(password, hash));
         return response;
     }
 }
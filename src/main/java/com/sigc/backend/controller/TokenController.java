@@ -1,6 +1,8 @@
 package com.sigc.backend.controller;
 
+import com.sigc.backend.application.service.RefreshTokenApplicationService;
 import com.sigc.backend.application.service.UserApplicationService;
+import com.sigc.backend.domain.exception.RefreshTokenInvalidException;
 import com.sigc.backend.domain.model.Usuario;
 import com.sigc.backend.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,7 @@ import java.util.Map;
 
 /**
  * Controlador para validación y renovación de tokens JWT
+ * Los access tokens duran jwt.access-ttl-minutes; se renuevan con refresh tokens rotativos
  */
 @Slf4j
 @RestController
@@ -24,6 +27,7 @@ public class TokenController {
 
     private final JwtUtil jwtUtil;
     private final UserApplicationService userApplicationService;
+    private final RefreshTokenApplicationService refreshTokenService;
 
     /**
      * POST /auth/validate-token
@@ -88,57 +92,26 @@ public class TokenController {
 
     /**
      * POST /auth/refresh-token
-     * Renueva un token antiguo (con email en sub) a un token nuevo (con ID en sub)
-     * Requiere el token antiguo en el header Authorization
+     * Canjea un refresh token por un access token nuevo y otro refresh token (rotación).
+     * El refresh token recibido queda inutilizado; si se vuelve a presentar se revocan
+     * todas las sesiones del usuario.
+     *
+     * Body: { "refreshToken": "..." }
      */
     @PostMapping("/refresh-token")
-    public ResponseEntity<Map<String, Object>> refreshToken(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, Object>> refreshToken(@RequestBody(required = false) Map<String, String> request) {
         Map<String, Object> response = new HashMap<>();
+        String refreshToken = request != null ? request.get("refreshToken") : null;
 
         try {
-            // Extraer token del header (quitar "Bearer ")
-            String oldToken = authHeader.substring(7);
+            RefreshTokenApplicationService.TokenPair pair = refreshTokenService.rotate(refreshToken);
+            Long userId = jwtUtil.getUserIdFromToken(pair.accessToken());
+            Usuario usuario = userApplicationService.getUserById(userId);
 
-            // Validar que el token sea válido
-            if (!jwtUtil.validateToken(oldToken)) {
-                response.put("error", "Token inválido o expirado");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-            }
-
-            // Intentar extraer información del token antiguo
-            String subject;
-            try {
-                // Intentar obtener como ID
-                subject = jwtUtil.getUserIdFromToken(oldToken).toString();
-            } catch (Exception e) {
-                // Si falla, el subject es probablemente un email
-                subject = jwtUtil.getEmailFromToken(oldToken);
-            }
-
-            log.info("Intentando renovar token para subject: {}", subject);
-
-            Usuario usuario;
-            
-            // Determinar si el subject es ID o email
-            try {
-                Long userId = Long.parseLong(subject);
-                usuario = userApplicationService.getUserById(userId);
-            } catch (NumberFormatException e) {
-                // El subject es un email (token antiguo)
-                try {
-                    usuario = userApplicationService.getUserByEmail(subject);
-                } catch (Exception ex) {
-                    response.put("error", "Usuario no encontrado con email: " + subject);
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-                }
-            }
-
-            // Generar nuevo token con ID
-            String newToken = jwtUtil.generateToken(usuario.getId(), usuario.getEmail(), usuario.getRole());
-
-            // Respuesta completa
             response.put("message", "Token renovado exitosamente");
-            response.put("token", newToken);
+            response.put("token", pair.accessToken());
+            response.put("refreshToken", pair.refreshToken());
+            response.put("expiresIn", pair.expiresIn());
             response.put("idUsuario", usuario.getId());
             response.put("nombre", usuario.getNombre());
             response.put("email", usuario.getEmail());
@@ -149,13 +122,46 @@ public class TokenController {
             log.info("Token renovado exitosamente para usuario ID: {}", usuario.getId());
             return ResponseEntity.ok(response);
 
+        } catch (RefreshTokenInvalidException e) {
+            log.warn("Renovación rechazada: {}", e.getMessage());
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         } catch (Exception e) {
             log.error("Error al renovar token: {}", e.getMessage(), e);
-            response.put("error", "Error al renovar el token: " + e.getMessage());
+            response.put("error", "Error al renovar el token");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
+    /**
+     * POST /auth/logout
+     * Revoca el refresh token de esta sesión. Con "todas": true revoca además todas
+     * las sesiones del usuario del access token (Authorization).
+     *
+     * Body: { "refreshToken": "...", "todas": false }
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
+        Object refreshToken = request != null ? request.get("refreshToken") : null;
+        refreshTokenService.revoke(refreshToken != null ? refreshToken.toString() : null);
+
+        boolean todas = request != null && Boolean.TRUE.equals(request.get("todas"));
+        if (todas) {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")
+                    || !jwtUtil.validateToken(authHeader.substring(7))) {
+                response.put("error", "Token inválido o expirado");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+            refreshTokenService.revokeAll(jwtUtil.getUserIdFromToken(authHeader.substring(7)));
+        }
+
+        response.put("message", todas ? "Todas las sesiones cerradas" : "Sesión cerrada");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * GET /auth/token-info
      * Devuelve información sobre el token actual sin renovarlo
@@ -1,10 +1,18 @@
 package com.sigc.backend.controller;
 
+import com.sigc.backend.domain.port.IFileStorage;
+import com.sigc.backend.infrastructure.image.ImageVariantGenerator;
+import com.sigc.backend.exception.UploadRejectedException;
+import com.sigc.backend.infrastructure.web.ImageUploadStream;
+import com.sigc.backend.infrastructure.web.StaticFileResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -14,10 +22,13 @@ import java.util.Map;
 @RestController
 @RequestMapping("/uploads")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RequiredArgsConstructor
 public class UploadController {
 
-    // Carpeta raíz (no dentro de /src ni /resources)
-    private static final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/images/especialidades/";
+    private final IFileStorage fileStorage;
+    private final StaticFileResponder staticFileResponder;
+    private final ImageVariantGenerator imageVariantGenerator;
+
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "gif", "webp");
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
 
@@ -31,20 +42,13 @@ public class UploadController {
                 return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
                         .body(createErrorResponse("El archivo es demasiado grande (máximo 5MB)"));
             }
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null || !isValidImageExtension(originalFilename)) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Formato de imagen no válido. Permitidos: " + ALLOWED_EXTENSIONS));
+            String uniqueFileName;
+            try (ImageUploadStream in = ImageUploadStream.open(file.getInputStream(), MAX_FILE_SIZE, ALLOWED_EXTENSIONS)) {
+                uniqueFileName = fileStorage.store(IFileStorage.CATEGORIA_ESPECIALIDADES, in, in.getExtension());
             }
-            File dir = new File(UPLOAD_DIR);
-            if (!dir.exists()) dir.mkdirs();
-
-            String uniqueFileName = System.currentTimeMillis() + "_" + sanitizeFilename(originalFilename);
-            String filePath = UPLOAD_DIR + uniqueFileName;
-            File destination = new File(filePath);
-            file.transferTo(destination);
+            imageVariantGenerator.submit(fileStorage.locate(IFileStorage.CATEGORIA_ESPECIALIDADES, uniqueFileName));
 
-            String imageUrl = "/images/especialidades/" + uniqueFileName;
+            String imageUrl = fileStorage.publicUrl(IFileStorage.CATEGORIA_ESPECIALIDADES, uniqueFileName);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("url", imageUrl);
@@ -54,25 +58,66 @@ public class UploadController {
 
             return ResponseEntity.ok(response);
 
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(createErrorResponse(e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(createErrorResponse("Error al guardar la imagen: " + e.getMessage()));
         }
     }
 
-    private boolean isValidImageExtension(String filename) {
-        String extension = getFileExtension(filename);
-        return ALLOWED_EXTENSIONS.contains(extension.toLowerCase());
-    }
+    /**
+     * POST /uploads/{categoria}
+     * Subida en streaming: el cuerpo es la imagen en crudo (sin multipart).
+     * Se valida el formato con los primeros bytes, se rechaza por Content-Length o en
+     * cuanto se pasa del límite, y se copia al almacenamiento con un buffer fijo:
+     * ni la memoria ni el disco temporal dependen de lo que envíe el cliente.
+     */
+    @PostMapping(value = "/{categoria}", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> uploadStream(@PathVariable String categoria, HttpServletRequest request) {
+        if (!IFileStorage.CATEGORIA_DOCTORES.equals(categoria) && !IFileStorage.CATEGORIA_ESPECIALIDADES.equals(categoria)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(createErrorResponse("Categoría no válida"));
+        }
+        if (request.getContentLengthLong() > MAX_FILE_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(createErrorResponse("El archivo es demasiado grande (máximo 5MB)"));
+        }
+        try {
+            String fileName;
+            long size;
+            try (ImageUploadStream in = ImageUploadStream.open(request.getInputStream(), MAX_FILE_SIZE, ALLOWED_EXTENSIONS)) {
+                fileName = fileStorage.store(categoria, in, in.getExtension());
+                size = in.getCount();
+            }
+            imageVariantGenerator.submit(fileStorage.locate(categoria, fileName));
 
-    private String getFileExtension(String filename) {
-        int lastDotIndex = filename.lastIndexOf('.');
-        if (lastDotIndex == -1) return "";
-        return filename.substring(lastDotIndex + 1);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("url", fileStorage.publicUrl(categoria, fileName));
+            response.put("filename", fileName);
+            response.put("size", size);
+            return ResponseEntity.ok(response);
+
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Error al guardar la imagen: " + e.getMessage()));
+        }
     }
 
-    private String sanitizeFilename(String filename) {
-        return filename.replaceAll("[^a-zA-Z0-9._-]", "_");
+    /**
+     * GET /uploads/{categoria}/{filename}
+     * Sirve archivos subidos desde el almacenamiento (caché caliente o disco).
+     * Con ?w= se sirve la variante redimensionada más cercana si ya fue generada.
+     */
+    @GetMapping("/{categoria}/{filename:.+}")
+    public void serveFile(@PathVariable String categoria,
+                          @PathVariable String filename,
+                          @RequestParam(value = "w", required = false) String w,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        staticFileResponder.serveUpload(fileStorage, categoria, filename, w, request, response);
     }
 
     private Map<String, Object> createErrorResponse(String message) {
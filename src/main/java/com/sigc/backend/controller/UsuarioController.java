@@ -1,16 +1,33 @@
 package com.sigc.backend.controller;
 
+import com.sigc.backend.domain.model.Pagina;
 import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.UsuarioSummary;
 import com.sigc.backend.dto.CambiarPasswordRequest;
 import com.sigc.backend.dto.CambiarPasswordResponse;
+import com.sigc.backend.infrastructure.security.password.PasswordHashingOverloadedException;
 import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.application.service.RefreshTokenApplicationService;
 import com.sigc.backend.application.service.UserApplicationService;
+import com.sigc.backend.application.service.UserImportApplicationService;
+import com.sigc.backend.shared.constant.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,16 +49,37 @@ public class UsuarioController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenApplicationService refreshTokenService;
+
+    @Autowired
+    private UserImportApplicationService userImportService;
+
+    @Value("${app.users.import.max-bytes:10485760}")
+    private long importMaxBytes;
+
+    /**
+     * GET /usuarios?page=0&size=50&rol=DOCTOR&activo=true
+     * Directorio de usuarios paginado: solo id, nombre, email, rol y activo (nunca la contraseña).
+     * El total se devuelve en las cabeceras X-Total-Count y X-Total-Pages.
+     */
     @GetMapping
-    public List<Usuario> listarUsuarios() {
+    @CrossOrigin(exposedHeaders = {"X-Total-Count", "X-Total-Pages"})
+    public ResponseEntity<List<UsuarioSummary>> listarUsuarios(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String rol,
+            @RequestParam(required = false) Boolean activo) {
         try {
-            log.info("Listando todos los usuarios");
-            List<Usuario> usuarios = userApplicationService.listAllUsers();
-            log.info("Se encontraron {} usuarios", usuarios.size());
-            return usuarios;
+            Pagina<UsuarioSummary> pagina = userApplicationService.listUserSummaries(rol, activo, page, size);
+            log.info("Listando usuarios: página {} ({} de {})", pagina.pagina(), pagina.contenido().size(), pagina.total());
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(pagina.total()))
+                    .header("X-Total-Pages", String.valueOf(pagina.totalPaginas()))
+                    .body(pagina.contenido());
         } catch (Exception e) {
             log.error("Error al listar usuarios: {}", e.getMessage(), e);
-            return Collections.emptyList();
+            return ResponseEntity.ok(Collections.emptyList());
         }
     }
 
@@ -258,9 +296,16 @@ public class UsuarioController {
             userApplicationService.createUser(usuario);
             log.info("✅ Contraseña actualizada exitosamente para usuario {}", idUsuario);
 
+            // Cerrar todas las sesiones abiertas con la contraseña anterior
+            refreshTokenService.revokeAll(idUsuario);
+
             // Retornar respuesta exitosa SIN la contraseña
             return ResponseEntity.ok(CambiarPasswordResponse.exitoso(usuario.getId(), usuario.getEmail()));
 
+        } catch (PasswordHashingOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(crearError(e.getMessage()));
         } catch (RuntimeException e) {
             String mensaje = e.getMessage();
 
@@ -279,6 +324,120 @@ public class UsuarioController {
         }
     }
 
+    /**
+     * POST /usuarios/import
+     * Importa usuarios desde un CSV (solo ADMIN).
+     *
+     * El CSV puede llegar como cuerpo crudo (text/csv) o como multipart en el campo "file".
+     * Se vuelca a un archivo temporal sin cargarlo en memoria y se procesa en segundo plano;
+     * la respuesta es 202 con el id del trabajo para consultar el progreso.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importarUsuarios(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletRequest request) {
+        ResponseEntity<?> denegado = verificarAdmin(authHeader);
+        if (denegado != null) {
+            return denegado;
+        }
+        Path temp = null;
+        try {
+            InputStream in;
+            if (request instanceof MultipartHttpServletRequest multipart) {
+                MultipartFile file = multipart.getFile("file");
+                if (file == null || file.isEmpty()) {
+                    return ResponseEntity.badRequest().body(crearError("Debe enviar el CSV en el campo 'file'"));
+                }
+                in = file.getInputStream();
+            } else {
+                in = request.getInputStream();
+            }
+            temp = Files.createTempFile("usuarios-import-", ".csv");
+            long bytes = copiarConLimite(in, temp, importMaxBytes);
+            if (bytes < 0) {
+                Files.deleteIfExists(temp);
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(crearError("El archivo supera el máximo de " + importMaxBytes + " bytes"));
+            }
+            if (bytes == 0) {
+                Files.deleteIfExists(temp);
+                return ResponseEntity.badRequest().body(crearError("El archivo está vacío"));
+            }
+            UserImportApplicationService.ImportJob job = userImportService.start(temp);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/usuarios/import/" + job.getId())
+                    .body(Map.of("jobId", job.getId(), "estado", job.getEstado()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(crearError(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error al recibir el CSV de usuarios: {}", e.getMessage(), e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // el temporal queda para el sistema
+                }
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(crearError("Error al recibir el archivo"));
+        }
+    }
+
+    /**
+     * GET /usuarios/import/{jobId}
+     * Progreso e informe de errores de una importación (solo ADMIN)
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> estadoImportacion(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @PathVariable String jobId) {
+        ResponseEntity<?> denegado = verificarAdmin(authHeader);
+        if (denegado != null) {
+            return denegado;
+        }
+        return userImportService.get(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(crearError("Importación no encontrada")));
+    }
+
+    private ResponseEntity<?> verificarAdmin(String authHeader) {
+        if (authHeader == null || authHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(crearError("Token JWT requerido en header Authorization"));
+        }
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        String rol;
+        try {
+            rol = jwtUtil.getRolFromToken(token);
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(crearError("Token inválido o expirado"));
+        }
+        if (!AppConstants.ROLE_ADMIN.equalsIgnoreCase(rol)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(crearError("Solo administradores"));
+        }
+        return null;
+    }
+
+    /**
+     * Copia el flujo al archivo; devuelve los bytes copiados o -1 si supera el límite.
+     */
+    private static long copiarConLimite(InputStream in, Path destino, long maxBytes) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (InputStream source = in; OutputStream out = Files.newOutputStream(destino)) {
+            int n;
+            while ((n = source.read(buffer)) > 0) {
+                total += n;
+                if (total > maxBytes) {
+                    return -1;
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return total;
+    }
+
     /**
      * Método auxiliar para crear respuestas de error estándar
      */
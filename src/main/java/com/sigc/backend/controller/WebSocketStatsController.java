@@ -0,0 +1,75 @@
+package com.sigc.backend.controller;
+
+import com.sigc.backend.application.service.AppointmentReminderService;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.infrastructure.websocket.NotificationCoalescer;
+import com.sigc.backend.infrastructure.websocket.NotificationRelay;
+import com.sigc.backend.infrastructure.websocket.OutboundPriorityLanes;
+import com.sigc.backend.infrastructure.websocket.PresenceRegistry;
+import com.sigc.backend.infrastructure.websocket.StompAuthChannelInterceptor;
+import com.sigc.backend.infrastructure.websocket.StompContentNegotiationInterceptor;
+import com.sigc.backend.infrastructure.websocket.WebSocketMetrics;
+import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.shared.constant.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Métricas de las conexiones WebSocket (solo ADMIN)
+ */
+@RestController
+@RequestMapping("/websocket")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RequiredArgsConstructor
+public class WebSocketStatsController {
+
+    private final WebSocketMetrics webSocketMetrics;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final NotificationCoalescer notificationCoalescer;
+    private final NotificationOutboxService notificationOutboxService;
+    private final NotificationRelay notificationRelay;
+    private final SseNotificationBroker sseNotificationBroker;
+    private final StompContentNegotiationInterceptor contentNegotiationInterceptor;
+    private final PresenceRegistry presenceRegistry;
+    private final OutboundPriorityLanes outboundPriorityLanes;
+    private final AppointmentReminderService appointmentReminderService;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * GET /websocket/stats
+     * Sesiones, sesiones descartadas por lentitud, colas de los canales STOMP, agrupación de notificaciones, outbox, reenvío entre nodos, conexiones SSE, formatos binarios, presencia, carriles de prioridad y recordatorios de citas
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || authHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Token JWT requerido en header Authorization"));
+        }
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        String rol;
+        try {
+            rol = jwtUtil.getRolFromToken(token);
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Token inválido o expirado"));
+        }
+        if (!AppConstants.ROLE_ADMIN.equalsIgnoreCase(rol)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Solo administradores"));
+        }
+        Map<String, Object> stats = webSocketMetrics.getStats();
+        stats.put("sesionesAutenticadas", stompAuthChannelInterceptor.sessionCount());
+        stats.put("agrupacion", notificationCoalescer.getStats());
+        stats.put("outbox", notificationOutboxService.getStats());
+        stats.put("reenvioNodos", notificationRelay.getStats());
+        stats.put("sse", sseNotificationBroker.getStats());
+        stats.put("formatos", contentNegotiationInterceptor.getStats());
+        stats.put("presencia", presenceRegistry.getStats());
+        stats.put("prioridades", outboundPriorityLanes.getStats());
+        stats.put("recordatorios", appointmentReminderService.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sigc.backend.domain.exception;
+
+import com.sigc.backend.shared.constant.ErrorCodes;
+
+/**
+ * Excepción: Refresh token inexistente, expirado, revocado o reutilizado.
+ */
+public class RefreshTokenInvalidException extends DomainException {
+
+    public RefreshTokenInvalidException(String message) {
+        super(ErrorCodes.AUTH_TOKEN_INVALID, message);
+    }
+}
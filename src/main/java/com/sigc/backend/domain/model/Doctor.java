@@ -17,6 +17,10 @@ public class Doctor {
     
     private Long idDoctor;
     private String nombre;
+    private String apellido;
+    private String telefono;
+    private String correo;
+    private Long especialidadId;
     private String especialidad;
     private int cupoPacientes;
     private String imagen;
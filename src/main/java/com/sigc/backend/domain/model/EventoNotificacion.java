@@ -0,0 +1,29 @@
+package com.sigc.backend.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación publicada en la tabla de eventos compartida entre nodos.
+ *
+ * Cada nodo entrega la notificación a sus propias sesiones y la publica aquí;
+ * los demás nodos la leen y la reenvían a las sesiones que tienen conectadas.
+ *
+ * @param id ID creciente asignado por la BD (null al publicar)
+ * @param nodo Nodo que la generó
+ * @param canal USUARIO (cola personal), TOPIC (difusión directa) o AGRUPADO (difusión por ventana)
+ * @param destino ID del usuario o destino /topic/...
+ * @param payload Notificación serializada en JSON
+ * @param creado Momento de publicación
+ */
+public record EventoNotificacion(
+        Long id,
+        String nodo,
+        String canal,
+        String destino,
+        String payload,
+        LocalDateTime creado) {
+
+    public static final String CANAL_USUARIO = "USUARIO";
+    public static final String CANAL_TOPIC = "TOPIC";
+    public static final String CANAL_AGRUPADO = "AGRUPADO";
+}
@@ -0,0 +1,20 @@
+package com.sigc.backend.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación guardada en el outbox para poder reenviarla tras una reconexión.
+ *
+ * @param idUsuario Destinatario
+ * @param secuencia Número de secuencia del destinatario (creciente, empieza en 1)
+ * @param tipo Tipo de notificación
+ * @param payload Notificación serializada en JSON, tal como se envió
+ * @param creado Momento en que se generó
+ */
+public record NotificacionOutbox(
+        Long idUsuario,
+        long secuencia,
+        String tipo,
+        String payload,
+        LocalDateTime creado) {
+}
@@ -0,0 +1,18 @@
+package com.sigc.backend.domain.model;
+
+import java.util.List;
+
+/**
+ * Página de resultados, independiente de Spring Data.
+ *
+ * @param contenido Elementos de la página
+ * @param pagina Número de página (empieza en 0)
+ * @param tamano Tamaño de página solicitado
+ * @param total Total de elementos que cumplen el filtro
+ */
+public record Pagina<T>(List<T> contenido, int pagina, int tamano, long total) {
+
+    public int totalPaginas() {
+        return tamano == 0 ? 0 : (int) ((total + tamano - 1) / tamano);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sigc.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token emitido a un usuario.
+ *
+ * Solo se guarda el hash SHA-256 del token; el valor en claro lo tiene únicamente
+ * el cliente. Cada token sirve una sola vez: al usarse se revoca y se emite otro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    private Long id;
+    private Long usuarioId;
+    private String tokenHash;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private boolean revoked;
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sigc.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Archivo almacenado (imagen de doctor, especialidad, etc.) listo para servirse.
+ *
+ * Si el archivo está en la caché caliente, content trae sus bytes (vista de solo
+ * lectura, posición 0); si no, content es null y se sirve desde path.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    private String name;
+    private Path path;
+    private long size;
+    private long lastModified;
+    private ByteBuffer content;
+
+    public boolean isInMemory() {
+        return content != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sigc.backend.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura con los datos de perfil de un usuario.
+ *
+ * No incluye la contraseña; los nombres de los campos son los que devuelve /auth/me.
+ */
+public record UsuarioPerfil(
+        Long idUsuario,
+        String nombre,
+        String email,
+        String dni,
+        String telefono,
+        String rol,
+        Boolean activo,
+        LocalDateTime fechaRegistro) {
+}
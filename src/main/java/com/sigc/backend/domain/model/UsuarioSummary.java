@@ -0,0 +1,14 @@
+package com.sigc.backend.domain.model;
+
+/**
+ * Proyección de solo lectura para listados de usuarios.
+ *
+ * Solo las columnas que muestra el directorio de usuarios: nunca carga la contraseña.
+ */
+public record UsuarioSummary(
+        Long id,
+        String nombre,
+        String email,
+        String rol,
+        Boolean activo) {
+}
@@ -58,6 +58,25 @@ public interface ICitaRepository {
      */
     long count();
 
+    /**
+     * Obtiene las citas no canceladas ni completadas con fecha en [desde, hasta).
+     * Solo se rellenan id, usuarioId, doctorId, fecha y estado.
+     *
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @return Citas ordenadas por fecha
+     */
+    List<Cita> findUpcoming(java.time.LocalDateTime desde, java.time.LocalDateTime hasta);
+
+    /**
+     * De las citas indicadas, las que siguen sin cancelar ni completar (una sola consulta).
+     * Solo se rellenan id, usuarioId, doctorId, fecha y estado.
+     *
+     * @param ids IDs de cita
+     * @return Citas activas, sin orden definido
+     */
+    List<Cita> findActiveByIds(java.util.Collection<Long> ids);
+
     /**
      * Obtiene todas las citas.
      *
@@ -4,6 +4,7 @@ import com.sigc.backend.domain.model.Doctor;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Puerto de salida para Doctor
@@ -40,4 +41,10 @@ public interface IDoctorRepository {
      * Verifica si existe un doctor por ID
      */
     boolean existsById(Long id);
+    
+    /**
+     * Recorre las rutas de imagen no nulas sin cargar las entidades completas
+     * (cursor de base de datos; pensado para conciliar archivos huérfanos)
+     */
+    void forEachImagen(Consumer<String> consumer);
 }
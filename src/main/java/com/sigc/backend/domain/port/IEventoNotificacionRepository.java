@@ -0,0 +1,40 @@
+package com.sigc.backend.domain.port;
+
+import com.sigc.backend.domain.model.EventoNotificacion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Puerto de salida: Contrato para la tabla de eventos de notificación entre nodos.
+ */
+public interface IEventoNotificacionRepository {
+
+    /**
+     * Inserta eventos en lote.
+     *
+     * @param eventos Eventos a publicar (sin ID)
+     */
+    void appendAll(List<EventoNotificacion> eventos);
+
+    /**
+     * Eventos con ID mayor que el indicado, en orden de ID.
+     *
+     * @param desde ID a partir del cual leer (exclusivo)
+     * @param limite Máximo de resultados
+     */
+    List<EventoNotificacion> findAfter(long desde, int limite);
+
+    /**
+     * ID del último evento publicado, o 0 si la tabla está vacía.
+     */
+    long findMaxId();
+
+    /**
+     * Elimina los eventos anteriores a una fecha.
+     *
+     * @param limite Fecha de corte
+     * @return Número de eventos eliminados
+     */
+    int deleteOlderThan(LocalDateTime limite);
+}
@@ -0,0 +1,60 @@
+package com.sigc.backend.domain.port;
+
+import com.sigc.backend.domain.model.StoredFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Puerto de salida para el almacenamiento de archivos subidos
+ * Define el contrato para guardar, localizar y eliminar archivos (DIP)
+ *
+ * Los archivos se agrupan por categoría ("doctores", "especialidades") y se
+ * identifican por su nombre, derivado del hash del contenido.
+ */
+public interface IFileStorage {
+
+    String CATEGORIA_DOCTORES = "doctores";
+    String CATEGORIA_ESPECIALIDADES = "especialidades";
+
+    /**
+     * Guarda el contenido leyéndolo en streaming
+     *
+     * @param category Categoría destino
+     * @param content Contenido (se consume, no se cierra)
+     * @param extension Extensión sin punto, ya validada
+     * @return Nombre asignado al archivo
+     */
+    String store(String category, InputStream content, String extension) throws IOException;
+
+    /**
+     * Busca un archivo; si es pequeño y se pide a menudo, llega con su contenido en memoria
+     */
+    Optional<StoredFile> find(String category, String fileName);
+
+    /**
+     * Ruta física donde vive (o viviría) un archivo, para escribir archivos derivados junto a él
+     */
+    Path locate(String category, String fileName);
+
+    /**
+     * Elimina un archivo
+     *
+     * @return true si existía
+     */
+    boolean delete(String category, String fileName) throws IOException;
+
+    /**
+     * Recorre en streaming los archivos de una categoría (sin contenido en memoria).
+     * El stream debe cerrarse.
+     */
+    Stream<StoredFile> list(String category) throws IOException;
+
+    /**
+     * URL pública con la que el frontend accede al archivo
+     */
+    String publicUrl(String category, String fileName);
+}
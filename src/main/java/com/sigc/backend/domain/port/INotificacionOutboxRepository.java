@@ -0,0 +1,45 @@
+package com.sigc.backend.domain.port;
+
+import com.sigc.backend.domain.model.NotificacionOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Puerto de salida: Contrato para persistencia del outbox de notificaciones.
+ */
+public interface INotificacionOutboxRepository {
+
+    /**
+     * Última secuencia guardada para el usuario.
+     *
+     * @param idUsuario ID del usuario
+     * @return Secuencia máxima, o 0 si no tiene notificaciones
+     */
+    long findMaxSecuencia(Long idUsuario);
+
+    /**
+     * Inserta notificaciones en lote.
+     *
+     * @param entradas Notificaciones a guardar
+     */
+    void appendAll(List<NotificacionOutbox> entradas);
+
+    /**
+     * Notificaciones del usuario posteriores a una secuencia, en orden.
+     *
+     * @param idUsuario ID del usuario
+     * @param desde Última secuencia que ya tiene el cliente
+     * @param limite Máximo de resultados
+     * @return Notificaciones con secuencia mayor que desde
+     */
+    List<NotificacionOutbox> findSince(Long idUsuario, long desde, int limite);
+
+    /**
+     * Elimina las notificaciones anteriores a una fecha.
+     *
+     * @param limite Fecha de corte
+     * @return Número de notificaciones eliminadas
+     */
+    int deleteOlderThan(LocalDateTime limite);
+}
@@ -0,0 +1,52 @@
+package com.sigc.backend.domain.port;
+
+import com.sigc.backend.domain.model.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Puerto de salida: Contrato para persistencia de refresh tokens.
+ */
+public interface IRefreshTokenRepository {
+
+    /**
+     * Guarda un refresh token nuevo.
+     *
+     * @param token Token a guardar
+     * @return Token guardado con ID asignado
+     */
+    RefreshToken save(RefreshToken token);
+
+    /**
+     * Busca un refresh token por el hash de su valor.
+     *
+     * @param tokenHash Hash SHA-256 (hex) del token
+     * @return Token si existe, Optional.empty() si no
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoca un token si seguía activo (operación atómica).
+     *
+     * @param id ID del token
+     * @return true si estaba activo y se revocó, false si ya estaba revocado
+     */
+    boolean revoke(Long id);
+
+    /**
+     * Revoca todos los tokens activos del usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @return Número de tokens revocados
+     */
+    int revokeAllForUser(Long usuarioId);
+
+    /**
+     * Elimina los tokens que expiraron antes de la fecha dada.
+     *
+     * @param before Fecha límite
+     * @return Número de tokens eliminados
+     */
+    int deleteExpired(LocalDateTime before);
+}
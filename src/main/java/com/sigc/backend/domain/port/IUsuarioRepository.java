@@ -1,6 +1,9 @@
 package com.sigc.backend.domain.port;
 
+import com.sigc.backend.domain.model.Pagina;
 import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.UsuarioPerfil;
+import com.sigc.backend.domain.model.UsuarioSummary;
 import java.util.Optional;
 
 /**
@@ -63,10 +66,63 @@ public interface IUsuarioRepository {
      */
     java.util.List<Usuario> findAll();
 
+    /**
+     * Lista paginada de usuarios con solo los datos del directorio (sin contraseña),
+     * ordenada por ID.
+     *
+     * @param rol Filtro por rol (null = todos)
+     * @param activo Filtro por estado (null = todos)
+     * @param pagina Número de página (empieza en 0)
+     * @param tamano Tamaño de página
+     * @return Página de resúmenes
+     */
+    Pagina<UsuarioSummary> findSummaries(String rol, Boolean activo, int pagina, int tamano);
+
     /**
      * Elimina un usuario por su ID.
      *
      * @param id ID del usuario a eliminar
      */
     void deleteById(Long id);
+
+    /**
+     * Devuelve, de los emails dados, los que ya están registrados.
+     *
+     * @param emails Emails en forma canónica (Email.canonicalize)
+     * @return Subconjunto de emails canónicos ya existentes
+     */
+    java.util.Set<String> findExistingEmails(java.util.Collection<String> emails);
+
+    /**
+     * Inserta usuarios nuevos en lote (importaciones masivas).
+     * La contraseña debe venir ya codificada.
+     *
+     * @param usuarios Usuarios sin ID
+     * @return Número de usuarios insertados
+     */
+    int insertAll(java.util.List<Usuario> usuarios);
+
+    /**
+     * Obtiene solo los datos de perfil del usuario (sin contraseña).
+     *
+     * @param id ID del usuario
+     * @return Perfil si existe, Optional.empty() si no
+     */
+    Optional<UsuarioPerfil> findPerfilById(Long id);
+
+    /**
+     * Obtiene la versión actual de los tokens del usuario.
+     *
+     * @param id ID del usuario
+     * @return Versión, o -1 si el usuario no existe
+     */
+    long getTokenVersion(Long id);
+
+    /**
+     * Incrementa la versión de los tokens del usuario (revoca los emitidos hasta ahora).
+     *
+     * @param id ID del usuario
+     * @return Nueva versión, o -1 si el usuario no existe
+     */
+    long incrementTokenVersion(Long id);
 }
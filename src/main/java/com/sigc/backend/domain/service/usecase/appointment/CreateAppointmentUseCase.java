@@ -73,11 +73,11 @@ public class CreateAppointmentUseCase {
         
         // PASO 5: Crear cita en base de datos
         var nuevaCita = crearCita(request);
-        citaRepository.save(nuevaCita);
+        var guardada = citaRepository.save(nuevaCita);
         
         // PASO 6: Retornar cita creada
         return new CreateAppointmentResponse(
-            obtenerCitaId(nuevaCita),
+            obtenerCitaId(guardada != null ? guardada : nuevaCita),
             request.getDate(),
             request.getDescription(),
             request.getDoctorId(),
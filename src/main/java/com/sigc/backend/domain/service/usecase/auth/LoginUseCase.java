@@ -15,7 +15,7 @@ import com.sigc.backend.infrastructure.security.password.IPasswordEncoder;
  * Flujo:
  * 1. Validar credenciales (email + password)
  * 2. Buscar usuario por email
- * 3. Verificar contraseña
+ * 3. Verificar contraseña (y re-hashear si el coste quedó desactualizado)
  * 4. Generar token JWT
  * 5. Retornar token
  * 
@@ -63,14 +63,30 @@ public class LoginUseCase {
         }
         
         // PASO 2: Buscar usuario por email
-        var usuario = usuarioRepository.findByEmail(request.getEmail())
-            .orElseThrow(() -> new UserNotFoundException("Usuario con email " + request.getEmail() + " no encontrado"));
+        // Si no existe se hace igualmente un hash ficticio: mismo tiempo de respuesta que
+        // una contraseña incorrecta, para no revelar qué emails están registrados
+        var usuario = usuarioRepository.findByEmail(request.getEmail()).orElse(null);
+        if (usuario == null) {
+            passwordEncoder.simulateMatch(request.getPassword());
+            throw new UserNotFoundException("Usuario con email " + request.getEmail() + " no encontrado");
+        }
         
         // PASO 3: Verificar contraseña
         if (!passwordEncoder.matchesPassword(request.getPassword(), usuario.getPassword())) {
             throw new CredentialsInvalidException("Contraseña incorrecta");
         }
         
+        // PASO 3b: Re-hash transparente si el hash se generó con un coste menor al actual.
+        // Es el único momento en que se dispone de la contraseña en claro; si falla no bloquea el login.
+        if (passwordEncoder.needsRehash(usuario.getPassword())) {
+            try {
+                usuario.setPassword(passwordEncoder.encodePassword(request.getPassword()));
+                usuarioRepository.save(usuario);
+            } catch (RuntimeException e) {
+                // Se reintentará en el próximo login
+            }
+        }
+        
         // PASO 4: Generar token JWT
         String token = tokenProvider.generateToken(usuario.getId(), usuario.getEmail(), usuario.getRole());
         
@@ -50,6 +50,12 @@ public class NotificacionDTO {
      * ID del usuario destinatario (opcional)
      */
     private String destinatarioId;
+
+    /**
+     * Secuencia de la notificación para su destinatario (solo notificaciones personales).
+     * El cliente guarda la última recibida y la envía a /app/notifications/replay al reconectar.
+     */
+    private Long secuencia;
     
     /**
      * Prioridad de la notificación
@@ -1,13 +1,16 @@
 package com.sigc.backend.exception;
 
+import com.sigc.backend.infrastructure.security.password.PasswordHashingOverloadedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -95,6 +98,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(respuesta);
     }
 
+    /**
+     * Maneja subidas que superan el límite de multipart (413 Payload Too Large)
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        Map<String, Object> respuesta = new HashMap<>();
+        respuesta.put("timestamp", LocalDateTime.now());
+        respuesta.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        respuesta.put("error", "Archivo demasiado grande");
+        respuesta.put("mensaje", "El archivo excede el tamaño máximo permitido (5MB)");
+
+        log.warn("Subida rechazada por tamaño: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(respuesta);
+    }
+
+    /**
+     * Maneja la saturación del pool de hashing de contraseñas (503 + Retry-After)
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleHashingOverloaded(PasswordHashingOverloadedException ex) {
+        Map<String, Object> respuesta = new HashMap<>();
+        respuesta.put("timestamp", LocalDateTime.now());
+        respuesta.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        respuesta.put("error", "Servicio saturado");
+        respuesta.put("mensaje", ex.getMessage());
+
+        log.warn("Petición rechazada por saturación del hashing de contraseñas");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(respuesta);
+    }
+
     /**
      * Maneja errores genéricos no capturados
      */
@@ -0,0 +1,23 @@
+package com.sigc.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+
+/**
+ * Excepción lanzada cuando una subida se rechaza mientras se lee
+ * (contenido que no es una imagen permitida, o tamaño por encima del límite)
+ */
+public class UploadRejectedException extends IOException {
+
+    private final HttpStatus status;
+
+    public UploadRejectedException(HttpStatus status, String mensaje) {
+        super(mensaje);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
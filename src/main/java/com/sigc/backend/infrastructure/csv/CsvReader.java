@@ -0,0 +1,110 @@
+package com.sigc.backend.infrastructure.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV en streaming (RFC 4180): lee registro a registro sin cargar el archivo.
+ *
+ * - Separador configurable; detectDelimiter elige entre ',' y ';' mirando la cabecera
+ * - Campos entre comillas con comillas dobladas ("") y saltos de línea dentro
+ * - Admite finales de línea \n y \r\n, y descarta el BOM UTF-8 inicial
+ */
+public class CsvReader {
+
+    private final BufferedReader reader;
+    private char delimiter = ',';
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+
+    public CsvReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Elige ',' o ';' según cuál aparece más en la primera línea. Debe llamarse antes de next().
+     */
+    public CsvReader detectDelimiter() throws IOException {
+        reader.mark(8192);
+        String first = reader.readLine();
+        reader.reset();
+        if (first != null) {
+            long commas = first.chars().filter(c -> c == ',').count();
+            long semicolons = first.chars().filter(c -> c == ';').count();
+            delimiter = semicolons > commas ? ';' : ',';
+        }
+        return this;
+    }
+
+    public CsvReader withDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Campos del registro, o null al final del archivo
+     */
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            reader.mark(1);
+            if (reader.read() != '﻿') {
+                reader.reset();
+            }
+        }
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + recordLine);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                // se ignora; el registro termina en \n
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c == '\n') line++;
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Línea del archivo (desde 1) en la que empieza el último registro leído.
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+}
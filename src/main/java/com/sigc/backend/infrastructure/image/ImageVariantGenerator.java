@@ -0,0 +1,183 @@
+package com.sigc.backend.infrastructure.image;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera las variantes de ancho fijo (ver {@link ImageVariants#WIDTHS}) de las imágenes subidas.
+ *
+ * El trabajo se hace fuera del hilo de la petición en un pool acotado: hilos y cola
+ * fijos, y si la cola se llena la tarea se descarta (la imagen original sigue sirviéndose).
+ * Nunca se amplía: solo se generan variantes más estrechas que el original.
+ *
+ * Las dimensiones se leen de la cabecera antes de decodificar: las imágenes de más de
+ * app.images.max-pixels píxeles se descartan, y las muy anchas se decodifican submuestreadas
+ * a lo justo para la variante más ancha.
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    public ImageVariantGenerator(@Value("${app.images.variant-threads:2}") int threads,
+                                 @Value("${app.images.variant-queue:64}") int queueCapacity,
+                                 @Value("${app.images.max-pixels:40000000}") long maxPixels) {
+        this.maxPixels = maxPixels;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-variants-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Encola la generación de variantes para un archivo recién guardado.
+     */
+    public void submit(Path original) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } catch (Exception e) {
+                    log.warn("⚠️ No se pudieron generar variantes de {}: {}", original.getFileName(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Cola de variantes llena; se omite {}", original.getFileName());
+        }
+    }
+
+    /**
+     * Genera las variantes de forma síncrona.
+     *
+     * @return Número de variantes escritas
+     */
+    int generate(Path original) throws IOException {
+        String fileName = original.getFileName().toString();
+        String format = writerFormat(fileName);
+        if (format == null) {
+            return 0;
+        }
+        BufferedImage source = read(original);
+        if (source == null) {
+            return 0;
+        }
+
+        int written = 0;
+        for (int width : ImageVariants.WIDTHS) {
+            if (width >= source.getWidth()) {
+                break;
+            }
+            Path target = original.resolveSibling(ImageVariants.variantName(fileName, width));
+            if (Files.exists(target)) {
+                continue;
+            }
+            BufferedImage scaled = scale(source, width, "jpg".equals(format));
+            Path tmp = Files.createTempFile(original.getParent(), ".variant-", ".tmp");
+            try {
+                if (!ImageIO.write(scaled, format, tmp.toFile())) {
+                    return written;
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                written++;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        if (written > 0) {
+            log.info("🖼️ {} variantes generadas para {}", written, fileName);
+        }
+        return written;
+    }
+
+    /**
+     * Decodifica la imagen comprobando antes sus dimensiones.
+     *
+     * @return Imagen (submuestreada si es mucho más ancha que la variante mayor), o null si
+     *         el formato no es legible o supera app.images.max-pixels
+     */
+    private BufferedImage read(Path original) throws IOException {
+        String fileName = original.getFileName().toString();
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.debug("Formato no legible por ImageIO: {}", fileName);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+                    log.warn("⚠️ {} mide {}x{} px, fuera del límite de {} px; no se generan variantes",
+                            fileName, width, height, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = width / ImageVariants.WIDTHS[ImageVariants.WIDTHS.length - 1] / 2;
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage out = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static String writerFormat(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return "jpg";
+        if (lower.endsWith(".png")) return "png";
+        if (lower.endsWith(".gif")) return "gif";
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
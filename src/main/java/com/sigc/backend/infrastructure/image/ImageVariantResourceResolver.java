@@ -0,0 +1,170 @@
+package com.sigc.backend.infrastructure.image;
+
+import com.sigc.backend.shared.constant.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.cache.Cache;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+/**
+ * Resuelve {@code /uploads/...?w=256} a la variante más cercana si ya existe;
+ * si no (aún no generada, formato no soportado), cae al original.
+ *
+ * El handler marca las respuestas como immutable por un año; el original servido en lugar
+ * de una variante se envuelve en {@link VariantFallbackResource}, cuya cabecera
+ * Cache-Control: no-cache sustituye a la del handler.
+ */
+public class ImageVariantResourceResolver extends AbstractResourceResolver {
+
+    public static final String WIDTH_PARAM = "w";
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        int width = request != null ? ImageVariants.pickWidth(request.getParameter(WIDTH_PARAM)) : -1;
+        if (width > 0) {
+            Resource variant = chain.resolveResource(request, ImageVariants.variantName(requestPath, width), locations);
+            if (variant != null) {
+                return variant;
+            }
+            Resource original = chain.resolveResource(request, requestPath, locations);
+            return original != null ? new VariantFallbackResource(original) : null;
+        }
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * Original servido para una URL ?w= cuya variante aún no existe.
+     */
+    public static class VariantFallbackResource extends AbstractResource implements HttpResource {
+
+        private final Resource original;
+
+        public VariantFallbackResource(Resource original) {
+            this.original = original;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setCacheControl(AppConstants.VARIANT_FALLBACK_CACHE_CONTROL);
+            return headers;
+        }
+
+        @Override
+        public boolean exists() {
+            return original.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return original.isReadable();
+        }
+
+        @Override
+        public boolean isFile() {
+            return original.isFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return original.getFile();
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return original.readableChannel();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return original.getDescription();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return original.getInputStream();
+        }
+    }
+
+    /**
+     * Caché de resolución que distingue por ancho pedido. Solo se cachea cuando la
+     * variante existe: mientras se genera, la petición cae al original sin fijarlo.
+     */
+    public static class WidthAwareCachingResolver extends CachingResourceResolver {
+
+        public WidthAwareCachingResolver(Cache cache) {
+            super(cache);
+        }
+
+        @Override
+        protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                                   List<? extends Resource> locations, ResourceResolverChain chain) {
+            int width = request != null ? ImageVariants.pickWidth(request.getParameter(WIDTH_PARAM)) : -1;
+            if (width <= 0) {
+                return super.resolveResourceInternal(request, requestPath, locations, chain);
+            }
+            String key = computeKey(request, requestPath) + "+w=" + width;
+            Resource cached = getCache().get(key, Resource.class);
+            if (cached != null) {
+                return cached;
+            }
+            Resource resolved = chain.resolveResource(request, requestPath, locations);
+            String variantName = ImageVariants.variantName(StringUtils.getFilename(requestPath), width);
+            if (resolved != null && variantName.equals(resolved.getFilename())) {
+                getCache().put(key, resolved);
+            }
+            return resolved;
+        }
+    }
+}
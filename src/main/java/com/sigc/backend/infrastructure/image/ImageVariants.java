@@ -0,0 +1,69 @@
+package com.sigc.backend.infrastructure.image;
+
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Convenciones de las variantes redimensionadas de una imagen subida.
+ *
+ * Cada variante vive junto al original con el sufijo "-w{ancho}":
+ * {@code abc123.jpg -> abc123-w256.jpg}.
+ */
+public final class ImageVariants {
+
+    /** Anchos generados, de menor a mayor. */
+    public static final int[] WIDTHS = {64, 256, 768};
+
+    private static final Pattern VARIANT = Pattern.compile("^(.+)-w\\d+(\\.[^.]+)?$");
+
+    private ImageVariants() {
+    }
+
+    /**
+     * Nombre de la variante de un archivo para un ancho dado.
+     */
+    public static String variantName(String fileName, int width) {
+        int slash = fileName.lastIndexOf('/');
+        int dot = fileName.lastIndexOf('.');
+        if (dot <= slash) {
+            return fileName + "-w" + width;
+        }
+        return fileName.substring(0, dot) + "-w" + width + fileName.substring(dot);
+    }
+
+    /**
+     * Nombre del original del que procede una variante (o el mismo nombre si no lo es).
+     */
+    public static String originalName(String fileName) {
+        Matcher m = VARIANT.matcher(fileName);
+        return m.matches() ? m.group(1) + Objects.toString(m.group(2), "") : fileName;
+    }
+
+    /**
+     * Elige el ancho de variante más pequeño que cubre el ancho pedido.
+     *
+     * @param requested Valor del parámetro ?w= (puede ser null o no numérico)
+     * @return Ancho de variante, o -1 para servir el original
+     */
+    public static int pickWidth(String requested) {
+        if (requested == null || requested.isEmpty()) {
+            return -1;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(requested.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (value <= 0) {
+            return -1;
+        }
+        for (int width : WIDTHS) {
+            if (width >= value) {
+                return width;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,400 @@
+package com.sigc.backend.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de búsqueda en memoria basado en trigramas.
+ *
+ * Cada documento (usuario, doctor o especialidad) se normaliza (minúsculas, sin tildes),
+ * se divide en palabras y cada palabra se rellena con dos espacios al inicio antes de
+ * generar trigramas. Así "ju" produce el trigrama " ju" y sirve como búsqueda por prefijo,
+ * mientras que palabras completas coinciden por todos sus trigramas.
+ *
+ * Estructuras:
+ * - Listas de postings como int[] ordenados (sin boxing por documento)
+ * - Slots de documento reutilizables (free list) para que actualizar no crezca el índice
+ * - Límite máximo de documentos para acotar la memoria
+ *
+ * Concurrencia: lecturas en paralelo con ReadWriteLock, escrituras exclusivas.
+ * Clase sin dependencias de Spring para poder testearla de forma aislada.
+ */
+public class NGramSearchIndex {
+
+    /** Porcentaje mínimo de trigramas de la consulta que debe contener un resultado. */
+    private static final int MIN_MATCH_PERCENT = 70;
+    private static final int MAX_TEXT_LENGTH = 0xFFFFF;
+    private static final int[] EMPTY = new int[0];
+
+    private final int maxDocuments;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByEntity = new HashMap<>();
+
+    private String[] tipos = new String[64];
+    private long[] entityIds = new long[64];
+    private String[] titulos = new String[64];
+    private String[] detalles = new String[64];
+    private long[][] docGrams = new long[64][];
+    private int[] textLengths = new int[64];
+
+    private int nextDoc = 0;
+    private int[] freeDocs = new int[16];
+    private int freeCount = 0;
+    private int liveDocs = 0;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public NGramSearchIndex(int maxDocuments) {
+        if (maxDocuments <= 0 || maxDocuments > (1 << 20)) {
+            throw new IllegalArgumentException("maxDocuments debe estar entre 1 y " + (1 << 20));
+        }
+        this.maxDocuments = maxDocuments;
+    }
+
+    /**
+     * Inserta o reemplaza un documento.
+     *
+     * @param tipo Tipo de entidad (USUARIO, DOCTOR, ESPECIALIDAD)
+     * @param entityId ID de la entidad
+     * @param titulo Texto principal mostrado en el resultado
+     * @param detalle Texto secundario mostrado en el resultado
+     * @param campos Campos a indexar
+     * @return false si el índice está lleno y el documento no se pudo agregar
+     */
+    public boolean upsert(String tipo, long entityId, String titulo, String detalle, String... campos) {
+        long[] grams = gramsOf(campos);
+        int length = 0;
+        for (String campo : campos) {
+            if (campo != null) length += campo.length();
+        }
+
+        lock.writeLock().lock();
+        try {
+            long key = entityKey(tipo, entityId);
+            Integer existing = docByEntity.get(key);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                removePostings(doc);
+            } else {
+                doc = allocateDoc();
+                if (doc < 0) {
+                    return false;
+                }
+                docByEntity.put(key, doc);
+                liveDocs++;
+            }
+            tipos[doc] = tipo;
+            entityIds[doc] = entityId;
+            titulos[doc] = titulo;
+            detalles[doc] = detalle;
+            docGrams[doc] = grams;
+            textLengths[doc] = Math.min(length, MAX_TEXT_LENGTH);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un documento del índice (no hace nada si no existe).
+     */
+    public void remove(String tipo, long entityId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByEntity.remove(entityKey(tipo, entityId));
+            if (doc == null) {
+                return;
+            }
+            removePostings(doc);
+            tipos[doc] = null;
+            titulos[doc] = null;
+            detalles[doc] = null;
+            docGrams[doc] = null;
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+            liveDocs--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca documentos que contengan la mayoría de los trigramas de la consulta.
+     * Orden: más trigramas coincidentes primero; a igualdad, el texto más corto.
+     *
+     * @param query Texto de búsqueda
+     * @param tipo Filtra por tipo de entidad (null = todos)
+     * @param limit Número máximo de resultados
+     * @return Resultados ordenados por relevancia
+     */
+    public List<Hit> search(String query, String tipo, int limit) {
+        long[] grams = gramsOf(query);
+        if (grams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minScore = Math.max(1, (grams.length * MIN_MATCH_PERCENT + 99) / 100);
+
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.ensureCapacity(nextDoc);
+            int touchedCount = 0;
+            for (long gram : grams) {
+                Postings p = postings.get(gram);
+                if (p == null) continue;
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (s.scores[doc]++ == 0) {
+                        s.touched[touchedCount++] = doc;
+                    }
+                }
+            }
+
+            // Heap mínimo de tamaño acotado con (score, -longitud, doc) empaquetados en un long
+            long[] heap = new long[Math.min(limit, Math.max(touchedCount, 1))];
+            int heapSize = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = s.touched[i];
+                int score = s.scores[doc];
+                s.scores[doc] = 0;
+                if (score < minScore || (tipo != null && !tipo.equals(tipos[doc]))) {
+                    continue;
+                }
+                long packed = ((long) score << 40) | ((long) (MAX_TEXT_LENGTH - textLengths[doc]) << 20) | doc;
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = packed;
+                    siftUp(heap, heapSize - 1);
+                } else if (packed > heap[0]) {
+                    heap[0] = packed;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            Arrays.sort(heap, 0, heapSize);
+            List<Hit> hits = new ArrayList<>(heapSize);
+            for (int i = heapSize - 1; i >= 0; i--) {
+                int doc = (int) (heap[i] & 0xFFFFF);
+                int score = (int) (heap[i] >>> 40);
+                hits.add(new Hit(tipos[doc], entityIds[doc], titulos[doc], detalles[doc],
+                        (double) score / grams.length));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de documentos indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de trigramas distintos en el índice.
+     */
+    public int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Helpers internos ---
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (nextDoc >= maxDocuments) {
+            return -1;
+        }
+        if (nextDoc == tipos.length) {
+            int newLength = Math.min(tipos.length * 2, maxDocuments);
+            tipos = Arrays.copyOf(tipos, newLength);
+            entityIds = Arrays.copyOf(entityIds, newLength);
+            titulos = Arrays.copyOf(titulos, newLength);
+            detalles = Arrays.copyOf(detalles, newLength);
+            docGrams = Arrays.copyOf(docGrams, newLength);
+            textLengths = Arrays.copyOf(textLengths, newLength);
+        }
+        return nextDoc++;
+    }
+
+    private void removePostings(int doc) {
+        long[] grams = docGrams[doc];
+        if (grams == null) return;
+        for (long gram : grams) {
+            Postings p = postings.get(gram);
+            if (p != null && p.remove(doc) && p.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static long entityKey(String tipo, long entityId) {
+        return ((long) tipo.hashCode() << 40) ^ entityId;
+    }
+
+    /**
+     * Normaliza un texto: sin tildes, minúsculas, solo letras y dígitos.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String sinTildes = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    /**
+     * Genera los trigramas únicos (ordenados) de los textos dados.
+     */
+    static long[] gramsOf(String... texts) {
+        long[] grams = new long[16];
+        int count = 0;
+        for (String text : texts) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) continue;
+            for (String token : normalized.split(" ")) {
+                String padded = "  " + token;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    long gram = ((long) padded.charAt(i) << 32)
+                            | ((long) padded.charAt(i + 1) << 16)
+                            | padded.charAt(i + 2);
+                    if (count == grams.length) {
+                        grams = Arrays.copyOf(grams, count * 2);
+                    }
+                    grams[count++] = gram;
+                }
+            }
+        }
+        if (count == 0) return new long[0];
+        Arrays.sort(grams, 0, count);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[unique - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) break;
+            long tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && heap[left + 1] < heap[left] ? left + 1 : left;
+            if (heap[i] <= heap[smallest]) break;
+            long tmp = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = tmp;
+            i = smallest;
+        }
+    }
+
+    /**
+     * Lista de documentos ordenada para un trigrama.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size = 0;
+
+        void add(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            docs[pos] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) return false;
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            size--;
+            if (size == 0) {
+                docs = EMPTY;
+            } else if (docs.length > 16 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Arrays de trabajo por hilo para acumular puntajes sin reservar memoria por consulta.
+     */
+    private static final class Scratch {
+        private int[] scores = EMPTY;
+        private int[] touched = EMPTY;
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new int[capacity];
+                touched = new int[capacity];
+            }
+        }
+    }
+
+    /**
+     * Resultado de búsqueda.
+     */
+    public static class Hit {
+        private final String tipo;
+        private final long id;
+        private final String titulo;
+        private final String detalle;
+        private final double score;
+
+        public Hit(String tipo, long id, String titulo, String detalle, double score) {
+            this.tipo = tipo;
+            this.id = id;
+            this.titulo = titulo;
+            this.detalle = detalle;
+            this.score = score;
+        }
+
+        public String getTipo() { return tipo; }
+        public long getId() { return id; }
+        public String getTitulo() { return titulo; }
+        public String getDetalle() { return detalle; }
+        public double getScore() { return score; }
+    }
+}
@@ -2,11 +2,13 @@ package com.sigc.backend.infrastructure.security.jwt;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementación de ITokenProvider.
@@ -16,15 +18,23 @@ import java.util.Map;
  * - Implementa una única responsabilidad (SRP)
  * - Fácil de testear (interfaz clara)
  * - Fácil de reemplazar (ej. cambiar a otro proveedor de tokens)
+ *
+ * Usa la misma clave (jwt.secret) y vigencia corta que JwtUtil, e incluye la versión
+ * de tokens del usuario para que puedan revocarse.
  */
 @Component
 public class JwtTokenProvider implements ITokenProvider {
 
-    private static final String SECRET_KEY = "supersecreta123456supersecreta123456";
-    private static final long EXPIRATION_TIME = 86400000; // 1 día
+    private final Key signingKey;
+    private final long expirationMillis;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    public JwtTokenProvider(@Value("${jwt.secret:supersecreta123456supersecreta123456}") String secretKey,
+                            @Value("${jwt.access-ttl-minutes:15}") long accessTtlMinutes,
+                            TokenVersionRegistry tokenVersionRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.expirationMillis = TimeUnit.MINUTES.toMillis(accessTtlMinutes);
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     /**
@@ -40,13 +50,14 @@ public class JwtTokenProvider implements ITokenProvider {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
         claims.put("rol", role);
+        claims.put("ver", tokenVersionRegistry.current(userId));
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(String.valueOf(userId))
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
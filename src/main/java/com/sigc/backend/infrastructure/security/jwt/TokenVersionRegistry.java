@@ -0,0 +1,96 @@
+package com.sigc.backend.infrastructure.security.jwt;
+
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.shared.collection.StripedLongLongMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Versión de tokens por usuario, cacheada en memoria.
+ *
+ * Cada access token lleva la versión del usuario en el claim "ver". Al cambiar la
+ * contraseña, el rol o al eliminar el usuario se incrementa la versión en BD y aquí,
+ * y todos los tokens anteriores dejan de ser válidos.
+ *
+ * La comprobación en cada petición es una búsqueda O(1) en un StripedLongLongMap.
+ * Cada versión cacheada caduca a los app.security.token-version-ttl-ms y se vuelve a
+ * leer de BD: el bump() hecho en otro nodo no se propaga por el relay, así que la BD
+ * es la fuente de verdad y un token revocado deja de aceptarse en todos los nodos
+ * (peticiones HTTP, heartbeats SSE y frames STOMP entrantes) como mucho tras ese TTL.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    /** Versión de un usuario inexistente: ningún token es válido. */
+    static final long REVOKED = Long.MAX_VALUE;
+    private static final long MISSING = -1;
+
+    private final IUsuarioRepository usuarioRepository;
+    private final StripedLongLongMap versions = new StripedLongLongMap();
+    /** Instante (reloj en nanos) de la última lectura de BD de cada usuario. */
+    private final StripedLongLongMap loadedAt = new StripedLongLongMap();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public TokenVersionRegistry(IUsuarioRepository usuarioRepository,
+                                @Value("${app.security.token-version-ttl-ms:10000}") long ttlMs) {
+        this(usuarioRepository, ttlMs, System::nanoTime);
+    }
+
+    TokenVersionRegistry(IUsuarioRepository usuarioRepository, long ttlMs, LongSupplier clock) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Versión vigente de los tokens del usuario.
+     */
+    public long current(long userId) {
+        long version = versions.get(userId, MISSING);
+        if (version == REVOKED || (version != MISSING && !expired(userId))) {
+            return version;
+        }
+        long loaded = usuarioRepository.getTokenVersion(userId);
+        long stored = loaded < 0 ? REVOKED : loaded;
+        loadedAt.put(userId, clock.getAsLong());
+        // Las versiones solo crecen: si otro hilo incrementó mientras tanto, prevalece la más alta
+        return versions.updateAndGet(userId, MISSING, current -> Math.max(stored, current));
+    }
+
+    /**
+     * Indica si un token con la versión dada sigue vigente.
+     */
+    public boolean isCurrent(long userId, long tokenVersion) {
+        return tokenVersion >= current(userId);
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para el usuario.
+     *
+     * En este nodo el efecto es inmediato; en los demás, al caducar su copia cacheada.
+     *
+     * @return Nueva versión
+     */
+    public long bump(long userId) {
+        long updated = usuarioRepository.incrementTokenVersion(userId);
+        long version = updated < 0 ? REVOKED : updated;
+        versions.put(userId, version);
+        loadedAt.put(userId, clock.getAsLong());
+        log.info("🔒 Tokens revocados para usuario {} (versión {})", userId,
+                version == REVOKED ? "eliminado" : version);
+        return version;
+    }
+
+    private boolean expired(long userId) {
+        long at = loadedAt.get(userId, MISSING);
+        return at == MISSING || clock.getAsLong() - at >= ttlNanos;
+    }
+}
@@ -1,8 +1,24 @@
 package com.sigc.backend.infrastructure.security.password;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 /**
  * Implementación de IPasswordEncoder usando BCrypt.
  * 
@@ -10,13 +26,59 @@ import org.springframework.stereotype.Component;
  * - Encapsula BCryptPasswordEncoder (no lo expone directamente)
  * - Fácil de testear
  * - Fácil de reemplazar (ej. cambiar a otro algoritmo)
- * - Sigue ISP: solo tiene 2 métodos relacionados
+ * - Sigue ISP: solo tiene métodos relacionados con contraseñas
  * - Sigue DIP: depende de abstracción, no de BCryptPasswordEncoder
+ *
+ * Es la única instancia de BCrypt de la aplicación (SecurityConfig expone la misma
+ * como PasswordEncoder de Spring):
+ * - Coste configurable; con coste 0 se calibra al arrancar para que un hash tarde
+ *   aproximadamente app.security.bcrypt.target-ms en esta máquina
+ * - El hashing corre en un pool propio y acotado: una avalancha de logins no ocupa
+ *   todos los hilos de Tomcat; si la cola se llena se falla rápido con
+ *   PasswordHashingOverloadedException (503)
+ * - Las importaciones masivas (encodeAll) usan un ForkJoinPool aparte, con un núcleo
+ *   menos que la máquina, para no dejar sin CPU a los logins
  */
 @Component
+@Slf4j
 public class BcryptPasswordEncoderService implements IPasswordEncoder {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final PasswordEncoder springEncoder = new SpringPasswordEncoder();
+    private volatile String dummyHash;
+    private final int bulkParallelism;
+    private volatile ForkJoinPool bulkPool;
+
+    public BcryptPasswordEncoderService(@Value("${app.security.bcrypt.cost:0}") int configuredCost,
+                                        @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+                                        @Value("${app.security.hashing.threads:0}") int threads,
+                                        @Value("${app.security.hashing.queue:64}") int queueCapacity,
+                                        @Value("${app.security.hashing.bulk-parallelism:0}") int bulkParallelism) {
+        this.cost = configuredCost > 0 ? configuredCost : calibrate(targetMillis, MIN_COST, MAX_COST);
+        this.encoder = new BCryptPasswordEncoder(cost);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.bulkParallelism = bulkParallelism > 0
+                ? bulkParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        log.info("🔐 BCrypt con coste {} ({}), pool de hashing: {} hilos, cola {}",
+                cost, configuredCost > 0 ? "configurado" : "calibrado", poolSize, queueCapacity);
+    }
 
     /**
      * Codifica una contraseña usando BCrypt.
@@ -26,7 +88,7 @@ public class BcryptPasswordEncoderService implements IPasswordEncoder {
      */
     @Override
     public String encodePassword(String rawPassword) {
-        return encoder.encode(rawPassword);
+        return hash(() -> encoder.encode(rawPassword));
     }
 
     /**
@@ -38,6 +100,153 @@ public class BcryptPasswordEncoderService implements IPasswordEncoder {
      */
     @Override
     public boolean matchesPassword(String rawPassword, String encodedPassword) {
-        return encoder.matches(rawPassword, encodedPassword);
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return hash(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si el hash se generó con un coste menor al actual.
+     *
+     * @param encodedPassword Contraseña codificada
+     * @return true si conviene volver a codificarla
+     */
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Codifica un lote de contraseñas en paralelo en el ForkJoinPool de importación.
+     * No pasa por la cola del pool de logins, así que nunca lanza
+     * PasswordHashingOverloadedException.
+     *
+     * @param rawPasswords Contraseñas en texto plano
+     * @return Contraseñas codificadas, en el mismo orden
+     */
+    @Override
+    public List<String> encodeAll(List<String> rawPasswords) {
+        if (rawPasswords.isEmpty()) {
+            return List.of();
+        }
+        return bulkPool().submit(() -> rawPasswords.parallelStream().map(encoder::encode).toList()).join();
+    }
+
+    private ForkJoinPool bulkPool() {
+        ForkJoinPool pool = bulkPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = bulkPool;
+                if (pool == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    pool = new ForkJoinPool(bulkParallelism, fjp -> {
+                        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(fjp);
+                        t.setName("password-hashing-bulk-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }, null, false);
+                    bulkPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Verifica la contraseña contra un hash ficticio del coste actual (mismo trabajo
+     * que un login con contraseña incorrecta). El hash se genera la primera vez.
+     *
+     * @param rawPassword Contraseña en texto plano recibida
+     */
+    @Override
+    public void simulateMatch(String rawPassword) {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = encodePassword(Long.toHexString(System.nanoTime()));
+            dummyHash = hash;
+        }
+        matchesPassword(rawPassword != null ? rawPassword : "", hash);
+    }
+
+    /**
+     * Vista de esta misma instancia como PasswordEncoder de Spring Security.
+     */
+    public PasswordEncoder asSpringEncoder() {
+        return springEncoder;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Calcula el coste para acercarse al tiempo objetivo por hash.
+     * Cada punto de coste duplica el trabajo, así que basta con medir una vez.
+     */
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibracion"); // calentamiento del JIT
+        long start = System.nanoTime();
+        probe.encode("calibracion");
+        double elapsedMillis = Math.max(0.1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int extra = (int) Math.floor(Math.log(targetMillis / elapsedMillis) / Math.log(2));
+        int calibrated = Math.max(minCost, Math.min(maxCost, minCost + extra));
+        log.info("🔐 Calibración BCrypt: coste {} = {} ms -> coste {}",
+                minCost, String.format("%.1f", elapsedMillis), calibrated);
+        return calibrated;
+    }
+
+    private <T> T hash(Supplier<T> work) {
+        if (Thread.currentThread().getName().startsWith("password-hashing-")) {
+            return work.get();
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(work::get);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingOverloadedException("Servicio de autenticación saturado, reintente en unos segundos");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing interrumpido", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        ForkJoinPool pool = bulkPool;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private final class SpringPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return encodePassword(rawPassword.toString());
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword != null && matchesPassword(rawPassword.toString(), encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return needsRehash(encodedPassword);
+        }
     }
 }
@@ -4,7 +4,7 @@ package com.sigc.backend.infrastructure.security.password;
  * Puerto de salida: Responsable únicamente de operaciones de contraseña.
  * 
  * Aplica ISP (Interface Segregation Principle):
- * - Solo tiene 2 responsabilidades relacionadas: codificar y validar
+ * - Solo tiene responsabilidades relacionadas: codificar, validar y detectar hashes obsoletos
  * - Los clientes dependen de una interfaz clara y simple
  * 
  * Aplica DIP (Dependency Inversion Principle):
@@ -28,4 +28,36 @@ public interface IPasswordEncoder {
      * @return true si coinciden, false en caso contrario
      */
     boolean matchesPassword(String rawPassword, String encodedPassword);
+    
+    /**
+     * Indica si un hash almacenado se generó con parámetros más débiles que los
+     * actuales y debería recalcularse (p. ej. tras un login correcto).
+     * 
+     * @param encodedPassword Contraseña codificada
+     * @return true si conviene volver a codificarla
+     */
+    default boolean needsRehash(String encodedPassword) {
+        return false;
+    }
+
+    /**
+     * Codifica varias contraseñas de una vez (importaciones masivas).
+     * Las implementaciones pueden repartir el trabajo entre todos los núcleos.
+     * 
+     * @param rawPasswords Contraseñas en texto plano
+     * @return Contraseñas codificadas, en el mismo orden
+     */
+    default java.util.List<String> encodeAll(java.util.List<String> rawPasswords) {
+        return rawPasswords.stream().map(this::encodePassword).toList();
+    }
+
+    /**
+     * Ejecuta una verificación equivalente a matchesPassword contra un hash ficticio.
+     * Se usa cuando el usuario no existe, para que la respuesta tarde lo mismo que
+     * con una contraseña incorrecta y no revele qué emails están registrados.
+     * 
+     * @param rawPassword Contraseña en texto plano recibida
+     */
+    default void simulateMatch(String rawPassword) {
+    }
 }
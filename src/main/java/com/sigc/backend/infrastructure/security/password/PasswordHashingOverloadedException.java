@@ -0,0 +1,12 @@
+package com.sigc.backend.infrastructure.security.password;
+
+/**
+ * Excepción lanzada cuando el pool de hashing de contraseñas está saturado.
+ * Se responde 503 de inmediato en vez de encolar peticiones sin límite.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,122 @@
+package com.sigc.backend.infrastructure.security.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de intentos de login por IP y por email.
+ *
+ * Se consulta antes de cualquier hash BCrypt: un intento rechazado no consume CPU.
+ * - Por IP: frena a un cliente que rocía muchos emails
+ * - Por email: frena la fuerza bruta distribuida contra una misma cuenta
+ *
+ * Los contadores de rechazos se exponen en GET /auth/login-throttle y se registran
+ * en el log cuando hubo rechazos desde la última limpieza.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    /**
+     * Resultado de la comprobación.
+     *
+     * @param allowed true si el intento puede continuar
+     * @param retryAfterSeconds Segundos de espera sugeridos cuando se rechaza
+     * @param reason "ip" o "email" cuando se rechaza
+     */
+    public record Decision(boolean allowed, long retryAfterSeconds, String reason) {
+        static final Decision ALLOWED = new Decision(true, 0, null);
+    }
+
+    private final StripedTokenBucketLimiter byIp;
+    private final StripedTokenBucketLimiter byEmail;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+    private long rejectedAtLastSweep;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${app.security.login-throttle.ip.capacity:30}") int ipCapacity,
+                            @Value("${app.security.login-throttle.ip.refill-per-minute:30}") double ipRefill,
+                            @Value("${app.security.login-throttle.email.capacity:5}") int emailCapacity,
+                            @Value("${app.security.login-throttle.email.refill-per-minute:1}") double emailRefill,
+                            @Value("${app.security.login-throttle.stripes:64}") int stripes,
+                            @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.byIp = new StripedTokenBucketLimiter(ipCapacity, ipRefill, stripes, maxKeys, System::nanoTime);
+        this.byEmail = new StripedTokenBucketLimiter(emailCapacity, emailRefill, stripes, maxKeys, System::nanoTime);
+    }
+
+    LoginRateLimiter(StripedTokenBucketLimiter byIp, StripedTokenBucketLimiter byEmail) {
+        this.byIp = byIp;
+        this.byEmail = byEmail;
+    }
+
+    /**
+     * Consume un intento para la IP y el email dados.
+     *
+     * @param clientIp Dirección del cliente (puede ser null)
+     * @param email Email recibido (puede ser null)
+     */
+    public Decision tryAcquire(String clientIp, String email) {
+        if (clientIp != null) {
+            long wait = byIp.tryAcquire(clientIp);
+            if (wait > 0) {
+                rejectedByIp.increment();
+                return new Decision(false, toSeconds(wait), "ip");
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            long wait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                rejectedByEmail.increment();
+                return new Decision(false, toSeconds(wait), "email");
+            }
+        }
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Métricas acumuladas desde el arranque.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("permitidos", allowed.sum());
+        stats.put("rechazadosPorIp", rejectedByIp.sum());
+        stats.put("rechazadosPorEmail", rejectedByEmail.sum());
+        stats.put("ipsRastreadas", byIp.size());
+        stats.put("emailsRastreados", byEmail.size());
+        return stats;
+    }
+
+    /**
+     * Elimina los cubos inactivos (ya llenos) para liberar memoria.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.sweep-ms:60000}")
+    public void evictIdle() {
+        int removed = byIp.evictIdle() + byEmail.evictIdle();
+        long rejected = rejectedByIp.sum() + rejectedByEmail.sum();
+        if (rejected > rejectedAtLastSweep) {
+            log.warn("🛑 Login throttling: {} intentos rechazados desde la última limpieza (total ip={}, email={})",
+                    rejected - rejectedAtLastSweep, rejectedByIp.sum(), rejectedByEmail.sum());
+        }
+        rejectedAtLastSweep = rejected;
+        if (removed > 0) {
+            log.debug("Login throttling: {} cubos inactivos eliminados", removed);
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+}
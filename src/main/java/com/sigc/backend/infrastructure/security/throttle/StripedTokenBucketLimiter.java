@@ -0,0 +1,122 @@
+package com.sigc.backend.infrastructure.security.throttle;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa por clave (token bucket) repartido en franjas con su propio candado.
+ *
+ * - Cada clave tiene un cubo de "capacity" fichas que se rellena a "refillPerMinute"
+ * - Las claves se reparten en N franjas; dos peticiones solo compiten por el mismo
+ *   candado si sus claves caen en la misma franja
+ * - Un cubo lleno equivale a un cubo inexistente, así que los que llevan el tiempo de
+ *   relleno completo sin uso se eliminan (evictIdle); además cada franja es LRU acotada,
+ *   de modo que rociar claves aleatorias no hace crecer la memoria sin límite
+ */
+class StripedTokenBucketLimiter {
+
+    private static final class Bucket {
+        double tokens;
+        long updatedNanos;
+
+        Bucket(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long fullRefillNanos;
+    private final LongSupplier clock;
+    private final Map<String, Bucket>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    StripedTokenBucketLimiter(int capacity, double refillPerMinute, int stripeCount, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("capacity y refillPerMinute deben ser positivos");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+        this.fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        this.clock = clock;
+
+        int n = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        int perStripe = Math.max(16, maxKeys / n);
+        this.stripes = new Map[n];
+        this.mask = n - 1;
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new LinkedHashMap<>(32, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > perStripe;
+                }
+            };
+        }
+    }
+
+    /**
+     * Intenta consumir una ficha de la clave.
+     *
+     * @return 0 si se concedió; si no, nanosegundos hasta que haya una ficha disponible
+     */
+    long tryAcquire(String key) {
+        Map<String, Bucket> stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                stripe.put(key, new Bucket(capacity - 1, now));
+                return 0;
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedNanos) * tokensPerNano);
+            bucket.updatedNanos = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    /**
+     * Elimina los cubos que ya se habrían rellenado por completo.
+     *
+     * @return Número de claves eliminadas
+     */
+    int evictIdle() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map<String, Bucket> stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> it = stripe.values().iterator();
+                while (it.hasNext()) {
+                    if (now - it.next().updatedNanos >= fullRefillNanos) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        int total = 0;
+        for (Map<String, Bucket> stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+        return total;
+    }
+
+    private Map<String, Bucket> stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
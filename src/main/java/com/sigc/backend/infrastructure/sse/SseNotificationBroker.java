@@ -0,0 +1,444 @@
+package com.sigc.backend.infrastructure.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import com.sigc.backend.shared.constant.AppConstants;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Notificaciones por Server-Sent Events (GET /notifications/stream).
+ *
+ * Para pantallas que solo reciben (recepción, kioscos) sin la pila SockJS/STOMP.
+ * Recibe los mismos eventos que NotificationService envía por WebSocket:
+ * - Personales: solo a las conexiones del usuario
+ * - /topic/admin solo a ADMIN, /topic/horarios a DOCTOR y PACIENTE, /topic/global a todos
+ *
+ * Cada conexión tiene una cola acotada y un hilo virtual que espera en ella y escribe
+ * en el SseEmitter; una conexión inactiva solo ocupa un hilo virtual aparcado.
+ * Si la cola se llena (cliente lento) se cierra la conexión y el cliente reanuda.
+ *
+ * El ID de cada evento es "{secuencia personal}:{secuencia de difusión}". Con Last-Event-ID
+ * se reenvían las personales desde el outbox y las difusiones desde un búfer circular
+ * de las últimas app.notifications.sse.broadcast-buffer (por nodo: si el cliente reconecta
+ * a otro nodo solo se garantizan las personales).
+ */
+@Component
+@Slf4j
+public class SseNotificationBroker {
+
+    public static final String EVENTO_USUARIO = "user";
+    public static final String EVENTO_ADMIN = "admin";
+    public static final String EVENTO_HORARIOS = "horarios";
+    public static final String EVENTO_GLOBAL = "global";
+
+    private static final Evento CIERRE = new Evento(0, 0, null, null);
+    /** Secuencias personales recordadas por conexión para descartar duplicados. */
+    private static final int RECIENTES_USUARIO = 128;
+
+    private final ObjectMapper objectMapper;
+    private final NotificationOutboxService outboxService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final int maxConnections;
+    private final int queueCapacity;
+    private final long heartbeatMs;
+    private final int replayMax;
+
+    private final Set<Conexion> conexiones = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Conexion>> porUsuario = new ConcurrentHashMap<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+
+    /** Últimas difusiones; se escriben y se reparten bajo el candado del propio array. */
+    private final Evento[] recientes;
+    private long difusionSeq;
+
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder lentas = new LongAdder();
+    private final LongAdder reanudaciones = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    public SseNotificationBroker(ObjectMapper objectMapper,
+                                 NotificationOutboxService outboxService,
+                                 TokenVersionRegistry tokenVersionRegistry,
+                                 @Value("${app.notifications.sse.max-connections:20000}") int maxConnections,
+                                 @Value("${app.notifications.sse.queue-capacity:64}") int queueCapacity,
+                                 @Value("${app.notifications.sse.heartbeat-ms:25000}") long heartbeatMs,
+                                 @Value("${app.notifications.sse.broadcast-buffer:1000}") int broadcastBuffer,
+                                 @Value("${app.notifications.sse.replay-max:1000}") int replayMax) {
+        this.objectMapper = objectMapper;
+        this.outboxService = outboxService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.maxConnections = maxConnections;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.heartbeatMs = Math.max(1000, heartbeatMs);
+        this.recientes = new Evento[Math.max(1, broadcastBuffer)];
+        this.replayMax = Math.max(0, replayMax);
+    }
+
+    /**
+     * Registra una conexión y arranca su hilo virtual.
+     *
+     * @param emitter Emitter devuelto al cliente
+     * @param userId ID del usuario del token
+     * @param rol Rol del token
+     * @param tokenVersion Versión del token (se revalida en cada heartbeat)
+     * @param lastEventId Last-Event-ID del cliente (null en la primera conexión)
+     * @throws IllegalStateException si se alcanzó app.notifications.sse.max-connections
+     */
+    public void open(SseEmitter emitter, long userId, String rol, long tokenVersion, String lastEventId) {
+        if (abiertas.incrementAndGet() > maxConnections) {
+            abiertas.decrementAndGet();
+            rechazadas.increment();
+            throw new IllegalStateException("Límite de conexiones SSE alcanzado");
+        }
+        long[] cursor = parseLastEventId(lastEventId);
+        boolean reanuda = cursor != null;
+        Conexion conexion = new Conexion(ids.incrementAndGet(), userId, rol == null ? "" : rol.toUpperCase(),
+                tokenVersion, emitter, new LinkedBlockingQueue<>(queueCapacity));
+        // Antes de registrar: lo que llegue después tendrá una secuencia mayor
+        conexion.ultimaUsuario = reanuda ? cursor[0] : outboxService.lastSequence(userId);
+        conexion.pisoUsuario = conexion.ultimaUsuario;
+
+        List<Evento> difusionesPerdidas = List.of();
+        synchronized (recientes) {
+            // Registro y captura del búfer juntos: lo publicado después ya llega a la cola
+            conexiones.add(conexion);
+            porUsuario.compute(userId, (k, delUsuario) -> {
+                Set<Conexion> set = delUsuario != null ? delUsuario : ConcurrentHashMap.newKeySet();
+                set.add(conexion);
+                return set;
+            });
+            // Un cursor por delante del nodo (reinicio u otro nodo) se trata como "al día"
+            conexion.ultimaDifusion = reanuda ? Math.min(cursor[1], difusionSeq) : difusionSeq;
+            if (reanuda) {
+                difusionesPerdidas = difusionesDesde(conexion.ultimaDifusion, conexion.rol);
+            }
+        }
+        if (reanuda) {
+            reanudaciones.increment();
+        }
+
+        emitter.onCompletion(conexion::cerrar);
+        emitter.onTimeout(conexion::cerrar);
+        emitter.onError(e -> conexion.cerrar());
+
+        List<Evento> pendientes = difusionesPerdidas;
+        conexion.hilo = Thread.ofVirtual().name("sse-" + conexion.id).start(() -> conexion.run(reanuda, pendientes));
+    }
+
+    /**
+     * Notificación personal (ya con su secuencia del outbox si el usuario es numérico).
+     */
+    public void publishToUser(String userId, Object payload) {
+        if (conexiones.isEmpty()) {
+            return;
+        }
+        Set<Conexion> destino;
+        try {
+            destino = porUsuario.get(Long.parseLong(userId));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (destino == null || destino.isEmpty()) {
+            return;
+        }
+        String json = toJson(payload);
+        if (json == null) {
+            return;
+        }
+        Evento evento = new Evento(secuenciaDe(payload), 0, EVENTO_USUARIO, json);
+        for (Conexion conexion : destino) {
+            conexion.ofrecer(evento);
+        }
+    }
+
+    /**
+     * Difusión de un canal /topic; solo llega a los roles que lo suscriben por STOMP.
+     */
+    public void publishTopic(String destination, Object payload) {
+        String nombre = nombreEvento(destination);
+        if (nombre == null) {
+            return;
+        }
+        String json = toJson(payload);
+        if (json == null) {
+            return;
+        }
+        synchronized (recientes) {
+            difusionSeq++;
+            Evento evento = new Evento(0, difusionSeq, nombre, json);
+            recientes[(int) (difusionSeq % recientes.length)] = evento;
+            for (Conexion conexion : conexiones) {
+                if (permitido(nombre, conexion.rol)) {
+                    conexion.ofrecer(evento);
+                }
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return abiertas.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("conexiones", abiertas.get());
+        stats.put("maxConexiones", maxConnections);
+        stats.put("eventosEnviados", enviados.sum());
+        stats.put("cerradasPorLentitud", lentas.sum());
+        stats.put("reanudaciones", reanudaciones.sum());
+        stats.put("rechazadasPorLimite", rechazadas.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (Conexion conexion : conexiones) {
+            conexion.emitter.complete();
+            conexion.cerrar();
+        }
+    }
+
+    /**
+     * Interpreta "{secuencia personal}:{secuencia de difusión}".
+     *
+     * @return {personal, difusión}, o null si no viene o no es válido
+     */
+    static long[] parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        int sep = lastEventId.indexOf(':');
+        if (sep < 0) {
+            return null;
+        }
+        try {
+            long personal = Long.parseLong(lastEventId.substring(0, sep).trim());
+            long difusion = Long.parseLong(lastEventId.substring(sep + 1).trim());
+            return personal < 0 || difusion < 0 ? null : new long[]{personal, difusion};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String nombreEvento(String destination) {
+        if (destination == null) return null;
+        return switch (destination) {
+            case "/topic/admin" -> EVENTO_ADMIN;
+            case "/topic/horarios" -> EVENTO_HORARIOS;
+            case "/topic/global" -> EVENTO_GLOBAL;
+            default -> null;
+        };
+    }
+
+    static boolean permitido(String nombreEvento, String rol) {
+        return switch (nombreEvento) {
+            case EVENTO_ADMIN -> AppConstants.ROLE_ADMIN.equals(rol);
+            case EVENTO_HORARIOS -> AppConstants.ROLE_DOCTOR.equals(rol) || AppConstants.ROLE_PATIENT.equals(rol);
+            default -> true;
+        };
+    }
+
+    private List<Evento> difusionesDesde(long desde, String rol) {
+        List<Evento> lista = new ArrayList<>();
+        long inicio = Math.max(desde, difusionSeq - recientes.length) + 1;
+        for (long seq = inicio; seq <= difusionSeq; seq++) {
+            Evento evento = recientes[(int) (seq % recientes.length)];
+            if (evento != null && evento.difusion == seq && permitido(evento.nombre, rol)) {
+                lista.add(evento);
+            }
+        }
+        return lista;
+    }
+
+    private String toJson(Object payload) {
+        if (payload instanceof String s) {
+            return s;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error("❌ No se pudo serializar la notificación SSE: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static long secuenciaDe(Object payload) {
+        if (payload instanceof NotificacionDTO dto && dto.getSecuencia() != null) {
+            return dto.getSecuencia();
+        }
+        if (payload instanceof JsonNode node) {
+            return node.path("secuencia").asLong(0);
+        }
+        return 0;
+    }
+
+    /**
+     * Evento ya serializado. Los personales llevan su secuencia del outbox (0 si no tiene)
+     * y las difusiones su número en el búfer.
+     */
+    record Evento(long usuario, long difusion, String nombre, String json) {
+    }
+
+    private final class Conexion {
+
+        final long id;
+        final long userId;
+        final String rol;
+        final long tokenVersion;
+        final SseEmitter emitter;
+        final BlockingQueue<Evento> cola;
+        volatile Thread hilo;
+        volatile boolean cerrada;
+        /** Mayor secuencia personal enviada (va en el ID del evento). */
+        long ultimaUsuario;
+        /** Secuencias personales ya cubiertas: el cursor inicial o las que salieron del anillo. */
+        long pisoUsuario;
+        /** Últimas secuencias personales enviadas, en anillo. */
+        final long[] enviadasUsuario = new long[RECIENTES_USUARIO];
+        int posEnviadas;
+        long ultimaDifusion;
+
+        Conexion(long id, long userId, String rol, long tokenVersion, SseEmitter emitter, BlockingQueue<Evento> cola) {
+            this.id = id;
+            this.userId = userId;
+            this.rol = rol;
+            this.tokenVersion = tokenVersion;
+            this.emitter = emitter;
+            this.cola = cola;
+        }
+
+        void ofrecer(Evento evento) {
+            if (!cola.offer(evento) && !cerrada) {
+                lentas.increment();
+                log.warn("⚠️ Conexión SSE {} del usuario {} cerrada por lentitud", id, userId);
+                emitter.complete();
+                cerrar();
+            }
+        }
+
+        void run(boolean reanuda, List<Evento> difusionesPerdidas) {
+            try {
+                if (reanuda) {
+                    reenviarPersonales();
+                    for (Evento evento : difusionesPerdidas) {
+                        enviar(evento);
+                    }
+                }
+                while (!cerrada) {
+                    Evento evento = cola.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (evento == CIERRE) {
+                        break;
+                    }
+                    if (evento == null) {
+                        if (!tokenVersionRegistry.isCurrent(userId, tokenVersion)) {
+                            log.info("🔒 Conexión SSE {} cerrada: token del usuario {} revocado", id, userId);
+                            emitter.complete();
+                            break;
+                        }
+                        emitter.send(SseEmitter.event().comment("ping"));
+                        continue;
+                    }
+                    enviar(evento);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Conexión SSE {} terminada: {}", id, e.getMessage());
+            } finally {
+                cerrar();
+            }
+        }
+
+        private void reenviarPersonales() throws IOException {
+            int enviadas = 0;
+            while (enviadas < replayMax) {
+                int limite = Math.min(100, replayMax - enviadas);
+                List<NotificacionOutbox> pagina = outboxService.replay(userId, ultimaUsuario, limite);
+                for (NotificacionOutbox entrada : pagina) {
+                    enviar(new Evento(entrada.secuencia(), 0, EVENTO_USUARIO, entrada.payload()));
+                }
+                enviadas += pagina.size();
+                if (pagina.size() < limite) {
+                    break;
+                }
+            }
+        }
+
+        private void enviar(Evento evento) throws IOException {
+            // Lo ya enviado (por el replay o en vivo) no se repite. Dos notifyUser concurrentes
+            // pueden encolar N+1 antes que N: se compara con las enviadas, no con la mayor
+            if (evento.usuario > 0) {
+                if (evento.usuario <= pisoUsuario || yaEnviada(evento.usuario)) return;
+                recordar(evento.usuario);
+                ultimaUsuario = Math.max(ultimaUsuario, evento.usuario);
+            }
+            if (evento.difusion > 0) {
+                if (evento.difusion <= ultimaDifusion) return;
+                ultimaDifusion = evento.difusion;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(ultimaUsuario + ":" + ultimaDifusion)
+                    .name(evento.nombre)
+                    .data(evento.json, MediaType.APPLICATION_JSON));
+            enviados.increment();
+        }
+
+        private boolean yaEnviada(long secuencia) {
+            for (long enviada : enviadasUsuario) {
+                if (enviada == secuencia) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void recordar(long secuencia) {
+            // Lo que sale del anillo pasa al piso: una secuencia que llegue con tanto retraso se descarta
+            pisoUsuario = Math.max(pisoUsuario, enviadasUsuario[posEnviadas]);
+            enviadasUsuario[posEnviadas] = secuencia;
+            posEnviadas = (posEnviadas + 1) % enviadasUsuario.length;
+        }
+
+        void cerrar() {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            if (conexiones.remove(this)) {
+                abiertas.decrementAndGet();
+            }
+            porUsuario.computeIfPresent(userId, (k, delUsuario) -> {
+                delUsuario.remove(this);
+                return delUsuario.isEmpty() ? null : delUsuario;
+            });
+            if (!cola.offer(CIERRE) && hilo != null) {
+                hilo.interrupt();
+            }
+        }
+    }
+}
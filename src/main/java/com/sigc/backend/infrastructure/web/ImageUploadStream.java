@@ -0,0 +1,132 @@
+package com.sigc.backend.infrastructure.web;
+
+import com.sigc.backend.exception.UploadRejectedException;
+import org.springframework.http.HttpStatus;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
+
+/**
+ * Envoltura de lectura para subidas de imágenes.
+ *
+ * - Identifica el formato por los bytes mágicos de la cabecera (no por el nombre
+ *   ni por el Content-Type que declara el cliente)
+ * - Cuenta los bytes leídos y aborta en cuanto se supera el límite, sin esperar
+ *   a que termine de llegar el cuerpo
+ *
+ * No almacena nada: el consumidor copia con su propio buffer fijo.
+ */
+public final class ImageUploadStream extends FilterInputStream {
+
+    private static final int HEADER_SIZE = 12;
+
+    private final long maxBytes;
+    private final String extension;
+    private long count;
+
+    private ImageUploadStream(InputStream in, long maxBytes, String extension) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.extension = extension;
+    }
+
+    /**
+     * Lee la cabecera, valida el formato y devuelve el stream listo para consumir
+     * desde el primer byte.
+     *
+     * @param in Contenido subido
+     * @param maxBytes Tamaño máximo permitido
+     * @param allowed Extensiones permitidas ("jpg", "png", "gif", "webp")
+     */
+    public static ImageUploadStream open(InputStream in, long maxBytes, Collection<String> allowed) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, HEADER_SIZE);
+        byte[] header = new byte[HEADER_SIZE];
+        int read = 0;
+        while (read < HEADER_SIZE) {
+            int n = pushback.read(header, read, HEADER_SIZE - read);
+            if (n < 0) break;
+            read += n;
+        }
+        if (read == 0) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "El archivo está vacío");
+        }
+        pushback.unread(header, 0, read);
+
+        String extension = detect(header, read);
+        if (extension == null || !allowed.contains(extension)) {
+            throw new UploadRejectedException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Formato no permitido. Solo: " + allowed);
+        }
+        return new ImageUploadStream(pushback, maxBytes, extension);
+    }
+
+    /**
+     * Extensión canónica según el contenido (jpg, png, gif, webp) o null si no es una imagen conocida.
+     */
+    static String detect(byte[] h, int len) {
+        if (len >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (len >= 8 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G'
+                && h[4] == 0x0D && h[5] == 0x0A && h[6] == 0x1A && h[7] == 0x0A) {
+            return "png";
+        }
+        if (len >= 6 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8'
+                && (h[4] == '7' || h[4] == '9') && h[5] == 'a') {
+            return "gif";
+        }
+        if (len >= 12 && h[0] == 'R' && h[1] == 'I' && h[2] == 'F' && h[3] == 'F'
+                && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Bytes leídos hasta ahora.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) count(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) count(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws UploadRejectedException {
+        count += n;
+        if (count > maxBytes) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "El archivo excede el máximo de " + (maxBytes / (1024 * 1024)) + "MB");
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.sigc.backend.infrastructure.web;
+
+import com.sigc.backend.domain.model.StoredFile;
+import com.sigc.backend.domain.port.IFileStorage;
+import com.sigc.backend.infrastructure.image.ImageVariants;
+import com.sigc.backend.shared.constant.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Sirve archivos del disco sin cargarlos en el heap.
+ *
+ * Soporta:
+ * - Archivos ya en memoria (caché caliente fuera del heap del almacenamiento)
+ * - GET condicional (If-None-Match / If-Modified-Since -> 304)
+ * - Un único rango de bytes (Range -> 206, 416 si no es satisfacible)
+ * - Sendfile de Tomcat cuando el conector lo soporta (copia en kernel, sin pasar por la JVM)
+ * - FileChannel.transferTo como alternativa para archivos pequeños o sin sendfile
+ *
+ * El ETag es débil y se deriva de tamaño + fecha de modificación, sin leer el archivo.
+ */
+@Component
+public class StaticFileResponder {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** Igual que el DefaultServlet de Tomcat: por debajo de este tamaño no compensa sendfile. */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /**
+     * Sirve un archivo subido, eligiendo la variante de ancho ?w= si ya existe.
+     * Los nombres son hashes de contenido, así que se envían como immutable; salvo si se
+     * pidió una variante que aún no existe: el original va con no-cache para que la URL
+     * ?w= no quede cacheada con la imagen completa cuando la variante ya esté generada.
+     *
+     * @param storage Almacenamiento de archivos
+     * @param category Categoría ("doctores", "especialidades")
+     * @param fileName Nombre del archivo
+     * @param width Valor crudo del parámetro ?w= (puede ser null)
+     */
+    public void serveUpload(IFileStorage storage, String category, String fileName, String width,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = Optional.empty();
+        String cacheControl = AppConstants.IMMUTABLE_CACHE_CONTROL;
+        int variantWidth = ImageVariants.pickWidth(width);
+        if (variantWidth > 0) {
+            file = storage.find(category, ImageVariants.variantName(fileName, variantWidth));
+        }
+        if (file.isEmpty()) {
+            file = storage.find(category, fileName);
+            if (variantWidth > 0) {
+                cacheControl = AppConstants.VARIANT_FALLBACK_CACHE_CONTROL;
+            }
+        }
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(file.get(), request, response, cacheControl);
+    }
+
+    /**
+     * Escribe el archivo en la respuesta.
+     *
+     * @param file Archivo a servir; si trae el contenido en memoria se escribe desde ahí
+     * @param request Petición HTTP
+     * @param response Respuesta HTTP
+     * @param cacheControl Valor de Cache-Control (null para no enviarlo)
+     */
+    public void serve(StoredFile file, HttpServletRequest request, HttpServletResponse response,
+                      String cacheControl) throws IOException {
+        long length = file.getSize();
+        long lastModified = file.getLastModified() / 1000 * 1000;
+        String etag = weakEtag(length, lastModified);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getName())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (file.isInMemory()) {
+            ByteBuffer slice = file.getContent().duplicate();
+            slice.position((int) start).limit((int) (end + 1));
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (slice.hasRemaining()) {
+                out.write(slice);
+            }
+            return;
+        }
+
+        Path path = file.getPath();
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * ETag débil basado en metadatos del archivo (no requiere leer el contenido).
+     */
+    public static String weakEtag(long length, long lastModified) {
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etagMatches(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Nuestros ETags son débiles y If-Range exige comparación fuerte: se envía completo
+            return false;
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date != -1 && lastModified <= date;
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        String opaque = etag.substring(2);
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag) || c.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Interpreta una cabecera Range.
+     *
+     * @return {start, end} para un rango válido, array vacío si hay que ignorar la cabecera
+     *         (múltiples rangos o formato desconocido), o null si el rango no es satisfacible
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) return null;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
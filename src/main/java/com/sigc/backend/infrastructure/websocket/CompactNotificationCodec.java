@@ -0,0 +1,122 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Codificación binaria compacta de las notificaciones (CBOR o Smile).
+ *
+ * Parte del JSON que ya generó el conversor de Spring y, además de cambiar de formato:
+ * - "tipo" y "prioridad" se envían como enteros pequeños (índice en TIPOS / PRIORIDADES);
+ *   los valores que no están en la tabla se dejan como texto
+ * - "timestamp" se envía como milisegundos epoch (hora local del servidor)
+ *
+ * Las tablas solo pueden crecer por el final: los clientes binarios dependen de los índices.
+ */
+@Component
+public class CompactNotificationCodec {
+
+    public static final List<String> TIPOS = List.of(
+            "CITA_CREADA", "CITA_CONFIRMADA", "CITA_ACTUALIZADA", "CITA_CANCELADA",
+            "HORARIO_ACTUALIZADO", "DOCTOR_ACTUALIZADO");
+
+    public static final List<String> PRIORIDADES = List.of("BAJA", "MEDIA", "ALTA");
+
+    public enum Formato {
+        CBOR("cbor", new MimeType("application", "cbor")),
+        SMILE("smile", new MimeType("application", "x-jackson-smile"));
+
+        private final String nombre;
+        private final MimeType mimeType;
+
+        Formato(String nombre, MimeType mimeType) {
+            this.nombre = nombre;
+            this.mimeType = mimeType;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public MimeType getMimeType() {
+            return mimeType;
+        }
+
+        /**
+         * Formato para un valor de la cabecera accept-content ("application/cbor", "cbor"...), o null.
+         */
+        public static Formato parse(String value) {
+            if (value == null) return null;
+            int params = value.indexOf(';');
+            String v = (params >= 0 ? value.substring(0, params) : value).trim().toLowerCase(Locale.ROOT);
+            for (Formato formato : values()) {
+                if (v.equals(formato.nombre) || v.equals(formato.mimeType.toString())) {
+                    return formato;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    /**
+     * Convierte un payload JSON al formato binario compacto.
+     *
+     * @throws IOException si el payload no es JSON válido
+     */
+    public byte[] encode(byte[] json, Formato formato) throws IOException {
+        JsonNode tree = jsonMapper.readTree(json);
+        compact(tree);
+        return (formato == Formato.CBOR ? cborMapper : smileMapper).writeValueAsBytes(tree);
+    }
+
+    /**
+     * Compacta una notificación o un lote (array) de notificaciones.
+     */
+    static void compact(JsonNode node) {
+        if (node.isArray()) {
+            node.forEach(CompactNotificationCodec::compact);
+            return;
+        }
+        if (!(node instanceof ObjectNode obj)) {
+            return;
+        }
+        replaceWithCode(obj, "tipo", TIPOS);
+        replaceWithCode(obj, "prioridad", PRIORIDADES);
+        JsonNode timestamp = obj.get("timestamp");
+        if (timestamp != null && timestamp.isTextual()) {
+            try {
+                long millis = LocalDateTime.parse(timestamp.asText())
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                obj.put("timestamp", millis);
+            } catch (DateTimeParseException ignored) {
+                // se deja como texto
+            }
+        }
+    }
+
+    private static void replaceWithCode(ObjectNode obj, String field, List<String> table) {
+        JsonNode value = obj.get(field);
+        if (value != null && value.isTextual()) {
+            int code = table.indexOf(value.asText());
+            if (code >= 0) {
+                obj.put(field, code);
+            }
+        }
+    }
+}
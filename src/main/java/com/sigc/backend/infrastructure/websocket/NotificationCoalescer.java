@@ -0,0 +1,131 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrupa ráfagas de notificaciones por destino.
+ *
+ * El primer evento de un destino abre una ventana de app.notifications.coalesce-window-ms;
+ * los que llegan dentro de ella se envían juntos en un único frame con un array JSON.
+ * Si el lote alcanza app.notifications.coalesce-max-batch se envía en el momento.
+ * Un lote de un solo evento se envía como objeto, igual que sin agrupar.
+ * El frame lleva la prioridad más alta del lote.
+ * Con ventana 0 no se agrupa.
+ */
+@Component
+@Slf4j
+public class NotificationCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskScheduler taskScheduler;
+    private final long windowMs;
+    private final int maxBatch;
+
+    private final Map<String, Batch> pending = new HashMap<>();
+    private final LongAdder eventsIn = new LongAdder();
+    private final LongAdder framesOut = new LongAdder();
+
+    public NotificationCoalescer(SimpMessagingTemplate messagingTemplate,
+                                 @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                                 @Value("${app.notifications.coalesce-window-ms:250}") long windowMs,
+                                 @Value("${app.notifications.coalesce-max-batch:50}") int maxBatch) {
+        this.messagingTemplate = messagingTemplate;
+        this.taskScheduler = taskScheduler;
+        this.windowMs = windowMs;
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    /**
+     * Encola un evento para el destino; se envía al cerrar la ventana o al llenarse el lote.
+     */
+    public void submit(String destination, Object payload) {
+        eventsIn.increment();
+        if (windowMs <= 0) {
+            send(destination, List.of(payload));
+            return;
+        }
+        List<Object> ready = null;
+        synchronized (pending) {
+            Batch batch = pending.get(destination);
+            if (batch == null) {
+                batch = new Batch();
+                pending.put(destination, batch);
+                Batch scheduled = batch;
+                taskScheduler.schedule(() -> flush(destination, scheduled), Instant.now().plus(Duration.ofMillis(windowMs)));
+            }
+            batch.events.add(payload);
+            if (batch.events.size() >= maxBatch) {
+                pending.remove(destination);
+                ready = batch.events;
+            }
+        }
+        if (ready != null) {
+            send(destination, ready);
+        }
+    }
+
+    /**
+     * Envía todo lo pendiente (al apagar la aplicación).
+     */
+    @PreDestroy
+    public void flushAll() {
+        Map<String, Batch> all;
+        synchronized (pending) {
+            all = new HashMap<>(pending);
+            pending.clear();
+        }
+        all.forEach((destination, batch) -> send(destination, batch.events));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("eventos", eventsIn.sum());
+        stats.put("frames", framesOut.sum());
+        stats.put("ventanaMs", windowMs);
+        stats.put("loteMaximo", maxBatch);
+        return stats;
+    }
+
+    private void flush(String destination, Batch batch) {
+        synchronized (pending) {
+            // El lote pudo enviarse ya por tamaño; entonces la ventana pertenece a otro
+            if (pending.get(destination) != batch) {
+                return;
+            }
+            pending.remove(destination);
+        }
+        send(destination, batch.events);
+    }
+
+    private void send(String destination, List<Object> events) {
+        try {
+            Object payload = events.size() == 1 ? events.get(0) : events;
+            messagingTemplate.convertAndSend(destination, payload, OutboundPriorityLanes.headers(payload));
+            framesOut.increment();
+            if (events.size() > 1) {
+                log.debug("📦 {} notificaciones agrupadas en un frame para {}", events.size(), destination);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error enviando lote de {} notificaciones a {}: {}", events.size(), destination, e.getMessage(), e);
+        }
+    }
+
+    private static final class Batch {
+        private final List<Object> events = new ArrayList<>();
+    }
+}
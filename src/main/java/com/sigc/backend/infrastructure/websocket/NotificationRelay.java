@@ -0,0 +1,283 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.EventoNotificacion;
+import com.sigc.backend.domain.port.IEventoNotificacionRepository;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reenvío de notificaciones entre nodos del backend.
+ *
+ * El SimpleBroker solo llega a las sesiones del propio proceso. Con varios nodos detrás
+ * de un balanceador, cada notificación se entrega en local y además se publica en la
+ * tabla notificaciones_eventos; cada nodo la lee por lotes y reenvía a sus sesiones
+ * lo que publicaron los demás.
+ *
+ * - Publicación asíncrona: se acumula en una cola y se inserta en lote en cada ciclo
+ * - Lectura por cursor de ID; se releen los últimos app.notifications.relay.lookback IDs
+ *   porque una transacción con ID menor puede confirmarse después que otra con ID mayor.
+ *   Los eventos releídos se descartan por ID
+ * - Los eventos propios se saltan (ya se entregaron en local)
+ * - Los eventos se borran pasados app.notifications.relay.retention-minutes
+ * - Los eventos recibidos llegan también a los clientes SSE del nodo
+ *
+ * Solo reenvía notificaciones: las revocaciones de tokens y los perfiles cacheados no
+ * pasan por aquí; cada nodo los relee de BD al caducar su copia (TokenVersionRegistry,
+ * UserApplicationService).
+ *
+ * Desactivado por defecto (app.notifications.relay.enabled): con un solo nodo no hace nada.
+ */
+@Component
+@Slf4j
+public class NotificationRelay {
+
+    private final IEventoNotificacionRepository repository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final NotificationCoalescer coalescer;
+    private final NotificationOutboxService outboxService;
+    private final SseNotificationBroker sseBroker;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int batchSize;
+    private final int lookback;
+    private final int retentionMinutes;
+
+    private final BlockingQueue<EventoNotificacion> pending;
+    private final Set<Long> seen = new HashSet<>();
+    private final ArrayDeque<Long> seenOrder = new ArrayDeque<>();
+    private long cursor = -1;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationRelay(IEventoNotificacionRepository repository,
+                             SimpMessagingTemplate messagingTemplate,
+                             SimpUserRegistry simpUserRegistry,
+                             NotificationCoalescer coalescer,
+                             NotificationOutboxService outboxService,
+                             SseNotificationBroker sseBroker,
+                             ObjectMapper objectMapper,
+                             @Value("${app.notifications.relay.enabled:false}") boolean enabled,
+                             @Value("${app.notifications.relay.node-id:}") String nodeId,
+                             @Value("${app.notifications.relay.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.notifications.relay.batch-size:500}") int batchSize,
+                             @Value("${app.notifications.relay.lookback:64}") int lookback,
+                             @Value("${app.notifications.relay.retention-minutes:10}") int retentionMinutes) {
+        this.repository = repository;
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.coalescer = coalescer;
+        this.outboxService = outboxService;
+        this.sseBroker = sseBroker;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(2, batchSize);
+        // La relectura debe ser menor que el lote para que el cursor siempre avance
+        this.lookback = Math.max(0, Math.min(lookback, this.batchSize - 1));
+        this.retentionMinutes = retentionMinutes;
+        if (enabled) {
+            log.info("🔗 Reenvío de notificaciones entre nodos activo (nodo {})", this.nodeId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publica una notificación personal para los demás nodos.
+     */
+    public void publishToUser(String userId, Object payload) {
+        publish(EventoNotificacion.CANAL_USUARIO, userId, payload);
+    }
+
+    /**
+     * Publica una difusión directa (/topic/...) para los demás nodos.
+     */
+    public void publishToTopic(String destination, Object payload) {
+        publish(EventoNotificacion.CANAL_TOPIC, destination, payload);
+    }
+
+    /**
+     * Publica una difusión que los demás nodos pasan por su NotificationCoalescer.
+     */
+    public void publishCoalesced(String destination, Object payload) {
+        publish(EventoNotificacion.CANAL_AGRUPADO, destination, payload);
+    }
+
+    private void publish(String canal, String destino, Object payload) {
+        if (!enabled || destino == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            log.error("❌ No se pudo serializar la notificación para {}: {}", destino, e.getMessage());
+            return;
+        }
+        if (pending.offer(new EventoNotificacion(null, nodeId, canal, destino, json, LocalDateTime.now()))) {
+            published.increment();
+        } else {
+            dropped.increment();
+            log.warn("⚠️ Cola de reenvío entre nodos llena; notificación para {} no llegará a otros nodos", destino);
+        }
+    }
+
+    /**
+     * Un ciclo: inserta lo publicado en local y reenvía lo nuevo de los demás nodos.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.relay.poll-ms:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writePending();
+            if (cursor < 0) {
+                cursor = repository.findMaxId();
+            }
+            List<EventoNotificacion> page;
+            do {
+                page = repository.findAfter(Math.max(0, cursor - lookback), batchSize);
+                for (EventoNotificacion evento : page) {
+                    deliver(evento);
+                }
+                forgetBelow(cursor - lookback);
+            } while (page.size() == batchSize);
+        } catch (Exception e) {
+            log.error("❌ Error en el reenvío de notificaciones entre nodos: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.relay.purge-ms:60000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = repository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+        if (deleted > 0) {
+            log.debug("🧹 Eventos de notificación entre nodos eliminados: {}", deleted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activo", enabled);
+        stats.put("nodo", nodeId);
+        stats.put("publicadas", published.sum());
+        stats.put("descartadasColaLlena", dropped.sum());
+        stats.put("recibidas", received.sum());
+        stats.put("duplicadas", duplicates.sum());
+        stats.put("fallidas", failed.sum());
+        stats.put("enCola", pending.size());
+        stats.put("cursor", cursor);
+        return stats;
+    }
+
+    private void writePending() {
+        while (!pending.isEmpty()) {
+            List<EventoNotificacion> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            pending.drainTo(batch, batchSize);
+            try {
+                repository.appendAll(batch);
+            } catch (Exception e) {
+                failed.add(batch.size());
+                log.error("❌ Error publicando {} notificaciones para otros nodos: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliver(EventoNotificacion evento) {
+        long id = evento.id();
+        if (id > cursor) {
+            cursor = id;
+        }
+        if (!seen.add(id)) {
+            duplicates.increment();
+            return;
+        }
+        seenOrder.addLast(id);
+        if (nodeId.equals(evento.nodo())) {
+            return;
+        }
+        received.increment();
+
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(evento.payload());
+        } catch (IOException e) {
+            failed.increment();
+            log.warn("⚠️ Evento de notificación {} ilegible: {}", id, e.getMessage());
+            return;
+        }
+        switch (evento.canal()) {
+            case EventoNotificacion.CANAL_USUARIO -> deliverToUser(evento.destino(), payload);
+            case EventoNotificacion.CANAL_AGRUPADO -> coalescer.submit(evento.destino(), payload);
+            default -> messagingTemplate.convertAndSend(evento.destino(), payload, OutboundPriorityLanes.headers(payload));
+        }
+        if (EventoNotificacion.CANAL_USUARIO.equals(evento.canal())) {
+            sseBroker.publishToUser(evento.destino(), payload);
+        } else {
+            sseBroker.publishTopic(evento.destino(), evento.payload());
+        }
+    }
+
+    private void deliverToUser(String userId, JsonNode payload) {
+        // Mantener la secuencia local por delante de la del otro nodo para no repetirla en el outbox
+        long secuencia = payload.path("secuencia").asLong(0);
+        if (secuencia > 0) {
+            try {
+                outboxService.observe(Long.parseLong(userId), secuencia);
+            } catch (NumberFormatException ignored) {
+                // destinatario no numérico: no tiene outbox
+            }
+        }
+        if (simpUserRegistry.getUser(userId) != null) {
+            messagingTemplate.convertAndSendToUser(userId, NotificationService.USER_QUEUE, payload,
+                    OutboundPriorityLanes.headers(payload));
+        }
+    }
+
+    private void forgetBelow(long id) {
+        while (!seenOrder.isEmpty() && seenOrder.peekFirst() <= id) {
+            seen.remove(seenOrder.pollFirst());
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sigc.backend.dto.NotificacionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carriles de prioridad por sesión en el canal de salida STOMP.
+ *
+ * Sin esto el pool de salida es una única cola FIFO: en una ráfaga, una cancelación (ALTA)
+ * espera detrás de cientos de eventos de monitorización (BAJA). Aquí, en preSend (hilo del
+ * broker) cada MESSAGE se guarda en el carril ALTA/MEDIA/BAJA de su sesión y al pool solo se
+ * envía una ficha con el ID de sesión. Cuando el pool ejecuta la ficha (beforeHandle) se
+ * entrega el mensaje más prioritario pendiente de esa sesión. Hay una ficha por mensaje
+ * encolado, así que ninguno se queda sin entregar. Si una ficha no llega al pool (cola del
+ * pool llena, AbortPolicy), afterSendCompletion descarta un mensaje pendiente de la sesión
+ * (el de esa ficha si sigue en su carril) para que no quede ninguno sin ficha.
+ *
+ * La prioridad es la cabecera nativa "prioridad" (ver headers()); sin ella se usa MEDIA.
+ *
+ * Las notificaciones personales (/user/..., o el antiguo /topic/user/{id}) llevan una
+ * secuencia que el cliente usa para descartar duplicados y pedir replay de los huecos, así
+ * que van en un carril propio FIFO: nunca se reordenan entre sí, nunca se agrupan ni se
+ * descartan por la marca. El carril personal compite con los demás con la prioridad más
+ * alta que tenga pendiente: un ALTA personal adelanta a las difusiones arrastrando consigo
+ * las personales anteriores.
+ *
+ * Si los bytes pendientes de una sesión superan app.websocket.outbound.priority-watermark-bytes:
+ * - un BAJA de difusión nuevo sustituye al BAJA pendiente del mismo destino (agrupado) o se descarta
+ * - un ALTA/MEDIA o personal nuevo expulsa los BAJA de difusión más antiguos hasta bajar de la marca
+ *
+ * Solo una ficha rechazada por el pool puede descartar una personal (si no queda otra cosa
+ * pendiente); el cliente ve el hueco en la secuencia y la recupera del outbox con el replay.
+ * Se mide la espera en cola (preSend -> entrega) por prioridad.
+ */
+@Component
+@Slf4j
+public class OutboundPriorityLanes implements ExecutorChannelInterceptor {
+
+    public static final String PRIORITY_HEADER = "prioridad";
+    public static final String ALTA = "ALTA";
+    public static final String MEDIA = "MEDIA";
+    public static final String BAJA = "BAJA";
+
+    static final String TOKEN_HEADER = "sigc.laneToken";
+    private static final List<String> PRIORIDADES = List.of(ALTA, MEDIA, BAJA);
+    private static final int IDX_BAJA = 2;
+    private static final byte[] EMPTY = new byte[0];
+    /** Cubetas de latencia: [0,1) ms, [1,2), [2,4) ... [2^(n-2), ∞). */
+    private static final int BUCKETS = 16;
+
+    private final long watermarkBytes;
+    private final Map<String, Carriles> sesiones = new ConcurrentHashMap<>();
+    private final Metricas[] metricas = new Metricas[PRIORIDADES.size()];
+
+    public OutboundPriorityLanes(@Value("${app.websocket.outbound.priority-watermark-bytes:32768}") long watermarkBytes) {
+        this.watermarkBytes = watermarkBytes;
+        for (int i = 0; i < metricas.length; i++) {
+            metricas[i] = new Metricas();
+        }
+    }
+
+    /**
+     * Cabeceras nativas para convertAndSend con la prioridad del payload
+     * (NotificacionDTO, JSON reenviado por otro nodo o lote de ellos: la mayor del lote).
+     */
+    public static Map<String, Object> headers(Object payload) {
+        return Map.of(PRIORITY_HEADER, PRIORIDADES.get(priorityIndex(payload)));
+    }
+
+    static int priorityIndex(Object payload) {
+        if (payload instanceof NotificacionDTO dto) {
+            return indexOf(dto.getPrioridad());
+        }
+        if (payload instanceof JsonNode node) {
+            if (node.isArray()) {
+                int best = IDX_BAJA;
+                for (JsonNode item : node) {
+                    best = Math.min(best, indexOf(item.path(PRIORITY_HEADER).asText(null)));
+                }
+                return node.isEmpty() ? indexOf(null) : best;
+            }
+            return indexOf(node.path(PRIORITY_HEADER).asText(null));
+        }
+        if (payload instanceof Collection<?> items && !items.isEmpty()) {
+            int best = IDX_BAJA;
+            for (Object item : items) {
+                best = Math.min(best, priorityIndex(item));
+            }
+            return best;
+        }
+        return indexOf(null);
+    }
+
+    private static int indexOf(String prioridad) {
+        if (prioridad == null) {
+            return 1;
+        }
+        int idx = PRIORIDADES.indexOf(prioridad.trim().toUpperCase(Locale.ROOT));
+        return idx >= 0 ? idx : 1;
+    }
+
+    /**
+     * Hilo que publica: encola el MESSAGE en su carril y deja pasar solo la ficha.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null || accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getSessionId() == null) {
+            return message;
+        }
+        String sessionId = accessor.getSessionId();
+        int prioridad = indexOf(accessor.getFirstNativeHeader(PRIORITY_HEADER));
+        Pendiente nuevo = new Pendiente(message, accessor.getDestination(), prioridad, isPersonal(accessor),
+                System.nanoTime());
+        metricas[prioridad].encolados.increment();
+
+        boolean[] encolado = new boolean[1];
+        sesiones.compute(sessionId, (id, carriles) -> {
+            if (carriles == null) {
+                carriles = new Carriles();
+            }
+            encolado[0] = carriles.offer(nuevo);
+            if (encolado[0]) {
+                carriles.fichas++;
+            }
+            return carriles.isIdle() ? null : carriles;
+        });
+        if (!encolado[0]) {
+            return null;
+        }
+        return MessageBuilder.withPayload(EMPTY)
+                .setHeader(SimpMessageHeaderAccessor.SESSION_ID_HEADER, sessionId)
+                .setHeader(TOKEN_HEADER, nuevo)
+                .build();
+    }
+
+    /**
+     * Hilo del pool de salida: cambia la ficha por el mensaje más prioritario de la sesión.
+     */
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (!(message.getHeaders().get(TOKEN_HEADER) instanceof Pendiente)) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Pendiente[] siguiente = new Pendiente[1];
+        sesiones.computeIfPresent(sessionId, (id, carriles) -> {
+            carriles.fichas--;
+            siguiente[0] = carriles.pollNext();
+            return carriles.isIdle() ? null : carriles;
+        });
+        if (siguiente[0] == null) {
+            // El mensaje de esta ficha se expulsó o se agrupó en otro
+            return null;
+        }
+        metricas[siguiente[0].prioridad].entregado(System.nanoTime() - siguiente[0].encolado);
+        return siguiente[0].message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+    }
+
+    /**
+     * Hilo que publica: si la ficha no llegó al pool, su mensaje ya no tiene quien lo entregue.
+     */
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent && ex == null || !(message.getHeaders().get(TOKEN_HEADER) instanceof Pendiente propio)) {
+            return;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        sesiones.computeIfPresent(sessionId, (id, carriles) -> {
+            carriles.fichaPerdida(propio);
+            return carriles.isIdle() ? null : carriles;
+        });
+        log.warn("⚠️ Ficha de salida rechazada para la sesión {}: {}", sessionId,
+                ex != null ? ex.getMessage() : "no enviada");
+    }
+
+    /**
+     * Notificación personal: destino de usuario (el broker conserva el original /user/...)
+     * o el antiguo /topic/user/{id}.
+     */
+    private static boolean isPersonal(SimpMessageHeaderAccessor accessor) {
+        String destino = accessor.getHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION) instanceof String original
+                ? original : accessor.getDestination();
+        return destino != null && (destino.startsWith("/user/")
+                || destino.startsWith(StompAuthChannelInterceptor.USER_TOPIC_PREFIX));
+    }
+
+    /**
+     * Sesiones con mensajes pendientes en sus carriles.
+     */
+    public int pendingSessions() {
+        return sesiones.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("marcaBytes", watermarkBytes);
+        stats.put("sesionesConPendientes", sesiones.size());
+        for (int i = 0; i < metricas.length; i++) {
+            stats.put(PRIORIDADES.get(i), metricas[i].snapshot());
+        }
+        return stats;
+    }
+
+    private final class Carriles {
+        /** Difusiones por prioridad. */
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<Pendiente>[] colas = new ArrayDeque[]{new ArrayDeque<>(), new ArrayDeque<>(), new ArrayDeque<>()};
+        /** Personales en orden de llegada, y cuántas hay de cada prioridad. */
+        private final ArrayDeque<Pendiente> personales = new ArrayDeque<>();
+        private final int[] personalesPorPrioridad = new int[PRIORIDADES.size()];
+        private long bytes;
+        /** Fichas enviadas al pool aún no atendidas; la sesión se conserva mientras quede alguna. */
+        private int fichas;
+
+        /**
+         * @return true si el mensaje queda encolado y necesita su propia ficha
+         */
+        boolean offer(Pendiente nuevo) {
+            boolean lleno = watermarkBytes > 0 && bytes + nuevo.size > watermarkBytes;
+            if (lleno && nuevo.prioridad == IDX_BAJA && !nuevo.personal) {
+                Pendiente mismoDestino = lastWithDestination(colas[IDX_BAJA], nuevo.destino);
+                if (mismoDestino != null) {
+                    // Se conserva el instante de encolado: la ficha pendiente es la del anterior
+                    bytes += nuevo.size - mismoDestino.size;
+                    mismoDestino.message = nuevo.message;
+                    mismoDestino.size = nuevo.size;
+                    metricas[IDX_BAJA].agrupados.increment();
+                } else {
+                    metricas[IDX_BAJA].descartados.increment();
+                }
+                return false;
+            }
+            if (lleno) {
+                ArrayDeque<Pendiente> baja = colas[IDX_BAJA];
+                while (!baja.isEmpty() && bytes + nuevo.size > watermarkBytes) {
+                    bytes -= baja.pollFirst().size;
+                    metricas[IDX_BAJA].descartados.increment();
+                }
+            }
+            if (nuevo.personal) {
+                personales.addLast(nuevo);
+                personalesPorPrioridad[nuevo.prioridad]++;
+            } else {
+                colas[nuevo.prioridad].addLast(nuevo);
+            }
+            bytes += nuevo.size;
+            return true;
+        }
+
+        /**
+         * Siguiente mensaje a entregar: la difusión más prioritaria o la personal más antigua
+         * si el carril personal tiene pendiente algo de igual o mayor prioridad (a igualdad,
+         * el que lleva más tiempo esperando).
+         */
+        Pendiente pollNext() {
+            int difusion = firstNonEmpty();
+            int personal = personalPriority();
+            if (difusion < 0 && personal < 0) {
+                return null;
+            }
+            boolean tocaPersonal = difusion < 0 || personal >= 0 && (personal < difusion
+                    || personal == difusion && personales.peekFirst().encolado <= colas[difusion].peekFirst().encolado);
+            Pendiente p = tocaPersonal ? pollPersonal() : colas[difusion].pollFirst();
+            bytes -= p.size;
+            return p;
+        }
+
+        boolean isIdle() {
+            return fichas <= 0 && pendientes() == 0;
+        }
+
+        /**
+         * Una ficha no llegó al pool: se descartan mensajes hasta que cada pendiente tenga
+         * ficha, empezando por el de esa ficha y después las difusiones menos prioritarias y
+         * más recientes. Las personales solo cuando no queda otra cosa.
+         */
+        void fichaPerdida(Pendiente propio) {
+            fichas--;
+            while (pendientes() > Math.max(0, fichas)) {
+                Pendiente descartado = propio != null && remove(propio) ? propio : removeLast();
+                bytes -= descartado.size;
+                metricas[descartado.prioridad].descartados.increment();
+                propio = null;
+            }
+        }
+
+        private int firstNonEmpty() {
+            for (int i = 0; i < colas.length; i++) {
+                if (!colas[i].isEmpty()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int personalPriority() {
+            for (int i = 0; i < personalesPorPrioridad.length; i++) {
+                if (personalesPorPrioridad[i] > 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Pendiente pollPersonal() {
+            Pendiente p = personales.pollFirst();
+            personalesPorPrioridad[p.prioridad]--;
+            return p;
+        }
+
+        private boolean remove(Pendiente p) {
+            if (p.personal) {
+                if (!personales.removeFirstOccurrence(p)) {
+                    return false;
+                }
+                personalesPorPrioridad[p.prioridad]--;
+                return true;
+            }
+            return colas[p.prioridad].removeFirstOccurrence(p);
+        }
+
+        private Pendiente removeLast() {
+            for (int i = colas.length - 1; i >= 0; i--) {
+                if (!colas[i].isEmpty()) {
+                    return colas[i].pollLast();
+                }
+            }
+            Pendiente p = personales.pollLast();
+            personalesPorPrioridad[p.prioridad]--;
+            return p;
+        }
+
+        private int pendientes() {
+            return colas[0].size() + colas[1].size() + colas[2].size() + personales.size();
+        }
+
+        private static Pendiente lastWithDestination(ArrayDeque<Pendiente> cola, String destino) {
+            if (destino == null) {
+                return null;
+            }
+            Iterator<Pendiente> it = cola.descendingIterator();
+            while (it.hasNext()) {
+                Pendiente p = it.next();
+                if (destino.equals(p.destino)) {
+                    return p;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Pendiente {
+        private Message<?> message;
+        private int size;
+        private final String destino;
+        private final int prioridad;
+        private final boolean personal;
+        private final long encolado;
+
+        Pendiente(Message<?> message, String destino, int prioridad, boolean personal, long encolado) {
+            this.message = message;
+            this.size = message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+            this.destino = destino;
+            this.prioridad = prioridad;
+            this.personal = personal;
+            this.encolado = encolado;
+        }
+    }
+
+    private static final class Metricas {
+        private final LongAdder encolados = new LongAdder();
+        private final LongAdder entregados = new LongAdder();
+        private final LongAdder descartados = new LongAdder();
+        private final LongAdder agrupados = new LongAdder();
+        private final LongAdder esperaTotalNanos = new LongAdder();
+        private final LongAccumulator esperaMaxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histograma = new AtomicLongArray(BUCKETS);
+
+        void entregado(long esperaNanos) {
+            entregados.increment();
+            esperaTotalNanos.add(esperaNanos);
+            esperaMaxNanos.accumulate(esperaNanos);
+            long ms = esperaNanos / 1_000_000;
+            int bucket = ms == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(ms));
+            histograma.incrementAndGet(bucket);
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            long entregadosTotal = entregados.sum();
+            stats.put("encolados", encolados.sum());
+            stats.put("entregados", entregadosTotal);
+            stats.put("descartados", descartados.sum());
+            stats.put("agrupados", agrupados.sum());
+            stats.put("esperaMediaMs", entregadosTotal == 0 ? 0.0
+                    : Math.round(esperaTotalNanos.sum() / (double) entregadosTotal / 1_000) / 1_000.0);
+            stats.put("esperaP99Ms", percentileMs(0.99));
+            stats.put("esperaMaxMs", Math.round(esperaMaxNanos.get() / 1_000) / 1_000.0);
+            return stats;
+        }
+
+        /** Límite superior de la cubeta que contiene el percentil. */
+        private long percentileMs(double p) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += histograma.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = (long) Math.ceil(total * p);
+            long acumulado = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                acumulado += histograma.get(i);
+                if (acumulado >= objetivo) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (BUCKETS - 1);
+        }
+    }
+}
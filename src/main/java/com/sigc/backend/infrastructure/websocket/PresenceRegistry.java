@@ -0,0 +1,154 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.sigc.backend.shared.collection.StripedLongLongMap;
+import com.sigc.backend.shared.constant.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Presencia de usuarios conectados por WebSocket en este nodo.
+ *
+ * Se alimenta de SessionConnectedEvent / SessionDisconnectEvent. Por usuario guarda en
+ * un StripedLongLongMap un valor empaquetado:
+ * los 32 bits bajos son el número de sesiones abiertas y los altos el código del rol.
+ * Al cerrar la última sesión el usuario se borra del mapa.
+ *
+ * isOnline() es una búsqueda O(1) sin asignar memoria; NotificationService la usa para
+ * no serializar envíos en vivo a usuarios sin sesión.
+ */
+@Component
+@Slf4j
+public class PresenceRegistry {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+    private static final List<String> ROLES = List.of("", AppConstants.ROLE_PATIENT, AppConstants.ROLE_DOCTOR,
+            AppConstants.ROLE_ADMIN);
+
+    private final StripedLongLongMap users = new StripedLongLongMap();
+    /** Sesión -> usuario: SessionDisconnectEvent puede llegar más de una vez por sesión. */
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    /** Usuarios (no sesiones) conectados por código de rol. */
+    private final AtomicIntegerArray onlineByRole = new AtomicIntegerArray(ROLES.size());
+
+    /**
+     * Usuario presente en la lista de resultados de GET /presence.
+     */
+    public record Presencia(long idUsuario, String rol, int sesiones) {
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        if (!(event.getUser() instanceof StompPrincipal principal)) {
+            return;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId == null || sessions.putIfAbsent(sessionId, principal.userId()) != null) {
+            return;
+        }
+        connected(principal.userId(), principal.rol());
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Long userId = sessions.remove(event.getSessionId());
+        if (userId != null) {
+            disconnected(userId);
+        }
+    }
+
+    /**
+     * Registra una sesión abierta del usuario.
+     */
+    void connected(long userId, String rol) {
+        int code = roleCode(rol);
+        long previous = users.getAndUpdate(userId, 0, packed -> ((long) code << 32) | ((packed & COUNT_MASK) + 1));
+        if ((previous & COUNT_MASK) == 0) {
+            onlineByRole.incrementAndGet(code);
+        }
+    }
+
+    /**
+     * Registra el cierre de una sesión del usuario.
+     */
+    void disconnected(long userId) {
+        // Con la última sesión el valor pasa a 0 y la entrada se borra
+        long previous = users.getAndUpdate(userId, 0, packed -> {
+            long count = packed & COUNT_MASK;
+            return count > 1 ? (packed & ~COUNT_MASK) | (count - 1) : 0;
+        });
+        if ((previous & COUNT_MASK) == 1) {
+            onlineByRole.decrementAndGet((int) (previous >>> 32));
+        }
+    }
+
+    public boolean isOnline(long userId) {
+        return sessionCount(userId) > 0;
+    }
+
+    public int sessionCount(long userId) {
+        return (int) (users.get(userId, 0) & COUNT_MASK);
+    }
+
+    /**
+     * Usuarios conectados con el rol dado.
+     */
+    public int onlineCount(String rol) {
+        return onlineByRole.get(roleCode(rol));
+    }
+
+    /**
+     * Usuarios conectados con cualquier rol.
+     */
+    public int totalOnline() {
+        int total = 0;
+        for (int code = 0; code < onlineByRole.length(); code++) {
+            total += onlineByRole.get(code);
+        }
+        return total;
+    }
+
+    /**
+     * Usuarios conectados, filtrados por rol (null = todos), ordenados por ID.
+     */
+    public List<Presencia> list(String rol) {
+        int filtro = rol != null ? roleCode(rol) : -1;
+        List<Presencia> result = new ArrayList<>();
+        users.forEach((userId, packed) -> {
+            int code = (int) (packed >>> 32);
+            if (filtro < 0 || code == filtro) {
+                result.add(new Presencia(userId, ROLES.get(code), (int) (packed & COUNT_MASK)));
+            }
+        });
+        result.sort((a, b) -> Long.compare(a.idUsuario(), b.idUsuario()));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sesiones", sessions.size());
+        Map<String, Integer> porRol = new LinkedHashMap<>();
+        for (int code = 1; code < ROLES.size(); code++) {
+            porRol.put(ROLES.get(code), onlineByRole.get(code));
+        }
+        stats.put("usuariosPorRol", porRol);
+        return stats;
+    }
+
+    private static int roleCode(String rol) {
+        if (rol == null) return 0;
+        int code = ROLES.indexOf(rol.toUpperCase(Locale.ROOT));
+        return Math.max(code, 0);
+    }
+}
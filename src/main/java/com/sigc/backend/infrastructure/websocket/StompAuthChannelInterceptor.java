@@ -0,0 +1,172 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import com.sigc.backend.security.JwtUtil;
+import com.sigc.backend.shared.constant.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autenticación y autorización de frames STOMP entrantes.
+ *
+ * - CONNECT: verifica el JWT una sola vez (JwtUtil.parseAccessToken) y guarda un
+ *   StompPrincipal inmutable por ID de sesión
+ * - SUBSCRIBE / SEND: se autorizan con el principal cacheado, sin volver a parsear el token;
+ *   solo se comprueba la versión de tokens en memoria para cortar sesiones revocadas
+ * - /topic/user/{id} solo lo puede suscribir su dueño y /topic/admin solo un ADMIN
+ * - La caché se limpia al desconectar (frame DISCONNECT o cierre del socket)
+ */
+@Component
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    static final String USER_TOPIC_PREFIX = "/topic/user/";
+    static final String ADMIN_TOPIC = "/topic/admin";
+
+    private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final Map<String, StompPrincipal> sessions = new ConcurrentHashMap<>();
+
+    public StompAuthChannelInterceptor(JwtUtil jwtUtil, TokenVersionRegistry tokenVersionRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> connect(accessor);
+            case SUBSCRIBE -> authorizeSubscribe(accessor);
+            case SEND -> principal(accessor);
+            case DISCONNECT -> {
+                if (accessor.getSessionId() != null) {
+                    sessions.remove(accessor.getSessionId());
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Limpia la sesión cuando el socket se cierra sin DISCONNECT.
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    /**
+     * Principal de una sesión conectada (null si no existe).
+     */
+    public StompPrincipal getPrincipal(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * Número de sesiones autenticadas.
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    private void connect(StompHeaderAccessor accessor) {
+        String authToken = accessor.getFirstNativeHeader("Authorization");
+        if (authToken == null || !authToken.startsWith("Bearer ")) {
+            log.warn("⚠️ Sin token JWT en conexión WebSocket");
+            throw new IllegalArgumentException("Token JWT requerido");
+        }
+        JwtUtil.AccessToken token;
+        try {
+            token = jwtUtil.parseAccessToken(authToken.substring(7));
+        } catch (Exception e) {
+            log.warn("⚠️ Token JWT inválido en WebSocket: {}", e.getMessage());
+            throw new IllegalArgumentException("Autenticación fallida: " + e.getMessage());
+        }
+        if (token.userId() == null) {
+            throw new IllegalArgumentException("Autenticación fallida: token sin ID de usuario");
+        }
+        StompPrincipal principal = new StompPrincipal(token.userId(), token.email(), token.rol(), token.version());
+        if (accessor.getSessionId() != null) {
+            sessions.put(accessor.getSessionId(), principal);
+        }
+        accessor.setUser(principal);
+        log.info("✅ WebSocket conectado: {} (ID: {}, Rol: {})", principal.email(), principal.userId(), principal.rol());
+    }
+
+    private void authorizeSubscribe(StompHeaderAccessor accessor) {
+        StompPrincipal principal = principal(accessor);
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+        if (destination.startsWith(USER_TOPIC_PREFIX)) {
+            if (!isOwnId(destination, USER_TOPIC_PREFIX.length(), principal.userId())) {
+                log.warn("⛔ Usuario {} intentó suscribirse a {}", principal.userId(), destination);
+                throw new AccessDeniedException("No puede suscribirse a notificaciones de otro usuario");
+            }
+        } else if (destination.equals(ADMIN_TOPIC)
+                && !AppConstants.ROLE_ADMIN.equalsIgnoreCase(principal.rol())) {
+            log.warn("⛔ Usuario {} ({}) intentó suscribirse a {}", principal.userId(), principal.rol(), destination);
+            throw new AccessDeniedException("Solo administradores");
+        }
+    }
+
+    /**
+     * Principal de la sesión, comprobando que sus tokens no se hayan revocado desde el CONNECT.
+     */
+    private StompPrincipal principal(StompHeaderAccessor accessor) {
+        StompPrincipal principal = getPrincipal(accessor.getSessionId());
+        if (principal == null) {
+            Principal user = accessor.getUser();
+            principal = user instanceof StompPrincipal p ? p : null;
+        }
+        if (principal == null) {
+            throw new AccessDeniedException("Sesión WebSocket no autenticada");
+        }
+        if (!tokenVersionRegistry.isCurrent(principal.userId(), principal.tokenVersion())) {
+            if (accessor.getSessionId() != null) {
+                sessions.remove(accessor.getSessionId());
+            }
+            throw new AccessDeniedException("Sesión revocada");
+        }
+        return principal;
+    }
+
+    /**
+     * Compara el ID del destino (desde offset hasta el final) con userId sin crear objetos.
+     */
+    static boolean isOwnId(String destination, int offset, long userId) {
+        int length = destination.length();
+        if (offset >= length || length - offset > 19) {
+            return false;
+        }
+        long id = 0;
+        for (int i = offset; i < length; i++) {
+            char c = destination.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id == userId;
+    }
+}
@@ -0,0 +1,163 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Negociación del formato de los frames MESSAGE por sesión STOMP.
+ *
+ * El cliente pide un formato binario en el CONNECT con la cabecera
+ * "accept-content: application/cbor" (o "application/x-jackson-smile"). Solo se acepta en
+ * conexiones por el endpoint WebSocket nativo /ws-binary: SockJS solo transporta texto.
+ *
+ * En el canal de salida, los MESSAGE JSON para esas sesiones se recodifican con
+ * CompactNotificationCodec y se envían como application/octet-stream (así el
+ * StompSubProtocolHandler usa frames binarios) con la cabecera "content-encoding: cbor|smile".
+ *
+ * Un envío a un topic reparte el mismo payload a todas las sesiones desde el mismo hilo,
+ * así que se recuerda por hilo y formato la última conversión y cada payload se recodifica
+ * una vez por formato.
+ */
+@Component
+@Slf4j
+public class StompContentNegotiationInterceptor implements ChannelInterceptor {
+
+    /** Atributo de sesión que pone el handshake de /ws-binary. */
+    public static final String BINARY_TRANSPORT_ATTRIBUTE = "sigc.binaryTransport";
+    public static final String ACCEPT_CONTENT_HEADER = "accept-content";
+    public static final String CONTENT_ENCODING_HEADER = "content-encoding";
+
+    private final CompactNotificationCodec codec;
+    private final Map<String, CompactNotificationCodec.Formato> formatos = new ConcurrentHashMap<>();
+    private final ThreadLocal<UltimaConversion[]> ultima = ThreadLocal.withInitial(
+            () -> new UltimaConversion[CompactNotificationCodec.Formato.values().length]);
+
+    private final LongAdder codificados = new LongAdder();
+    private final LongAdder reutilizados = new LongAdder();
+
+    public StompContentNegotiationInterceptor(CompactNotificationCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Canal de entrada: registra el formato pedido en el CONNECT.
+     */
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId == null) {
+                    return message;
+                }
+                if (type == SimpMessageType.CONNECT) {
+                    negotiate(SimpMessageHeaderAccessor.wrap(message), sessionId);
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    formatos.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Canal de salida: recodifica los MESSAGE de las sesiones binarias.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (formatos.isEmpty() || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        CompactNotificationCodec.Formato formato = sessionId != null ? formatos.get(sessionId) : null;
+        if (formato == null
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        MimeType contentType = accessor.getContentType();
+        if (contentType != null && !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return message;
+        }
+        byte[] encoded;
+        try {
+            encoded = encode(payload, formato);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo recodificar un mensaje para la sesión {}: {}", sessionId, e.getMessage());
+            return message;
+        }
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(CONTENT_ENCODING_HEADER, formato.getNombre());
+        return MessageBuilder.createMessage(encoded, accessor.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        formatos.remove(event.getSessionId());
+    }
+
+    public CompactNotificationCodec.Formato getFormato(String sessionId) {
+        return formatos.get(sessionId);
+    }
+
+    public Map<String, Object> getStats() {
+        long binCbor = formatos.values().stream().filter(f -> f == CompactNotificationCodec.Formato.CBOR).count();
+        return Map.of(
+                "sesionesCbor", binCbor,
+                "sesionesSmile", formatos.size() - binCbor,
+                "payloadsCodificados", codificados.sum(),
+                "payloadsReutilizados", reutilizados.sum());
+    }
+
+    private void negotiate(SimpMessageHeaderAccessor accessor, String sessionId) {
+        String accept = accessor.getFirstNativeHeader(ACCEPT_CONTENT_HEADER);
+        if (accept == null) {
+            return;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(BINARY_TRANSPORT_ATTRIBUTE))) {
+            log.debug("Sesión {} pidió {} por un transporte de texto; se mantiene JSON", sessionId, accept);
+            return;
+        }
+        for (String option : accept.split(",")) {
+            CompactNotificationCodec.Formato formato = CompactNotificationCodec.Formato.parse(option);
+            if (formato != null) {
+                formatos.put(sessionId, formato);
+                log.debug("Sesión {} recibirá notificaciones en {}", sessionId, formato.getNombre());
+                return;
+            }
+        }
+    }
+
+    private byte[] encode(byte[] payload, CompactNotificationCodec.Formato formato) throws IOException {
+        UltimaConversion[] porFormato = ultima.get();
+        UltimaConversion previa = porFormato[formato.ordinal()];
+        if (previa != null && previa.json == payload) {
+            reutilizados.increment();
+            return previa.codificado;
+        }
+        byte[] encoded = codec.encode(payload, formato);
+        porFormato[formato.ordinal()] = new UltimaConversion(payload, encoded);
+        codificados.increment();
+        return encoded;
+    }
+
+    private record UltimaConversion(byte[] json, byte[] codificado) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import java.security.Principal;
+
+/**
+ * Usuario autenticado de una sesión STOMP. Inmutable: se crea una vez en el CONNECT.
+ *
+ * El nombre es el ID numérico del usuario, así que los destinos /user/... se
+ * resuelven por ID.
+ *
+ * @param userId ID del usuario
+ * @param email Email del usuario
+ * @param rol Rol del usuario
+ * @param tokenVersion Versión de tokens del JWT usado al conectar
+ */
+public record StompPrincipal(long userId, String email, String rol, long tokenVersion) implements Principal {
+
+    @Override
+    public String getName() {
+        return Long.toString(userId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de WebSocket/STOMP.
+ *
+ * - Profundidad de cola e hilos activos de los canales inbound/outbound
+ * - Sesiones abiertas y sesiones cerradas por cliente lento (límite de envío superado)
+ *
+ * Los ejecutores los crea la configuración de STOMP, que a su vez depende de este
+ * componente (decorador de sesiones), por eso se obtienen de forma perezosa.
+ */
+@Component
+@Slf4j
+public class WebSocketMetrics {
+
+    private final ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor;
+    private final ObjectProvider<ThreadPoolTaskExecutor> outboundExecutor;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder openedSessions = new LongAdder();
+    private final LongAdder slowConsumerDrops = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+
+    public WebSocketMetrics(@Qualifier("clientInboundChannelExecutor") ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") ObjectProvider<ThreadPoolTaskExecutor> outboundExecutor) {
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    /**
+     * Envuelve el handler de WebSocket para contar aperturas y cierres.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                activeSessions.incrementAndGet();
+                openedSessions.increment();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                transportErrors.increment();
+                super.handleTransportError(session, exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                activeSessions.decrementAndGet();
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    slowConsumerDrops.increment();
+                    log.warn("🐢 Sesión WebSocket {} cerrada por cliente lento", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Instantánea de las métricas.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sesionesActivas", activeSessions.get());
+        stats.put("sesionesAbiertasTotal", openedSessions.sum());
+        stats.put("sesionesDescartadasPorLentitud", slowConsumerDrops.sum());
+        stats.put("erroresTransporte", transportErrors.sum());
+        stats.put("inbound", executorStats(inboundExecutor.getIfAvailable()));
+        stats.put("outbound", executorStats(outboundExecutor.getIfAvailable()));
+        return stats;
+    }
+
+    /**
+     * Avisa cuando la cola de un canal supera la mitad de su capacidad.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.metrics-check-ms:30000}")
+    public void checkQueues() {
+        warnIfBacklogged("inbound", inboundExecutor.getIfAvailable());
+        warnIfBacklogged("outbound", outboundExecutor.getIfAvailable());
+    }
+
+    static Map<String, Object> executorStats(ThreadPoolTaskExecutor executor) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (executor == null) {
+            return stats;
+        }
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        stats.put("hilos", pool.getPoolSize());
+        stats.put("hilosActivos", pool.getActiveCount());
+        stats.put("enCola", pool.getQueue().size());
+        stats.put("capacidadCola", executor.getQueueCapacity());
+        stats.put("completadas", pool.getCompletedTaskCount());
+        return stats;
+    }
+
+    private void warnIfBacklogged(String channel, ThreadPoolTaskExecutor executor) {
+        if (executor == null) {
+            return;
+        }
+        int queued = executor.getThreadPoolExecutor().getQueue().size();
+        int capacity = executor.getQueueCapacity();
+        if (capacity > 0 && queued * 2 > capacity) {
+            log.warn("⚠️ Canal STOMP {} con {} mensajes en cola (capacidad {})", channel, queued, capacity);
+        }
+    }
+}
@@ -10,7 +10,9 @@ import java.time.LocalTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "citas")
+@Table(name = "citas", indexes = {
+        @Index(name = "ix_citas_fecha_hora", columnList = "fechaCita, horaCita")
+})
 public class Cita {
 
     @Id
@@ -18,6 +18,10 @@ public class Doctor {
     @NotBlank(message = "El nombre del doctor es obligatorio")
     private String nombre;
 
+    private String apellido;
+    private String telefono;
+    private String correo;
+
     @NotBlank(message = "La especialidad es obligatoria")
     private String especialidad;
 
@@ -0,0 +1,44 @@
+package com.sigc.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad EventoNotificacion
+ * Representa la tabla 'notificaciones_eventos' en la base de datos
+ *
+ * Registro corto de notificaciones que los nodos del backend leen para reenviarlas
+ * a sus sesiones WebSocket. Las inserciones se hacen por lotes con JDBC
+ * (JpaEventoNotificacionAdapter); los eventos se purgan a los pocos minutos.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notificaciones_eventos", indexes = {
+        @Index(name = "ix_eventos_creado", columnList = "creado")
+})
+public class EventoNotificacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long idEvento;
+
+    @Column(nullable = false, length = 64)
+    private String nodo;
+
+    @Column(nullable = false, length = 20)
+    private String canal;
+
+    @Column(nullable = false, length = 100)
+    private String destino;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+}
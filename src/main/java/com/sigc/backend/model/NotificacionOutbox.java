@@ -0,0 +1,44 @@
+package com.sigc.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad NotificacionOutbox
+ * Representa la tabla 'notificaciones_outbox' en la base de datos
+ *
+ * Las inserciones se hacen por lotes con JDBC (JpaNotificacionOutboxAdapter);
+ * la entidad define el esquema y sirve para las lecturas.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notificaciones_outbox", indexes = {
+        @Index(name = "ux_outbox_usuario_secuencia", columnList = "id_usuario, secuencia", unique = true),
+        @Index(name = "ix_outbox_creado", columnList = "creado")
+})
+public class NotificacionOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_outbox")
+    private Long idOutbox;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long idUsuario;
+
+    @Column(nullable = false)
+    private long secuencia;
+
+    @Column(length = 50)
+    private String tipo;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+}
@@ -3,6 +3,7 @@ package com.sigc.backend.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -15,7 +16,11 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        @Index(name = "ux_usuarios_email_lower", columnList = "email_lower", unique = true),
+        @Index(name = "idx_usuarios_rol", columnList = "rol"),
+        @Index(name = "idx_usuarios_activo", columnList = "activo")
+})
 public class Usuario {
 
     @Id
@@ -34,6 +39,15 @@ public class Usuario {
     @Column(nullable = false, unique = true, length = 100)
     private String email;
 
+    /**
+     * Email canónico (Email.canonicalize), mantenido automáticamente al guardar.
+     * Las búsquedas por email usan esta columna y su índice único.
+     * Es nullable solo para que ddl-auto=update pueda añadirla a tablas existentes;
+     * DataInitializer rellena las filas antiguas al arrancar.
+     */
+    @Column(name = "email_lower", length = 100)
+    private String emailLower;
+
     @NotBlank(message = "La contraseña es obligatoria")
     @Column(nullable = false, length = 255)
     private String password; // Almacena hash BCrypt
@@ -53,7 +67,21 @@ public class Usuario {
     @Column(nullable = false)
     private boolean activo = true;
 
+    /**
+     * Versión de los tokens del usuario. Subirla revoca todos los tokens emitidos antes.
+     * Solo se modifica con UsuarioRepository.incrementTokenVersion (nunca desde save).
+     */
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false, insertable = false, updatable = false)
+    private long tokenVersion;
+
     @CreationTimestamp
     @Column(name = "fecha_registro", updatable = false)
     private LocalDateTime fechaRegistro;
+
+    @PrePersist
+    @PreUpdate
+    void canonicalizarEmail() {
+        this.emailLower = com.sigc.backend.shared.value.Email.canonicalize(email);
+    }
 }
@@ -1,10 +1,52 @@
 package com.sigc.backend.repository;
 
 import com.sigc.backend.model.Cita;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 public interface CitaRepository extends JpaRepository<Cita, Long> {
     List<Cita> findByUsuario_IdUsuario(Long idUsuario);
     List<Cita> findByHorario_IdHorario(Long idHorario);
+
+    /**
+     * Citas activas entre dos fechas (índice ix_citas_fecha_hora), solo con los IDs:
+     * no carga usuario, doctor ni horario.
+     */
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("select c.idCita as idCita, c.fechaCita as fechaCita, c.horaCita as horaCita, "
+            + "c.estado as estado, u.idUsuario as idUsuario, d.idDoctor as idDoctor "
+            + "from Cita c left join c.usuario u left join c.doctor d "
+            + "where c.fechaCita between :desde and :hasta "
+            + "and (c.estado is null or c.estado not in ('CANCELADA', 'COMPLETADA'))")
+    List<CitaProxima> findActivasEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Las citas indicadas que siguen activas, con la misma proyección que findActivasEntre.
+     */
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("select c.idCita as idCita, c.fechaCita as fechaCita, c.horaCita as horaCita, "
+            + "c.estado as estado, u.idUsuario as idUsuario, d.idDoctor as idDoctor "
+            + "from Cita c left join c.usuario u left join c.doctor d "
+            + "where c.idCita in :ids "
+            + "and (c.estado is null or c.estado not in ('CANCELADA', 'COMPLETADA'))")
+    List<CitaProxima> findActivasPorId(@Param("ids") Collection<Long> ids);
+
+    interface CitaProxima {
+        Long getIdCita();
+        LocalDate getFechaCita();
+        LocalTime getHoraCita();
+        String getEstado();
+        Long getIdUsuario();
+        Long getIdDoctor();
+    }
 }
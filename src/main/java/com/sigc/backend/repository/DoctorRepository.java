@@ -1,9 +1,21 @@
 package com.sigc.backend.repository;
 
 import com.sigc.backend.model.Doctor;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     List<Doctor> findByEspecialidad(String especialidad);
+
+    // Solo la columna imagen, leída por cursor (requiere transacción abierta)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select d.imagen from Doctor d where d.imagen is not null")
+    Stream<String> streamImagenes();
 }
@@ -1,6 +1,20 @@
 package com.sigc.backend.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import com.sigc.backend.model.Especialidad;
 
-public interface EspecialidadRepository extends JpaRepository<Especialidad, Long> { }
\ No newline at end of file
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface EspecialidadRepository extends JpaRepository<Especialidad, Long> {
+
+    // Solo la columna imagen, leída por cursor (requiere transacción abierta)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select e.imagen from Especialidad e where e.imagen is not null")
+    Stream<String> streamImagenes();
+}
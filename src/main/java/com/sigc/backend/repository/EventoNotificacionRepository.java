@@ -0,0 +1,27 @@
+package com.sigc.backend.repository;
+
+import com.sigc.backend.model.EventoNotificacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoNotificacionRepository extends JpaRepository<EventoNotificacion, Long> {
+
+    @Query("select max(e.idEvento) from EventoNotificacion e")
+    Long findMaxId();
+
+    List<EventoNotificacion> findByIdEventoGreaterThanOrderByIdEventoAsc(Long idEvento, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EventoNotificacion e where e.creado < :limite")
+    int deleteByCreadoBefore(@Param("limite") LocalDateTime limite);
+}
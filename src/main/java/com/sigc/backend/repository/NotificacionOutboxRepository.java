@@ -0,0 +1,28 @@
+package com.sigc.backend.repository;
+
+import com.sigc.backend.model.NotificacionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificacionOutboxRepository extends JpaRepository<NotificacionOutbox, Long> {
+
+    @Query("select max(n.secuencia) from NotificacionOutbox n where n.idUsuario = :idUsuario")
+    Long findMaxSecuencia(@Param("idUsuario") Long idUsuario);
+
+    List<NotificacionOutbox> findByIdUsuarioAndSecuenciaGreaterThanOrderBySecuenciaAsc(
+            Long idUsuario, long secuencia, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from NotificacionOutbox n where n.creado < :limite")
+    int deleteByCreadoBefore(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,29 @@
+package com.sigc.backend.repository;
+
+import com.sigc.backend.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.idRefreshToken = :id and r.revocado = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.idUsuario = :idUsuario and r.revocado = false")
+    int revokeAllByUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiraEn < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,93 @@
 package com.sigc.backend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.sigc.backend.domain.model.UsuarioPerfil;
+import com.sigc.backend.domain.model.UsuarioSummary;
 import com.sigc.backend.model.Usuario;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-    Usuario findByEmail(String email);
+    /**
+     * Busca por email canónico (ver Email.canonicalize): sonda sobre el índice único.
+     */
+    Usuario findByEmailLower(String emailLower);
+
+    /**
+     * Comprueba existencia sin cargar la entidad: SELECT 1 ... LIMIT 1 sobre el índice.
+     *
+     * @return 1 si existe, null si no
+     */
+    @Query(value = "select 1 from usuarios where email_lower = :emailLower limit 1", nativeQuery = true)
+    Integer existsEmailLower(@Param("emailLower") String emailLower);
+
+    @Query("select u.emailLower from Usuario u where u.emailLower in :emails")
+    List<String> findExistingEmailLowers(@Param("emails") Collection<String> emails);
+
+    /**
+     * Rellena email_lower en filas creadas antes de existir la columna.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.emailLower = lower(trim(u.email)) where u.emailLower is null")
+    int backfillEmailLower();
+
+    /**
+     * Como backfillEmailLower, pero dejando sin rellenar los emails canónicos indicados.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.emailLower = lower(trim(u.email)) "
+            + "where u.emailLower is null and lower(trim(u.email)) not in :excluidos")
+    int backfillEmailLowerExcept(@Param("excluidos") Collection<String> excluidos);
+
+    /**
+     * Emails canónicos compartidos por más de un usuario (p. ej. "Ana@x.com" y "ana@x.com"
+     * de antes del índice único): no pueden rellenarse sin violar ux_usuarios_email_lower.
+     */
+    @Query("select lower(trim(u.email)) from Usuario u where u.email is not null "
+            + "group by lower(trim(u.email)) having count(u) > 1")
+    List<String> findCollidingEmailLowers();
+
+    @Query("select new com.sigc.backend.domain.model.UsuarioPerfil(u.idUsuario, u.nombre, u.email, u.dni, "
+            + "u.telefono, u.rol, u.activo, u.fechaRegistro) from Usuario u where u.idUsuario = :id")
+    Optional<UsuarioPerfil> findPerfilById(@Param("id") Long id);
+
+    // Listados del directorio: una consulta por combinación de filtros para que cada
+    // predicado use su índice (un "(:rol is null or ...)" impide al planificador usarlos)
+    String SUMMARY_SELECT = "select new com.sigc.backend.domain.model.UsuarioSummary("
+            + "u.idUsuario, u.nombre, u.email, u.rol, u.activo) from Usuario u";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(u) from Usuario u")
+    Page<UsuarioSummary> findSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where u.rol = :rol",
+            countQuery = "select count(u) from Usuario u where u.rol = :rol")
+    Page<UsuarioSummary> findSummariesByRol(@Param("rol") String rol, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where u.activo = :activo",
+            countQuery = "select count(u) from Usuario u where u.activo = :activo")
+    Page<UsuarioSummary> findSummariesByActivo(@Param("activo") boolean activo, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " where u.rol = :rol and u.activo = :activo",
+            countQuery = "select count(u) from Usuario u where u.rol = :rol and u.activo = :activo")
+    Page<UsuarioSummary> findSummariesByRolAndActivo(@Param("rol") String rol, @Param("activo") boolean activo,
+                                                     Pageable pageable);
+
+    @Query("select u.tokenVersion from Usuario u where u.idUsuario = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Usuario u set u.tokenVersion = u.tokenVersion + 1 where u.idUsuario = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
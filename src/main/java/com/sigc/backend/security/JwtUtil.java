@@ -1,29 +1,81 @@
 package com.sigc.backend.security;
 
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
+import jakarta.annotation.PostConstruct;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Emisión y verificación de access tokens JWT.
+ *
+ * Los tokens son de vida corta (jwt.access-ttl-minutes, 15 por defecto) y llevan la
+ * versión de tokens del usuario en el claim "ver". Toda lectura de claims comprueba
+ * esa versión contra TokenVersionRegistry (O(1) en memoria), así que un token
+ * revocado deja de aceptarse sin consultar la BD en cada petición.
+ * La renovación se hace con refresh tokens rotativos (RefreshTokenApplicationService).
+ */
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_VERSION = "ver";
+
     @Value("${jwt.secret:supersecreta123456supersecreta123456}")
     private String secretKey; // inyectable desde entorno (jwt.secret)
 
-    private static final long EXPIRATION_TIME = 86400000; // 1 día
+    @Value("${jwt.access-ttl-minutes:15}")
+    private long accessTtlMinutes;
+
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     private Key signingKey;
+    private JwtParser parser;
+
+    public JwtUtil(TokenVersionRegistry tokenVersionRegistry) {
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
 
     @PostConstruct
     private void init() {
         signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Vigencia de los access tokens en segundos.
+     */
+    public long getAccessTokenTtlSeconds() {
+        return TimeUnit.MINUTES.toSeconds(accessTtlMinutes);
+    }
+
+    /**
+     * Parsea el token y rechaza los revocados (versión anterior a la vigente).
+     */
+    private Claims parseClaims(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Long userId = parseSubject(claims.getSubject());
+        if (userId != null) {
+            Number version = claims.get(CLAIM_VERSION, Number.class);
+            if (!tokenVersionRegistry.isCurrent(userId, version != null ? version.longValue() : 0L)) {
+                throw new JwtException("Token revocado");
+            }
+        }
+        return claims;
+    }
+
+    private static Long parseSubject(String subject) {
+        try {
+            return subject != null ? Long.parseLong(subject) : null;
+        } catch (NumberFormatException e) {
+            return null; // tokens antiguos con email en el subject
+        }
     }
 
     /**
@@ -37,19 +89,20 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
         claims.put("rol", rol);
+        claims.put(CLAIM_VERSION, tokenVersionRegistry.current(idUsuario));
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(String.valueOf(idUsuario)) // ID como subject
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(accessTtlMinutes)))
                     .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -62,11 +115,7 @@ public class JwtUtil {
      * @return ID del usuario como Long
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parseClaims(token);
         return Long.parseLong(claims.getSubject());
     }
 
@@ -76,11 +125,7 @@ public class JwtUtil {
      * @return Email del usuario
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parseClaims(token);
         return claims.get("email", String.class);
     }
 
@@ -90,14 +135,36 @@ public class JwtUtil {
      * @return Rol del usuario
      */
     public String getRolFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parseClaims(token);
         return claims.get("rol", String.class);
     }
 
+    /**
+     * Datos de un access token verificado.
+     *
+     * @param userId ID del usuario (null en tokens antiguos con email en el subject)
+     * @param email Email del usuario
+     * @param rol Rol del usuario
+     * @param version Versión de tokens con la que se emitió
+     */
+    public record AccessToken(Long userId, String email, String rol, long version) {
+    }
+
+    /**
+     * Verifica el token una sola vez y devuelve todos sus datos.
+     * Usar en lugar de varias llamadas a get*FromToken, que verifican la firma en cada una.
+     *
+     * @param token Token JWT
+     * @return Datos del token
+     * @throws JwtException si el token es inválido, ha expirado o está revocado
+     */
+    public AccessToken parseAccessToken(String token) {
+        Claims claims = parseClaims(token);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        return new AccessToken(parseSubject(claims.getSubject()), claims.get("email", String.class),
+                claims.get("rol", String.class), version != null ? version.longValue() : 0L);
+    }
+
     /**
      * Método legacy para compatibilidad
      * @deprecated Usar getUserIdFromToken en su lugar
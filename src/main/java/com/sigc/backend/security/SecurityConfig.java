@@ -1,11 +1,11 @@
 package com.sigc.backend.security;
 
+import com.sigc.backend.infrastructure.security.password.BcryptPasswordEncoderService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,10 +25,10 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    // Encriptación con BCrypt
+    // Encriptación con BCrypt: la misma instancia (coste calibrado + pool acotado) que usan los casos de uso
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BcryptPasswordEncoderService encoderService) {
+        return encoderService.asSpringEncoder();
     }
 
     // CORS: Permitir peticiones del frontend en localhost (para desarrollo)
@@ -64,12 +64,16 @@ public class SecurityConfig {
                 .requestMatchers("/test/**").permitAll() // ⭐️ TEMPORAL PARA DEBUGGING ⭐️
                 .requestMatchers("/api/especialidades/**", "/especialidades/**").permitAll()
                 // Permitir el endpoint de SockJS / WebSocket (handshake /info, etc.)
-                .requestMatchers("/ws/**").permitAll()
+                .requestMatchers("/ws/**", "/ws-binary").permitAll()
+                .requestMatchers("/websocket/**").permitAll() // El controlador valida el JWT (solo ADMIN)
+                .requestMatchers("/notifications/stream").permitAll() // SSE: el controlador valida el JWT
+                .requestMatchers("/presence").permitAll() // El controlador valida el JWT (solo ADMIN)
                 .requestMatchers("/api/doctores/**", "/doctores/**").permitAll()
                 .requestMatchers("/api/horarios/**", "/horarios/**").permitAll()
                 .requestMatchers("/api/citas/**", "/citas/**").permitAll()
                 .requestMatchers("/api/servicios/**", "/servicios/**").permitAll()
                 .requestMatchers("/api/usuarios/**", "/usuarios/**").permitAll()
+                .requestMatchers("/search/**").permitAll() // El controlador valida el JWT
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/images/**").permitAll() // ⭐️ PERMITIR ARCHIVOS ESTÁTICOS ⭐️
                 // Otras peticiones exigen autenticación
@@ -1,8 +1,15 @@
 package com.sigc.backend.service;
 
+import com.sigc.backend.application.service.NotificationOutboxService;
 import com.sigc.backend.dto.NotificacionDTO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.infrastructure.websocket.NotificationCoalescer;
+import com.sigc.backend.infrastructure.websocket.NotificationRelay;
+import com.sigc.backend.infrastructure.websocket.OutboundPriorityLanes;
+import com.sigc.backend.infrastructure.websocket.PresenceRegistry;
+import com.sigc.backend.shared.constant.AppConstants;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -13,17 +20,61 @@ import java.time.LocalDateTime;
  * 
  * Utiliza SimpMessagingTemplate para enviar mensajes a canales específicos
  * Los canales están segregados por usuario y rol para seguridad
+ *
+ * Las notificaciones personales van a la cola de usuario /user/queue/notifications:
+ * el broker las entrega solo a las sesiones de ese usuario (el ID numérico del principal
+ * del CONNECT). Si PresenceRegistry indica que no tiene sesiones en este nodo no se serializa
+ * ni se envía nada en vivo; lo mismo con los topics sin ningún suscriptor posible conectado.
+ *
+ * Los canales de difusión con ráfagas (/topic/admin, /topic/horarios) pasan por
+ * NotificationCoalescer: las ediciones masivas llegan como un único frame con un array.
+ *
+ * Las notificaciones personales se guardan además en el outbox con una secuencia por
+ * usuario (NotificationOutboxService); el cliente recupera lo perdido con
+ * /app/notifications/replay?since={última secuencia}.
+ *
+ * Con varios nodos, cada notificación se publica además en NotificationRelay para que
+ * los demás nodos la entreguen a las sesiones que tengan conectadas.
+ *
+ * Cada envío lleva la cabecera "prioridad" de la notificación: en el canal de salida una
+ * ALTA se entrega antes que las BAJA pendientes de la misma sesión (OutboundPriorityLanes).
+ *
+ * Los mismos eventos llegan a los clientes SSE (GET /notifications/stream) por SseNotificationBroker.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    /** Destino que suscribe el cliente: /user/queue/notifications */
+    public static final String USER_QUEUE = "/queue/notifications";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceRegistry presence;
+    private final NotificationCoalescer coalescer;
+    private final NotificationOutboxService outboxService;
+    private final NotificationRelay relay;
+    private final SseNotificationBroker sseBroker;
+    private final boolean legacyUserTopic;
+
+    public NotificationService(SimpMessagingTemplate messagingTemplate,
+                               PresenceRegistry presence,
+                               NotificationCoalescer coalescer,
+                               NotificationOutboxService outboxService,
+                               NotificationRelay relay,
+                               SseNotificationBroker sseBroker,
+                               @Value("${app.notifications.legacy-user-topic:false}") boolean legacyUserTopic) {
+        this.messagingTemplate = messagingTemplate;
+        this.presence = presence;
+        this.coalescer = coalescer;
+        this.outboxService = outboxService;
+        this.relay = relay;
+        this.sseBroker = sseBroker;
+        this.legacyUserTopic = legacyUserTopic;
+    }
 
     /**
      * Envía una notificación a un usuario específico
-     * Canal: /topic/user/{userId}
+     * Canal: /user/queue/notifications (y /topic/user/{userId} si legacy-user-topic está activo)
      * 
      * @param userId ID del usuario destinatario
      * @param notification Datos de la notificación
@@ -38,9 +89,27 @@ public class NotificationService {
             // Asegurar que el destinatarioId esté presente
             notification.setDestinatarioId(userId);
             
-            // Enviar al canal específico del usuario
-            String destination = "/topic/user/" + userId;
-            messagingTemplate.convertAndSend(destination, notification);
+            // Se guarda siempre en el outbox (con su secuencia) para reenviarla tras una reconexión
+            Long idUsuario = parseUserId(userId);
+            if (idUsuario != null) {
+                outboxService.append(idUsuario, notification);
+            }
+
+            if (legacyUserTopic) {
+                messagingTemplate.convertAndSend("/topic/user/" + userId, notification);
+            }
+
+            // El usuario puede estar conectado a otro nodo o por SSE
+            relay.publishToUser(userId, notification);
+            sseBroker.publishToUser(userId, notification);
+
+            // Sin sesiones en este nodo no hay envío en vivo (ni conversión del mensaje)
+            if (idUsuario == null || !presence.isOnline(idUsuario)) {
+                log.debug("Usuario {} sin sesiones WebSocket; notificación {} queda en el outbox", userId, notification.getTipo());
+                return;
+            }
+            messagingTemplate.convertAndSendToUser(userId, USER_QUEUE, notification,
+                    OutboundPriorityLanes.headers(notification));
             
             log.info("📤 Notificación enviada a usuario {}: {} - {}", 
                 userId, notification.getTipo(), notification.getTitulo());
@@ -49,9 +118,17 @@ public class NotificationService {
         }
     }
 
+    private static Long parseUserId(String userId) {
+        try {
+            return userId != null ? Long.parseLong(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Envía una notificación a todos los usuarios con rol ADMIN
-     * Canal: /topic/admin
+     * Canal: /topic/admin (agrupado por ventana)
      * 
      * @param notification Datos de la notificación
      */
@@ -61,9 +138,13 @@ public class NotificationService {
                 notification.setTimestamp(LocalDateTime.now());
             }
             
-            messagingTemplate.convertAndSend("/topic/admin", notification);
+            if (presence.onlineCount(AppConstants.ROLE_ADMIN) > 0) {
+                coalescer.submit("/topic/admin", notification);
+            }
+            relay.publishCoalesced("/topic/admin", notification);
+            sseBroker.publishTopic("/topic/admin", notification);
             
-            log.info("📤 Notificación enviada a admins: {} - {}", 
+            log.info("📤 Notificación encolada para admins: {} - {}", 
                 notification.getTipo(), notification.getTitulo());
         } catch (Exception e) {
             log.error("❌ Error enviando notificación a admins: {}", e.getMessage(), e);
@@ -82,7 +163,12 @@ public class NotificationService {
                 notification.setTimestamp(LocalDateTime.now());
             }
             
-            messagingTemplate.convertAndSend("/topic/global", notification);
+            if (presence.totalOnline() > 0) {
+                messagingTemplate.convertAndSend("/topic/global", notification,
+                        OutboundPriorityLanes.headers(notification));
+            }
+            relay.publishToTopic("/topic/global", notification);
+            sseBroker.publishTopic("/topic/global", notification);
             
             log.info("📤 Notificación broadcast enviada: {} - {}", 
                 notification.getTipo(), notification.getTitulo());
@@ -235,8 +321,12 @@ public class NotificationService {
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        // Enviar a canal de horarios para que frontend notifique a afectados
-        messagingTemplate.convertAndSend("/topic/horarios", notification);
+        // Enviar a canal de horarios para que frontend notifique a afectados (agrupado por ventana)
+        if (presence.totalOnline() > 0) {
+            coalescer.submit("/topic/horarios", notification);
+        }
+        relay.publishCoalesced("/topic/horarios", notification);
+        sseBroker.publishTopic("/topic/horarios", notification);
         
         log.info("🕒 Notificación de cambio de horario enviada (Doctor: {})", doctorId);
     }
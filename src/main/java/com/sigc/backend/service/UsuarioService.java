@@ -35,7 +35,7 @@ public class UsuarioService {
         log.info("Iniciando registro de usuario con email: {}", request.getEmail());
         
         // Validar que el email no exista
-        if (usuarioRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (usuarioRepository.existsByEmail(request.getEmail())) {
             log.warn("Intento de registro con email duplicado: {}", request.getEmail());
             throw new EmailDuplicadoException("El email " + request.getEmail() + " ya está registrado");
         }
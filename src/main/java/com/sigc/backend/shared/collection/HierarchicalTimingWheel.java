@@ -0,0 +1,205 @@
+package com.sigc.backend.shared.collection;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica (Varghese &amp; Lauck).
+ *
+ * Cada nivel tiene wheelSize huecos; un hueco del nivel 0 dura un tick y uno del nivel i
+ * dura wheelSize^i ticks. Un temporizador se guarda en el nivel más bajo que alcanza su
+ * vencimiento y, al empezar el bloque de su hueco, baja (cascada) a un nivel inferior hasta
+ * vencer en el nivel 0. Insertar y cancelar son O(1): cada hueco es una lista doblemente
+ * enlazada y el Entry devuelto por schedule() permite desengancharlo directamente.
+ *
+ * El alcance es wheelSize^levels ticks; schedule() devuelve null más allá.
+ * No es thread-safe.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final long spanTicks;
+    private final Entry<T>[][] buckets;
+    /** Temporizadores ya vencidos al programarlos: salen en el siguiente advance(). */
+    private final Entry<T> overdue = sentinel();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMs Resolución en milisegundos
+     * @param wheelSize Huecos por nivel (potencia de dos)
+     * @param levels Número de niveles
+     * @param startMs Instante inicial (epoch ms)
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("Parámetros de la rueda no válidos");
+        }
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        if ((long) bits * levels >= 62) {
+            throw new IllegalArgumentException("Demasiados niveles para el tamaño de la rueda");
+        }
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.spanTicks = 1L << (bits * levels);
+        this.buckets = new Entry[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets[level][slot] = sentinel();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Temporizador programado; sirve para cancelarlo.
+     */
+    public static final class Entry<T> {
+        private final long deadlineTick;
+        private final T value;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        private Entry(long deadlineTick, T value) {
+            this.deadlineTick = deadlineTick;
+            this.value = value;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        public boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    /**
+     * Programa un valor para el instante dado (se redondea hacia arriba al tick).
+     *
+     * @return Entry para cancelarlo, o null si queda fuera del alcance de la rueda
+     */
+    public Entry<T> schedule(long deadlineMs, T value) {
+        long deadlineTick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+        if (deadlineTick - currentTick >= spanTicks) {
+            return null;
+        }
+        Entry<T> entry = new Entry<>(deadlineTick, value);
+        place(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * @return true si estaba programado
+     */
+    public boolean cancel(Entry<T> entry) {
+        if (entry == null || !entry.isScheduled()) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Avanza el reloj hasta nowMs y entrega los valores vencidos en orden de tick.
+     *
+     * @return Número de valores entregados
+     */
+    public int advance(long nowMs, Consumer<? super T> expired) {
+        int fired = drain(overdue, expired);
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(buckets[level][(int) (currentTick >>> (bits * level)) & mask]);
+                }
+            }
+            fired += drain(buckets[0][(int) currentTick & mask], expired);
+            fired += drain(overdue, expired);
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Instante hasta el que ha avanzado la rueda (epoch ms, múltiplo del tick).
+     */
+    public long currentTimeMs() {
+        return currentTick * tickMs;
+    }
+
+    /**
+     * Alcance máximo desde el instante actual.
+     */
+    public long spanMs() {
+        return spanTicks * tickMs;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            link(overdue, entry);
+            return;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        link(buckets[level][(int) (entry.deadlineTick >>> (bits * level)) & mask], entry);
+    }
+
+    private void cascade(Entry<T> bucket) {
+        Entry<T> e = bucket.next;
+        bucket.next = bucket;
+        bucket.prev = bucket;
+        while (e != bucket) {
+            Entry<T> next = e.next;
+            place(e);
+            e = next;
+        }
+    }
+
+    private int drain(Entry<T> bucket, Consumer<? super T> expired) {
+        int fired = 0;
+        while (bucket.next != bucket) {
+            Entry<T> e = bucket.next;
+            unlink(e);
+            size--;
+            fired++;
+            expired.accept(e.value);
+        }
+        return fired;
+    }
+
+    private static <T> void link(Entry<T> bucket, Entry<T> entry) {
+        entry.prev = bucket.prev;
+        entry.next = bucket;
+        bucket.prev.next = entry;
+        bucket.prev = entry;
+    }
+
+    private static <T> void unlink(Entry<T> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static <T> Entry<T> sentinel() {
+        Entry<T> s = new Entry<>(Long.MIN_VALUE, null);
+        s.prev = s;
+        s.next = s;
+        return s;
+    }
+}
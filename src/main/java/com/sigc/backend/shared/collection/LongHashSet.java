@@ -0,0 +1,85 @@
+package com.sigc.backend.shared.collection;
+
+/**
+ * Conjunto de long primitivos con direccionamiento abierto (sondeo lineal).
+ *
+ * Ocupa 8 bytes por hueco frente a ~50 bytes por elemento de un HashSet&lt;Long&gt;,
+ * sin objetos por entrada. No es thread-safe y no admite borrados.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        this.slots = new long[Math.max(8, capacity)];
+    }
+
+    /**
+     * @return true si el valor no estaba
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsZero;
+            containsZero = true;
+            if (added) size++;
+            return added;
+        }
+        if ((size + 1) > slots.length * LOAD_FACTOR) {
+            rehash(slots.length * 2);
+        }
+        return insert(slots, value);
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (true) {
+            long current = slots[i];
+            if (current == EMPTY) return false;
+            if (current == value) return true;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean insert(long[] table, long value) {
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (true) {
+            long current = table[i];
+            if (current == EMPTY) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+            if (current == value) return false;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = slots;
+        slots = new long[newCapacity];
+        size = containsZero ? 1 : 0;
+        for (long value : old) {
+            if (value != EMPTY) insert(slots, value);
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
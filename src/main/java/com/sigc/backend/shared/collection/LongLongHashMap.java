@@ -0,0 +1,161 @@
+package com.sigc.backend.shared.collection;
+
+/**
+ * Mapa long -> long primitivo con direccionamiento abierto (sondeo lineal).
+ *
+ * Claves y valores en dos arrays paralelos, sin objetos por entrada ni boxing;
+ * get es O(1) sin asignar memoria. No es thread-safe.
+ * Los borrados desplazan hacia atrás las entradas siguientes del mismo grupo, sin marcas de borrado.
+ */
+public class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        this.keys = new long[Math.max(8, capacity)];
+        this.values = new long[keys.length];
+    }
+
+    /**
+     * @param missing Valor a devolver si la clave no está
+     */
+    public long get(long key, long missing) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (true) {
+            long current = keys[i];
+            if (current == EMPTY) return missing;
+            if (current == key) return values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (true) {
+            long current = keys[i];
+            if (current == EMPTY) return false;
+            if (current == key) return true;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        if ((size + 1) > keys.length * LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        insert(keys, values, key, value);
+    }
+
+    /**
+     * @return true si la clave estaba
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            zeroValue = 0;
+            size--;
+            return true;
+        }
+        int mask = keys.length - 1;
+        int gap = mix(key) & mask;
+        while (keys[gap] != key) {
+            if (keys[gap] == EMPTY) return false;
+            gap = (gap + 1) & mask;
+        }
+        // Rellenar el hueco con las entradas siguientes que no pueden quedar antes de su posición inicial
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            long current = keys[i];
+            if (current == EMPTY) break;
+            int home = mix(current) & mask;
+            boolean staysAfterGap = gap <= i ? (home > gap && home <= i) : (home > gap || home <= i);
+            if (!staysAfterGap) {
+                keys[gap] = current;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Recorre todas las entradas (sin orden definido).
+     */
+    public void forEach(LongLongConsumer consumer) {
+        if (hasZeroKey) consumer.accept(EMPTY, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    private void insert(long[] table, long[] vals, long key, long value) {
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (true) {
+            long current = table[i];
+            if (current == EMPTY) {
+                table[i] = key;
+                vals[i] = value;
+                size++;
+                return;
+            }
+            if (current == key) {
+                vals[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new long[newCapacity];
+        size = hasZeroKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) insert(keys, values, oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,127 @@
+package com.sigc.backend.shared.collection;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Mapa long -> long thread-safe: franjas de {@link LongLongHashMap}, cada una con su propio candado.
+ *
+ * La franja se elige con los bits altos de la clave multiplicada por la constante de
+ * Fibonacci, así IDs consecutivos caen en franjas distintas y los hilos rara vez compiten.
+ * updateAndGet / getAndUpdate leen, calculan y escriben bajo el candado de la franja,
+ * como AtomicLong pero por clave. El valor "missing" de cada llamada representa la
+ * ausencia de la clave: si la función lo devuelve, la entrada se borra.
+ */
+public class StripedLongLongMap {
+
+    private static final int DEFAULT_STRIPES = 16;
+    private static final int DEFAULT_STRIPE_SIZE = 64;
+
+    private final LongLongHashMap[] stripes;
+    private final int shift;
+
+    public StripedLongLongMap() {
+        this(DEFAULT_STRIPES, DEFAULT_STRIPE_SIZE);
+    }
+
+    /**
+     * @param stripeCount Número de franjas (potencia de dos)
+     * @param expectedSizePerStripe Tamaño inicial de cada franja
+     */
+    public StripedLongLongMap(int stripeCount, int expectedSizePerStripe) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("El número de franjas debe ser potencia de dos");
+        }
+        this.stripes = new LongLongHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LongLongHashMap(expectedSizePerStripe);
+        }
+        this.shift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    /**
+     * @param missing Valor a devolver si la clave no está
+     */
+    public long get(long key, long missing) {
+        LongLongHashMap stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key, missing);
+        }
+    }
+
+    public void put(long key, long value) {
+        LongLongHashMap stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    public boolean remove(long key) {
+        LongLongHashMap stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    /**
+     * Aplica la función al valor actual (o a missing) de forma atómica.
+     *
+     * @return Valor nuevo
+     */
+    public long updateAndGet(long key, long missing, LongUnaryOperator function) {
+        LongLongHashMap stripe = stripeFor(key);
+        synchronized (stripe) {
+            long updated = function.applyAsLong(stripe.get(key, missing));
+            store(stripe, key, updated, missing);
+            return updated;
+        }
+    }
+
+    /**
+     * Aplica la función al valor actual (o a missing) de forma atómica.
+     *
+     * @return Valor anterior (missing si no estaba)
+     */
+    public long getAndUpdate(long key, long missing, LongUnaryOperator function) {
+        LongLongHashMap stripe = stripeFor(key);
+        synchronized (stripe) {
+            long previous = stripe.get(key, missing);
+            store(stripe, key, function.applyAsLong(previous), missing);
+            return previous;
+        }
+    }
+
+    /**
+     * Recorre todas las entradas franja a franja (sin orden definido). Cada franja se
+     * recorre bajo su candado: el consumidor no debe volver a llamar a este mapa.
+     */
+    public void forEach(LongLongHashMap.LongLongConsumer consumer) {
+        for (LongLongHashMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(consumer);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (LongLongHashMap stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static void store(LongLongHashMap stripe, long key, long value, long missing) {
+        if (value == missing) {
+            stripe.remove(key);
+        } else {
+            stripe.put(key, value);
+        }
+    }
+
+    private LongLongHashMap stripeFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> shift) & (stripes.length - 1)];
+    }
+}
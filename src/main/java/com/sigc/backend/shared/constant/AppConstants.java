@@ -40,6 +40,12 @@ public class AppConstants {
     public static final String UPLOAD_IMAGES_DIR = "uploads/images/";
     public static final String UPLOAD_SPECIALTIES_DIR = "uploads/images/especialidades/";
     
+    // Cache HTTP de archivos subidos (nombres por hash de contenido: nunca cambian)
+    public static final long UPLOAD_CACHE_MAX_AGE_SECONDS = 31536000; // 1 año
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    /** Original servido en lugar de una variante ?w= aún no generada: se revalida siempre. */
+    public static final String VARIANT_FALLBACK_CACHE_CONTROL = "no-cache";
+    
     // Tamaño máximo de archivo
     public static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5 MB
     
@@ -1,5 +1,6 @@
 package com.sigc.backend.shared.value;
 
+import java.util.Locale;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
@@ -12,6 +13,9 @@ import java.util.regex.Pattern;
  * - Validación centralizada
  * - Reutilizable en múltiples entidades
  * - Aplica DDD (Domain-Driven Design)
+ *
+ * Dos emails son iguales si coinciden en su forma canónica (sin espacios y en
+ * minúsculas), que es la que se guarda en usuarios.email_lower y se usa en las búsquedas.
  */
 public class Email {
     
@@ -45,12 +49,30 @@ public class Email {
         return new Email(email.trim());
     }
     
+    /**
+     * Forma canónica de un email para compararlo o buscarlo: sin espacios y en minúsculas.
+     * No valida el formato.
+     *
+     * @param email Email en texto (puede ser null)
+     * @return Email canónico, o null si la entrada es null
+     */
+    public static String canonicalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Obtiene el valor del email.
      */
     public String getValue() {
         return value;
     }
+
+    /**
+     * Obtiene la forma canónica del email.
+     */
+    public String getCanonical() {
+        return canonicalize(value);
+    }
     
     @Override
     public String toString() {
@@ -62,11 +84,11 @@ public class Email {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Email email = (Email) o;
-        return Objects.equals(value, email.value);
+        return Objects.equals(getCanonical(), email.getCanonical());
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Objects.hash(getCanonical());
     }
 }
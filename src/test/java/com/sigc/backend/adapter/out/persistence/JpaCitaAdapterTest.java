@@ -0,0 +1,71 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.Cita;
+import com.sigc.backend.domain.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({JpaCitaAdapter.class, JpaUsuarioAdapter.class})
+public class JpaCitaAdapterTest {
+
+    @Autowired
+    private JpaCitaAdapter adapter;
+
+    @Autowired
+    private JpaUsuarioAdapter usuarioAdapter;
+
+    @Test
+    void upcomingReturnsActiveAppointmentsInRangeOrderedByDate() {
+        Long paciente = usuarioAdapter.save(paciente()).getId();
+        LocalDateTime base = LocalDateTime.of(2030, 3, 10, 9, 0);
+        Long tarde = adapter.save(new Cita(paciente, null, base.plusHours(8), "tarde")).getId();
+        Long manana = adapter.save(new Cita(paciente, null, base.plusHours(1), "mañana")).getId();
+        adapter.save(new Cita(paciente, null, base.minusMinutes(1), "antes del rango"));
+        adapter.save(new Cita(paciente, null, base.plusDays(1), "después del rango"));
+        Cita cancelada = new Cita(paciente, null, base.plusHours(2), "cancelada");
+        cancelada.setEstado("CANCELADA");
+        adapter.save(cancelada);
+
+        List<Cita> proximas = adapter.findUpcoming(base, base.plusDays(1));
+
+        assertEquals(List.of(manana, tarde), proximas.stream().map(Cita::getId).toList());
+        assertEquals(paciente, proximas.get(0).getUsuarioId());
+        assertEquals(base.plusHours(1), proximas.get(0).getFecha());
+    }
+
+    @Test
+    void activeByIdsSkipsCancelledAndMissingAppointments() {
+        Long paciente = usuarioAdapter.save(paciente()).getId();
+        LocalDateTime fecha = LocalDateTime.of(2030, 3, 10, 9, 30);
+        Long activa = adapter.save(new Cita(paciente, null, fecha, "activa")).getId();
+        Cita cancelada = new Cita(paciente, null, fecha, "cancelada");
+        cancelada.setEstado("CANCELADA");
+        Long idCancelada = adapter.save(cancelada).getId();
+
+        List<Cita> activas = adapter.findActiveByIds(List.of(activa, idCancelada, 999_999L));
+
+        assertEquals(List.of(activa), activas.stream().map(Cita::getId).toList());
+        assertEquals(fecha, activas.get(0).getFecha());
+        assertTrue(adapter.findActiveByIds(List.of()).isEmpty());
+    }
+
+    private static Usuario paciente() {
+        Usuario u = new Usuario();
+        u.setNombre("Ana");
+        u.setEmail("ana@sigc.com");
+        u.setPassword("hash");
+        u.setDni("12345678");
+        u.setTelefono("987654321");
+        u.setRole("PACIENTE");
+        u.setActivo(true);
+        return u;
+    }
+}
@@ -0,0 +1,97 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.EventoNotificacion;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.infrastructure.websocket.NotificationCoalescer;
+import com.sigc.backend.infrastructure.websocket.NotificationRelay;
+import com.sigc.backend.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(JpaEventoNotificacionAdapter.class)
+public class JpaEventoNotificacionAdapterTest {
+
+    @Autowired
+    private JpaEventoNotificacionAdapter adapter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private static EventoNotificacion evento(String destino, LocalDateTime creado) {
+        return new EventoNotificacion(null, "a", EventoNotificacion.CANAL_TOPIC, destino, "{}", creado);
+    }
+
+    @Test
+    void eventsAreReadAfterCursorInIdOrder() {
+        adapter.appendAll(List.of(evento("/topic/uno", LocalDateTime.now()), evento("/topic/dos", LocalDateTime.now())));
+
+        List<EventoNotificacion> todos = adapter.findAfter(0, 10);
+        assertEquals(2, todos.size());
+        assertEquals("/topic/uno", todos.get(0).destino());
+        assertEquals(todos.get(1).id(), adapter.findMaxId());
+
+        assertEquals(1, adapter.findAfter(todos.get(0).id(), 10).size());
+        assertTrue(adapter.findAfter(adapter.findMaxId(), 10).isEmpty());
+    }
+
+    @Test
+    void oldEventsArePurged() {
+        adapter.appendAll(List.of(evento("/topic/viejo", LocalDateTime.now().minusHours(1)),
+                evento("/topic/nuevo", LocalDateTime.now())));
+
+        assertEquals(1, adapter.deleteOlderThan(LocalDateTime.now().minusMinutes(10)));
+        assertEquals("/topic/nuevo", adapter.findAfter(0, 10).get(0).destino());
+    }
+
+    @Test
+    void notificationPublishedOnOneNodeIsDeliveredByTheOther() {
+        SimpMessagingTemplate templateA = Mockito.mock(SimpMessagingTemplate.class);
+        SimpMessagingTemplate templateB = Mockito.mock(SimpMessagingTemplate.class);
+        SimpUserRegistry registryB = Mockito.mock(SimpUserRegistry.class);
+        when(registryB.getUser("7")).thenReturn(Mockito.mock(SimpUser.class));
+        NotificationRelay nodoA = relay("A", templateA, Mockito.mock(SimpUserRegistry.class));
+        NotificationRelay nodoB = relay("B", templateB, registryB);
+        nodoA.poll();
+        nodoB.poll();
+
+        NotificacionDTO notificacion = NotificacionDTO.builder().tipo("CITA_CREADA").titulo("Nueva cita").build();
+        nodoA.publishToUser("7", notificacion);
+        nodoA.publishToTopic("/topic/global", notificacion);
+        nodoA.poll();
+        nodoB.poll();
+        nodoB.poll();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(templateB, times(1)).convertAndSendToUser(eq("7"), eq(NotificationService.USER_QUEUE), captor.capture(), anyMap());
+        assertEquals("Nueva cita", ((JsonNode) captor.getValue()).get("titulo").asText());
+        verify(templateB, times(1)).convertAndSend(eq("/topic/global"), any(Object.class), anyMap());
+        // El nodo de origen no se reenvía a sí mismo
+        verify(templateA, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+        verify(templateA, never()).convertAndSend(anyString(), any(Object.class), anyMap());
+    }
+
+    private NotificationRelay relay(String nodo, SimpMessagingTemplate template, SimpUserRegistry registry) {
+        return new NotificationRelay(adapter, template, registry, Mockito.mock(NotificationCoalescer.class),
+                Mockito.mock(NotificationOutboxService.class), Mockito.mock(SseNotificationBroker.class),
+                objectMapper, true, nodo, 100, 50, 8, 10);
+    }
+}
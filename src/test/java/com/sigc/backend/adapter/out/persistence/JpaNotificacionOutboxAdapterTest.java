@@ -0,0 +1,42 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaNotificacionOutboxAdapter.class)
+public class JpaNotificacionOutboxAdapterTest {
+
+    @Autowired
+    private JpaNotificacionOutboxAdapter adapter;
+
+    private static NotificacionOutbox entrada(long secuencia) {
+        return new NotificacionOutbox(9L, secuencia, "CITA_CREADA", "{\"secuencia\":" + secuencia + "}",
+                LocalDateTime.now());
+    }
+
+    @Test
+    void appendsBatchAndReadsInOrder() {
+        adapter.appendAll(List.of(entrada(2), entrada(1), entrada(3)));
+
+        assertEquals(3, adapter.findMaxSecuencia(9L));
+        assertEquals(List.of(2L, 3L), adapter.findSince(9L, 1, 10).stream().map(NotificacionOutbox::secuencia).toList());
+    }
+
+    @Test
+    void repeatedSequenceIsReportedAsDuplicateKey() {
+        adapter.appendAll(List.of(entrada(1)));
+
+        // NotificationOutboxService renumera la fila al recibir esta excepción
+        assertThrows(DuplicateKeyException.class, () -> adapter.appendAll(List.of(entrada(1))));
+    }
+}
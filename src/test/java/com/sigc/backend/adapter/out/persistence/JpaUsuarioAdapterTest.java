@@ -0,0 +1,103 @@
+package com.sigc.backend.adapter.out.persistence;
+
+import com.sigc.backend.domain.model.Pagina;
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.UsuarioSummary;
+import com.sigc.backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaUsuarioAdapter.class)
+public class JpaUsuarioAdapterTest {
+
+    @Autowired
+    private JpaUsuarioAdapter adapter;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void emailLookupsAreCaseInsensitive() {
+        adapter.save(usuario("Ana.Perez@Sigc.com"));
+
+        assertTrue(adapter.existsByEmail("ana.perez@sigc.com"));
+        assertTrue(adapter.existsByEmail("  ANA.PEREZ@SIGC.COM "));
+        assertFalse(adapter.existsByEmail("otra@sigc.com"));
+
+        Usuario encontrado = adapter.findByEmail("ana.perez@SIGC.com").orElseThrow();
+        assertEquals("Ana.Perez@Sigc.com", encontrado.getEmail());
+    }
+
+    @Test
+    void emailsDifferingOnlyInCaseAreRejected() {
+        adapter.save(usuario("dup@sigc.com"));
+        assertThrows(Exception.class, () -> adapter.save(usuario("DUP@sigc.com")));
+    }
+
+    @Test
+    void backfillSkipsCollidingLegacyEmails() {
+        adapter.save(usuario("ana@sigc.com"));
+        adapter.save(usuario("legacy@sigc.com"));
+        adapter.save(usuario("otro@sigc.com"));
+        entityManager.flush();
+        entityManager.createNativeQuery("update usuarios set email_lower = null, email = ' Ana@Sigc.com' "
+                + "where email = 'legacy@sigc.com'").executeUpdate();
+        entityManager.createNativeQuery("update usuarios set email_lower = null where email = 'otro@sigc.com'")
+                .executeUpdate();
+
+        List<String> colisiones = usuarioRepository.findCollidingEmailLowers();
+        assertEquals(List.of("ana@sigc.com"), colisiones);
+        assertEquals(1, usuarioRepository.backfillEmailLowerExcept(colisiones));
+        entityManager.clear();
+
+        assertNotNull(usuarioRepository.findByEmailLower("otro@sigc.com"));
+        assertEquals("ana@sigc.com", usuarioRepository.findByEmailLower("ana@sigc.com").getEmail());
+    }
+
+    @Test
+    void summariesArePagedAndFilteredByRolAndActivo() {
+        for (int i = 0; i < 5; i++) {
+            Usuario u = usuario("doc" + i + "@sigc.com");
+            u.setRole("DOCTOR");
+            u.setActivo(i != 4);
+            adapter.save(u);
+        }
+        adapter.save(usuario("pac@sigc.com"));
+
+        Pagina<UsuarioSummary> todos = adapter.findSummaries(null, null, 0, 4);
+        assertEquals(6, todos.total());
+        assertEquals(2, todos.totalPaginas());
+        assertEquals(4, todos.contenido().size());
+
+        Pagina<UsuarioSummary> doctoresActivos = adapter.findSummaries("DOCTOR", true, 1, 3);
+        assertEquals(4, doctoresActivos.total());
+        assertEquals(1, doctoresActivos.contenido().size());
+        assertEquals("doc3@sigc.com", doctoresActivos.contenido().get(0).email());
+
+        assertEquals(1, adapter.findSummaries(null, false, 0, 10).total());
+        assertEquals(1, adapter.findSummaries("PACIENTE", null, 0, 10).total());
+    }
+
+    private Usuario usuario(String email) {
+        Usuario u = new Usuario();
+        u.setNombre("Ana");
+        u.setEmail(email);
+        u.setPassword("hash");
+        u.setDni("12345678");
+        u.setTelefono("987654321");
+        u.setRole("PACIENTE");
+        u.setActivo(true);
+        return u;
+    }
+}
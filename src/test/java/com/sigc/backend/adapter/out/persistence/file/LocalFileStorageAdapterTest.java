@@ -0,0 +1,101 @@
+package com.sigc.backend.adapter.out.persistence.file;
+
+import com.sigc.backend.domain.model.StoredFile;
+import com.sigc.backend.domain.port.IFileStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileStorageAdapterTest {
+
+    private static final String CAT = IFileStorage.CATEGORIA_DOCTORES;
+
+    @TempDir
+    Path dir;
+
+    private LocalFileStorageAdapter storage;
+
+    @BeforeEach
+    void setup() {
+        storage = new LocalFileStorageAdapter(dir.toString(), 1024, 100);
+    }
+
+    @Test
+    void nameIsSha256OfContentAndFileIsSharded() throws Exception {
+        byte[] data = "abc".getBytes(StandardCharsets.UTF_8);
+        String name = storage.store(CAT, new ByteArrayInputStream(data), "PNG");
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.png", name);
+        Path expected = dir.resolve("doctores").resolve("ba").resolve("78").resolve(name);
+        assertEquals(expected.toAbsolutePath(), storage.locate(CAT, name));
+        assertArrayEquals(data, Files.readAllBytes(expected));
+        assertEquals("/uploads/doctores/" + name, storage.publicUrl(CAT, name));
+    }
+
+    @Test
+    void identicalUploadsAreDeduplicated() throws Exception {
+        byte[] data = "misma imagen".getBytes(StandardCharsets.UTF_8);
+        String first = storage.store(CAT, new ByteArrayInputStream(data), "jpg");
+        String second = storage.store(CAT, new ByteArrayInputStream(data), "jpg");
+
+        assertEquals(first, second);
+        try (var files = Files.walk(dir.resolve("doctores"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void smallFilesAreServedFromMemory() throws Exception {
+        String name = storage.store(CAT, new ByteArrayInputStream(new byte[50]), "jpg");
+
+        StoredFile file = storage.find(CAT, name).orElseThrow();
+        assertTrue(file.isInMemory());
+        assertEquals(50, file.getContent().remaining());
+        assertEquals(50, storage.hotCacheUsedBytes());
+
+        // Segunda lectura: sale de la caché aunque el archivo ya no esté en disco
+        Files.delete(storage.locate(CAT, name));
+        assertTrue(storage.find(CAT, name).orElseThrow().isInMemory());
+    }
+
+    @Test
+    void largeFilesAreServedFromDisk() throws Exception {
+        String name = storage.store(CAT, new ByteArrayInputStream(new byte[500]), "jpg");
+
+        StoredFile file = storage.find(CAT, name).orElseThrow();
+        assertFalse(file.isInMemory());
+        assertEquals(500, file.getSize());
+        assertEquals(0, storage.hotCacheUsedBytes());
+    }
+
+    @Test
+    void legacyFlatFilesAreStillFound() throws Exception {
+        Files.write(dir.resolve("doctores").resolve("1700000000_foto.jpg"), new byte[10]);
+
+        assertTrue(storage.find(CAT, "1700000000_foto.jpg").isPresent());
+    }
+
+    @Test
+    void deleteRemovesFileAndCacheEntry() throws Exception {
+        String name = storage.store(CAT, new ByteArrayInputStream(new byte[10]), "jpg");
+        storage.find(CAT, name);
+
+        assertTrue(storage.delete(CAT, name));
+        assertTrue(storage.find(CAT, name).isEmpty());
+        assertEquals(0, storage.hotCacheUsedBytes());
+    }
+
+    @Test
+    void traversalNamesAreRejected() {
+        assertTrue(storage.find(CAT, "../secreto.txt").isEmpty());
+        assertTrue(storage.find("..", "x.jpg").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> storage.locate(CAT, "a/b.jpg"));
+    }
+}
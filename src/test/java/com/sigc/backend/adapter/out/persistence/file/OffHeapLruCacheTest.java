@@ -0,0 +1,41 @@
+package com.sigc.backend.adapter.out.persistence.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        OffHeapLruCache cache = new OffHeapLruCache(100);
+        cache.put("a", ByteBuffer.allocateDirect(40), 1);
+        cache.put("b", ByteBuffer.allocateDirect(40), 1);
+        cache.get("a");
+        cache.put("c", ByteBuffer.allocateDirect(40), 1);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(80, cache.usedBytes());
+    }
+
+    @Test
+    void entriesLargerThanBudgetAreNotCached() {
+        OffHeapLruCache cache = new OffHeapLruCache(10);
+        cache.put("a", ByteBuffer.allocateDirect(11), 1);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void replacingAnEntryKeepsAccountingConsistent() {
+        OffHeapLruCache cache = new OffHeapLruCache(100);
+        cache.put("a", ByteBuffer.allocateDirect(30), 1);
+        cache.put("a", ByteBuffer.allocateDirect(20), 2);
+        assertEquals(20, cache.usedBytes());
+        cache.remove("a");
+        assertEquals(0, cache.usedBytes());
+    }
+}
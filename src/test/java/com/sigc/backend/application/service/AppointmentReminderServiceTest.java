@@ -0,0 +1,152 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Cita;
+import com.sigc.backend.domain.port.ICitaRepository;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AppointmentReminderServiceTest {
+
+    private ICitaRepository citaRepository;
+    private NotificationService notificationService;
+    private AppointmentReminderService service;
+    private LocalDateTime now;
+    /** Citas activas según la BD, para la comprobación previa al envío. */
+    private final List<Cita> enBd = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        citaRepository = Mockito.mock(ICitaRepository.class);
+        notificationService = Mockito.mock(NotificationService.class);
+        service = new AppointmentReminderService(citaRepository, notificationService, true, 60, 24, 60, 1000, 2);
+        now = LocalDateTime.now().plusSeconds(1);
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(List.of());
+        when(citaRepository.findActiveByIds(any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return enBd.stream().filter(c -> ids.contains(c.getId())).toList();
+        });
+    }
+
+    private List<Cita> enBd(Cita... citas) {
+        enBd.addAll(List.of(citas));
+        return List.of(citas);
+    }
+
+    private static Cita cita(long id, long usuario, LocalDateTime fecha) {
+        Cita c = new Cita(usuario, 3L, fecha, null);
+        c.setId(id);
+        return c;
+    }
+
+    @Test
+    void windowIsLoadedOnceAndDueRemindersGoOutInBatches() {
+        LocalDateTime fecha = now.plusMinutes(60).plusSeconds(10);
+        when(citaRepository.findUpcoming(any(), any()))
+                .thenReturn(enBd(cita(1, 11, fecha), cita(2, 12, fecha), cita(3, 13, fecha)));
+
+        assertEquals(0, service.tick(now));
+        assertEquals(2, service.tick(now.plusSeconds(11)));
+        assertEquals(1, service.tick(now.plusSeconds(12)));
+
+        verify(citaRepository, times(1)).findUpcoming(eq(now), any());
+        verify(citaRepository, times(2)).findActiveByIds(any());
+        ArgumentCaptor<NotificacionDTO> captor = ArgumentCaptor.forClass(NotificacionDTO.class);
+        verify(notificationService, times(3)).notifyUser(anyString(), captor.capture());
+        assertEquals(AppointmentReminderService.TIPO_RECORDATORIO, captor.getValue().getTipo());
+        verify(notificationService).notifyUser(eq("11"), any());
+    }
+
+    @Test
+    void windowIsReloadedFromNowAfterRefillPeriod() {
+        service.tick(now);
+
+        service.tick(now.plusMinutes(30));
+        verify(citaRepository, times(1)).findUpcoming(any(), any());
+
+        service.tick(now.plusMinutes(61));
+        verify(citaRepository).findUpcoming(eq(now.plusMinutes(61)), any());
+    }
+
+    @Test
+    void cancelledAppointmentsAreNotReminded() {
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(enBd(cita(1, 11, now.plusMinutes(61))));
+        service.tick(now);
+
+        service.onCitaCancelada(1L);
+
+        assertEquals(0, service.tick(now.plusMinutes(2)));
+        verifyNoInteractions(notificationService);
+        assertEquals(1L, service.getStats().get("cancelados"));
+    }
+
+    @Test
+    void appointmentCreatedInsideLoadedWindowIsScheduled() {
+        service.tick(now);
+        enBd(cita(5, 15, now.plusMinutes(30)));
+
+        // Cita para dentro de 30 minutos: el aviso ya pasó, se envía en el siguiente tick
+        service.onCitaCreada(5L, 15L, 3L, now.plusMinutes(30));
+        // Fuera de la ventana cargada: la recogerá una carga posterior
+        service.onCitaCreada(6L, 16L, 3L, now.plusDays(3));
+
+        assertEquals(1, service.tick(now.plusSeconds(2)));
+        verify(notificationService).notifyUser(eq("15"), any());
+        assertEquals(0, service.getStats().get("enRueda"));
+    }
+
+    @Test
+    void remindersAlreadyDueAtStartupAreSkipped() {
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(List.of(cita(1, 11, now.plusMinutes(30))));
+
+        service.tick(now);
+
+        assertEquals(0, service.tick(now.plusSeconds(5)));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void appointmentCancelledOnAnotherNodeIsSkippedAtSendTime() {
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(List.of(cita(1, 11, now.plusMinutes(61))));
+        service.tick(now);
+
+        // No está en enBd: se canceló desde otro nodo y este no recibió onCitaCancelada
+        assertEquals(0, service.tick(now.plusMinutes(2)));
+        verifyNoInteractions(notificationService);
+        assertEquals(1L, service.getStats().get("cancelados"));
+    }
+
+    @Test
+    void appointmentMovedOnAnotherNodeIsRescheduled() {
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(List.of(cita(1, 11, now.plusMinutes(61))));
+        service.tick(now);
+        enBd(cita(1, 11, now.plusHours(5)));
+
+        assertEquals(0, service.tick(now.plusMinutes(2)));
+        verifyNoInteractions(notificationService);
+        assertEquals(1, service.getStats().get("enRueda"));
+    }
+
+    @Test
+    void batchIsRetriedWhenDatabaseCheckFails() {
+        when(citaRepository.findUpcoming(any(), any())).thenReturn(enBd(cita(1, 11, now.plusMinutes(61))));
+        service.tick(now);
+        doThrow(new RuntimeException("bd caída")).when(citaRepository).findActiveByIds(any());
+
+        assertEquals(0, service.tick(now.plusMinutes(2)));
+        assertEquals(1, service.getStats().get("pendientesEnvio"));
+        verifyNoInteractions(notificationService);
+    }
+}
@@ -0,0 +1,148 @@
+package com.sigc.backend.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.domain.port.INotificacionOutboxRepository;
+import com.sigc.backend.dto.NotificacionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NotificationOutboxServiceTest {
+
+    private INotificacionOutboxRepository repository;
+    private NotificationOutboxService service;
+
+    @BeforeEach
+    void setup() {
+        repository = Mockito.mock(INotificacionOutboxRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        // Sin start(): el hilo escritor no corre y la cola solo se vacía con flush()
+        service = new NotificationOutboxService(repository, objectMapper, 2, 10, 100, 7);
+    }
+
+    private static NotificacionDTO notificacion(String mensaje) {
+        NotificacionDTO dto = new NotificacionDTO();
+        dto.setTipo("CITA_CREADA");
+        dto.setMensaje(mensaje);
+        return dto;
+    }
+
+    @Test
+    void sequencesContinueFromStoredMaximum() {
+        when(repository.findMaxSecuencia(5L)).thenReturn(41L);
+
+        NotificacionDTO primera = notificacion("a");
+        assertEquals(42, service.append(5L, primera));
+        assertEquals(43, service.append(5L, notificacion("b")));
+        assertEquals(42L, primera.getSecuencia());
+
+        // La BD solo se consulta la primera vez que se ve al usuario
+        verify(repository, times(1)).findMaxSecuencia(5L);
+    }
+
+    @Test
+    void sequencesAreIndependentPerUser() {
+        assertEquals(1, service.append(1L, notificacion("a")));
+        assertEquals(1, service.append(2L, notificacion("b")));
+        assertEquals(2, service.append(1L, notificacion("c")));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void replayFlushesPendingBeforeReading() {
+        service.append(7L, notificacion("hola"));
+        when(repository.findSince(7L, 0, 100)).thenReturn(List.of());
+
+        service.replay(7L, 0, 100);
+
+        ArgumentCaptor<List<NotificacionOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        var order = inOrder(repository);
+        order.verify(repository).appendAll(captor.capture());
+        order.verify(repository).findSince(7L, 0, 100);
+        NotificacionOutbox guardada = captor.getValue().get(0);
+        assertEquals(1, guardada.secuencia());
+        assertTrue(guardada.payload().contains("\"secuencia\":1"));
+        assertTrue(guardada.payload().contains("hola"));
+    }
+
+    @Test
+    void fullQueueDropsButStillAssignsSequence() {
+        service.append(1L, notificacion("a"));
+        service.append(1L, notificacion("b"));
+        assertEquals(3, service.append(1L, notificacion("c")));
+
+        assertEquals(1L, service.getStats().get("descartadasColaLlena"));
+        service.flush();
+        verify(repository, times(1)).appendAll(any());
+        assertEquals(2L, service.getStats().get("escritas"));
+    }
+
+    @Test
+    void writeErrorsAreCountedAndDoNotPropagate() {
+        doThrow(new RuntimeException("bd caída")).when(repository).appendAll(any());
+        service.append(1L, notificacion("a"));
+
+        assertDoesNotThrow(service::flush);
+        assertEquals(1L, service.getStats().get("fallidas"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void failedBatchIsRetriedRowByRowAndOnlyBadRowsAreDropped() {
+        doAnswer(inv -> {
+            List<NotificacionOutbox> entradas = inv.getArgument(0);
+            if (entradas.stream().anyMatch(n -> n.secuencia() == 2)) {
+                throw new RuntimeException("fila inválida");
+            }
+            return null;
+        }).when(repository).appendAll(any());
+        service.append(1L, notificacion("a"));
+        service.append(1L, notificacion("b"));
+
+        service.flush();
+
+        ArgumentCaptor<List<NotificacionOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(3)).appendAll(captor.capture());
+        assertEquals(List.of(2, 1, 1), captor.getAllValues().stream().map(List::size).toList());
+        assertEquals(1L, service.getStats().get("escritas"));
+        assertEquals(1L, service.getStats().get("fallidas"));
+    }
+
+    @Test
+    void observedSequenceAdvancesUsersNotSeenYet() {
+        service.observe(3L, 10);
+
+        assertEquals(11, service.append(3L, notificacion("a")));
+        verify(repository, never()).findMaxSecuencia(3L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void sequenceTakenByAnotherNodeIsRenumberedFromDatabase() {
+        doThrow(new DuplicateKeyException("ux_outbox_usuario_secuencia"))
+                .doNothing()
+                .when(repository).appendAll(any());
+        service.append(4L, notificacion("a"));
+        when(repository.findMaxSecuencia(4L)).thenReturn(5L);
+
+        service.flush();
+
+        ArgumentCaptor<List<NotificacionOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).appendAll(captor.capture());
+        NotificacionOutbox guardada = captor.getAllValues().get(1).get(0);
+        assertEquals(6, guardada.secuencia());
+        assertTrue(guardada.payload().contains("\"secuencia\":6"));
+        assertEquals(1L, service.getStats().get("escritas"));
+        assertEquals(0L, service.getStats().get("fallidas"));
+        assertEquals(7, service.append(4L, notificacion("b")));
+    }
+}
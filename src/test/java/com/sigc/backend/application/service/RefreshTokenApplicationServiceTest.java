@@ -0,0 +1,111 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.exception.RefreshTokenInvalidException;
+import com.sigc.backend.domain.model.RefreshToken;
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.port.IRefreshTokenRepository;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.infrastructure.security.jwt.ITokenProvider;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenApplicationServiceTest {
+
+    private IRefreshTokenRepository refreshTokenRepository;
+    private IUsuarioRepository usuarioRepository;
+    private ITokenProvider tokenProvider;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private RefreshTokenApplicationService service;
+
+    @BeforeEach
+    void setup() {
+        refreshTokenRepository = Mockito.mock(IRefreshTokenRepository.class);
+        usuarioRepository = Mockito.mock(IUsuarioRepository.class);
+        tokenProvider = Mockito.mock(ITokenProvider.class);
+        tokenVersionRegistry = Mockito.mock(TokenVersionRegistry.class);
+        service = new RefreshTokenApplicationService(refreshTokenRepository, usuarioRepository,
+                tokenProvider, tokenVersionRegistry, 14, 15);
+        when(refreshTokenRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void issueStoresOnlyTheHash() {
+        String raw = service.issueRefreshToken(1L);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(RefreshTokenApplicationService.hash(raw), captor.getValue().getTokenHash());
+        assertNotEquals(raw, captor.getValue().getTokenHash());
+        assertEquals(1L, captor.getValue().getUsuarioId());
+    }
+
+    @Test
+    void rotateRevokesOldTokenAndIssuesNewPair() {
+        stored("abc", false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(true);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario()));
+        when(tokenProvider.generateToken(1L, "user@example.com", "PACIENTE")).thenReturn("access");
+
+        RefreshTokenApplicationService.TokenPair pair = service.rotate("abc");
+
+        assertEquals("access", pair.accessToken());
+        assertNotEquals("abc", pair.refreshToken());
+        assertEquals(900, pair.expiresIn());
+        verify(tokenVersionRegistry, never()).bump(anyLong());
+    }
+
+    @Test
+    void reusedTokenRevokesAllSessions() {
+        stored("abc", true, LocalDateTime.now().plusDays(1));
+
+        assertThrows(RefreshTokenInvalidException.class, () -> service.rotate("abc"));
+        verify(tokenVersionRegistry).bump(1L);
+        verify(refreshTokenRepository).revokeAllForUser(1L);
+    }
+
+    @Test
+    void concurrentRotationIsTreatedAsReuse() {
+        stored("abc", false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(false);
+
+        assertThrows(RefreshTokenInvalidException.class, () -> service.rotate("abc"));
+        verify(tokenVersionRegistry).bump(1L);
+    }
+
+    @Test
+    void expiredOrUnknownTokensAreRejected() {
+        stored("abc", false, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(true);
+
+        assertThrows(RefreshTokenInvalidException.class, () -> service.rotate("abc"));
+        assertThrows(RefreshTokenInvalidException.class, () -> service.rotate("otro"));
+        assertThrows(RefreshTokenInvalidException.class, () -> service.rotate(null));
+        verify(tokenVersionRegistry, never()).bump(anyLong());
+    }
+
+    private void stored(String raw, boolean revoked, LocalDateTime expiresAt) {
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenApplicationService.hash(raw)))
+                .thenReturn(Optional.of(RefreshToken.builder()
+                        .id(10L).usuarioId(1L).tokenHash(RefreshTokenApplicationService.hash(raw))
+                        .expiresAt(expiresAt).revoked(revoked).build()));
+    }
+
+    private Usuario usuario() {
+        Usuario u = new Usuario();
+        u.setId(1L);
+        u.setEmail("user@example.com");
+        u.setRole("PACIENTE");
+        u.setActivo(true);
+        return u;
+    }
+}
@@ -0,0 +1,118 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.adapter.out.persistence.file.LocalFileStorageAdapter;
+import com.sigc.backend.domain.port.IDoctorRepository;
+import com.sigc.backend.domain.port.IEspecialidadRepository;
+import com.sigc.backend.domain.port.IFileStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+public class UploadCleanupApplicationServiceTest {
+
+    private static final String DOC = IFileStorage.CATEGORIA_DOCTORES;
+
+    @TempDir
+    Path dir;
+
+    private IDoctorRepository doctorRepository;
+    private IEspecialidadRepository especialidadRepository;
+    private LocalFileStorageAdapter storage;
+
+    @BeforeEach
+    void setup() {
+        doctorRepository = Mockito.mock(IDoctorRepository.class);
+        especialidadRepository = Mockito.mock(IEspecialidadRepository.class);
+        storage = new LocalFileStorageAdapter(dir.toString(), 0, 0);
+    }
+
+    @Test
+    void deletesOnlyOldUnreferencedFilesAndTheirVariants() throws Exception {
+        String usada = guardar(new byte[]{1}, true);
+        String huerfana = guardar(new byte[]{2, 2}, true);
+        String reciente = guardar(new byte[]{3, 3, 3}, false);
+        Path varianteUsada = storage.locate(DOC, usada.replace(".jpg", "-w64.jpg"));
+        Path varianteHuerfana = storage.locate(DOC, huerfana.replace(".jpg", "-w64.jpg"));
+        Files.write(varianteUsada, new byte[4]);
+        Files.write(varianteHuerfana, new byte[5]);
+        envejecer(varianteUsada);
+        envejecer(varianteHuerfana);
+
+        referencias(doctorRepository, "/uploads/doctores/" + usada + "?v=2");
+        referencias(especialidadRepository);
+
+        UploadCleanupApplicationService.Resultado resultado = servicio().limpiarHuerfanos();
+
+        assertEquals(2, resultado.getArchivosBorrados());
+        assertEquals(2 + 5, resultado.getBytesLiberados());
+        assertTrue(storage.find(DOC, usada).isPresent());
+        assertTrue(Files.exists(varianteUsada));
+        assertTrue(storage.find(DOC, reciente).isPresent());
+        assertTrue(storage.find(DOC, huerfana).isEmpty());
+        assertFalse(Files.exists(varianteHuerfana));
+    }
+
+    @Test
+    void referencedLegacyNameLookingLikeVariantIsKept() throws Exception {
+        Path legado = dir.resolve(DOC).resolve("3f2a9c_foto-w2.png");
+        Files.write(legado, new byte[6]);
+        envejecer(legado);
+        referencias(doctorRepository, "/uploads/doctores/3f2a9c_foto-w2.png");
+        referencias(especialidadRepository);
+
+        UploadCleanupApplicationService.Resultado resultado = servicio().limpiarHuerfanos();
+
+        assertEquals(0, resultado.getArchivosBorrados());
+        assertTrue(Files.exists(legado));
+    }
+
+    @Test
+    void fileNameIsExtractedFromStoredPathsAndUrls() {
+        assertEquals("abc.jpg", UploadCleanupApplicationService.nombreArchivo("/uploads/doctores/abc.jpg"));
+        assertEquals("abc.jpg", UploadCleanupApplicationService.nombreArchivo("https://h/uploads/abc.jpg?v=1#x"));
+        assertEquals("abc.jpg", UploadCleanupApplicationService.nombreArchivo(" abc.jpg "));
+    }
+
+    private UploadCleanupApplicationService servicio() {
+        return new UploadCleanupApplicationService(doctorRepository, especialidadRepository, storage,
+                true, 60, 1, 0);
+    }
+
+    private String guardar(byte[] data, boolean antiguo) throws Exception {
+        String name = storage.store(DOC, new ByteArrayInputStream(data), "jpg");
+        if (antiguo) {
+            envejecer(storage.locate(DOC, name));
+        }
+        return name;
+    }
+
+    private static void envejecer(Path path) throws Exception {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - 2 * 3600_000L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void referencias(Object repository, String... imagenes) {
+        Answer<Void> answer = invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for (String imagen : imagenes) consumer.accept(imagen);
+            return null;
+        };
+        if (repository instanceof IDoctorRepository doctor) {
+            doAnswer(answer).when(doctor).forEachImagen(any(Consumer.class));
+        } else {
+            doAnswer(answer).when((IEspecialidadRepository) repository).forEachImagen(any(Consumer.class));
+        }
+    }
+}
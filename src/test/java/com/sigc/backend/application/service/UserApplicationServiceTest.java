@@ -0,0 +1,125 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.model.UsuarioPerfil;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserApplicationServiceTest {
+
+    private IUsuarioRepository usuarioRepository;
+    private RefreshTokenApplicationService refreshTokenService;
+    private UserApplicationService service;
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setup() {
+        usuarioRepository = Mockito.mock(IUsuarioRepository.class);
+        refreshTokenService = Mockito.mock(RefreshTokenApplicationService.class);
+        service = new UserApplicationService(usuarioRepository,
+                Mockito.mock(SearchApplicationService.class), refreshTokenService, 100, 10_000, now::get);
+    }
+
+    @Test
+    void perfilIsLoadedOnceAndServedFromCache() {
+        when(usuarioRepository.findPerfilById(1L)).thenReturn(Optional.of(perfil("Ana")));
+
+        var first = service.getPerfil(1L).orElseThrow();
+        var second = service.getPerfil(1L).orElseThrow();
+
+        assertSame(first, second);
+        assertTrue(first.etag().startsWith("\""));
+        verify(usuarioRepository, times(1)).findPerfilById(1L);
+    }
+
+    @Test
+    void perfilExpiresAfterTtlToSeeWritesFromOtherNodes() {
+        when(usuarioRepository.findPerfilById(1L))
+                .thenReturn(Optional.of(perfil("Ana")), Optional.of(perfil("Ana María")));
+
+        assertEquals("Ana", service.getPerfil(1L).orElseThrow().perfil().nombre());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertEquals("Ana", service.getPerfil(1L).orElseThrow().perfil().nombre());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("Ana María", service.getPerfil(1L).orElseThrow().perfil().nombre());
+        verify(usuarioRepository, times(2)).findPerfilById(1L);
+    }
+
+    @Test
+    void etagDependsOnlyOnProfileContent() {
+        assertEquals(UserApplicationService.etag(perfil("Ana")), UserApplicationService.etag(perfil("Ana")));
+        assertNotEquals(UserApplicationService.etag(perfil("Ana")), UserApplicationService.etag(perfil("Ana ")));
+    }
+
+    @Test
+    void updateUserInvalidatesPerfilAndChangesEtag() {
+        when(usuarioRepository.findPerfilById(1L))
+                .thenReturn(Optional.of(perfil("Ana")))
+                .thenReturn(Optional.of(perfil("Ana María")));
+        String etag = service.getPerfil(1L).orElseThrow().etag();
+
+        Usuario existente = usuario("PACIENTE");
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(usuarioRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        Usuario cambios = usuario("PACIENTE");
+        cambios.setNombre("Ana María");
+        service.updateUser(1L, cambios);
+
+        var actualizado = service.getPerfil(1L).orElseThrow();
+        assertEquals("Ana María", actualizado.perfil().nombre());
+        assertNotEquals(etag, actualizado.etag());
+        verify(refreshTokenService, never()).revokeAll(any());
+    }
+
+    @Test
+    void roleChangeRevokesSessions() {
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario("PACIENTE")));
+        when(usuarioRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateUser(1L, usuario("ADMIN"));
+
+        verify(refreshTokenService).revokeAll(1L);
+    }
+
+    @Test
+    void unknownUserHasNoPerfil() {
+        when(usuarioRepository.findPerfilById(9L)).thenReturn(Optional.empty());
+        assertTrue(service.getPerfil(9L).isEmpty());
+    }
+
+    private UsuarioPerfil perfil(String nombre) {
+        return new UsuarioPerfil(1L, nombre, "ana@example.com", "12345678", "987654321",
+                "PACIENTE", true, LocalDateTime.of(2025, 1, 1, 10, 0));
+    }
+
+    @Test
+    void summaryListingNormalizesRolAndClampsPage() {
+        service.listUserSummaries(" doctor ", true, -3, 10_000);
+        service.listUserSummaries("", null, 2, 0);
+
+        verify(usuarioRepository).findSummaries("DOCTOR", true, 0, UserApplicationService.TAMANO_PAGINA_MAXIMO);
+        verify(usuarioRepository).findSummaries(null, null, 2, 1);
+    }
+
+    private Usuario usuario(String rol) {
+        Usuario u = new Usuario();
+        u.setId(1L);
+        u.setNombre("Ana");
+        u.setEmail("ana@example.com");
+        u.setRole(rol);
+        u.setActivo(true);
+        return u;
+    }
+}
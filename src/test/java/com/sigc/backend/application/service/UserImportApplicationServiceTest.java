@@ -0,0 +1,138 @@
+package com.sigc.backend.application.service;
+
+import com.sigc.backend.domain.model.Usuario;
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import com.sigc.backend.infrastructure.security.password.IPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UserImportApplicationServiceTest {
+
+    private static final String CABECERA = "nombre,email,password,dni,telefono,rol\n";
+
+    private IUsuarioRepository usuarioRepository;
+    private IPasswordEncoder passwordEncoder;
+    private SearchApplicationService searchService;
+    private UserImportApplicationService service;
+
+    @BeforeEach
+    void setup() {
+        usuarioRepository = Mockito.mock(IUsuarioRepository.class);
+        passwordEncoder = Mockito.mock(IPasswordEncoder.class);
+        searchService = Mockito.mock(SearchApplicationService.class);
+        when(usuarioRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(usuarioRepository.insertAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        when(passwordEncoder.encodeAll(anyList())).thenAnswer(inv ->
+                ((List<String>) inv.getArgument(0)).stream().map(p -> "hash:" + p).toList());
+        service = new UserImportApplicationService(usuarioRepository, passwordEncoder, searchService, 2, 10, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void validRowsAreInsertedInChunksWithHashedPasswords() throws IOException {
+        Path csv = csv(CABECERA
+                + "Ana,ana@x.com,Secreta123,12345678,987654321,\n"
+                + "Luis,luis@x.com,Secreta123,87654321,987-654-321,DOCTOR\n"
+                + "Eva,eva@x.com,Secreta123,11223344,912345678,paciente\n");
+
+        UserImportApplicationService.ImportJob job = run(csv);
+
+        assertEquals(UserImportApplicationService.Estado.COMPLETADO, job.getEstado());
+        assertEquals(3, job.getImportados());
+        assertEquals(0, job.getConError());
+        assertEquals(100, job.getProgreso());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Usuario>> captor = ArgumentCaptor.forClass(List.class);
+        verify(usuarioRepository, times(2)).insertAll(captor.capture());
+        List<Usuario> insertados = new ArrayList<>();
+        captor.getAllValues().forEach(insertados::addAll);
+        assertEquals("hash:Secreta123", insertados.get(0).getPassword());
+        assertEquals("PACIENTE", insertados.get(0).getRole());
+        assertEquals("DOCTOR", insertados.get(1).getRole());
+        assertEquals("987654321", insertados.get(1).getTelefono());
+        verify(searchService).rebuild();
+        assertFalse(Files.exists(csv));
+    }
+
+    @Test
+    void invalidDuplicateAndExistingRowsAreReportedWithLineNumbers() throws IOException {
+        when(usuarioRepository.findExistingEmails(any())).thenReturn(Set.of("ya@x.com"));
+        Path csv = csv(CABECERA
+                + "Ana,ana@x.com,Secreta123,12345678,987654321,\n"
+                + "Bad,no-es-email,Secreta123,12345678,987654321,\n"
+                + "Ana2,ANA@x.com,Secreta123,12345678,987654321,\n"
+                + "Ya,ya@x.com,Secreta123,12345678,987654321,\n"
+                + "Debil,debil@x.com,corta,12345678,987654321,\n"
+                + "Admin,admin@x.com,Secreta123,12345678,987654321,ADMIN\n");
+
+        UserImportApplicationService.ImportJob job = run(csv);
+
+        assertEquals(1, job.getImportados());
+        assertEquals(5, job.getConError());
+        List<Integer> filas = job.getErrores().stream().map(UserImportApplicationService.ErrorFila::fila).toList();
+        assertEquals(List.of(3, 4, 5, 6, 7), filas);
+    }
+
+    @Test
+    void rejectedBatchFallsBackToRowByRow() throws IOException {
+        when(usuarioRepository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Usuario> lote = inv.getArgument(0);
+            if (lote.size() > 1) throw new DuplicateKeyException("ux_usuarios_email_lower");
+            if (lote.get(0).getEmail().startsWith("luis")) throw new DuplicateKeyException("ux_usuarios_email_lower");
+            return 1;
+        });
+        Path csv = csv(CABECERA
+                + "Ana,ana@x.com,Secreta123,12345678,987654321,\n"
+                + "Luis,luis@x.com,Secreta123,87654321,987654321,\n");
+
+        UserImportApplicationService.ImportJob job = run(csv);
+
+        assertEquals(1, job.getImportados());
+        assertEquals(1, job.getConError());
+        assertEquals("luis@x.com", job.getErrores().get(0).email());
+    }
+
+    @Test
+    void missingHeaderColumnFailsTheJob() throws IOException {
+        Path csv = csv("nombre,email\nAna,ana@x.com\n");
+
+        UserImportApplicationService.ImportJob job = run(csv);
+
+        assertEquals(UserImportApplicationService.Estado.FALLIDO, job.getEstado());
+        assertTrue(job.getMensaje().contains("password"));
+        verify(usuarioRepository, never()).insertAll(anyList());
+    }
+
+    private UserImportApplicationService.ImportJob run(Path csv) {
+        UserImportApplicationService.ImportJob job = new UserImportApplicationService.ImportJob();
+        service.run(job, csv);
+        return job;
+    }
+
+    private static Path csv(String content) throws IOException {
+        Path file = Files.createTempFile("import-test-", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -67,5 +67,45 @@ public class LoginUseCaseTest {
         when(usuarioRepository.findByEmail("no@exist.com")).thenReturn(Optional.empty());
         var useCase = new LoginUseCase(usuarioRepository, tokenProvider, passwordEncoder);
         assertThrows(UserNotFoundException.class, () -> useCase.execute(new LoginRequest("no@exist.com", "Secret123")));
+        // Se hace un hash ficticio para igualar el tiempo de respuesta
+        verify(passwordEncoder).simulateMatch("Secret123");
+    }
+
+    @Test
+    void executeRehashesOutdatedPassword() {
+        var usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("user@example.com");
+        usuario.setPassword("old-hash");
+        usuario.setRole("USER");
+
+        when(usuarioRepository.findByEmail("user@example.com")).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matchesPassword("Secret123", "old-hash")).thenReturn(true);
+        when(passwordEncoder.needsRehash("old-hash")).thenReturn(true);
+        when(passwordEncoder.encodePassword("Secret123")).thenReturn("new-hash");
+        when(tokenProvider.generateToken(1L, "user@example.com", "USER")).thenReturn("jwt-token");
+
+        var resp = new LoginUseCase(usuarioRepository, tokenProvider, passwordEncoder)
+                .execute(new LoginRequest("user@example.com", "Secret123"));
+
+        assertEquals("jwt-token", resp.getToken());
+        assertEquals("new-hash", usuario.getPassword());
+        verify(usuarioRepository).save(usuario);
+    }
+
+    @Test
+    void executeDoesNotRehashCurrentPassword() {
+        var usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setEmail("user@example.com");
+        usuario.setPassword("hashed");
+
+        when(usuarioRepository.findByEmail("user@example.com")).thenReturn(Optional.of(usuario));
+        when(passwordEncoder.matchesPassword("Secret123", "hashed")).thenReturn(true);
+
+        new LoginUseCase(usuarioRepository, tokenProvider, passwordEncoder)
+                .execute(new LoginRequest("user@example.com", "Secret123"));
+
+        verify(usuarioRepository, never()).save(any());
     }
 }
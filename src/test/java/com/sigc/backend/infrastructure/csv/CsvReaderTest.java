@@ -0,0 +1,55 @@
+package com.sigc.backend.infrastructure.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new BufferedReader(new StringReader(csv)));
+    }
+
+    @Test
+    void readsSimpleRecordsWithCrlf() throws IOException {
+        CsvReader csv = reader("a,b,c\r\n1,2,3\r\n");
+
+        assertEquals(List.of("a", "b", "c"), csv.next());
+        assertEquals(List.of("1", "2", "3"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void quotedFieldsKeepDelimitersQuotesAndNewlines() throws IOException {
+        CsvReader csv = reader("\"Pérez, Ana\",\"dice \"\"hola\"\"\",\"dos\nlíneas\"\nx,y,z");
+
+        assertEquals(List.of("Pérez, Ana", "dice \"hola\"", "dos\nlíneas"), csv.next());
+        assertEquals(List.of("x", "y", "z"), csv.next());
+        assertEquals(3, csv.getRecordLine());
+    }
+
+    @Test
+    void detectsSemicolonAndSkipsBom() throws IOException {
+        CsvReader csv = reader("﻿nombre;email\nAna;ana@x.com\n").detectDelimiter();
+
+        assertEquals(List.of("nombre", "email"), csv.next());
+        assertEquals(List.of("Ana", "ana@x.com"), csv.next());
+    }
+
+    @Test
+    void emptyTrailingFieldIsKept() throws IOException {
+        assertEquals(List.of("a", "", ""), reader("a,,\n").next());
+    }
+
+    @Test
+    void unclosedQuoteFails() {
+        CsvReader csv = reader("\"abierto,1\n2");
+        assertThrows(IOException.class, csv::next);
+    }
+}
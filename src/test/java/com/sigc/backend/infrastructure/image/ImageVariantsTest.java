@@ -0,0 +1,74 @@
+package com.sigc.backend.infrastructure.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageVariantsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void variantNameInsertsWidthBeforeExtension() {
+        assertEquals("abc-w256.jpg", ImageVariants.variantName("abc.jpg", 256));
+        assertEquals("doctores/abc-w64.png", ImageVariants.variantName("doctores/abc.png", 64));
+        assertEquals("sin_ext-w64", ImageVariants.variantName("sin_ext", 64));
+    }
+
+    @Test
+    void originalNameStripsVariantSuffix() {
+        assertEquals("abc.jpg", ImageVariants.originalName("abc-w256.jpg"));
+        assertEquals("abc", ImageVariants.originalName("abc-w64"));
+        assertEquals("abc.jpg", ImageVariants.originalName("abc.jpg"));
+    }
+
+    @Test
+    void pickWidthRoundsUpToNearestVariant() {
+        assertEquals(64, ImageVariants.pickWidth("40"));
+        assertEquals(256, ImageVariants.pickWidth("256"));
+        assertEquals(768, ImageVariants.pickWidth("300"));
+        assertEquals(-1, ImageVariants.pickWidth("2000"));
+        assertEquals(-1, ImageVariants.pickWidth("abc"));
+        assertEquals(-1, ImageVariants.pickWidth(null));
+    }
+
+    @Test
+    void generatesOnlyNarrowerVariants() throws Exception {
+        Path original = dir.resolve("foto.png");
+        ImageIO.write(new BufferedImage(300, 150, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        ImageVariantGenerator generator = new ImageVariantGenerator(1, 4, 1_000_000);
+        try {
+            assertEquals(2, generator.generate(original));
+        } finally {
+            generator.shutdown();
+        }
+
+        BufferedImage small = ImageIO.read(dir.resolve("foto-w64.png").toFile());
+        assertEquals(64, small.getWidth());
+        assertEquals(32, small.getHeight());
+        assertTrue(Files.exists(dir.resolve("foto-w256.png")));
+        assertFalse(Files.exists(dir.resolve("foto-w768.png")));
+    }
+
+    @Test
+    void skipsImagesOverPixelBudgetWithoutDecoding() throws Exception {
+        Path original = dir.resolve("enorme.png");
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        ImageVariantGenerator generator = new ImageVariantGenerator(1, 4, 100_000);
+        try {
+            assertEquals(0, generator.generate(original));
+        } finally {
+            generator.shutdown();
+        }
+        assertFalse(Files.exists(dir.resolve("enorme-w64.png")));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sigc.backend.infrastructure.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NGramSearchIndexTest {
+
+    private NGramSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new NGramSearchIndex(100);
+        index.upsert("USUARIO", 1L, "Juan Pérez", "juan@example.com", "Juan Pérez", "12345678", "juan@example.com");
+        index.upsert("USUARIO", 2L, "Juana Torres", "juana@example.com", "Juana Torres", "87654321", "juana@example.com");
+        index.upsert("DOCTOR", 10L, "María Rodríguez", "Pediatría", "María", "Rodríguez");
+    }
+
+    @Test
+    void prefixQueryMatchesByWordStart() {
+        List<NGramSearchIndex.Hit> hits = index.search("ju", null, 10);
+        assertEquals(2, hits.size());
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        List<NGramSearchIndex.Hit> hits = index.search("RODRIGUEZ", null, 10);
+        assertEquals(1, hits.size());
+        assertEquals(10L, hits.get(0).getId());
+    }
+
+    @Test
+    void exactWordRanksShorterDocumentFirst() {
+        List<NGramSearchIndex.Hit> hits = index.search("juan", null, 10);
+        assertFalse(hits.isEmpty());
+        assertEquals(1L, hits.get(0).getId());
+    }
+
+    @Test
+    void searchByDniAndTypeFilter() {
+        assertEquals(2L, index.search("87654321", "USUARIO", 10).get(0).getId());
+        assertTrue(index.search("87654321", "DOCTOR", 10).isEmpty());
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDeletes() {
+        index.upsert("USUARIO", 1L, "Pedro Gómez", "pedro@example.com", "Pedro Gómez");
+        assertTrue(index.search("perez", null, 10).isEmpty());
+        assertEquals(1L, index.search("pedro", null, 10).get(0).getId());
+        assertEquals(3, index.size());
+
+        index.remove("USUARIO", 1L);
+        assertTrue(index.search("pedro", null, 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void indexRejectsDocumentsBeyondCapacity() {
+        NGramSearchIndex small = new NGramSearchIndex(1);
+        assertTrue(small.upsert("DOCTOR", 1L, "A", null, "Ana"));
+        assertFalse(small.upsert("DOCTOR", 2L, "B", null, "Beto"));
+        small.remove("DOCTOR", 1L);
+        assertTrue(small.upsert("DOCTOR", 2L, "B", null, "Beto"));
+    }
+
+    @Test
+    void limitIsRespected() {
+        assertEquals(1, index.search("ju", null, 1).size());
+    }
+}
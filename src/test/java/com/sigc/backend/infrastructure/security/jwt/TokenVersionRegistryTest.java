@@ -0,0 +1,68 @@
+package com.sigc.backend.infrastructure.security.jwt;
+
+import com.sigc.backend.domain.port.IUsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenVersionRegistryTest {
+
+    private IUsuarioRepository usuarioRepository;
+    private TokenVersionRegistry registry;
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setup() {
+        usuarioRepository = Mockito.mock(IUsuarioRepository.class);
+        registry = new TokenVersionRegistry(usuarioRepository, 10_000, now::get);
+    }
+
+    @Test
+    void loadsFromRepositoryOnlyOnce() {
+        when(usuarioRepository.getTokenVersion(1L)).thenReturn(3L);
+
+        assertEquals(3, registry.current(1));
+        assertEquals(3, registry.current(1));
+        assertTrue(registry.isCurrent(1, 3));
+        assertFalse(registry.isCurrent(1, 2));
+        verify(usuarioRepository, times(1)).getTokenVersion(1L);
+    }
+
+    @Test
+    void bumpRevokesOlderTokens() {
+        when(usuarioRepository.getTokenVersion(1L)).thenReturn(0L);
+        when(usuarioRepository.incrementTokenVersion(1L)).thenReturn(1L);
+
+        assertTrue(registry.isCurrent(1, 0));
+        registry.bump(1);
+        assertFalse(registry.isCurrent(1, 0));
+        assertTrue(registry.isCurrent(1, 1));
+    }
+
+    @Test
+    void unknownUserHasNoValidTokens() {
+        when(usuarioRepository.getTokenVersion(99L)).thenReturn(-1L);
+        assertFalse(registry.isCurrent(99, 0));
+    }
+
+    @Test
+    void reloadsAfterTtlToSeeRevocationsFromOtherNodes() {
+        when(usuarioRepository.getTokenVersion(1L)).thenReturn(0L, 1L);
+
+        assertTrue(registry.isCurrent(1, 0));
+        // Otro nodo incrementa la versión en BD; aquí sigue cacheada hasta el TTL
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertTrue(registry.isCurrent(1, 0));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertFalse(registry.isCurrent(1, 0));
+        assertTrue(registry.isCurrent(1, 1));
+        verify(usuarioRepository, times(2)).getTokenVersion(1L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.sigc.backend.infrastructure.security.password;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark: logins por segundo (verificación BCrypt) frente al coste.
+ *
+ * No forma parte de la suite normal (el nombre no termina en Test). Ejecutar con:
+ * mvn test -Dtest=BcryptLoginThroughputBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * Simula 4 clientes por núcleo haciendo login contra el encoder compartido, que
+ * limita el trabajo al tamaño de su pool; imprime throughput, latencia media y
+ * rechazos por cola llena para cada coste.
+ */
+public class BcryptLoginThroughputBenchmark {
+
+    private static final long DURATION_MS = 3_000;
+
+    @Test
+    void loginThroughputByCost() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int clients = cores * 4;
+        System.out.printf("%n núcleos=%d clientes=%d duración=%d ms%n", cores, clients, DURATION_MS);
+        System.out.printf(" %5s %12s %14s %10s%n", "coste", "logins/s", "latencia(ms)", "rechazos");
+
+        for (int cost = 8; cost <= 13; cost++) {
+            BcryptPasswordEncoderService encoder = new BcryptPasswordEncoderService(cost, 0, 0, clients, 0);
+            String hash = encoder.encodePassword("Secret123");
+            AtomicLong ok = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            AtomicLong latencyNanos = new AtomicLong();
+            long deadline = System.currentTimeMillis() + DURATION_MS;
+
+            ExecutorService pool = Executors.newFixedThreadPool(clients);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                futures.add(pool.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            encoder.matchesPassword("Secret123", hash);
+                            ok.incrementAndGet();
+                            latencyNanos.addAndGet(System.nanoTime() - start);
+                        } catch (PasswordHashingOverloadedException e) {
+                            rejected.incrementAndGet();
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+            encoder.shutdown();
+
+            double perSecond = ok.get() * 1000.0 / DURATION_MS;
+            double meanMs = ok.get() == 0 ? 0 : latencyNanos.get() / 1_000_000.0 / ok.get();
+            System.out.printf(" %5d %12.1f %14.1f %10d%n", cost, perSecond, meanMs, rejected.get());
+        }
+    }
+}
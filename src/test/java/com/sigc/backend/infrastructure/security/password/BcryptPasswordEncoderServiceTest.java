@@ -0,0 +1,95 @@
+package com.sigc.backend.infrastructure.security.password;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BcryptPasswordEncoderServiceTest {
+
+    private BcryptPasswordEncoderService encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    void encodesAndMatchesWithConfiguredCost() {
+        encoder = new BcryptPasswordEncoderService(5, 0, 1, 4, 0);
+        String hash = encoder.encodePassword("Secret123");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(encoder.matchesPassword("Secret123", hash));
+        assertFalse(encoder.matchesPassword("otra", hash));
+        assertFalse(encoder.matchesPassword("Secret123", null));
+        assertTrue(encoder.asSpringEncoder().matches("Secret123", hash));
+    }
+
+    @Test
+    void weakerHashesNeedRehash() {
+        encoder = new BcryptPasswordEncoderService(6, 0, 1, 4, 0);
+        String weak = new BCryptPasswordEncoder(4).encode("x");
+        String current = encoder.encodePassword("x");
+
+        assertTrue(encoder.needsRehash(weak));
+        assertFalse(encoder.needsRehash(current));
+    }
+
+    @Test
+    void encodeAllHashesInParallelKeepingOrder() {
+        encoder = new BcryptPasswordEncoderService(4, 0, 1, 1, 2);
+        List<String> raw = List.of("uno", "dos", "tres", "cuatro", "cinco");
+
+        List<String> hashes = encoder.encodeAll(raw);
+
+        assertEquals(raw.size(), hashes.size());
+        for (int i = 0; i < raw.size(); i++) {
+            assertTrue(encoder.matchesPassword(raw.get(i), hashes.get(i)));
+        }
+        assertTrue(encoder.encodeAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        int cost = BcryptPasswordEncoderService.calibrate(1, 4, 8);
+        assertEquals(4, cost);
+        assertTrue(BcryptPasswordEncoderService.calibrate(100_000, 4, 8) <= 8);
+    }
+
+    @Test
+    void failsFastWhenQueueIsFull() throws Exception {
+        encoder = new BcryptPasswordEncoderService(12, 0, 1, 1, 0);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            Future<?>[] futures = new Future<?>[6];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = callers.submit(() -> {
+                    start.await();
+                    try {
+                        encoder.encodePassword("x");
+                    } catch (PasswordHashingOverloadedException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get();
+        } finally {
+            callers.shutdownNow();
+        }
+        // 1 en ejecución + 1 en cola; el resto se rechaza sin esperar
+        assertTrue(rejected.get() >= 3, "rechazadas: " + rejected.get());
+    }
+}
@@ -0,0 +1,80 @@
+package com.sigc.backend.infrastructure.security.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedTokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private StripedTokenBucketLimiter limiter(int capacity, double perMinute, int maxKeys) {
+        return new StripedTokenBucketLimiter(capacity, perMinute, 4, maxKeys, now::get);
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        StripedTokenBucketLimiter limiter = limiter(3, 60, 1000);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        long wait = limiter.tryAcquire("a");
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+        // Otra clave no se ve afectada
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void refillsOverTime() {
+        StripedTokenBucketLimiter limiter = limiter(1, 60, 1000);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void evictsOnlyFullyRefilledBuckets() {
+        StripedTokenBucketLimiter limiter = limiter(2, 60, 1000);
+        limiter.tryAcquire("viejo");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.tryAcquire("reciente");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void boundsTrackedKeys() {
+        StripedTokenBucketLimiter limiter = limiter(1, 1, 64);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("k" + i);
+        }
+        assertTrue(limiter.size() <= 64, "claves: " + limiter.size());
+    }
+
+    @Test
+    void loginLimiterChecksIpBeforeEmailAndCountsRejections() {
+        LoginRateLimiter login = new LoginRateLimiter(limiter(2, 1, 1000), limiter(1, 1, 1000));
+
+        assertTrue(login.tryAcquire("1.2.3.4", "User@Example.com").allowed());
+        LoginRateLimiter.Decision byEmail = login.tryAcquire("5.6.7.8", " user@example.com ");
+        assertFalse(byEmail.allowed());
+        assertEquals("email", byEmail.reason());
+        assertTrue(byEmail.retryAfterSeconds() >= 1);
+
+        login.tryAcquire("1.2.3.4", "otro@example.com");
+        LoginRateLimiter.Decision byIp = login.tryAcquire("1.2.3.4", "tercero@example.com");
+        assertEquals("ip", byIp.reason());
+
+        assertEquals(1L, login.getStats().get("rechazadosPorEmail"));
+        assertEquals(1L, login.getStats().get("rechazadosPorIp"));
+    }
+}
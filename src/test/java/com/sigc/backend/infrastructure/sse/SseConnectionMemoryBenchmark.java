@@ -0,0 +1,147 @@
+package com.sigc.backend.infrastructure.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import com.sigc.backend.infrastructure.websocket.StompPrincipal;
+import com.sigc.backend.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Benchmark: memoria por cliente inactivo, SSE con hilo virtual frente a STOMP.
+ *
+ * No forma parte de la suite normal (el nombre no termina en Test). Ejecutar con:
+ * mvn test -Dtest=SseConnectionMemoryBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * Mide el heap retenido por el estado que la aplicación guarda por cliente:
+ * - SSE: SseEmitter, conexión del SseNotificationBroker con su cola y el hilo virtual
+ *   aparcado en ella (la pila de un hilo virtual aparcado vive en el heap)
+ * - STOMP: sesión y suscripciones (/user/queue/notifications y /topic/global) en el
+ *   SimpleBroker, entrada en SimpUserRegistry y principal en la caché del interceptor
+ *
+ * No incluye lo que el contenedor mantiene por socket en ambos casos (conexión de Tomcat,
+ * petición asíncrona o sesión WebSocket con sus búferes).
+ */
+public class SseConnectionMemoryBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    @Test
+    void idleMemoryPerClient() throws Exception {
+        // Calentamiento: clases cargadas y JIT antes de medir
+        sse(500);
+        stomp(500);
+
+        System.out.printf("%n clientes=%d inactivos%n", CLIENTS);
+        System.out.printf(" %8s %14s %14s %16s%n", "modelo", "heap total(KB)", "por cliente(B)", "hilos plataforma");
+        print("stomp", stomp(CLIENTS));
+        print("sse", sse(CLIENTS));
+    }
+
+    private static void print(String modelo, long[] medida) {
+        System.out.printf(" %8s %14d %14d %16d%n", modelo, medida[0] / 1024, medida[0] / CLIENTS, medida[1]);
+    }
+
+    /**
+     * @return {bytes retenidos, hilos de plataforma añadidos}
+     */
+    private static long[] sse(int clients) throws Exception {
+        TokenVersionRegistry tokens = Mockito.mock(TokenVersionRegistry.class);
+        Mockito.when(tokens.isCurrent(Mockito.anyLong(), Mockito.anyLong())).thenReturn(true);
+        SseNotificationBroker broker = new SseNotificationBroker(new ObjectMapper(),
+                Mockito.mock(NotificationOutboxService.class), tokens, clients, 64, 600_000, 1000, 1000);
+        int threads = platformThreads();
+        long before = usedHeap();
+        for (int i = 0; i < clients; i++) {
+            broker.open(new SseEmitter(0L), i, "PACIENTE", 0, null);
+        }
+        Thread.sleep(500); // que todos los hilos virtuales lleguen a aparcarse en su cola
+        long retained = usedHeap() - before;
+        long added = platformThreads() - threads;
+        if (broker.connectionCount() != clients) throw new IllegalStateException("conexiones perdidas");
+        broker.closeAll();
+        Thread.sleep(500); // que terminen los hilos virtuales antes de la siguiente medida
+        return new long[]{retained, added};
+    }
+
+    private static long[] stomp(int clients) {
+        MessageChannel clientOutbound = (message, timeout) -> true;
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(),
+                clientOutbound, new ExecutorSubscribableChannel(), List.of("/topic", "/queue"));
+        broker.setCacheLimit(clients * 2);
+        broker.start();
+        DefaultSimpUserRegistry registry = new DefaultSimpUserRegistry();
+        Map<String, StompPrincipal> interceptorCache = new ConcurrentHashMap<>();
+
+        int threads = platformThreads();
+        long before = usedHeap();
+        for (int i = 0; i < clients; i++) {
+            String session = "s" + i;
+            StompPrincipal principal = new StompPrincipal(i, "u" + i + "@sigc.com", "PACIENTE", 0);
+            interceptorCache.put(session, principal);
+            broker.handleMessage(message(SimpMessageType.CONNECT, session, null, null));
+            registry.onApplicationEvent(new SessionConnectedEvent(registry,
+                    message(SimpMessageType.CONNECT_ACK, session, null, null), principal));
+            subscribe(broker, registry, principal, session, "sub-0", NotificationService.USER_QUEUE + "-user" + session);
+            subscribe(broker, registry, principal, session, "sub-1", "/topic/global");
+        }
+        long retained = usedHeap() - before;
+        long added = platformThreads() - threads;
+        if (registry.getUserCount() != clients || interceptorCache.size() != clients) {
+            throw new IllegalStateException("sesiones perdidas");
+        }
+        broker.stop();
+        return new long[]{retained, added};
+    }
+
+    private static void subscribe(SimpleBrokerMessageHandler broker, DefaultSimpUserRegistry registry,
+                                  StompPrincipal principal, String session, String subscriptionId, String destination) {
+        Message<byte[]> subscribe = message(SimpMessageType.SUBSCRIBE, session, subscriptionId, destination);
+        broker.handleMessage(subscribe);
+        registry.onApplicationEvent(new SessionSubscribeEvent(registry, subscribe, principal));
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String session, String subscriptionId,
+                                           String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static int platformThreads() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    private static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
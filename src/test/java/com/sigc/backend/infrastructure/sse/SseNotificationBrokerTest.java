@@ -0,0 +1,181 @@
+package com.sigc.backend.infrastructure.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.NotificacionOutbox;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+public class SseNotificationBrokerTest {
+
+    private NotificationOutboxService outboxService;
+    private SseNotificationBroker broker;
+
+    @BeforeEach
+    void setup() {
+        outboxService = Mockito.mock(NotificationOutboxService.class);
+        TokenVersionRegistry tokenVersionRegistry = Mockito.mock(TokenVersionRegistry.class);
+        when(tokenVersionRegistry.isCurrent(anyLong(), anyLong())).thenReturn(true);
+        when(outboxService.replay(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        broker = new SseNotificationBroker(new ObjectMapper().findAndRegisterModules(), outboxService,
+                tokenVersionRegistry, 3, 4, 60_000, 10, 100);
+    }
+
+    @AfterEach
+    void cleanup() {
+        broker.closeAll();
+    }
+
+    /** Emitter que guarda cada evento serializado tal como iría por la red. */
+    static class CapturingEmitter extends SseEmitter {
+        final BlockingQueue<String> eventos = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder sb = new StringBuilder();
+            for (var parte : builder.build()) {
+                sb.append(parte.getData());
+            }
+            eventos.add(sb.toString());
+        }
+
+        String next() throws InterruptedException {
+            return eventos.poll(2, TimeUnit.SECONDS);
+        }
+
+        /** Comprueba que no llega nada (dando tiempo al hilo virtual). */
+        void assertNoMore() throws InterruptedException {
+            assertNull(eventos.poll(200, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void broadcastsAreFilteredByRole() throws Exception {
+        CapturingEmitter admin = new CapturingEmitter();
+        CapturingEmitter paciente = new CapturingEmitter();
+        broker.open(admin, 1, "ADMIN", 0, null);
+        broker.open(paciente, 2, "PACIENTE", 0, null);
+
+        broker.publishTopic("/topic/admin", Map.of("tipo", "A"));
+        broker.publishTopic("/topic/horarios", Map.of("tipo", "H"));
+        broker.publishTopic("/topic/global", Map.of("tipo", "G"));
+
+        String primero = admin.next();
+        assertTrue(primero.contains("event:admin") && primero.contains("\"tipo\":\"A\""), primero);
+        assertTrue(admin.next().contains("event:global"));
+        admin.assertNoMore();
+
+        assertTrue(paciente.next().contains("event:horarios"));
+        assertTrue(paciente.next().contains("event:global"));
+        paciente.assertNoMore();
+    }
+
+    @Test
+    void personalNotificationsReachOnlyTheirUser() throws Exception {
+        CapturingEmitter ana = new CapturingEmitter();
+        CapturingEmitter luis = new CapturingEmitter();
+        broker.open(ana, 7, "PACIENTE", 0, null);
+        broker.open(luis, 8, "PACIENTE", 0, null);
+
+        NotificacionDTO dto = NotificacionDTO.builder().tipo("CITA_CREADA").secuencia(1L).build();
+        broker.publishToUser("7", dto);
+
+        String evento = ana.next();
+        assertTrue(evento.contains("id:1:0") && evento.contains("event:user"), evento);
+        luis.assertNoMore();
+    }
+
+    @Test
+    void personalNotificationsArrivingOutOfOrderAreNotDropped() throws Exception {
+        CapturingEmitter ana = new CapturingEmitter();
+        broker.open(ana, 7, "PACIENTE", 0, null);
+
+        // Dos notifyUser concurrentes: la 2 llega a la cola antes que la 1
+        broker.publishToUser("7", NotificacionDTO.builder().tipo("B").secuencia(2L).build());
+        broker.publishToUser("7", NotificacionDTO.builder().tipo("A").secuencia(1L).build());
+        broker.publishToUser("7", NotificacionDTO.builder().tipo("B").secuencia(2L).build());
+
+        assertTrue(ana.next().contains("\"tipo\":\"B\""));
+        String tardia = ana.next();
+        assertTrue(tardia != null && tardia.contains("\"tipo\":\"A\""), tardia);
+        ana.assertNoMore();
+    }
+
+    @Test
+    void lastEventIdResumesPersonalAndBroadcastEvents() throws Exception {
+        broker.publishTopic("/topic/global", Map.of("n", 1));
+        broker.publishTopic("/topic/global", Map.of("n", 2));
+        broker.publishTopic("/topic/admin", Map.of("n", 3));
+        when(outboxService.replay(eq(7L), eq(4L), anyInt())).thenReturn(List.of(
+                new NotificacionOutbox(7L, 5L, "CITA_CREADA", "{\"secuencia\":5}", LocalDateTime.now())));
+
+        CapturingEmitter emitter = new CapturingEmitter();
+        broker.open(emitter, 7, "PACIENTE", 0, "4:1");
+
+        assertTrue(emitter.next().contains("id:5:1"));
+        String difusion = emitter.next();
+        assertTrue(difusion.contains("id:5:2") && difusion.contains("\"n\":2"), difusion);
+        // /topic/admin no es para PACIENTE
+        emitter.assertNoMore();
+
+        // La misma notificación en vivo ya se envió en el replay
+        broker.publishToUser("7", NotificacionDTO.builder().secuencia(5L).build());
+        emitter.assertNoMore();
+        assertEquals(1L, broker.getStats().get("reanudaciones"));
+    }
+
+    @Test
+    void slowClientIsDisconnected() throws Exception {
+        SseEmitter bloqueado = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        broker.open(bloqueado, 1, "ADMIN", 0, null);
+        for (int i = 0; i < 10; i++) {
+            broker.publishTopic("/topic/global", Map.of("n", i));
+        }
+
+        assertEquals(0, broker.connectionCount());
+        assertEquals(1L, broker.getStats().get("cerradasPorLentitud"));
+    }
+
+    @Test
+    void connectionLimitIsEnforced() {
+        for (int i = 0; i < 3; i++) {
+            broker.open(new CapturingEmitter(), i, "PACIENTE", 0, null);
+        }
+        assertThrows(IllegalStateException.class, () -> broker.open(new CapturingEmitter(), 9, "PACIENTE", 0, null));
+        assertEquals(3, broker.connectionCount());
+    }
+
+    @Test
+    void parsesLastEventId() {
+        assertArrayEquals(new long[]{12, 340}, SseNotificationBroker.parseLastEventId("12:340"));
+        assertNull(SseNotificationBroker.parseLastEventId(null));
+        assertNull(SseNotificationBroker.parseLastEventId("12"));
+        assertNull(SseNotificationBroker.parseLastEventId("a:b"));
+        assertNull(SseNotificationBroker.parseLastEventId("-1:0"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.sigc.backend.infrastructure.web;
+
+import com.sigc.backend.exception.UploadRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageUploadStreamTest {
+
+    private static final List<String> ALLOWED = List.of("jpg", "png", "webp");
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0, 1, 2};
+
+    @Test
+    void detectsFormatByMagicBytesAndKeepsFullContent() throws Exception {
+        try (ImageUploadStream in = ImageUploadStream.open(new ByteArrayInputStream(PNG), 1024, ALLOWED)) {
+            assertEquals("png", in.getExtension());
+            assertArrayEquals(PNG, in.readAllBytes());
+            assertEquals(PNG.length, in.getCount());
+        }
+    }
+
+    @Test
+    void recognisesJpegAndWebp() throws Exception {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+        byte[] webp = {'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'};
+        assertEquals("jpg", ImageUploadStream.open(new ByteArrayInputStream(jpeg), 1024, ALLOWED).getExtension());
+        assertEquals("webp", ImageUploadStream.open(new ByteArrayInputStream(webp), 1024, ALLOWED).getExtension());
+    }
+
+    @Test
+    void rejectsContentThatIsNotAnAllowedImage() {
+        byte[] html = "<html><script>".getBytes();
+        UploadRejectedException e = assertThrows(UploadRejectedException.class,
+                () -> ImageUploadStream.open(new ByteArrayInputStream(html), 1024, ALLOWED));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getStatus());
+
+        byte[] gif = "GIF89a......".getBytes();
+        assertThrows(UploadRejectedException.class,
+                () -> ImageUploadStream.open(new ByteArrayInputStream(gif), 1024, ALLOWED));
+    }
+
+    @Test
+    void abortsAsSoonAsLimitIsCrossedWithoutReadingTheRest() throws Exception {
+        int[] consumed = {0};
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                int i = consumed[0]++;
+                return i < PNG.length ? PNG[i] & 0xFF : 0;
+            }
+        };
+        try (ImageUploadStream in = ImageUploadStream.open(endless, 100, ALLOWED)) {
+            byte[] buffer = new byte[16];
+            UploadRejectedException e = assertThrows(UploadRejectedException.class, () -> {
+                while (in.read(buffer) != -1) {
+                    // consumir
+                }
+            });
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        }
+        assertTrue(consumed[0] <= 100 + 16);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sigc.backend.infrastructure.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticFileResponderTest {
+
+    @Test
+    void parsesExplicitRange() {
+        assertArrayEquals(new long[]{0, 99}, StaticFileResponder.parseRange("bytes=0-99", 1000));
+    }
+
+    @Test
+    void openEndedRangeRunsToEndOfFile() {
+        assertArrayEquals(new long[]{500, 999}, StaticFileResponder.parseRange("bytes=500-", 1000));
+    }
+
+    @Test
+    void suffixRangeReturnsLastBytes() {
+        assertArrayEquals(new long[]{900, 999}, StaticFileResponder.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, StaticFileResponder.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    void endBeyondLengthIsClamped() {
+        assertArrayEquals(new long[]{10, 999}, StaticFileResponder.parseRange("bytes=10-5000", 1000));
+    }
+
+    @Test
+    void unsatisfiableRangeReturnsNull() {
+        assertNull(StaticFileResponder.parseRange("bytes=1000-", 1000));
+        assertNull(StaticFileResponder.parseRange("bytes=50-10", 1000));
+    }
+
+    @Test
+    void multipleOrMalformedRangesAreIgnored() {
+        assertEquals(0, StaticFileResponder.parseRange("bytes=0-1,5-6", 1000).length);
+        assertEquals(0, StaticFileResponder.parseRange("items=0-1", 1000).length);
+        assertEquals(0, StaticFileResponder.parseRange("bytes=abc-", 1000).length);
+    }
+
+    @Test
+    void weakEtagDependsOnSizeAndDate() {
+        assertEquals(StaticFileResponder.weakEtag(10, 2000), StaticFileResponder.weakEtag(10, 2000));
+        assertNotEquals(StaticFileResponder.weakEtag(10, 2000), StaticFileResponder.weakEtag(11, 2000));
+        assertTrue(StaticFileResponder.weakEtag(10, 2000).startsWith("W/\""));
+    }
+}
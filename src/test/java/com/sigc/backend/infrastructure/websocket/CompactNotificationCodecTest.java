@@ -0,0 +1,68 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sigc.backend.dto.NotificacionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactNotificationCodecTest {
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+            .disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final CompactNotificationCodec codec = new CompactNotificationCodec();
+
+    private byte[] notificacion(String tipo) throws Exception {
+        return json.writeValueAsBytes(NotificacionDTO.builder()
+                .tipo(tipo).titulo("Nueva cita").prioridad("ALTA")
+                .timestamp(LocalDateTime.of(2026, 10, 19, 9, 30))
+                .build());
+    }
+
+    @Test
+    void cborReplacesEnumsAndTimestampWithNumbers() throws Exception {
+        byte[] original = notificacion("CITA_CREADA");
+        byte[] cbor = codec.encode(original, CompactNotificationCodec.Formato.CBOR);
+
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertEquals(CompactNotificationCodec.TIPOS.indexOf("CITA_CREADA"), decoded.get("tipo").asInt());
+        assertEquals(CompactNotificationCodec.PRIORIDADES.indexOf("ALTA"), decoded.get("prioridad").asInt());
+        long millis = LocalDateTime.of(2026, 10, 19, 9, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(millis, decoded.get("timestamp").asLong());
+        assertEquals("Nueva cita", decoded.get("titulo").asText());
+        assertTrue(cbor.length < original.length);
+    }
+
+    @Test
+    void unknownValuesStayAsText() throws Exception {
+        byte[] smile = codec.encode(notificacion("OTRO_TIPO"), CompactNotificationCodec.Formato.SMILE);
+
+        JsonNode decoded = new SmileMapper().readTree(smile);
+        assertEquals("OTRO_TIPO", decoded.get("tipo").asText());
+    }
+
+    @Test
+    void batchesAreCompactedElementByElement() throws Exception {
+        byte[] lote = ("[" + new String(notificacion("CITA_CREADA")) + "," + new String(notificacion("DOCTOR_ACTUALIZADO")) + "]")
+                .getBytes();
+
+        JsonNode decoded = new CBORMapper().readTree(codec.encode(lote, CompactNotificationCodec.Formato.CBOR));
+        assertEquals(2, decoded.size());
+        assertEquals(CompactNotificationCodec.TIPOS.indexOf("DOCTOR_ACTUALIZADO"), decoded.get(1).get("tipo").asInt());
+    }
+
+    @Test
+    void parsesAcceptedFormats() {
+        assertEquals(CompactNotificationCodec.Formato.CBOR, CompactNotificationCodec.Formato.parse(" application/cbor "));
+        assertEquals(CompactNotificationCodec.Formato.SMILE, CompactNotificationCodec.Formato.parse("smile"));
+        assertEquals(CompactNotificationCodec.Formato.SMILE,
+                CompactNotificationCodec.Formato.parse("application/x-jackson-smile;q=0.5"));
+        assertNull(CompactNotificationCodec.Formato.parse("application/json"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class NotificationCoalescerTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private TaskScheduler taskScheduler;
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        messagingTemplate = Mockito.mock(SimpMessagingTemplate.class);
+        taskScheduler = Mockito.mock(TaskScheduler.class);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(inv -> {
+            scheduled.add(inv.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    void burstWithinWindowIsSentAsOneArrayFrame() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(messagingTemplate, taskScheduler, 250, 100);
+        for (int i = 0; i < 40; i++) {
+            coalescer.submit("/topic/horarios", "cambio-" + i);
+        }
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/horarios"), frame.capture(), anyMap());
+        assertEquals(40, ((List<?>) frame.getValue()).size());
+        assertEquals(40L, coalescer.getStats().get("eventos"));
+        assertEquals(1L, coalescer.getStats().get("frames"));
+    }
+
+    @Test
+    void fullBatchIsSentImmediatelyAndStaleWindowIsIgnored() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(messagingTemplate, taskScheduler, 250, 3);
+        coalescer.submit("/topic/admin", "a");
+        coalescer.submit("/topic/admin", "b");
+        coalescer.submit("/topic/admin", "c");
+        verify(messagingTemplate).convertAndSend(eq("/topic/admin"), eq((Object) List.of("a", "b", "c")), anyMap());
+
+        coalescer.submit("/topic/admin", "d");
+        scheduled.get(0).run(); // ventana del lote ya enviado
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/admin"), eq((Object) "d"), anyMap());
+
+        scheduled.get(1).run();
+        verify(messagingTemplate).convertAndSend(eq("/topic/admin"), eq((Object) "d"), anyMap());
+    }
+
+    @Test
+    void destinationsAreBatchedSeparatelyAndSingletonsStayObjects() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(messagingTemplate, taskScheduler, 250, 50);
+        coalescer.submit("/topic/admin", "a");
+        coalescer.submit("/topic/horarios", "h");
+
+        scheduled.forEach(Runnable::run);
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/admin"), eq((Object) "a"), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/horarios"), eq((Object) "h"), anyMap());
+    }
+
+    @Test
+    void zeroWindowSendsImmediately() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(messagingTemplate, taskScheduler, 0, 50);
+        coalescer.submit("/topic/admin", "a");
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/admin"), eq((Object) "a"), anyMap());
+        verifyNoInteractions(taskScheduler);
+    }
+}
@@ -0,0 +1,123 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sigc.backend.domain.service.usecase.appointment.CreateAppointmentResponse;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.model.Doctor;
+import com.sigc.backend.model.Horario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Benchmark: bytes por notificación y CPU de serialización, JSON frente a CBOR/Smile compactos.
+ *
+ * No forma parte de la suite normal (el nombre no termina en Test). Ejecutar con:
+ * mvn test -Dtest=NotificationEncodingBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * - json: lo que hoy envía el conversor de Spring (ObjectMapper como el de Spring Boot)
+ * - cbor/smile: recodificación del JSON con CompactNotificationCodec, que es lo que hace
+ *   StompContentNegotiationInterceptor por payload (una vez por formato aunque haya N sesiones)
+ *
+ * El tiempo de cbor/smile es adicional al de json: el payload JSON se genera siempre.
+ */
+public class NotificationEncodingBenchmark {
+
+    private static final int ITERATIONS = 200_000;
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final CompactNotificationCodec codec = new CompactNotificationCodec();
+
+    @Test
+    void bytesAndCpuPerNotification() throws Exception {
+        System.out.printf("%n iteraciones=%d%n", ITERATIONS);
+        System.out.printf(" %-12s %8s %8s %8s %10s %10s %10s%n",
+                "notificación", "json(B)", "cbor(B)", "smile(B)", "json(ns)", "+cbor(ns)", "+smile(ns)");
+        measure("cita", cita());
+        measure("horario", horario());
+        measure("lote x20", List.of(cita(), cita(), cita(), cita(), cita(), cita(), cita(), cita(), cita(), cita(),
+                horario(), horario(), horario(), horario(), horario(), horario(), horario(), horario(), horario(), horario()));
+    }
+
+    private void measure(String nombre, Object notificacion) throws Exception {
+        byte[] payload = json.writeValueAsBytes(notificacion);
+        int cbor = codec.encode(payload, CompactNotificationCodec.Formato.CBOR).length;
+        int smile = codec.encode(payload, CompactNotificationCodec.Formato.SMILE).length;
+        int iterations = notificacion instanceof List<?> ? ITERATIONS / 20 : ITERATIONS;
+
+        long jsonNs = time(iterations, () -> json.writeValueAsBytes(notificacion));
+        long cborNs = time(iterations, () -> codec.encode(payload, CompactNotificationCodec.Formato.CBOR));
+        long smileNs = time(iterations, () -> codec.encode(payload, CompactNotificationCodec.Formato.SMILE));
+        System.out.printf(" %-12s %8d %8d %8d %10d %10d %10d%n",
+                nombre, payload.length, cbor, smile, jsonNs, cborNs, smileNs);
+    }
+
+    private interface Encoding {
+        Object run() throws Exception;
+    }
+
+    private static long time(int iterations, Encoding encoding) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < iterations / 4; i++) {
+            sink += encoding.run().hashCode(); // calentamiento
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += encoding.run().hashCode();
+        }
+        long nanos = (System.nanoTime() - start) / iterations;
+        if (sink == 42) System.out.print("");
+        return nanos;
+    }
+
+    /** Como NotificationService.notifyCitaCreada: datos = respuesta del caso de uso. */
+    private static NotificacionDTO cita() {
+        return NotificacionDTO.builder()
+                .tipo("CITA_CREADA")
+                .titulo("Nueva Cita Agendada")
+                .mensaje("Un paciente ha agendado una cita contigo")
+                .datos(new CreateAppointmentResponse(1523L, LocalDateTime.of(2026, 10, 21, 9, 30),
+                        "Control de presión arterial", 12L, 845L, "ACTIVA"))
+                .destinatarioId("12")
+                .secuencia(318L)
+                .prioridad("ALTA")
+                .url("/citas/1523")
+                .requiereAccion(true)
+                .build();
+    }
+
+    /** Como NotificationService.notifyHorarioChange: datos = entidad Horario con su Doctor. */
+    private static NotificacionDTO horario() {
+        Doctor doctor = new Doctor();
+        doctor.setIdDoctor(12L);
+        doctor.setNombre("Lucía");
+        doctor.setApellido("Fernández Rojas");
+        doctor.setTelefono("987654321");
+        doctor.setCorreo("lucia.fernandez@sigc.com");
+        doctor.setEspecialidad("Cardiología");
+        doctor.setCupoPacientes(20);
+        doctor.setImagen("3f2a9c1e7b5d4a60.webp");
+        Horario horario = new Horario();
+        horario.setIdHorario(9981L);
+        horario.setFecha(LocalDate.of(2026, 10, 21));
+        horario.setTurno("MAÑANA");
+        horario.setHoraInicio(LocalTime.of(9, 0));
+        horario.setHoraFin(LocalTime.of(9, 30));
+        horario.setDisponible(false);
+        horario.setDoctor(doctor);
+        return NotificacionDTO.builder()
+                .tipo("HORARIO_ACTUALIZADO")
+                .titulo("Cambio en Disponibilidad")
+                .mensaje("Horario reservado")
+                .datos(horario)
+                .prioridad("MEDIA")
+                .url("/horarios")
+                .requiereAccion(false)
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.domain.model.EventoNotificacion;
+import com.sigc.backend.domain.port.IEventoNotificacionRepository;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationRelayTest {
+
+    /** Tabla de eventos en memoria que permite simular confirmaciones fuera de orden. */
+    private final List<EventoNotificacion> tabla = new ArrayList<>();
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SimpUserRegistry userRegistry;
+    private NotificationCoalescer coalescer;
+    private NotificationOutboxService outboxService;
+    private IEventoNotificacionRepository repository;
+
+    @BeforeEach
+    void setup() {
+        messagingTemplate = Mockito.mock(SimpMessagingTemplate.class);
+        userRegistry = Mockito.mock(SimpUserRegistry.class);
+        coalescer = Mockito.mock(NotificationCoalescer.class);
+        outboxService = Mockito.mock(NotificationOutboxService.class);
+        repository = Mockito.mock(IEventoNotificacionRepository.class);
+        when(userRegistry.getUser("7")).thenReturn(Mockito.mock(SimpUser.class));
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findAfter(anyLong(), anyInt())).thenAnswer(inv -> {
+            long desde = inv.getArgument(0);
+            int limite = inv.getArgument(1);
+            return tabla.stream().filter(e -> e.id() > desde)
+                    .sorted((a, b) -> Long.compare(a.id(), b.id())).limit(limite).toList();
+        });
+    }
+
+    private NotificationRelay relay(boolean enabled) {
+        return new NotificationRelay(repository, messagingTemplate, userRegistry, coalescer, outboxService,
+                Mockito.mock(SseNotificationBroker.class), new ObjectMapper(), enabled, "B", 100, 10, 4, 10);
+    }
+
+    private void commit(long id, String nodo, String canal, String destino, String payload) {
+        tabla.add(new EventoNotificacion(id, nodo, canal, destino, payload, LocalDateTime.now()));
+    }
+
+    @Test
+    void remoteEventsAreRebroadcastOnTheirChannel() {
+        NotificationRelay relay = relay(true);
+        commit(1, "A", EventoNotificacion.CANAL_USUARIO, "7", "{\"secuencia\":5}");
+        commit(2, "A", EventoNotificacion.CANAL_USUARIO, "9", "{\"secuencia\":1}");
+        commit(3, "A", EventoNotificacion.CANAL_AGRUPADO, "/topic/admin", "{}");
+        commit(4, "A", EventoNotificacion.CANAL_TOPIC, "/topic/global", "{}");
+
+        relay.poll();
+
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq(NotificationService.USER_QUEUE), any(), anyMap());
+        // Usuario 9 no tiene sesiones en este nodo
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("9"), anyString(), any(), anyMap());
+        verify(coalescer).submit(eq("/topic/admin"), any());
+        verify(messagingTemplate).convertAndSend(eq("/topic/global"), any(Object.class), anyMap());
+        verify(outboxService).observe(7L, 5L);
+        verify(outboxService).observe(9L, 1L);
+    }
+
+    @Test
+    void ownEventsAndRereadEventsAreSkipped() {
+        NotificationRelay relay = relay(true);
+        commit(1, "B", EventoNotificacion.CANAL_TOPIC, "/topic/global", "{}");
+        commit(2, "A", EventoNotificacion.CANAL_TOPIC, "/topic/global", "{}");
+
+        relay.poll();
+        relay.poll();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/global"), any(Object.class), anyMap());
+        Map<String, Object> stats = relay.getStats();
+        assertEquals(1L, stats.get("recibidas"));
+        assertEquals(2L, stats.get("duplicadas"));
+    }
+
+    @Test
+    void lateCommitWithinLookbackIsDelivered() {
+        NotificationRelay relay = relay(true);
+        commit(1, "A", EventoNotificacion.CANAL_TOPIC, "/topic/uno", "{}");
+        commit(3, "A", EventoNotificacion.CANAL_TOPIC, "/topic/tres", "{}");
+        relay.poll();
+
+        // El ID 2 se asignó antes pero su transacción se confirma después
+        commit(2, "A", EventoNotificacion.CANAL_TOPIC, "/topic/dos", "{}");
+        relay.poll();
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/dos"), any(Object.class), anyMap());
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/tres"), any(Object.class), anyMap());
+    }
+
+    @Test
+    void fullPagesAreReadUntilCaughtUp() {
+        NotificationRelay relay = relay(true);
+        for (long id = 1; id <= 25; id++) {
+            commit(id, "A", EventoNotificacion.CANAL_TOPIC, "/topic/global", "{}");
+        }
+
+        relay.poll();
+
+        verify(messagingTemplate, times(25)).convertAndSend(eq("/topic/global"), any(Object.class), anyMap());
+        assertEquals(25L, relay.getStats().get("cursor"));
+    }
+
+    @Test
+    void localPublicationsAreWrittenInOneBatch() {
+        NotificationRelay relay = relay(true);
+        relay.publishToTopic("/topic/global", Map.of("a", 1));
+        relay.publishToUser("7", Map.of("b", 2));
+
+        relay.poll();
+
+        verify(repository, times(1)).appendAll(argThat(lote -> lote.size() == 2
+                && lote.stream().allMatch(e -> "B".equals(e.nodo()))));
+    }
+
+    @Test
+    void disabledRelayDoesNothing() {
+        NotificationRelay relay = relay(false);
+        relay.publishToTopic("/topic/global", Map.of());
+        relay.poll();
+        relay.purgeExpired();
+
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,197 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigc.backend.dto.NotificacionDTO;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundPriorityLanesTest {
+
+    private final MessageChannel channel = Mockito.mock(MessageChannel.class);
+    private final MessageHandler handler = Mockito.mock(MessageHandler.class);
+
+    @Test
+    void highPriorityOvertakesPendingLowPriority() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(0);
+        List<Message<?>> tokens = new ArrayList<>();
+        Message<byte[]> baja1 = message("s1", "/topic/admin", "BAJA", 10);
+        Message<byte[]> baja2 = message("s1", "/topic/admin", "BAJA", 10);
+        Message<byte[]> alta = message("s1", "/user/queue/notifications", "ALTA", 10);
+        tokens.add(lanes.preSend(baja1, channel));
+        tokens.add(lanes.preSend(baja2, channel));
+        tokens.add(lanes.preSend(alta, channel));
+
+        assertSame(alta, lanes.beforeHandle(tokens.get(0), channel, handler));
+        assertSame(baja1, lanes.beforeHandle(tokens.get(1), channel, handler));
+        assertSame(baja2, lanes.beforeHandle(tokens.get(2), channel, handler));
+        assertEquals(0, lanes.pendingSessions());
+    }
+
+    @Test
+    void sessionsHaveIndependentLanes() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(0);
+        Message<byte[]> baja = message("s1", "/topic/admin", "BAJA", 10);
+        Message<byte[]> alta = message("s2", "/topic/global", "ALTA", 10);
+        Message<?> tokenBaja = lanes.preSend(baja, channel);
+        Message<?> tokenAlta = lanes.preSend(alta, channel);
+
+        assertSame(baja, lanes.beforeHandle(tokenBaja, channel, handler));
+        assertSame(alta, lanes.beforeHandle(tokenAlta, channel, handler));
+    }
+
+    @Test
+    void lowPriorityIsCoalescedOrShedAboveWatermark() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(100);
+        Message<?> token = lanes.preSend(message("s1", "/topic/admin", "BAJA", 60), channel);
+        Message<byte[]> masReciente = message("s1", "/topic/admin", "BAJA", 60);
+
+        assertNull(lanes.preSend(masReciente, channel));
+        assertNull(lanes.preSend(message("s1", "/topic/horarios", "BAJA", 60), channel));
+        assertSame(masReciente, lanes.beforeHandle(token, channel, handler));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> baja = (Map<String, Object>) lanes.getStats().get("BAJA");
+        assertEquals(1L, baja.get("agrupados"));
+        assertEquals(1L, baja.get("descartados"));
+        assertEquals(1L, baja.get("entregados"));
+    }
+
+    @Test
+    void highPriorityEvictsOldestLowPriorityAboveWatermark() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(100);
+        Message<?> tokenBaja = lanes.preSend(message("s1", "/topic/admin", "BAJA", 60), channel);
+        Message<byte[]> alta = message("s1", "/user/queue/notifications", "ALTA", 60);
+        Message<?> tokenAlta = lanes.preSend(alta, channel);
+
+        assertSame(alta, lanes.beforeHandle(tokenBaja, channel, handler));
+        assertNull(lanes.beforeHandle(tokenAlta, channel, handler));
+        assertEquals(0, lanes.pendingSessions());
+    }
+
+    @Test
+    void personalFramesKeepSequenceOrderSoClientDedupDropsNothing() throws Exception {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(0);
+        List<Message<?>> tokens = new ArrayList<>();
+        tokens.add(lanes.preSend(personal("s1", 1, "BAJA"), channel));
+        tokens.add(lanes.preSend(message("s1", "/topic/horarios", "MEDIA", 10), channel));
+        tokens.add(lanes.preSend(personal("s1", 2, "ALTA"), channel));
+        tokens.add(lanes.preSend(personal("s1", 3, "MEDIA"), channel));
+
+        List<Long> secuencias = new ArrayList<>();
+        long ultima = 0;
+        ObjectMapper mapper = new ObjectMapper();
+        for (Message<?> token : tokens) {
+            Message<?> entregado = lanes.beforeHandle(token, channel, handler);
+            if (entregado.getPayload() instanceof byte[] json && json.length > 0 && json[0] == '{') {
+                long secuencia = mapper.readTree(json).path("secuencia").asLong();
+                // Cliente que descarta todo lo que no supera la última secuencia vista
+                if (secuencia > ultima) {
+                    secuencias.add(secuencia);
+                    ultima = secuencia;
+                }
+            }
+        }
+
+        // El ALTA (2) arrastra a la personal anterior (1) por delante de la difusión MEDIA
+        assertEquals(List.of(1L, 2L, 3L), secuencias);
+        assertEquals(0, lanes.pendingSessions());
+    }
+
+    @Test
+    void personalLowPriorityIsNeverCoalescedOrShed() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(100);
+        Message<?> primero = lanes.preSend(message("s1", "/user/queue/notifications", "BAJA", 60), channel);
+        Message<byte[]> segundo = message("s1", "/user/queue/notifications", "BAJA", 60);
+        Message<?> tokenSegundo = lanes.preSend(segundo, channel);
+
+        assertNotNull(tokenSegundo);
+        assertNotSame(segundo, lanes.beforeHandle(primero, channel, handler));
+        assertSame(segundo, lanes.beforeHandle(tokenSegundo, channel, handler));
+    }
+
+    @Test
+    void rejectedTokenDropsItsFrame() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(0);
+        Message<byte[]> media = message("s1", "/user/queue/notifications", "MEDIA", 10);
+        Message<?> tokenMedia = lanes.preSend(media, channel);
+        Message<?> tokenBaja = lanes.preSend(message("s1", "/topic/admin", "BAJA", 10), channel);
+
+        lanes.afterSendCompletion(tokenMedia, channel, true, null);
+        lanes.afterSendCompletion(tokenBaja, channel, false, new IllegalStateException("pool lleno"));
+
+        assertSame(media, lanes.beforeHandle(tokenMedia, channel, handler));
+        assertEquals(0, lanes.pendingSessions());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> baja = (Map<String, Object>) lanes.getStats().get("BAJA");
+        assertEquals(1L, baja.get("descartados"));
+    }
+
+    @Test
+    void rejectedTokenWhoseFrameWasAlreadyDeliveredDropsAnother() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(0);
+        Message<?> tokenBaja = lanes.preSend(message("s1", "/topic/admin", "BAJA", 10), channel);
+        Message<byte[]> alta = message("s1", "/user/queue/notifications", "ALTA", 10);
+        Message<?> tokenAlta = lanes.preSend(alta, channel);
+
+        assertSame(alta, lanes.beforeHandle(tokenBaja, channel, handler));
+        lanes.afterSendCompletion(tokenAlta, channel, false, null);
+
+        assertEquals(0, lanes.pendingSessions());
+    }
+
+    @Test
+    void nonMessageFramesPassThrough() {
+        OutboundPriorityLanes lanes = new OutboundPriorityLanes(100);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT);
+        accessor.setSessionId("s1");
+        Message<byte[]> heartbeat = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertSame(heartbeat, lanes.preSend(heartbeat, channel));
+        assertSame(heartbeat, lanes.beforeHandle(heartbeat, channel, handler));
+    }
+
+    @Test
+    void headersCarryHighestPriorityOfPayload() throws Exception {
+        NotificacionDTO alta = NotificacionDTO.builder().prioridad("ALTA").build();
+        NotificacionDTO baja = NotificacionDTO.builder().prioridad("BAJA").build();
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("ALTA", OutboundPriorityLanes.headers(alta).get(OutboundPriorityLanes.PRIORITY_HEADER));
+        assertEquals("ALTA", OutboundPriorityLanes.headers(List.of(baja, alta)).get(OutboundPriorityLanes.PRIORITY_HEADER));
+        assertEquals("BAJA", OutboundPriorityLanes.headers(
+                mapper.readTree("[{\"prioridad\":\"BAJA\"}]")).get(OutboundPriorityLanes.PRIORITY_HEADER));
+        assertEquals("MEDIA", OutboundPriorityLanes.headers("texto").get(OutboundPriorityLanes.PRIORITY_HEADER));
+    }
+
+    /** Como llega del SimpleBroker: destino resuelto por sesión y el original /user/... */
+    private static Message<byte[]> personal(String sessionId, long secuencia, String prioridad) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/queue/notifications-user" + sessionId);
+        accessor.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, "/user/queue/notifications");
+        accessor.setNativeHeader(OutboundPriorityLanes.PRIORITY_HEADER, prioridad);
+        byte[] json = ("{\"secuencia\":" + secuencia + "}").getBytes(StandardCharsets.UTF_8);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> message(String sessionId, String destination, String prioridad, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setNativeHeader(OutboundPriorityLanes.PRIORITY_HEADER, prioridad);
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,83 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.sigc.backend.shared.constant.AppConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PresenceRegistryTest {
+
+    @Test
+    void countsSessionsPerUserAndUsersPerRole() {
+        PresenceRegistry registry = new PresenceRegistry();
+        StompPrincipal doctor = new StompPrincipal(5, "doc@sigc.com", AppConstants.ROLE_DOCTOR, 0);
+
+        registry.onConnected(connected("s1", doctor));
+        registry.onConnected(connected("s2", doctor));
+        registry.onConnected(connected("s3", new StompPrincipal(9, "admin@sigc.com", AppConstants.ROLE_ADMIN, 0)));
+
+        assertTrue(registry.isOnline(5));
+        assertEquals(2, registry.sessionCount(5));
+        assertEquals(1, registry.onlineCount(AppConstants.ROLE_DOCTOR));
+        assertEquals(1, registry.onlineCount(AppConstants.ROLE_ADMIN));
+        assertEquals(2, registry.totalOnline());
+        assertEquals(List.of(new PresenceRegistry.Presencia(5, AppConstants.ROLE_DOCTOR, 2)),
+                registry.list(AppConstants.ROLE_DOCTOR));
+
+        registry.onDisconnected(disconnected("s1"));
+        assertTrue(registry.isOnline(5));
+        registry.onDisconnected(disconnected("s2"));
+        assertFalse(registry.isOnline(5));
+        assertEquals(0, registry.onlineCount(AppConstants.ROLE_DOCTOR));
+        assertEquals(1, registry.list(null).size());
+    }
+
+    @Test
+    void repeatedDisconnectEventsAreIgnored() {
+        PresenceRegistry registry = new PresenceRegistry();
+        StompPrincipal paciente = new StompPrincipal(3, "p@sigc.com", AppConstants.ROLE_PATIENT, 0);
+        registry.onConnected(connected("a", paciente));
+        registry.onConnected(connected("b", paciente));
+
+        registry.onDisconnected(disconnected("a"));
+        registry.onDisconnected(disconnected("a"));
+
+        assertEquals(1, registry.sessionCount(3));
+        assertEquals(1, registry.onlineCount(AppConstants.ROLE_PATIENT));
+    }
+
+    @Test
+    void sessionsWithoutStompPrincipalAreIgnored() {
+        PresenceRegistry registry = new PresenceRegistry();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId("x");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        registry.onConnected(new SessionConnectedEvent(this, message));
+
+        assertEquals(0, registry.totalOnline());
+    }
+
+    private static SessionConnectedEvent connected(String sessionId, StompPrincipal principal) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(principal);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionConnectedEvent(PresenceRegistryTest.class, message, principal);
+    }
+
+    private static SessionDisconnectEvent disconnected(String sessionId) {
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0],
+                SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT).getMessageHeaders());
+        return new SessionDisconnectEvent(PresenceRegistryTest.class, message, sessionId, CloseStatus.NORMAL);
+    }
+}
@@ -0,0 +1,126 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.sigc.backend.infrastructure.security.jwt.TokenVersionRegistry;
+import com.sigc.backend.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class StompAuthChannelInterceptorTest {
+
+    private JwtUtil jwtUtil;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private StompAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = Mockito.mock(JwtUtil.class);
+        tokenVersionRegistry = Mockito.mock(TokenVersionRegistry.class);
+        when(tokenVersionRegistry.isCurrent(anyLong(), anyLong())).thenReturn(true);
+        when(jwtUtil.parseAccessToken("paciente")).thenReturn(new JwtUtil.AccessToken(7L, "ana@sigc.com", "PACIENTE", 0));
+        when(jwtUtil.parseAccessToken("admin")).thenReturn(new JwtUtil.AccessToken(1L, "admin@sigc.com", "ADMIN", 0));
+        interceptor = new StompAuthChannelInterceptor(jwtUtil, tokenVersionRegistry);
+    }
+
+    @Test
+    void connectParsesTokenOnceAndCachesPrincipal() {
+        Message<?> result = interceptor.preSend(connect("s1", "paciente"), null);
+
+        StompPrincipal principal = interceptor.getPrincipal("s1");
+        assertEquals(7L, principal.userId());
+        assertEquals("7", principal.getName());
+        assertSame(principal, StompHeaderAccessor.wrap(result).getUser());
+        verify(jwtUtil, times(1)).parseAccessToken("paciente");
+        verifyNoMoreInteractions(jwtUtil);
+    }
+
+    @Test
+    void connectWithoutTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preSend(connect("s1", null), null));
+        assertEquals(0, interceptor.sessionCount());
+    }
+
+    @Test
+    void subscribeToOwnTopicUsesCacheWithoutReparsing() {
+        interceptor.preSend(connect("s1", "paciente"), null);
+
+        interceptor.preSend(subscribe("s1", "/topic/user/7"), null);
+        interceptor.preSend(subscribe("s1", "/topic/global"), null);
+
+        verify(jwtUtil, times(1)).parseAccessToken(any());
+    }
+
+    @Test
+    void subscribeToAnotherUsersTopicOrAdminTopicIsDenied() {
+        interceptor.preSend(connect("s1", "paciente"), null);
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe("s1", "/topic/user/8"), null));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe("s1", "/topic/user/7x"), null));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe("s1", "/topic/admin"), null));
+    }
+
+    @Test
+    void adminCanSubscribeToAdminTopic() {
+        interceptor.preSend(connect("s2", "admin"), null);
+        assertDoesNotThrow(() -> interceptor.preSend(subscribe("s2", "/topic/admin"), null));
+    }
+
+    @Test
+    void revokedSessionIsDroppedOnNextFrame() {
+        interceptor.preSend(connect("s1", "paciente"), null);
+        when(tokenVersionRegistry.isCurrent(7L, 0L)).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe("s1", "/topic/user/7"), null));
+        assertNull(interceptor.getPrincipal("s1"));
+    }
+
+    @Test
+    void disconnectRemovesSession() {
+        interceptor.preSend(connect("s1", "paciente"), null);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId("s1");
+
+        interceptor.preSend(message(accessor), null);
+
+        assertEquals(0, interceptor.sessionCount());
+    }
+
+    @Test
+    void ownIdComparisonParsesDigitsOnly() {
+        assertTrue(StompAuthChannelInterceptor.isOwnId("/topic/user/123", 12, 123));
+        assertFalse(StompAuthChannelInterceptor.isOwnId("/topic/user/", 12, 0));
+        assertFalse(StompAuthChannelInterceptor.isOwnId("/topic/user/-1", 12, 1));
+        assertFalse(StompAuthChannelInterceptor.isOwnId("/topic/user/99999999999999999999", 12, 1));
+    }
+
+    private static Message<byte[]> connect(String sessionId, String token) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        if (token != null) {
+            accessor.setNativeHeader("Authorization", "Bearer " + token);
+        }
+        return message(accessor);
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return message(accessor);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
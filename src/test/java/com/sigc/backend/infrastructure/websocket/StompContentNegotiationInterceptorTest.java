@@ -0,0 +1,103 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StompContentNegotiationInterceptorTest {
+
+    private static final byte[] JSON = "{\"tipo\":\"CITA_CREADA\",\"prioridad\":\"ALTA\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final StompContentNegotiationInterceptor interceptor =
+            new StompContentNegotiationInterceptor(new CompactNotificationCodec());
+    private final ChannelInterceptor inbound = interceptor.inbound();
+
+    private void connect(String sessionId, String accept, boolean binaryTransport) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        if (accept != null) {
+            accessor.setNativeHeader(StompContentNegotiationInterceptor.ACCEPT_CONTENT_HEADER, accept);
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        if (binaryTransport) {
+            attributes.put(StompContentNegotiationInterceptor.BINARY_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+        }
+        accessor.setSessionAttributes(attributes);
+        inbound.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private static Message<byte[]> message(String sessionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/admin");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    @Test
+    void binarySessionReceivesCompactOctetStreamFrames() throws Exception {
+        connect("s1", "application/cbor, application/x-jackson-smile;q=0.5", true);
+        assertNull(interceptor.getFormato("s2"));
+
+        Message<?> out = interceptor.preSend(message("s1", JSON), null);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(out);
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, accessor.getContentType());
+        assertEquals("cbor", accessor.getFirstNativeHeader(StompContentNegotiationInterceptor.CONTENT_ENCODING_HEADER));
+        assertEquals(0, new CBORMapper().readTree((byte[]) out.getPayload()).get("tipo").asInt());
+    }
+
+    @Test
+    void sockJsSessionsStayOnJson() {
+        connect("s1", "application/cbor", false);
+
+        Message<byte[]> original = message("s1", JSON);
+        assertSame(original, interceptor.preSend(original, null));
+    }
+
+    @Test
+    void jsonSessionsAreUntouched() {
+        connect("s1", "application/cbor", true);
+        connect("s2", null, true);
+
+        Message<byte[]> original = message("s2", JSON);
+        assertSame(original, interceptor.preSend(original, null));
+    }
+
+    @Test
+    void fanOutEncodesEachPayloadOnce() {
+        for (int i = 0; i < 5; i++) {
+            connect("s" + i, "application/cbor", true);
+        }
+        byte[] shared = JSON.clone();
+        Object first = interceptor.preSend(message("s0", shared), null).getPayload();
+        for (int i = 1; i < 5; i++) {
+            assertSame(first, interceptor.preSend(message("s" + i, shared), null).getPayload());
+        }
+        assertEquals(1L, interceptor.getStats().get("payloadsCodificados"));
+        assertEquals(4L, interceptor.getStats().get("payloadsReutilizados"));
+    }
+
+    @Test
+    void disconnectForgetsFormat() {
+        connect("s1", "application/cbor", true);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId("s1");
+        inbound.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+
+        assertNull(interceptor.getFormato("s1"));
+    }
+}
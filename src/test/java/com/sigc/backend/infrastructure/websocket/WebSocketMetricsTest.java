@@ -0,0 +1,49 @@
+package com.sigc.backend.infrastructure.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebSocketMetricsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsSessionsAndSlowConsumerDrops() throws Exception {
+        ObjectProvider<ThreadPoolTaskExecutor> none = Mockito.mock(ObjectProvider.class);
+        WebSocketMetrics metrics = new WebSocketMetrics(none, none);
+        WebSocketHandler handler = metrics.decorate(Mockito.mock(WebSocketHandler.class));
+        WebSocketSession session = Mockito.mock(WebSocketSession.class);
+
+        handler.afterConnectionEstablished(session);
+        handler.afterConnectionEstablished(session);
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        Map<String, Object> stats = metrics.getStats();
+        assertEquals(1, stats.get("sesionesActivas"));
+        assertEquals(2L, stats.get("sesionesAbiertasTotal"));
+        assertEquals(1L, stats.get("sesionesDescartadasPorLentitud"));
+    }
+
+    @Test
+    void executorStatsReportQueueDepth() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+        try {
+            Map<String, Object> stats = WebSocketMetrics.executorStats(executor);
+            assertEquals(0, stats.get("enCola"));
+            assertEquals(10, stats.get("capacidadCola"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
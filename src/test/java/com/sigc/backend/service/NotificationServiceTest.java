@@ -0,0 +1,110 @@
+package com.sigc.backend.service;
+
+import com.sigc.backend.application.service.NotificationOutboxService;
+import com.sigc.backend.dto.NotificacionDTO;
+import com.sigc.backend.infrastructure.sse.SseNotificationBroker;
+import com.sigc.backend.infrastructure.websocket.NotificationCoalescer;
+import com.sigc.backend.infrastructure.websocket.NotificationRelay;
+import com.sigc.backend.infrastructure.websocket.OutboundPriorityLanes;
+import com.sigc.backend.infrastructure.websocket.PresenceRegistry;
+import com.sigc.backend.shared.constant.AppConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationServiceTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private PresenceRegistry presence;
+    private NotificationCoalescer coalescer;
+    private NotificationOutboxService outboxService;
+    private NotificationRelay relay;
+    private SseNotificationBroker sseBroker;
+
+    @BeforeEach
+    void setup() {
+        messagingTemplate = Mockito.mock(SimpMessagingTemplate.class);
+        presence = Mockito.mock(PresenceRegistry.class);
+        coalescer = Mockito.mock(NotificationCoalescer.class);
+        outboxService = Mockito.mock(NotificationOutboxService.class);
+        relay = Mockito.mock(NotificationRelay.class);
+        sseBroker = Mockito.mock(SseNotificationBroker.class);
+        when(presence.isOnline(7L)).thenReturn(true);
+        when(presence.onlineCount(AppConstants.ROLE_ADMIN)).thenReturn(1);
+        when(presence.totalOnline()).thenReturn(2);
+    }
+
+    @Test
+    void connectedUserReceivesOnUserQueue() {
+        NotificationService service = new NotificationService(messagingTemplate, presence, coalescer, outboxService, relay, sseBroker, false);
+        NotificacionDTO notificacion = NotificacionDTO.builder().tipo("CITA_CREADA").build();
+
+        service.notifyUser("7", notificacion);
+
+        verify(messagingTemplate).convertAndSendToUser("7", NotificationService.USER_QUEUE, notificacion,
+                OutboundPriorityLanes.headers(notificacion));
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class), anyMap());
+        assertEquals("7", notificacion.getDestinatarioId());
+        assertNotNull(notificacion.getTimestamp());
+    }
+
+    @Test
+    void offlineUserIsStoredInOutboxAndRelayedToOtherNodes() {
+        NotificationService service = new NotificationService(messagingTemplate, presence, coalescer, outboxService, relay, sseBroker, false);
+
+        NotificacionDTO notificacion = NotificacionDTO.builder().tipo("CITA_CREADA").build();
+        service.notifyUser("8", notificacion);
+
+        verifyNoInteractions(messagingTemplate);
+        verify(outboxService).append(8L, notificacion);
+        verify(relay).publishToUser("8", notificacion);
+        verify(sseBroker).publishToUser("8", notificacion);
+    }
+
+    @Test
+    void legacyTopicIsPublishedWhenEnabled() {
+        NotificationService service = new NotificationService(messagingTemplate, presence, coalescer, outboxService, relay, sseBroker, true);
+        NotificacionDTO notificacion = NotificacionDTO.builder().tipo("CITA_CREADA").build();
+
+        service.notifyUser("8", notificacion);
+
+        verify(messagingTemplate).convertAndSend("/topic/user/8", notificacion);
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    @Test
+    void adminAndScheduleBroadcastsGoThroughCoalescer() {
+        NotificationService service = new NotificationService(messagingTemplate, presence, coalescer, outboxService, relay, sseBroker, false);
+
+        service.notifyHorarioChange("3", "Nuevo horario", null);
+        service.notifyDoctorUpdate("3", "Foto actualizada", null);
+
+        verify(coalescer).submit(eq("/topic/horarios"), any(NotificacionDTO.class));
+        verify(coalescer).submit(eq("/topic/admin"), any(NotificacionDTO.class));
+        verify(relay).publishCoalesced(eq("/topic/horarios"), any(NotificacionDTO.class));
+        verify(relay).publishCoalesced(eq("/topic/admin"), any(NotificacionDTO.class));
+        verify(sseBroker).publishTopic(eq("/topic/horarios"), any(NotificacionDTO.class));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void broadcastsWithoutConnectedAudienceAreNotSerialized() {
+        when(presence.onlineCount(AppConstants.ROLE_ADMIN)).thenReturn(0);
+        when(presence.totalOnline()).thenReturn(0);
+        NotificationService service = new NotificationService(messagingTemplate, presence, coalescer, outboxService, relay, sseBroker, false);
+
+        service.notifyDoctorUpdate("3", "Foto actualizada", null);
+        service.notifyHorarioChange("3", "Nuevo horario", null);
+        service.notifyAll(NotificacionDTO.builder().tipo("AVISO").build());
+
+        verifyNoInteractions(coalescer, messagingTemplate);
+        verify(relay).publishCoalesced(eq("/topic/admin"), any(NotificacionDTO.class));
+        verify(relay).publishToTopic(eq("/topic/global"), any(NotificacionDTO.class));
+        verify(sseBroker).publishTopic(eq("/topic/horarios"), any(NotificacionDTO.class));
+    }
+}
@@ -0,0 +1,162 @@
+package com.sigc.backend.service;
+
+import com.sigc.backend.infrastructure.websocket.StompPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark: coste de enviar una notificación personal frente al número de usuarios conectados.
+ *
+ * No forma parte de la suite normal (el nombre no termina en Test). Ejecutar con:
+ * mvn test -Dtest=UserNotificationRoutingBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * Compara, sobre el SimpleBroker real de Spring y con una sesión por usuario:
+ * - topic: cada usuario suscrito a /topic/user/{id}, envío a /topic/user/{id}
+ * - user: cada usuario suscrito a /user/queue/notifications, envío con el destino
+ *   /user/{id}/queue/notifications resuelto por SimpUserRegistry
+ * - user+caché: igual, con la caché de destinos del broker dimensionada a las sesiones
+ *   (app.websocket.broker-cache-limit); con la caché por defecto (1024) cada envío a un
+ *   destino no cacheado recorre todas las suscripciones
+ * - offline: envío a un usuario sin sesiones, que NotificationService descarta en la
+ *   consulta al registro (aquí se mide solo esa consulta)
+ */
+public class UserNotificationRoutingBenchmark {
+
+    private static final int SENDS = 20_000;
+    /** Caché de destinos por defecto del SimpleBroker */
+    private static final int DEFAULT_CACHE_LIMIT = 1024;
+    private static final byte[] PAYLOAD = "{\"tipo\":\"CITA_CREADA\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void sendCostByConnectedUsers() {
+        System.out.printf("%n envíos=%d por medida%n", SENDS);
+        System.out.printf(" %8s %12s %12s %16s %12s%n", "usuarios", "topic(ns)", "user(ns)", "user+caché(ns)", "offline(ns)");
+        for (int users : List.of(100, 1_000, 5_000, 20_000)) {
+            System.out.printf(" %8d %12d %12d %16d %12d%n", users, topicModel(users), userModel(users, DEFAULT_CACHE_LIMIT),
+                    userModel(users, users * 2), offlineLookup(users));
+        }
+    }
+
+    private long topicModel(int users) {
+        AtomicLong delivered = new AtomicLong();
+        SimpleBrokerMessageHandler broker = broker(delivered, new ExecutorSubscribableChannel(), DEFAULT_CACHE_LIMIT);
+        for (int i = 0; i < users; i++) {
+            broker.handleMessage(connect("s" + i));
+            broker.handleMessage(subscribe("s" + i, "/topic/user/" + i));
+        }
+        delivered.set(0);
+        long nanos = measure(users, id -> broker.handleMessage(send("/topic/user/" + id)));
+        broker.stop();
+        check(delivered);
+        return nanos;
+    }
+
+    private long userModel(int users, int cacheLimit) {
+        AtomicLong delivered = new AtomicLong();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        SimpleBrokerMessageHandler broker = broker(delivered, brokerChannel, cacheLimit);
+        DefaultSimpUserRegistry registry = connectedRegistry(users);
+        UserDestinationMessageHandler userHandler = new UserDestinationMessageHandler(
+                new ExecutorSubscribableChannel(), brokerChannel, new DefaultUserDestinationResolver(registry));
+        userHandler.start();
+        for (int i = 0; i < users; i++) {
+            broker.handleMessage(connect("s" + i));
+            // Lo que el resolver hace con el SUBSCRIBE a /user/queue/notifications de la sesión
+            broker.handleMessage(subscribe("s" + i, NotificationService.USER_QUEUE + "-users" + i));
+        }
+        delivered.set(0);
+        long nanos = measure(users, id -> userHandler.handleMessage(send("/user/" + id + NotificationService.USER_QUEUE)));
+        userHandler.stop();
+        broker.stop();
+        check(delivered);
+        return nanos;
+    }
+
+    private long offlineLookup(int users) {
+        DefaultSimpUserRegistry registry = connectedRegistry(users);
+        AtomicLong found = new AtomicLong();
+        long nanos = measure(users, id -> {
+            if (registry.getUser(Integer.toString(users + id)) != null) found.incrementAndGet();
+        });
+        if (found.get() != 0) throw new IllegalStateException("usuario offline encontrado");
+        return nanos;
+    }
+
+    private static long measure(int users, java.util.function.IntConsumer send) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < Math.max(users, SENDS / 5); i++) {
+            send.accept(i % users); // calentamiento: un envío a cada usuario
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SENDS; i++) {
+            send.accept(random.nextInt(users));
+        }
+        return (System.nanoTime() - start) / SENDS;
+    }
+
+    private static DefaultSimpUserRegistry connectedRegistry(int users) {
+        DefaultSimpUserRegistry registry = new DefaultSimpUserRegistry();
+        for (int i = 0; i < users; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+            accessor.setSessionId("s" + i);
+            Message<byte[]> connected = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+            registry.onApplicationEvent(new SessionConnectedEvent(registry, connected,
+                    new StompPrincipal(i, "u" + i + "@sigc.com", "PACIENTE", 0)));
+        }
+        return registry;
+    }
+
+    private static SimpleBrokerMessageHandler broker(AtomicLong delivered, ExecutorSubscribableChannel brokerChannel,
+                                                     int cacheLimit) {
+        MessageChannel clientOutbound = (message, timeout) -> {
+            delivered.incrementAndGet();
+            return true;
+        };
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(),
+                clientOutbound, brokerChannel, List.of("/topic", "/queue"));
+        broker.setCacheLimit(cacheLimit);
+        broker.start();
+        return broker;
+    }
+
+    private static void check(AtomicLong delivered) {
+        if (delivered.get() < SENDS) {
+            throw new IllegalStateException("solo se entregaron " + delivered.get() + " mensajes");
+        }
+    }
+
+    private static Message<byte[]> connect(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> send(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(PAYLOAD, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,91 @@
+package com.sigc.backend.shared.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEachTimerAtItsTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, 0);
+        wheel.schedule(30, "a");
+        wheel.schedule(15, "b");
+        List<String> fired = new ArrayList<>();
+
+        assertEquals(0, wheel.advance(10, fired::add));
+        assertEquals(1, wheel.advance(20, fired::add));
+        assertEquals(1, wheel.advance(30, fired::add));
+        assertEquals(List.of("b", "a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersOnUpperLevelsCascadeDown() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 4, 3, 3);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long deadline = 4 + random.nextInt(60);
+            deadlines.add(deadline);
+            assertNotNull(wheel.schedule(deadline, deadline));
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 4; now <= 66; now++) {
+            long tick = now;
+            wheel.advance(now, d -> {
+                assertEquals(tick, d.longValue());
+                fired.add(d);
+            });
+        }
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void largeJumpFiresEverythingDueInOrder() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 64, 3, 0);
+        wheel.schedule(3_600_000, 2);
+        wheel.schedule(60_000, 1);
+        wheel.schedule(86_400_000, 3);
+        List<Integer> fired = new ArrayList<>();
+
+        wheel.advance(4_000_000, fired::add);
+
+        assertEquals(List.of(1, 2), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 8, 2, 0);
+        HierarchicalTimingWheel.Entry<String> lejano = wheel.schedule(40, "lejano");
+        HierarchicalTimingWheel.Entry<String> cercano = wheel.schedule(3, "cercano");
+        wheel.schedule(5, "queda");
+
+        assertTrue(wheel.cancel(lejano));
+        assertTrue(wheel.cancel(cercano));
+        assertFalse(wheel.cancel(cercano));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(64, fired::add);
+        assertEquals(List.of("queda"), fired);
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvanceAndFarOnesAreRejected() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 4, 2, 100);
+        wheel.schedule(50, "vencido");
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(100, fired::add);
+        assertEquals(List.of("vencido"), fired);
+        assertNull(wheel.schedule(100 + wheel.spanMs(), "fuera"));
+        assertNotNull(wheel.schedule(100 + wheel.spanMs() - 1, "dentro"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.sigc.backend.shared.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void addAndContains() {
+        LongHashSet set = new LongHashSet(4);
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-7));
+        assertTrue(set.contains(42));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(43));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void growsBeyondInitialCapacityAndMatchesHashSet() {
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long v = random.nextLong() % 5_000;
+            assertEquals(reference.add(v), set.add(v));
+        }
+        assertEquals(reference.size(), set.size());
+        for (long v = -5_000; v < 5_000; v++) {
+            assertEquals(reference.contains(v), set.contains(v));
+        }
+    }
+}
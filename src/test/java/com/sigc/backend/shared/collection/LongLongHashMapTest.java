@@ -0,0 +1,69 @@
+package com.sigc.backend.shared.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongHashMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        map.put(7, 1);
+        map.put(7, 2);
+        map.put(0, 9);
+
+        assertEquals(2, map.get(7, -1));
+        assertEquals(9, map.get(0, -1));
+        assertEquals(-1, map.get(8, -1));
+        assertTrue(map.containsKey(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void growsKeepingAllEntries() {
+        LongLongHashMap map = new LongLongHashMap(2);
+        for (long i = 1; i <= 10_000; i++) {
+            map.put(i * 31, i);
+        }
+        assertEquals(10_000, map.size());
+        for (long i = 1; i <= 10_000; i++) {
+            assertEquals(i, map.get(i * 31, -1));
+        }
+    }
+
+    @Test
+    void removeKeepsCollidingEntriesReachable() {
+        LongLongHashMap map = new LongLongHashMap(2);
+        for (long i = 1; i <= 2_000; i++) {
+            map.put(i, i * 10);
+        }
+        for (long i = 1; i <= 2_000; i += 2) {
+            assertTrue(map.remove(i));
+        }
+        assertFalse(map.remove(1));
+        assertEquals(1_000, map.size());
+        for (long i = 1; i <= 2_000; i++) {
+            assertEquals(i % 2 == 0 ? i * 10 : -1, map.get(i, -1));
+        }
+
+        map.put(0, 5);
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    void forEachVisitsEveryEntry() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        map.put(0, 1);
+        map.put(3, 2);
+        map.put(99, 3);
+        long[] sum = new long[2];
+        map.forEach((key, value) -> {
+            sum[0] += key;
+            sum[1] += value;
+        });
+        assertEquals(102, sum[0]);
+        assertEquals(6, sum[1]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sigc.backend.shared.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLongLongMapTest {
+
+    @Test
+    void updateReturnsNewOrPreviousValue() {
+        StripedLongLongMap map = new StripedLongLongMap();
+
+        assertEquals(-1, map.getAndUpdate(5, -1, v -> 10));
+        assertEquals(11, map.updateAndGet(5, -1, v -> v + 1));
+        assertEquals(11, map.get(5, -1));
+        assertEquals(-1, map.get(6, -1));
+    }
+
+    @Test
+    void returningMissingRemovesTheEntry() {
+        StripedLongLongMap map = new StripedLongLongMap(4, 4);
+        map.put(1, 3);
+        map.put(2, 4);
+
+        assertEquals(3, map.getAndUpdate(1, 0, v -> 0));
+        assertEquals(1, map.size());
+        assertFalse(map.remove(1));
+        assertTrue(map.remove(2));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void forEachVisitsEveryStripe() {
+        StripedLongLongMap map = new StripedLongLongMap(8, 4);
+        for (long id = 1; id <= 100; id++) {
+            map.put(id, id * 2);
+        }
+        List<Long> keys = new ArrayList<>();
+        map.forEach((key, value) -> {
+            assertEquals(key * 2, value);
+            keys.add(key);
+        });
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    void concurrentUpdatesAreAtomicPerKey() throws Exception {
+        StripedLongLongMap map = new StripedLongLongMap();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    map.updateAndGet(i % 50, 0, v -> v + 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long key = 0; key < 50; key++) {
+            assertEquals(800, map.get(key, 0));
+        }
+    }
+
+    @Test
+    void stripeCountMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLongLongMap(12, 4));
+    }
+}
@@ -0,0 +1,31 @@
+package com.sigc.backend.shared.value;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTest {
+
+    @Test
+    void canonicalFormIsTrimmedAndLowercase() {
+        assertEquals("ana.perez@sigc.com", Email.canonicalize("  Ana.Perez@SIGC.com "));
+        assertNull(Email.canonicalize(null));
+        assertEquals("ana.perez@sigc.com", Email.of("Ana.Perez@Sigc.com").getCanonical());
+    }
+
+    @Test
+    void keepsOriginalCaseButComparesCanonically() {
+        Email a = Email.of("Ana@Sigc.com");
+        Email b = Email.of(" ana@sigc.COM ");
+
+        assertEquals("Ana@Sigc.com", a.getValue());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void rejectsInvalidEmails() {
+        assertThrows(IllegalArgumentException.class, () -> Email.of("sin-arroba"));
+        assertThrows(IllegalArgumentException.class, () -> Email.of(" "));
+    }
+}